@@ -0,0 +1,52 @@
+package benchmarks;
+
+import almacenamiento.UnidadDeAlmacenamiento;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lectura de programas del disco (UnidadDeAlmacenamiento.leerPrograma) con
+ * varios programas guardados
+ *
+ * @author dylan
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AlmacenamientoBenchmark {
+
+    private static final int PROGRAMAS = 8;
+
+    @Param({"16", "256", "2048"})
+    int instrucciones;
+
+    private UnidadDeAlmacenamiento disco;
+
+    @Setup
+    public void guardar() {
+        // Directorio + datos de cada programa
+        disco = new UnidadDeAlmacenamiento(PROGRAMAS * (instrucciones + 1) + 16, 0);
+        for (int i = 0; i < PROGRAMAS; i++) {
+            disco.agregarPrograma("prog" + i, CargasGeneradas.programa(instrucciones, CargasGeneradas.SEMILLA + i));
+        }
+    }
+
+    @Benchmark
+    public List<String> leerPrograma() {
+        return disco.leerPrograma("prog" + (PROGRAMAS - 1));
+    }
+}
@@ -0,0 +1,67 @@
+package benchmarks;
+
+import almacenamiento.UnidadDeAlmacenamiento;
+import cpu.CPU;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import memoria.MemoriaPrincipal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import procesos.BCP;
+import procesos.Planificador;
+
+/**
+ * Ciclo fetch-decode-execute de un núcleo (CPU.ejecutarCiclo) sobre un
+ * programa generado que no termina, con memoria contigua o paginada
+ *
+ * @author gadyr
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CPUBenchmark {
+
+    /** Instrucciones del programa (incluye el JMP que vuelve al inicio) */
+    @Param({"8", "64", "512"})
+    int instrucciones;
+
+    /** 0 = programa contiguo */
+    @Param({"0", "16"})
+    int tamanioPagina;
+
+    private CPU cpu;
+
+    @Setup
+    public void cargar() {
+        List<String> programa = CargasGeneradas.bucle(instrucciones, CargasGeneradas.SEMILLA);
+        UnidadDeAlmacenamiento disco = new UnidadDeAlmacenamiento(instrucciones + 64, 0);
+        disco.agregarPrograma("bucle", programa);
+
+        int tamanioSO = 64;
+        MemoriaPrincipal memoria = new MemoriaPrincipal(tamanioSO + instrucciones + 16, tamanioSO, tamanioPagina);
+        Planificador planificador = new Planificador(1);
+        cpu = new CPU(0, memoria, planificador, disco, null);
+        planificador.setGuardadoContexto((slot, proceso) -> cpu.guardarContexto(proceso));
+
+        planificador.agregarProcesoListo(new BCP("bucle", -1, programa.size(), 1));
+        planificador.despacharProcesos();
+        cpu.ejecutarCiclo(); // carga el programa desde el disco
+    }
+
+    @Benchmark
+    public boolean ejecutarCiclo() {
+        return cpu.ejecutarCiclo();
+    }
+}
@@ -0,0 +1,79 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Programas ASM generados para los benchmarks. Con la misma semilla se
+ * genera siempre el mismo programa, así las corridas se pueden comparar.
+ *
+ * @author dylan
+ */
+final class CargasGeneradas {
+
+    static final long SEMILLA = 42;
+
+    private static final String[] REGISTROS = {"AX", "BX", "CX", "DX"};
+
+    private CargasGeneradas() {
+    }
+
+    /**
+     * Programa que termina: instrucciones variadas y al final INT 20H
+     *
+     * @param instrucciones cantidad de líneas (incluye el INT 20H)
+     */
+    static List<String> programa(int instrucciones, long semilla) {
+        List<String> lineas = cuerpo(instrucciones - 1, new Random(semilla));
+        lineas.add("INT 20H");
+        return lineas;
+    }
+
+    /**
+     * Programa que no termina: el cuerpo se repite con un JMP al inicio. La
+     * pila queda igual en cada vuelta.
+     *
+     * @param instrucciones cantidad de líneas (incluye el JMP)
+     */
+    static List<String> bucle(int instrucciones, long semilla) {
+        List<String> lineas = cuerpo(instrucciones - 1, new Random(semilla));
+        lineas.add("JMP -" + lineas.size());
+        return lineas;
+    }
+
+    /**
+     * Líneas sin saltos ni interrupciones. PUSH/POP y PARAM van siempre con
+     * sus POP, así que la pila nunca se desborda.
+     */
+    private static List<String> cuerpo(int instrucciones, Random azar) {
+        List<String> lineas = new ArrayList<>(instrucciones + 1);
+        while (lineas.size() < instrucciones) {
+            String a = REGISTROS[azar.nextInt(REGISTROS.length)];
+            String b = REGISTROS[azar.nextInt(REGISTROS.length)];
+            int libres = instrucciones - lineas.size();
+            int opcion = azar.nextInt(libres >= 3 ? 10 : 8);
+            switch (opcion) {
+                case 0: lineas.add("MOV " + a + ", " + azar.nextInt(100)); break;
+                case 1: lineas.add("MOV " + a + ", " + b); break;
+                case 2: lineas.add("ADD " + a); break;
+                case 3: lineas.add("SUB " + a); break;
+                case 4: lineas.add("INC " + a); break;
+                case 5: lineas.add("DEC " + a); break;
+                case 6: lineas.add("CMP " + a + ", " + b); break;
+                case 7: lineas.add(azar.nextBoolean() ? "LOAD " + a : "SWAP " + a + ", " + b); break;
+                case 8:
+                    lineas.add("PUSH " + a);
+                    lineas.add("MOV " + a + ", " + azar.nextInt(100));
+                    lineas.add("POP " + b);
+                    break;
+                default:
+                    lineas.add("PARAM " + azar.nextInt(10) + ", " + azar.nextInt(10));
+                    lineas.add("POP " + a);
+                    lineas.add("POP " + b);
+                    break;
+            }
+        }
+        return lineas;
+    }
+}
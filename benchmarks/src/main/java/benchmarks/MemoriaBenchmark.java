@@ -0,0 +1,82 @@
+package benchmarks;
+
+import instrucciones.Instruccion;
+import instrucciones.InstructionParser;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import memoria.MemoriaPrincipal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import procesos.BCP;
+
+/**
+ * Carga y lectura de programas en MemoriaPrincipal: cargar y liberar un
+ * programa completo, y leer todas sus palabras
+ *
+ * @author dylan
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MemoriaBenchmark {
+
+    @Param({"16", "256", "2048"})
+    int instrucciones;
+
+    /** 0 = programa contiguo */
+    @Param({"0", "16"})
+    int tamanioPagina;
+
+    private MemoriaPrincipal memoria;
+    private List<Instruccion> programa;
+    private BCP cargado;
+    private int[] direcciones; // dirección física de cada palabra de cargado
+
+    @Setup
+    public void cargar() {
+        programa = InstructionParser.parseAll(CargasGeneradas.programa(instrucciones, CargasGeneradas.SEMILLA));
+        int tamanioSO = 64;
+        // Lugar para dos copias: una fija para leer y otra que se carga y libera
+        memoria = new MemoriaPrincipal(tamanioSO + 2 * instrucciones + 32, tamanioSO, tamanioPagina);
+
+        cargado = new BCP("leido", -1, instrucciones, 1);
+        int base = memoria.cargarProgramaProceso(cargado, programa);
+        cargado.setDireccionBase(base);
+        direcciones = new int[instrucciones];
+        for (int logica = 0; logica < instrucciones; logica++) {
+            direcciones[logica] = cargado.getTablaPaginas() == null ? base + logica
+                    : memoria.direccionMarco(cargado.getTablaPaginas().getMarco(logica / tamanioPagina))
+                      + logica % tamanioPagina;
+        }
+    }
+
+    @Benchmark
+    public int cargarYLiberar() {
+        BCP bcp = new BCP("cargado", -1, instrucciones, 1);
+        int base = memoria.cargarProgramaProceso(bcp, programa);
+        bcp.setDireccionBase(base);
+        memoria.liberarPrograma(bcp);
+        return base;
+    }
+
+    @Benchmark
+    public int leerPrograma() {
+        int suma = 0;
+        for (int direccion : direcciones) {
+            suma += memoria.leerPalabraUsuario(direccion);
+        }
+        return suma;
+    }
+}
@@ -0,0 +1,94 @@
+package benchmarks;
+
+import bitacora.Bitacora;
+import bitacora.Nivel;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import sistema.GestorSistema;
+
+/**
+ * Ejecución completa de una carga fija (GestorSistema.ejecutarSinInterfaz)
+ * con 1 a 5 núcleos: cada operación corre los mismos programas hasta que
+ * todos terminan, así que las operaciones por segundo muestran cuánto
+ * escala el simulador al agregar núcleos.
+ *
+ * @author dylan
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NucleosBenchmark {
+
+    private static final int PROGRAMAS = 10;
+
+    @Param({"1", "2", "3", "4", "5"})
+    int nucleos;
+
+    /** Vueltas del bucle de cada programa (unas 3 instrucciones por vuelta) */
+    @Param({"2000"})
+    int vueltas;
+
+    private Path directorio;
+    private File[] archivos;
+    private GestorSistema gestor;
+
+    @Setup(Level.Trial)
+    public void escribir() throws IOException {
+        Bitacora.global().setNivel(Nivel.NINGUNO);
+        directorio = Files.createTempDirectory("nucleos");
+        archivos = new File[PROGRAMAS];
+        for (int i = 0; i < PROGRAMAS; i++) {
+            Path archivo = directorio.resolve("prog" + i + ".asm");
+            Files.write(archivo, List.of(
+                    "MOV CX, " + (vueltas + i),
+                    "MOV AX, 0",
+                    "INC AX",
+                    "CMP AX, CX",
+                    "JNE -2",
+                    "INT 20H"));
+            archivos[i] = archivo.toFile();
+        }
+        gestor = new GestorSistema(2048, 150, 4096, 45, nucleos);
+    }
+
+    @Setup(Level.Invocation)
+    public void cargar() {
+        // Disco, colas y PID vuelven a empezar; los programas se leen de nuevo
+        gestor.limpiarSistema();
+        gestor.setGradoMultiprogramacion(PROGRAMAS);
+        gestor.cargarProgramas(archivos);
+    }
+
+    @Benchmark
+    public long ejecutar() {
+        return gestor.ejecutarSinInterfaz(Long.MAX_VALUE);
+    }
+
+    @TearDown(Level.Trial)
+    public void borrar() throws IOException {
+        for (File archivo : archivos) {
+            Files.deleteIfExists(archivo.toPath());
+        }
+        Files.deleteIfExists(directorio);
+    }
+}
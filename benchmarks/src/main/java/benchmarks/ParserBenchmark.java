@@ -0,0 +1,46 @@
+package benchmarks;
+
+import instrucciones.Instruccion;
+import instrucciones.InstructionParser;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parseo de programas ASM generados (InstructionParser.parseAll)
+ *
+ * @author dylan
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+
+    @Param({"16", "256", "4096"})
+    int instrucciones;
+
+    private List<String> lineas;
+
+    @Setup
+    public void generar() {
+        lineas = CargasGeneradas.programa(instrucciones, CargasGeneradas.SEMILLA);
+    }
+
+    @Benchmark
+    public List<Instruccion> parseAll() {
+        return InstructionParser.parseAll(lineas);
+    }
+}
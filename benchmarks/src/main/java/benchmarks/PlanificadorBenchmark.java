@@ -0,0 +1,70 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import procesos.BCP;
+import procesos.Planificador;
+import procesos.TipoPolitica;
+import sistema.RelojVirtual;
+
+/**
+ * Despacho del planificador de corto plazo: en cada operación los procesos
+ * en CPU ejecutan una instrucción y se vuelve a despachar. Los procesos no
+ * terminan, así que la cola mantiene su tamaño.
+ *
+ * @author dylan
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlanificadorBenchmark {
+
+    private static final int CPUS = 4;
+
+    @Param({"8", "64", "512"})
+    int procesos;
+
+    @Param({"FIFO", "ROUND_ROBIN", "SRT", "HRRN", "PRIORIDAD"})
+    TipoPolitica politica;
+
+    private RelojVirtual reloj;
+    private Planificador planificador;
+
+    @Setup
+    public void crear() {
+        BCP.reiniciarContadorPID();
+        reloj = new RelojVirtual();
+        planificador = new Planificador(CPUS, politica.crear(1), reloj);
+        for (int i = 0; i < procesos; i++) {
+            BCP bcp = new BCP("p" + i, 0, 100, i % 4);
+            bcp.setCostoEstimado(Long.MAX_VALUE / 2 - i);
+            planificador.agregarProcesoListo(bcp);
+        }
+    }
+
+    @Benchmark
+    public BCP despachar() {
+        planificador.despacharProcesos();
+        for (int cpu = 0; cpu < CPUS; cpu++) {
+            BCP proceso = planificador.getProcesoCPU(cpu);
+            if (proceso != null) {
+                proceso.registrarEjecucion(1);
+            }
+        }
+        reloj.avanzar(1);
+        return planificador.getProcesoCPU(0);
+    }
+}
@@ -0,0 +1,36 @@
+package almacenamiento;
+
+/**
+ * Entrada del directorio del disco: dónde está guardado un programa.
+ *
+ * @author dylan y gadyr
+ */
+public final class EntradaDirectorio {
+
+    private final String nombre;
+    private final int celda;    // celda del disco con el registro "nombre;inicio;longitud"
+    private final int inicio;   // primera celda del programa
+    private final int longitud; // cantidad de líneas
+
+    EntradaDirectorio(String nombre, int celda, int inicio, int longitud) {
+        this.nombre = nombre;
+        this.celda = celda;
+        this.inicio = inicio;
+        this.longitud = longitud;
+    }
+
+    public String getNombre() { return nombre; }
+    public int getCelda() { return celda; }
+    public int getInicio() { return inicio; }
+    public int getLongitud() { return longitud; }
+
+    /** Texto que se guarda en la celda de directorio */
+    String aCelda() {
+        return nombre + ";" + inicio + ";" + longitud;
+    }
+
+    @Override
+    public String toString() {
+        return aCelda();
+    }
+}
@@ -1,122 +1,497 @@
 package almacenamiento;
 
+import bitacora.Bitacora;
+import bitacora.Nivel;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Unidad de Almacenamiento (simula el disco)
  * Guarda programas como texto ASM, sin parsear.
+ * Cada programa ocupa una celda de directorio ("nombre;inicio;longitud") y un
+ * bloque contiguo de líneas. Un índice por nombre y un mapa de bits de celdas
+ * ocupadas permiten buscar en O(1) y agregar o eliminar programas sin
+ * reescribir el disco.
+ *
+ * Cada celda es un bloque de tamaño fijo dentro de un ByteBuffer:
+ * <pre>
+ *  byte 0     tipo (0 = libre, 1 = directorio, 2 = línea)
+ *  bytes 1-2  largo del texto (sin signo)
+ *  bytes 3..  texto en UTF-8
+ * </pre>
+ * El buffer vive en el heap, o es un archivo mapeado en memoria (ver
+ * {@link #abrir}) para que el disco persista entre ejecuciones. Al abrir una
+ * imagen el índice se reconstruye desde las celdas de directorio.
+ *
+ * Las últimas celdas son la zona de memoria virtual: ahí se guardan las
+ * páginas desalojadas y las imágenes de los procesos suspendidos como
+ * palabras (tipo 3, hasta PALABRAS_POR_BLOQUE palabras por celda). Su
+ * contenido no persiste entre ejecuciones.
  *
  * @author dylan y gadyr
  */
 public class UnidadDeAlmacenamiento {
 
-    private final int tamañoTotal;        
-    private final int memoriaVirtual;     
-    private final List<String> almacenamiento; 
+    public static final int BYTES_POR_BLOQUE = 64;
+    public static final int MAX_BYTES_TEXTO = BYTES_POR_BLOQUE - 3;
+    public static final int PALABRAS_POR_BLOQUE = MAX_BYTES_TEXTO / Integer.BYTES;
+
+    private static final byte TIPO_LIBRE = 0;
+    private static final byte TIPO_DIRECTORIO = 1;
+    private static final byte TIPO_LINEA = 2;
+    private static final byte TIPO_PAGINA = 3;
+
+    // Encabezado de la imagen: firma, versión, tamaño total, memoria virtual, bytes por bloque
+    private static final int FIRMA = 0x534F4455; // "SODU"
+    private static final int VERSION = 1;
+    private static final int BYTES_ENCABEZADO = 32;
+
+    private final int tamañoTotal;
+    private final int memoriaVirtual;
+    private final ByteBuffer disco;
+    private final int desplazamiento; // inicio de la celda 0 dentro del buffer
 
+    // Directorio: nombre -> ubicación en disco
+    private final Map<String, EntradaDirectorio> directorio = new HashMap<>();
+    // Celdas ocupadas de la zona de programas [0, tamañoTotal - memoriaVirtual)
+    private final BitSet ocupadas;
+    // Celdas ocupadas de la zona de memoria virtual (relativas a su inicio)
+    private final BitSet ocupadasVirtual;
+
+    // Vista de solo lectura para la GUI
+    private final List<String> vista = new VistaDisco();
+    // Celdas escritas o liberadas desde la última vez que la GUI las pidió
+    private final BitSet celdasModificadas = new BitSet();
+
+    private final Bitacora bitacora = Bitacora.global();
+
+    /**
+     * Disco en el heap (no persiste)
+     */
     public UnidadDeAlmacenamiento(int tamañoTotal, int memoriaVirtual) {
+        this(ByteBuffer.allocate(tamañoTotal * BYTES_POR_BLOQUE), 0, tamañoTotal, memoriaVirtual);
+    }
+
+    public UnidadDeAlmacenamiento() {
+        this(512, 64);
+    }
+
+    private UnidadDeAlmacenamiento(ByteBuffer disco, int desplazamiento, int tamañoTotal, int memoriaVirtual) {
         if (memoriaVirtual >= tamañoTotal) {
             throw new IllegalArgumentException("Memoria virtual no puede ser mayor o igual al tamaño total.");
         }
         this.tamañoTotal = tamañoTotal;
         this.memoriaVirtual = memoriaVirtual;
-        this.almacenamiento = new ArrayList<>(tamañoTotal);
+        this.disco = disco;
+        this.desplazamiento = desplazamiento;
+        this.ocupadas = new BitSet(tamañoTotal - memoriaVirtual);
+        this.ocupadasVirtual = new BitSet(memoriaVirtual);
+        reconstruirIndice();
+    }
 
-        // Inicializar almacenamiento vacío
-        for (int i = 0; i < tamañoTotal; i++) {
-            almacenamiento.add(null);
+    /**
+     * Abre (o crea) una imagen de disco en un archivo mapeado en memoria.
+     * Si el archivo ya es una imagen válida se usa su geometría y se conservan
+     * sus programas; si no, se crea una imagen vacía con la geometría pedida.
+     *
+     * @param imagen archivo de la imagen
+     * @param tamañoTotal celdas del disco (si la imagen es nueva)
+     * @param memoriaVirtual celdas reservadas a memoria virtual (si la imagen es nueva)
+     */
+    public static UnidadDeAlmacenamiento abrir(File imagen, int tamañoTotal, int memoriaVirtual) throws IOException {
+        try (RandomAccessFile archivo = new RandomAccessFile(imagen, "rw");
+             FileChannel canal = archivo.getChannel()) {
+            if (archivo.length() >= BYTES_ENCABEZADO) {
+                ByteBuffer encabezado = ByteBuffer.allocate(BYTES_ENCABEZADO);
+                canal.read(encabezado, 0);
+                if (encabezado.getInt(0) == FIRMA) {
+                    if (encabezado.getInt(4) != VERSION || encabezado.getInt(16) != BYTES_POR_BLOQUE) {
+                        throw new IOException("Imagen de disco incompatible: " + imagen.getName());
+                    }
+                    tamañoTotal = encabezado.getInt(8);
+                    memoriaVirtual = encabezado.getInt(12);
+                } else {
+                    throw new IOException("No es una imagen de disco: " + imagen.getName());
+                }
+            } else if (memoriaVirtual >= tamañoTotal) {
+                throw new IllegalArgumentException("Memoria virtual no puede ser mayor o igual al tamaño total.");
+            }
+
+            long bytes = BYTES_ENCABEZADO + (long) tamañoTotal * BYTES_POR_BLOQUE;
+            if (archivo.length() < bytes) {
+                archivo.setLength(bytes); // las celdas nuevas quedan en cero (libres)
+            }
+            // El mapeo sigue siendo válido después de cerrar el canal
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            mapa.putInt(0, FIRMA);
+            mapa.putInt(4, VERSION);
+            mapa.putInt(8, tamañoTotal);
+            mapa.putInt(12, memoriaVirtual);
+            mapa.putInt(16, BYTES_POR_BLOQUE);
+            return new UnidadDeAlmacenamiento(mapa, BYTES_ENCABEZADO, tamañoTotal, memoriaVirtual);
         }
     }
 
-    public UnidadDeAlmacenamiento() {
-        this(512, 64);
+    /**
+     * Borra todo el disco (programas y directorio).
+     */
+    public synchronized void formatear() {
+        for (int i = 0; i < tamañoTotal; i++) {
+            disco.put(posicion(i), TIPO_LIBRE);
+        }
+        celdasModificadas.set(0, tamañoTotal);
+        directorio.clear();
+        ocupadas.clear();
+        ocupadasVirtual.clear();
     }
 
     /**
-     * Carga programas en el almacenamiento como texto (ASM).
-     * 
+     * Carga programas en el almacenamiento como texto (ASM), reemplazando
+     * todo lo que había en el disco. Los programas que no caben se omiten.
+     *
      * @param nombres nombres de programas
      * @param programas array con listas de líneas ASM
      */
-    public void cargarProgramas(String[] nombres, List<String>[] programas) {
+    public synchronized void cargarProgramas(String[] nombres, List<String>[] programas) {
         if (nombres.length != programas.length) {
             throw new IllegalArgumentException("Cantidad de nombres y programas no coincide.");
         }
 
-        // Resetear almacenamiento
-        for (int i = 0; i < tamañoTotal; i++) {
-            almacenamiento.set(i, null);
+        formatear();
+        for (int i = 0; i < nombres.length; i++) {
+            agregarPrograma(nombres[i], programas[i]);
+        }
+    }
+
+    /**
+     * Agrega un programa al disco sin tocar los demás. Si ya existe uno con
+     * el mismo nombre se reemplaza.
+     *
+     * @param nombre nombre del programa
+     * @param lineas líneas ASM
+     * @return false si no hay espacio contiguo suficiente (el disco no cambia)
+     * @throws IllegalArgumentException si una línea no cabe en un bloque
+     */
+    public synchronized boolean agregarPrograma(String nombre, List<String> lineas) {
+        // Codificar antes de tocar el disco
+        List<byte[]> bloques = new ArrayList<>(lineas.size());
+        for (String linea : lineas) {
+            bloques.add(codificar(linea));
         }
 
-        int memoriaLimite = tamañoTotal - memoriaVirtual;
-        int indiceInicio = 0;
-        int longitudPrograma = 0;
-        List<String> nombresValidos = new ArrayList<>();
-        List<List<String>> programasValidos = new ArrayList<>();
+        EntradaDirectorio anterior = directorio.get(nombre);
+        List<String> lineasAnteriores = anterior != null ? leerPrograma(nombre) : null;
+        if (anterior != null) {
+            eliminarPrograma(nombre);
+        }
 
-        // Validación de espacio
-        int espacioDisponible = memoriaLimite;
-        for (int i = 0; i < nombres.length; i++) {
-            List<String> lineas = programas[i];
-            if (lineas.size() <= espacioDisponible) {
-                nombresValidos.add(nombres[i]);
-                programasValidos.add(lineas);
-                espacioDisponible -= lineas.size();
-            } else {
-                System.out.println("No hay suficiente espacio para el programa " + nombres[i] + ", se omite.");
+        // Celda de directorio: la primera libre; datos: primer bloque que alcance
+        int limite = tamañoTotal - memoriaVirtual;
+        int celda = ocupadas.nextClearBit(0);
+        int inicio = celda < limite ? buscarBloqueLibre(lineas.size(), celda + 1) : -1;
+        if (inicio < 0) {
+            if (anterior != null) {
+                agregarPrograma(nombre, lineasAnteriores);
+            }
+            bitacora.registrar(Nivel.DEPURACION, "Disco", "No hay suficiente espacio para el programa {}, se omite", nombre);
+            return false;
+        }
+
+        EntradaDirectorio entrada = new EntradaDirectorio(nombre, celda, inicio, lineas.size());
+        byte[] registro = codificar(entrada.aCelda());
+        for (int i = 0; i < bloques.size(); i++) {
+            escribirCelda(inicio + i, TIPO_LINEA, bloques.get(i)); // guarda ASM puro
+        }
+        // El directorio se escribe al final: una imagen cortada a medias no
+        // apunta a datos incompletos
+        escribirCelda(celda, TIPO_DIRECTORIO, registro);
+        ocupadas.set(celda);
+        ocupadas.set(inicio, inicio + lineas.size());
+        directorio.put(nombre, entrada);
+        return true;
+    }
+
+    /**
+     * Elimina un programa y libera sus celdas
+     *
+     * @return false si el programa no existe
+     */
+    public synchronized boolean eliminarPrograma(String nombre) {
+        EntradaDirectorio entrada = directorio.remove(nombre);
+        if (entrada == null) {
+            return false;
+        }
+        disco.put(posicion(entrada.getCelda()), TIPO_LIBRE);
+        for (int i = entrada.getInicio(); i < entrada.getInicio() + entrada.getLongitud(); i++) {
+            disco.put(posicion(i), TIPO_LIBRE);
+        }
+        ocupadas.clear(entrada.getCelda());
+        ocupadas.clear(entrada.getInicio(), entrada.getInicio() + entrada.getLongitud());
+        celdasModificadas.set(entrada.getCelda());
+        celdasModificadas.set(entrada.getInicio(), entrada.getInicio() + entrada.getLongitud());
+        return true;
+    }
+
+    /**
+     * Primer bloque de celdas libres contiguas (primer ajuste)
+     *
+     * @return celda inicial, o -1 si no hay bloque suficiente
+     */
+    private int buscarBloqueLibre(int tamanio, int desde) {
+        int limite = tamañoTotal - memoriaVirtual;
+        int inicio = ocupadas.nextClearBit(desde);
+        while (inicio + tamanio <= limite) {
+            int siguienteOcupada = ocupadas.nextSetBit(inicio);
+            if (siguienteOcupada < 0 || siguienteOcupada - inicio >= tamanio) {
+                return inicio;
             }
+            inicio = ocupadas.nextClearBit(siguienteOcupada);
+        }
+        return -1;
+    }
+
+    /**
+     * Recorre las celdas de directorio y arma el índice y el mapa de bits
+     */
+    private void reconstruirIndice() {
+        directorio.clear();
+        ocupadas.clear();
+        int limite = tamañoTotal - memoriaVirtual;
+        for (int i = 0; i < limite; i++) {
+            if (disco.get(posicion(i)) != TIPO_DIRECTORIO) {
+                continue;
+            }
+            String registro = leerCelda(i);
+            int sep2 = registro.lastIndexOf(';');
+            int sep1 = registro.lastIndexOf(';', sep2 - 1);
+            EntradaDirectorio entrada = new EntradaDirectorio(registro.substring(0, sep1), i,
+                    Integer.parseInt(registro.substring(sep1 + 1, sep2)),
+                    Integer.parseInt(registro.substring(sep2 + 1)));
+            directorio.put(entrada.getNombre(), entrada);
+            ocupadas.set(i);
+            ocupadas.set(entrada.getInicio(), entrada.getInicio() + entrada.getLongitud());
+        }
+        // Las páginas de una ejecución anterior ya no pertenecen a ningún proceso
+        ocupadasVirtual.clear();
+        for (int i = limite; i < tamañoTotal; i++) {
+            disco.put(posicion(i), TIPO_LIBRE);
+        }
+    }
+
+    // ========== ACCESO A BLOQUES ==========
+
+    private int posicion(int celda) {
+        return desplazamiento + celda * BYTES_POR_BLOQUE;
+    }
+
+    private static byte[] codificar(String texto) {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_BYTES_TEXTO) {
+            throw new IllegalArgumentException("Texto demasiado largo para un bloque (" + bytes.length
+                    + " > " + MAX_BYTES_TEXTO + " bytes): " + texto);
         }
-        
-        // Cargar programas válidos
-        indiceInicio = nombresValidos.size();
-        for (int i = 0; i < nombresValidos.size(); i++) {
-            String progNombre = nombresValidos.get(i);
-            List<String> lineas = programasValidos.get(i);
+        return bytes;
+    }
 
-            // Guardar en índice: "nombre;posicionInicio"
-            almacenamiento.set(i, progNombre + ";" + indiceInicio + ";" + lineas.size());
+    private void escribirCelda(int celda, byte tipo, byte[] texto) {
+        int pos = posicion(celda);
+        disco.put(pos, tipo);
+        disco.putShort(pos + 1, (short) texto.length);
+        disco.put(pos + 3, texto);
+        celdasModificadas.set(celda);
+    }
 
-            for (String linea : lineas) {
-                almacenamiento.set(indiceInicio, linea); // guarda ASM puro
-                indiceInicio++;
+    /**
+     * Texto de una celda, leído directo del buffer (una página de memoria
+     * virtual se muestra como sus palabras en hexadecimal)
+     *
+     * @return el texto, o null si la celda está libre
+     */
+    private String leerCelda(int celda) {
+        int pos = posicion(celda);
+        byte tipo = disco.get(pos);
+        if (tipo == TIPO_LIBRE) {
+            return null;
+        }
+        if (tipo == TIPO_PAGINA) {
+            StringBuilder texto = new StringBuilder("PÁGINA:");
+            int palabras = (disco.getShort(pos + 1) & 0xFFFF) / Integer.BYTES;
+            for (int i = 0; i < palabras; i++) {
+                texto.append(' ').append(Integer.toHexString(disco.getInt(pos + 3 + i * Integer.BYTES)));
             }
+            return texto.toString();
         }
+        byte[] texto = new byte[disco.getShort(pos + 1) & 0xFFFF];
+        disco.get(pos + 3, texto);
+        return new String(texto, StandardCharsets.UTF_8);
     }
 
     /**
      * Leer un programa desde el almacenamiento, buscándolo por nombre.
-     * 
+     *
      * @param nombre nombre del programa
      * @return lista de instrucciones ASM, o null si no existe
      */
-    public List<String> leerPrograma(String nombre) {
-        for (int i = 0; i < tamañoTotal - memoriaVirtual; i++) {
-            String celda = almacenamiento.get(i);
-            if (celda != null && celda.startsWith(nombre + ";")) {
-                String[] parts = celda.split(";");   
-                int lineaIni = Integer.parseInt(parts[1]);
-                int inicio = Integer.parseInt(parts[1]);
-                int longitud = Integer.parseInt(parts[2]);
-                
-                List<String> programa = new ArrayList<>();
-
-                while (inicio < almacenamiento.size() && almacenamiento.get(inicio) != null && inicio < (lineaIni + longitud)) {
-                    programa.add(almacenamiento.get(inicio));
-                    inicio++;
-                }
-                return programa;
+    public synchronized List<String> leerPrograma(String nombre) {
+        EntradaDirectorio entrada = directorio.get(nombre);
+        if (entrada == null) {
+            return null;
+        }
+        List<String> programa = new ArrayList<>(entrada.getLongitud());
+        for (int i = entrada.getInicio(); i < entrada.getInicio() + entrada.getLongitud(); i++) {
+            programa.add(leerCelda(i));
+        }
+        return programa;
+    }
+
+    /**
+     * Lee solo algunas líneas de un programa (ej: las de una página)
+     *
+     * @return las líneas, o null si el programa no existe
+     * @throws IndexOutOfBoundsException si el rango no está dentro del programa
+     */
+    public synchronized List<String> leerLineas(String nombre, int desde, int cantidad) {
+        EntradaDirectorio entrada = directorio.get(nombre);
+        if (entrada == null) {
+            return null;
+        }
+        if (desde < 0 || cantidad < 0 || desde + cantidad > entrada.getLongitud()) {
+            throw new IndexOutOfBoundsException("Líneas " + desde + ".." + (desde + cantidad)
+                    + " fuera del programa " + nombre);
+        }
+        List<String> lineas = new ArrayList<>(cantidad);
+        for (int i = entrada.getInicio() + desde; i < entrada.getInicio() + desde + cantidad; i++) {
+            lineas.add(leerCelda(i));
+        }
+        return lineas;
+    }
+
+    // ========== MEMORIA VIRTUAL ==========
+
+    /** Celdas que ocupan tantas palabras en la memoria virtual */
+    public static int celdasPara(int palabras) {
+        return (palabras + PALABRAS_POR_BLOQUE - 1) / PALABRAS_POR_BLOQUE;
+    }
+
+    /**
+     * Guarda palabras (una página, o la imagen de un proceso suspendido) en
+     * celdas contiguas de la zona de memoria virtual (primer ajuste)
+     *
+     * @param origen arreglo con las palabras
+     * @param desde posición de la primera palabra en el arreglo
+     * @param cantidad palabras a guardar
+     * @return celda inicial, o -1 si no hay espacio
+     */
+    public synchronized int escribirPalabras(int[] origen, int desde, int cantidad) {
+        int celdas = celdasPara(cantidad);
+        int inicio = ocupadasVirtual.nextClearBit(0);
+        while (inicio + celdas <= memoriaVirtual) {
+            int siguienteOcupada = ocupadasVirtual.nextSetBit(inicio);
+            if (siguienteOcupada < 0 || siguienteOcupada - inicio >= celdas) {
+                break;
+            }
+            inicio = ocupadasVirtual.nextClearBit(siguienteOcupada);
+        }
+        if (inicio + celdas > memoriaVirtual) {
+            return -1;
+        }
+        ocupadasVirtual.set(inicio, inicio + celdas);
+
+        int celda = tamañoTotal - memoriaVirtual + inicio;
+        for (int c = 0; c < celdas; c++) {
+            int pos = posicion(celda + c);
+            int palabras = Math.min(PALABRAS_POR_BLOQUE, cantidad - c * PALABRAS_POR_BLOQUE);
+            disco.put(pos, TIPO_PAGINA);
+            disco.putShort(pos + 1, (short) (palabras * Integer.BYTES));
+            for (int i = 0; i < palabras; i++) {
+                disco.putInt(pos + 3 + i * Integer.BYTES, origen[desde + c * PALABRAS_POR_BLOQUE + i]);
             }
         }
-        return null;
-    }    
-    
+        celdasModificadas.set(celda, celda + celdas);
+        return celda;
+    }
+
+    /**
+     * Lee palabras guardadas en la memoria virtual
+     *
+     * @param celda celda devuelta por escribirPalabras
+     * @param destino arreglo donde se copian las palabras
+     * @param desde posición de la primera palabra en el arreglo
+     * @param cantidad palabras guardadas
+     */
+    public synchronized void leerPalabras(int celda, int[] destino, int desde, int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            int pos = posicion(celda + i / PALABRAS_POR_BLOQUE);
+            destino[desde + i] = disco.getInt(pos + 3 + (i % PALABRAS_POR_BLOQUE) * Integer.BYTES);
+        }
+    }
+
+    /** Libera las celdas de memoria virtual que ocupan las palabras */
+    public synchronized void liberarPalabras(int celda, int cantidad) {
+        int celdas = celdasPara(cantidad);
+        for (int c = celda; c < celda + celdas; c++) {
+            disco.put(posicion(c), TIPO_LIBRE);
+        }
+        celdasModificadas.set(celda, celda + celdas);
+        int inicio = celda - (tamañoTotal - memoriaVirtual);
+        ocupadasVirtual.clear(inicio, inicio + celdas);
+    }
+
+    /** Celdas libres de la zona de memoria virtual */
+    public synchronized int getMemoriaVirtualLibre() {
+        return memoriaVirtual - ocupadasVirtual.cardinality();
+    }
+
+    public synchronized boolean existePrograma(String nombre) {
+        return directorio.containsKey(nombre);
+    }
+
+    /** Entrada de directorio de un programa, o null si no existe */
+    public synchronized EntradaDirectorio getEntrada(String nombre) {
+        return directorio.get(nombre);
+    }
+
+    /** Nombres de los programas guardados */
+    public synchronized List<String> getProgramas() {
+        return new ArrayList<>(directorio.keySet());
+    }
+
+    /** Cantidad de celdas libres en la zona de programas */
+    public synchronized int getEspacioLibre() {
+        return tamañoTotal - memoriaVirtual - ocupadas.cardinality();
+    }
+
+    /** Indica si el disco está respaldado por un archivo */
+    public boolean esPersistente() {
+        return disco instanceof MappedByteBuffer;
+    }
+
+    /**
+     * Escribe al archivo los cambios pendientes (solo disco persistente)
+     */
+    public synchronized void sincronizar() {
+        if (disco instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) disco).force();
+        }
+    }
+
     /**
      * Muestra contenido de la unidad (debug).
      */
     public void mostrarAlmacenamiento() {
-        for (int i = 0; i < almacenamiento.size(); i++) {
-            String valor = almacenamiento.get(i);
+        for (int i = 0; i < tamañoTotal; i++) {
+            String valor = vista.get(i);
             if (valor != null) {
                 System.out.println("[" + i + "] " + valor);
             } else {
@@ -125,8 +500,22 @@ public class UnidadDeAlmacenamiento {
         }
     }
 
+    /**
+     * Vista de solo lectura de las celdas (null = libre). Cada celda se lee
+     * del buffer al consultarla.
+     */
     public List<String> getAlmacenamiento() {
-        return almacenamiento;
+        return vista;
+    }
+
+    /**
+     * Devuelve las celdas que cambiaron desde la llamada anterior y empieza
+     * a contar de nuevo
+     */
+    public synchronized BitSet tomarCeldasModificadas() {
+        BitSet modificadas = (BitSet) celdasModificadas.clone();
+        celdasModificadas.clear();
+        return modificadas;
     }
 
     public int getTamañoTotal() {
@@ -136,4 +525,22 @@ public class UnidadDeAlmacenamiento {
     public int getMemoriaVirtual() {
         return memoriaVirtual;
     }
+
+    private class VistaDisco extends AbstractList<String> {
+
+        @Override
+        public String get(int celda) {
+            if (celda < 0 || celda >= tamañoTotal) {
+                throw new IndexOutOfBoundsException("Celda fuera del disco: " + celda);
+            }
+            synchronized (UnidadDeAlmacenamiento.this) {
+                return leerCelda(celda);
+            }
+        }
+
+        @Override
+        public int size() {
+            return tamañoTotal;
+        }
+    }
 }
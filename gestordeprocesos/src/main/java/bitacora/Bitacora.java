@@ -0,0 +1,244 @@
+package bitacora;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bitácora asíncrona por niveles. Los hilos de simulación solo dejan el
+ * formato y sus argumentos en una cola circular sin locks (varios
+ * productores, un consumidor); un hilo aparte arma las líneas y las escribe
+ * en los destinos, juntando las escrituras mientras haya mensajes.
+ *
+ * Un mensaje bajo el umbral no hace más que comparar el nivel. El formato
+ * usa {} para cada argumento y se arma en el hilo de la bitácora, así que los
+ * argumentos no deben cambiar después de registrarse (números, textos).
+ * Si la cola está llena el mensaje se descarta y se cuenta: la simulación
+ * nunca espera a la bitácora.
+ *
+ * @author dylan
+ */
+public class Bitacora {
+
+    public static final int CAPACIDAD_POR_DEFECTO = 16384;
+    private static final long ESPERA_NANOS = 1_000_000L;
+
+    private static final Bitacora GLOBAL = crearGlobal();
+
+    private static final class Entrada {
+        Nivel nivel;
+        String origen;
+        String formato;
+        Object a, b, c;
+        int argumentos;
+    }
+
+    private final Entrada[] entradas;
+    private final int mascara;
+    // secuencia de cada casilla: == posición libre para escribir, == posición + 1 lista para leer
+    private final AtomicLongArray secuencias;
+    private final AtomicLong escritura = new AtomicLong();
+    private long lectura; // solo el hilo de la bitácora
+    private volatile long escritoHasta;
+    private final AtomicLong descartados = new AtomicLong();
+
+    private volatile int umbral = Nivel.INFO.ordinal();
+    private final List<Destino> destinos = new CopyOnWriteArrayList<>();
+    private final Thread hilo;
+
+    /**
+     * @param capacidad mensajes en la cola (se redondea a potencia de 2)
+     */
+    public Bitacora(int capacidad) {
+        int tamanio = Integer.highestOneBit(Math.max(2, capacidad - 1)) << 1;
+        this.entradas = new Entrada[tamanio];
+        this.secuencias = new AtomicLongArray(tamanio);
+        for (int i = 0; i < tamanio; i++) {
+            entradas[i] = new Entrada();
+            secuencias.set(i, i);
+        }
+        this.mascara = tamanio - 1;
+        this.hilo = new Thread(this::consumir, "bitacora");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Bitácora compartida por el simulador. Escribe a la salida estándar
+     * desde el nivel INFO; lo pendiente se escribe al terminar la JVM.
+     */
+    public static Bitacora global() {
+        return GLOBAL;
+    }
+
+    private static Bitacora crearGlobal() {
+        Bitacora bitacora = new Bitacora(CAPACIDAD_POR_DEFECTO);
+        bitacora.agregarDestino(Destino.consola());
+        Runtime.getRuntime().addShutdownHook(new Thread(bitacora::vaciar, "bitacora-cierre"));
+        return bitacora;
+    }
+
+    // ========== PRODUCTORES ==========
+
+    public boolean estaHabilitado(Nivel nivel) {
+        return nivel.ordinal() >= umbral;
+    }
+
+    public void registrar(Nivel nivel, String origen, String mensaje) {
+        if (nivel.ordinal() >= umbral) {
+            publicar(nivel, origen, mensaje, 0, null, null, null);
+        }
+    }
+
+    public void registrar(Nivel nivel, String origen, String formato, Object a) {
+        if (nivel.ordinal() >= umbral) {
+            publicar(nivel, origen, formato, 1, a, null, null);
+        }
+    }
+
+    public void registrar(Nivel nivel, String origen, String formato, Object a, Object b) {
+        if (nivel.ordinal() >= umbral) {
+            publicar(nivel, origen, formato, 2, a, b, null);
+        }
+    }
+
+    public void registrar(Nivel nivel, String origen, String formato, Object a, Object b, Object c) {
+        if (nivel.ordinal() >= umbral) {
+            publicar(nivel, origen, formato, 3, a, b, c);
+        }
+    }
+
+    private void publicar(Nivel nivel, String origen, String formato, int argumentos, Object a, Object b, Object c) {
+        long posicion;
+        int indice;
+        while (true) {
+            posicion = escritura.get();
+            indice = (int) (posicion & mascara);
+            long diferencia = secuencias.get(indice) - posicion;
+            if (diferencia == 0) {
+                if (escritura.compareAndSet(posicion, posicion + 1)) {
+                    break;
+                }
+            } else if (diferencia < 0) {
+                descartados.incrementAndGet(); // llena
+                return;
+            }
+            // otro productor tomó la casilla: reintentar con la siguiente
+        }
+        Entrada entrada = entradas[indice];
+        entrada.nivel = nivel;
+        entrada.origen = origen;
+        entrada.formato = formato;
+        entrada.a = a;
+        entrada.b = b;
+        entrada.c = c;
+        entrada.argumentos = argumentos;
+        secuencias.set(indice, posicion + 1);
+    }
+
+    // ========== CONSUMIDOR ==========
+
+    private void consumir() {
+        StringBuilder linea = new StringBuilder(128);
+        while (true) {
+            int leidos = 0;
+            while (true) {
+                int indice = (int) (lectura & mascara);
+                if (secuencias.get(indice) != lectura + 1) {
+                    break;
+                }
+                Entrada entrada = entradas[indice];
+                linea.setLength(0);
+                if (entrada.origen != null) {
+                    linea.append('[').append(entrada.origen).append("] ");
+                }
+                formatear(linea, entrada.formato, entrada.argumentos, entrada.a, entrada.b, entrada.c);
+                entrada.a = entrada.b = entrada.c = null;
+                secuencias.set(indice, lectura + entradas.length);
+                lectura++;
+                leidos++;
+
+                String texto = linea.toString();
+                for (Destino destino : destinos) {
+                    try {
+                        destino.escribir(texto);
+                    } catch (RuntimeException e) {
+                        System.err.println("Bitacora: no se pudo escribir: " + e.getMessage());
+                    }
+                }
+            }
+            if (leidos > 0 || escritoHasta != lectura) {
+                for (Destino destino : destinos) {
+                    try {
+                        destino.vaciar();
+                    } catch (RuntimeException e) {
+                        System.err.println("Bitacora: no se pudo vaciar: " + e.getMessage());
+                    }
+                }
+                escritoHasta = lectura;
+            }
+            if (leidos == 0) {
+                LockSupport.parkNanos(this, ESPERA_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Reemplaza cada {} por el siguiente argumento; los {} de más quedan
+     */
+    static void formatear(StringBuilder destino, String formato, int argumentos, Object a, Object b, Object c) {
+        int argumento = 0;
+        int desde = 0;
+        int marca;
+        while (argumento < argumentos && (marca = formato.indexOf("{}", desde)) >= 0) {
+            destino.append(formato, desde, marca);
+            destino.append(argumento == 0 ? a : argumento == 1 ? b : c);
+            argumento++;
+            desde = marca + 2;
+        }
+        destino.append(formato, desde, formato.length());
+    }
+
+    /**
+     * Espera a que lo registrado hasta ahora esté escrito en los destinos
+     * (por ejemplo antes de mostrar estadísticas o al terminar una corrida)
+     */
+    public void vaciar() {
+        long objetivo = escritura.get();
+        while (escritoHasta < objetivo && hilo.isAlive()) {
+            LockSupport.unpark(hilo);
+            LockSupport.parkNanos(ESPERA_NANOS / 10);
+        }
+    }
+
+    // ========== CONFIGURACIÓN ==========
+
+    public Nivel getNivel() {
+        return Nivel.values()[umbral];
+    }
+
+    /** Umbral: se registran los mensajes de este nivel o mayor */
+    public void setNivel(Nivel nivel) {
+        this.umbral = nivel.ordinal();
+    }
+
+    public void agregarDestino(Destino destino) {
+        destinos.add(destino);
+    }
+
+    public void quitarDestino(Destino destino) {
+        destinos.remove(destino);
+    }
+
+    /** Quita todos los destinos (ej: para reemplazar la consola por un archivo) */
+    public void quitarDestinos() {
+        destinos.clear();
+    }
+
+    /** Mensajes perdidos porque la cola estaba llena */
+    public long getDescartados() {
+        return descartados.get();
+    }
+}
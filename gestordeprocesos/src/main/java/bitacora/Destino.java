@@ -0,0 +1,84 @@
+package bitacora;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Adónde van las líneas de la bitácora. Solo lo llama el hilo de la bitácora,
+ * así que no necesita ser thread-safe.
+ *
+ * @author dylan
+ */
+@FunctionalInterface
+public interface Destino {
+
+    /** Escribe una línea ya formateada (sin salto de línea) */
+    void escribir(String linea);
+
+    /** Se llama cuando la bitácora vació la cola; por defecto no hace nada */
+    default void vaciar() {
+    }
+
+    /**
+     * Salida estándar con buffer propio; se escribe de una vez cada vez que
+     * la cola queda vacía. Usa el System.out del momento de la escritura.
+     */
+    static Destino consola() {
+        return new Destino() {
+            private final StringBuilder pendiente = new StringBuilder();
+
+            @Override
+            public void escribir(String linea) {
+                pendiente.append(linea).append(System.lineSeparator());
+            }
+
+            @Override
+            public void vaciar() {
+                if (pendiente.length() > 0) {
+                    PrintStream salida = System.out;
+                    salida.print(pendiente);
+                    salida.flush();
+                    pendiente.setLength(0);
+                }
+            }
+        };
+    }
+
+    /**
+     * Archivo de texto UTF-8 (se agrega al final si ya existe)
+     */
+    static Destino archivo(File archivo) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(
+                Files.newOutputStream(archivo.toPath(), StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND),
+                StandardCharsets.UTF_8));
+        return new Destino() {
+            @Override
+            public void escribir(String linea) {
+                try {
+                    escritor.write(linea);
+                    escritor.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public void vaciar() {
+                try {
+                    escritor.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+}
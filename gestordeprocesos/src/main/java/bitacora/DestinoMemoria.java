@@ -0,0 +1,41 @@
+package bitacora;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Guarda las líneas en una lista (pruebas y depuración). Si hay límite se
+ * conservan solo las más recientes.
+ *
+ * @author dylan
+ */
+public class DestinoMemoria implements Destino {
+
+    private final int limite;
+    private final List<String> lineas = new ArrayList<>();
+
+    public DestinoMemoria() {
+        this(Integer.MAX_VALUE);
+    }
+
+    public DestinoMemoria(int limite) {
+        this.limite = limite;
+    }
+
+    @Override
+    public synchronized void escribir(String linea) {
+        if (lineas.size() == limite) {
+            lineas.remove(0);
+        }
+        lineas.add(linea);
+    }
+
+    /** Copia de las líneas guardadas */
+    public synchronized List<String> getLineas() {
+        return new ArrayList<>(lineas);
+    }
+
+    public synchronized void limpiar() {
+        lineas.clear();
+    }
+}
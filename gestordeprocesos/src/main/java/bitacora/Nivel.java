@@ -0,0 +1,18 @@
+package bitacora;
+
+/**
+ * Niveles de los mensajes de la bitácora, de menor a mayor importancia
+ * @author dylan
+ */
+public enum Nivel {
+    /** Eventos de cada ciclo (encabezados de ciclo, cargas, fallos de página) */
+    DEPURACION,
+    /** Eventos del sistema y de los procesos */
+    INFO,
+    /** Situaciones que no detienen la simulación */
+    AVISO,
+    /** Errores */
+    ERROR,
+    /** Solo como umbral: no se registra nada */
+    NINGUNO
+}
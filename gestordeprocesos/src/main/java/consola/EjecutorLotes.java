@@ -0,0 +1,390 @@
+package consola;
+
+import bitacora.Bitacora;
+import bitacora.Destino;
+import bitacora.Nivel;
+import cpu.TLB;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import metricas.MetricasProceso;
+import metricas.RegistroMetricas;
+import procesos.BCP;
+import procesos.TipoPolitica;
+import sistema.EstadisticaProceso;
+import sistema.GestorSistema;
+
+/**
+ * Ejecuta un directorio de programas .asm/.bin en GestorSistema sin
+ * interfaz gráfica, a máxima velocidad, y escribe el resultado en JSON o
+ * CSV (una fila por proceso, con la configuración en cada fila para poder
+ * juntar varias corridas).
+ * <pre>
+ * java -cp gestordeprocesos.jar consola.EjecutorLotes programas/ --politica ROUND_ROBIN --quantum 2 --cpus 4 --formato csv
+ * </pre>
+ * Los mensajes del simulador se descartan (o van al archivo de --bitacora);
+ * la salida estándar solo lleva el resultado. Códigos de salida: 0 todos terminaron, 2 la corrida se
+ * detuvo antes (entrada sin valor o límite de ciclos), 1 error.
+ *
+ * @author dylan
+ */
+public class EjecutorLotes {
+
+    private static final String USO = String.join("\n",
+            "Uso: EjecutorLotes <directorio> [opciones]",
+            "  --politica P         FIFO, ROUND_ROBIN, SJF, SRT, HRRN, PRIORIDAD (FIFO)",
+            "  --quantum N          ciclos por turno en ROUND_ROBIN (" + GestorSistema.QUANTUM_POR_DEFECTO + ")",
+            "  --cpus N             núcleos (" + GestorSistema.NUM_CPUS_POR_DEFECTO + ")",
+            "  --memoria N          celdas de memoria principal (" + GestorSistema.MEMORIA_POR_DEFECTO + ")",
+            "  --so N               celdas de la sección SO (" + GestorSistema.SO_POR_DEFECTO + ")",
+            "  --disco N            celdas del disco (" + GestorSistema.ALMACENAMIENTO_POR_DEFECTO + ")",
+            "  --memoria-virtual N  celdas de memoria virtual en el disco (" + GestorSistema.MEMORIA_VIRTUAL_POR_DEFECTO + ")",
+            "  --pagina N           tamaño de página; 0 = programas contiguos (0)",
+            "  --tlb N              entradas de TLB por núcleo, con paginación (" + TLB.ENTRADAS_POR_DEFECTO + ")",
+            "  --grado N            grado de multiprogramación",
+            "  --costo-cambio N     ciclos por cambio de contexto (0)",
+            "  --prioridades LISTA  prog=N,... prioridad por programa (sin .asm); menor = primero",
+            "  --entradas a,b,...   valores para las INT 09H, en orden",
+            "  --max-ciclos N       límite de ciclos (1000000)",
+            "  --formato F          json o csv (json)",
+            "  --salida ARCHIVO     escribe el resultado en el archivo en vez de la salida estándar",
+            "  --metricas ARCHIVO   guarda las métricas en formato de texto de Prometheus",
+            "  --bitacora ARCHIVO   escribe los mensajes del simulador en el archivo (por defecto se descartan)",
+            "  --nivel N            DEPURACION, INFO, AVISO o ERROR para --bitacora (INFO)");
+
+    public static void main(String[] args) {
+        Map<String, String> opciones;
+        try {
+            opciones = leerOpciones(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USO);
+            System.exit(1);
+            return;
+        }
+        if (opciones.containsKey("ayuda")) {
+            System.out.println(USO);
+            return;
+        }
+
+        try {
+            int codigo = ejecutar(opciones, System.out);
+            System.exit(codigo);
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Corre la simulación con las opciones leídas
+     * @return código de salida
+     */
+    static int ejecutar(Map<String, String> opciones, PrintStream salidaEstandar) throws IOException {
+        File directorio = new File(requerida(opciones, "directorio"));
+        File[] programas = directorio.listFiles((dir, nombre) -> nombre.endsWith(".asm") || nombre.endsWith(".bin"));
+        if (programas == null || programas.length == 0) {
+            throw new IllegalArgumentException("No hay programas .asm o .bin en " + directorio);
+        }
+        Arrays.sort(programas);
+
+        String formato = opciones.getOrDefault("formato", "json");
+        if (!formato.equals("json") && !formato.equals("csv")) {
+            throw new IllegalArgumentException("Formato desconocido: " + formato);
+        }
+        TipoPolitica politica = TipoPolitica.valueOf(opciones.getOrDefault("politica", "FIFO").toUpperCase(Locale.ROOT));
+        int quantum = entero(opciones, "quantum", GestorSistema.QUANTUM_POR_DEFECTO);
+        int cpus = entero(opciones, "cpus", GestorSistema.NUM_CPUS_POR_DEFECTO);
+        int memoria = entero(opciones, "memoria", GestorSistema.MEMORIA_POR_DEFECTO);
+        int so = entero(opciones, "so", GestorSistema.SO_POR_DEFECTO);
+        int disco = entero(opciones, "disco", GestorSistema.ALMACENAMIENTO_POR_DEFECTO);
+        int memoriaVirtual = entero(opciones, "memoria-virtual", GestorSistema.MEMORIA_VIRTUAL_POR_DEFECTO);
+        int pagina = entero(opciones, "pagina", 0);
+        long maxCiclos = Long.parseLong(opciones.getOrDefault("max-ciclos", "1000000"));
+        Deque<Integer> entradas = new ArrayDeque<>();
+        if (opciones.containsKey("entradas")) {
+            for (String valor : opciones.get("entradas").split(",")) {
+                entradas.add(Integer.parseInt(valor.trim()));
+            }
+        }
+
+        // Los mensajes del simulador no se mezclan con el resultado
+        Bitacora bitacora = Bitacora.global();
+        bitacora.quitarDestinos();
+        if (opciones.containsKey("bitacora")) {
+            bitacora.agregarDestino(Destino.archivo(new File(opciones.get("bitacora"))));
+            bitacora.setNivel(Nivel.valueOf(opciones.getOrDefault("nivel", "INFO").toUpperCase(Locale.ROOT)));
+        } else {
+            bitacora.setNivel(Nivel.NINGUNO);
+        }
+        GestorSistema gestor;
+        long ciclos = 0;
+        String motivo;
+        long inicio = System.nanoTime();
+        try {
+            gestor = new GestorSistema(memoria, so, disco, memoriaVirtual, cpus);
+            gestor.setPoliticaPlanificacion(politica, quantum);
+            if (pagina > 0) {
+                gestor.configurarPaginacion(pagina, entero(opciones, "tlb", TLB.ENTRADAS_POR_DEFECTO));
+            }
+            if (opciones.containsKey("grado")) {
+                gestor.setGradoMultiprogramacion(entero(opciones, "grado", 0));
+            }
+            gestor.setCostoCambioContexto(entero(opciones, "costo-cambio", 0));
+            if (opciones.containsKey("prioridades")) {
+                asignarPrioridades(gestor, opciones.get("prioridades"));
+            }
+            gestor.cargarProgramas(programas);
+
+            while (true) {
+                ciclos += gestor.ejecutarSinInterfaz(maxCiclos - ciclos);
+                if (gestor.isTerminado()) {
+                    motivo = "fin";
+                    break;
+                }
+                if (ciclos >= maxCiclos) {
+                    motivo = "limite";
+                    break;
+                }
+                BCP esperando = procesoEsperandoEntrada(gestor);
+                if (esperando == null || entradas.isEmpty()) {
+                    motivo = "entrada";
+                    break;
+                }
+                gestor.procesarEntradaTeclado(esperando.getCpuId(), entradas.poll());
+            }
+        } finally {
+            bitacora.vaciar();
+        }
+        long milisegundos = (System.nanoTime() - inicio) / 1_000_000L;
+        if (opciones.containsKey("metricas")) {
+            gestor.exportarMetricas(new File(opciones.get("metricas")));
+        }
+
+        Resultado resultado = new Resultado(politica, quantum, cpus, memoria, so, pagina,
+                programas.length, ciclos, milisegundos, motivo, gestor);
+        String texto = formato.equals("csv") ? resultado.aCSV() : resultado.aJSON();
+        if (opciones.containsKey("salida")) {
+            try (PrintStream archivo = new PrintStream(new File(opciones.get("salida")), StandardCharsets.UTF_8)) {
+                archivo.print(texto);
+            }
+        } else {
+            salidaEstandar.print(texto);
+            salidaEstandar.flush();
+        }
+        return motivo.equals("fin") ? 0 : 2;
+    }
+
+    /**
+     * Lee "programa=prioridad,..." y lo pasa al gestor
+     */
+    private static void asignarPrioridades(GestorSistema gestor, String lista) {
+        for (String par : lista.split(",")) {
+            String[] partes = par.split("=");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("--prioridades espera programa=N: " + par);
+            }
+            try {
+                gestor.setPrioridadPrograma(partes[0].trim(), Integer.parseInt(partes[1].trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("--prioridades debe usar números: " + par);
+            }
+        }
+    }
+
+    private static BCP procesoEsperandoEntrada(GestorSistema gestor) {
+        for (BCP proceso : gestor.getColaEspera()) {
+            if (proceso != null && proceso.isEsperandoEntrada()) {
+                return proceso;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lee "directorio --opcion valor ..." a un mapa (sin los guiones)
+     */
+    static Map<String, String> leerOpciones(String[] args) {
+        Map<String, String> opciones = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--ayuda") || arg.equals("-h")) {
+                opciones.put("ayuda", "");
+            } else if (arg.startsWith("--")) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Falta el valor de " + arg);
+                }
+                opciones.put(arg.substring(2), args[++i]);
+            } else if (!opciones.containsKey("directorio")) {
+                opciones.put("directorio", arg);
+            } else {
+                throw new IllegalArgumentException("Argumento inesperado: " + arg);
+            }
+        }
+        if (!opciones.containsKey("directorio") && !opciones.containsKey("ayuda")) {
+            throw new IllegalArgumentException("Falta el directorio de programas");
+        }
+        return opciones;
+    }
+
+    private static String requerida(Map<String, String> opciones, String nombre) {
+        String valor = opciones.get(nombre);
+        if (valor == null) {
+            throw new IllegalArgumentException("Falta --" + nombre);
+        }
+        return valor;
+    }
+
+    private static int entero(Map<String, String> opciones, String nombre, int porDefecto) {
+        String valor = opciones.get(nombre);
+        if (valor == null) {
+            return porDefecto;
+        }
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + nombre + " debe ser un número: " + valor);
+        }
+    }
+
+    /**
+     * Resumen de una corrida y sus estadísticas por proceso
+     */
+    static class Resultado {
+
+        private final TipoPolitica politica;
+        private final int quantum, cpus, memoria, so, pagina, programas;
+        private final long ciclos, milisegundos;
+        private final String motivo;
+        private final List<EstadisticaProceso> procesos;
+        private final RegistroMetricas metricas;
+        private final long tiempoSimulado, cambiosContexto, ciclosEnCambios, fallosPagina, suspensiones;
+        private final double tasaTLB;
+
+        Resultado(TipoPolitica politica, int quantum, int cpus, int memoria, int so, int pagina,
+                  int programas, long ciclos, long milisegundos, String motivo,
+                  GestorSistema gestor) {
+            this.politica = politica;
+            this.quantum = quantum;
+            this.cpus = cpus;
+            this.memoria = memoria;
+            this.so = so;
+            this.pagina = pagina;
+            this.programas = programas;
+            this.ciclos = ciclos;
+            this.milisegundos = milisegundos;
+            this.motivo = motivo;
+            this.procesos = gestor.getEstadisticas();
+            this.metricas = gestor.getMetricas();
+            this.tiempoSimulado = gestor.getTiempoSimulado();
+            this.cambiosContexto = gestor.getCambiosContexto();
+            this.ciclosEnCambios = gestor.getCiclosEnCambiosContexto();
+            this.fallosPagina = gestor.getMemoria().getFallosPagina();
+            this.suspensiones = gestor.getPlanificadorMedianoPlazo().getSuspensiones();
+            this.tasaTLB = gestor.getTasaAciertosTLB();
+        }
+
+        String aJSON() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("{\n  \"configuracion\": {")
+              .append("\"politica\": \"").append(politica).append("\", ")
+              .append("\"quantum\": ").append(quantum).append(", ")
+              .append("\"cpus\": ").append(cpus).append(", ")
+              .append("\"memoria\": ").append(memoria).append(", ")
+              .append("\"so\": ").append(so).append(", ")
+              .append("\"pagina\": ").append(pagina).append("},\n");
+            sb.append("  \"resumen\": {")
+              .append("\"motivo\": \"").append(motivo).append("\", ")
+              .append("\"programas\": ").append(programas).append(", ")
+              .append("\"finalizados\": ").append(procesos.size()).append(", ")
+              .append("\"ciclos\": ").append(ciclos).append(", ")
+              .append("\"tiempoSimulado\": ").append(tiempoSimulado).append(", ")
+              .append("\"milisegundos\": ").append(milisegundos).append(", ")
+              .append("\"cambiosContexto\": ").append(cambiosContexto).append(", ")
+              .append("\"ciclosEnCambiosContexto\": ").append(ciclosEnCambios).append(", ")
+              .append("\"tasaAciertosTLB\": ").append(String.format(Locale.ROOT, "%.4f", tasaTLB)).append(", ")
+              .append("\"fallosPagina\": ").append(fallosPagina).append(", ")
+              .append("\"suspensiones\": ").append(suspensiones).append(", ")
+              .append("\"retornoPromedio\": ").append(String.format(Locale.ROOT, "%.2f", metricas.getRetorno().getPromedio())).append(", ")
+              .append("\"retornoP90\": ").append(metricas.getRetorno().getPercentil(90)).append(", ")
+              .append("\"esperaPromedio\": ").append(String.format(Locale.ROOT, "%.2f", metricas.getEspera().getPromedio())).append(", ")
+              .append("\"esperaP90\": ").append(metricas.getEspera().getPercentil(90)).append(", ")
+              .append("\"respuestaPromedio\": ").append(String.format(Locale.ROOT, "%.2f", metricas.getRespuesta().getPromedio())).append("},\n");
+            sb.append("  \"procesos\": [");
+            for (int i = 0; i < procesos.size(); i++) {
+                EstadisticaProceso est = procesos.get(i);
+                sb.append(i == 0 ? "\n" : ",\n")
+                  .append("    {\"programa\": \"").append(escaparJSON(est.getNombreProceso())).append("\", ")
+                  .append("\"pid\": ").append(est.getPid()).append(", ")
+                  .append("\"cpu\": ").append(est.getCpuAsignado()).append(", ")
+                  .append("\"inicio\": ").append(est.getTiempoInicio()).append(", ")
+                  .append("\"fin\": ").append(est.getTiempoFin()).append(", ")
+                  .append("\"duracion\": ").append(est.getDuracion());
+                MetricasProceso m = metricas.getProceso(est.getPid());
+                if (m != null) {
+                    sb.append(", \"instrucciones\": ").append(m.getInstrucciones())
+                      .append(", \"respuesta\": ").append(m.getRespuesta())
+                      .append(", \"retorno\": ").append(m.getRetorno())
+                      .append(", \"espera\": ").append(m.getEspera())
+                      .append(", \"cambiosContexto\": ").append(m.getCambiosContexto());
+                }
+                sb.append('}');
+            }
+            sb.append(procesos.isEmpty() ? "]\n}\n" : "\n  ]\n}\n");
+            return sb.toString();
+        }
+
+        String aCSV() {
+            StringBuilder sb = new StringBuilder(
+                    "politica,quantum,cpus,memoria,so,pagina,motivo,ciclos,programa,pid,cpu,inicio,fin,duracion,"
+                    + "instrucciones,respuesta,retorno,espera,cambiosContexto\n");
+            for (EstadisticaProceso est : procesos) {
+                sb.append(politica).append(',').append(quantum).append(',').append(cpus).append(',')
+                  .append(memoria).append(',').append(so).append(',').append(pagina).append(',')
+                  .append(motivo).append(',').append(ciclos).append(',')
+                  .append(escaparCSV(est.getNombreProceso())).append(',').append(est.getPid()).append(',')
+                  .append(est.getCpuAsignado()).append(',').append(est.getTiempoInicio()).append(',')
+                  .append(est.getTiempoFin()).append(',').append(est.getDuracion());
+                MetricasProceso m = metricas.getProceso(est.getPid());
+                if (m != null) {
+                    sb.append(',').append(m.getInstrucciones()).append(',').append(m.getRespuesta())
+                      .append(',').append(m.getRetorno()).append(',').append(m.getEspera())
+                      .append(',').append(m.getCambiosContexto());
+                } else {
+                    sb.append(",,,,,");
+                }
+                sb.append('\n');
+            }
+            return sb.toString();
+        }
+
+        private static String escaparJSON(String texto) {
+            StringBuilder sb = new StringBuilder(texto.length());
+            for (char c : texto.toCharArray()) {
+                if (c == '"' || c == '\\') {
+                    sb.append('\\').append(c);
+                } else if (c < 0x20) {
+                    sb.append(String.format("\\u%04x", (int) c));
+                } else {
+                    sb.append(c);
+                }
+            }
+            return sb.toString();
+        }
+
+        private static String escaparCSV(String texto) {
+            if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0) {
+                return texto;
+            }
+            return '"' + texto.replace("\"", "\"\"") + '"';
+        }
+    }
+}
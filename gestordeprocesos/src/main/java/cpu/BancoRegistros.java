@@ -0,0 +1,99 @@
+package cpu;
+
+import procesos.BCP;
+import procesos.PilaEnteros;
+
+/**
+ * Registros de un núcleo: AC, AX, BX, CX, DX (índices de
+ * instrucciones.Registro), PC, bandera de igualdad y pila.
+ * Mientras un proceso ejecuta, el núcleo trabaja sobre estos registros; el
+ * BCP solo se lee al restaurar el contexto y se escribe al guardarlo.
+ * @author gadyr
+ */
+public class BancoRegistros {
+
+    private final int[] registros = new int[5];
+    private int pc;
+    private boolean flagIgualdad;
+    private PilaEnteros pila = new PilaEnteros(PilaEnteros.PROFUNDIDAD_POR_DEFECTO);
+
+    /**
+     * Carga en los registros el contexto guardado en el BCP
+     */
+    void restaurar(BCP bcp) {
+        for (int i = 0; i < registros.length; i++) {
+            registros[i] = bcp.getRegistro(i);
+        }
+        pc = bcp.getProgramCounter();
+        flagIgualdad = bcp.isFlagIgualdad();
+        if (pila.getProfundidad() != bcp.getProfundidadPila()) {
+            pila = new PilaEnteros(bcp.getProfundidadPila());
+        }
+        bcp.copiarPila(pila);
+    }
+
+    /**
+     * Guarda los registros en el BCP
+     */
+    void guardar(BCP bcp) {
+        bcp.actualizarContexto(registros, pc, flagIgualdad, pila);
+    }
+
+    /**
+     * Copia de los registros (para mostrarlos sin detener el núcleo)
+     */
+    public BancoRegistros copia() {
+        BancoRegistros copia = new BancoRegistros();
+        System.arraycopy(registros, 0, copia.registros, 0, registros.length);
+        copia.pila = new PilaEnteros(pila.getProfundidad());
+        copia.pila.copiarDe(pila);
+        copia.pc = pc;
+        copia.flagIgualdad = flagIgualdad;
+        return copia;
+    }
+
+    public int get(int indice) {
+        return registros[indice];
+    }
+
+    void set(int indice, int valor) {
+        registros[indice] = valor;
+    }
+
+    public int getPc() {
+        return pc;
+    }
+
+    void setPc(int pc) {
+        this.pc = pc;
+    }
+
+    public boolean isFlagIgualdad() {
+        return flagIgualdad;
+    }
+
+    void setFlagIgualdad(boolean flagIgualdad) {
+        this.flagIgualdad = flagIgualdad;
+    }
+
+    void push(int valor) {
+        pila.push(valor);
+    }
+
+    int pop() {
+        return pila.pop();
+    }
+
+    public int getTamanioPila() {
+        return pila.tamanio();
+    }
+
+    public int getProfundidadPila() {
+        return pila.getProfundidad();
+    }
+
+    /** La pila como texto, desde el fondo (ej: [1, 2]) */
+    public String pilaComoTexto() {
+        return pila.toString();
+    }
+}
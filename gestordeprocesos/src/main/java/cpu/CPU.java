@@ -5,11 +5,16 @@
 package cpu;
 
 import almacenamiento.UnidadDeAlmacenamiento;
+import bitacora.Bitacora;
+import bitacora.Nivel;
 import instrucciones.IR;
 import instrucciones.Instruccion;
 import instrucciones.InstructionParser;
-import instrucciones.Opcode;
+import instrucciones.Registro;
 import memoria.MemoriaPrincipal;
+import memoria.TablaPaginas;
+import metricas.MetricasProceso;
+import metricas.RegistroMetricas;
 import procesos.BCP;
 import procesos.Estado;
 import procesos.Planificador;
@@ -18,62 +23,118 @@ import java.util.function.Consumer;
 import sistema.GestorSistema;
 
 /**
- * CPU único que ejecuta instrucciones de los procesos usando FCFS
- * Puede mantener hasta 5 BCPs pero ejecuta uno a la vez
+ * Núcleo de CPU que ejecuta instrucciones del proceso asignado a su slot.
+ * Cada núcleo tiene su propio IR y su propio banco de registros, de modo
+ * que varios núcleos pueden ejecutar en paralelo en hilos distintos.
+ * Al recibir un proceso distinto del último que corrió se restaura su
+ * contexto desde el BCP y el núcleo queda ocupado costoCambioContexto
+ * ciclos; el contexto se guarda en el BCP cuando el proceso sale del núcleo.
+ * Cada instrucción ocupa el núcleo tantos ticks como su peso: se busca en el
+ * primero y se ejecuta en el último.
  * @author gadyr
  */
 public class CPU {
     
-    private static final int MAX_PROCESOS_SIMULTANEOS = 5;
+    private static final int AC = Registro.AC.ordinal();
+    private static final int DX = Registro.DX.ordinal();
     
+    private final int id;
     private final MemoriaPrincipal memoria;
     private final Planificador planificador;
     private final UnidadDeAlmacenamiento almacenamiento;
     
-    // 5 Registros IR, uno por cada proceso que puede estar cargado
-    private IR[] registrosIR;
+    // Registro de instrucción de este núcleo
+    private final IR ir;
     
-    // Callbacks para actualizar la interfaz
-    private Consumer<String> consolaCallback;
-    private Consumer<String> pantallaCallback;
+    // Traducciones recientes de página a marco (solo con paginación)
+    private final TLB tlb;
     
-    // Bandera de comparación (para JE/JNE)
-    private boolean flagIgualdad = false;
+    // Callback para la pantalla del simulador; los mensajes van a la bitácora
+    private Consumer<String> pantallaCallback;
+    private final Bitacora bitacora = Bitacora.global();
+    private final String origen;
+    
+    // Métricas de la corrida (opcional) y del proceso cargado
+    private RegistroMetricas metricas;
+    private MetricasProceso metricasProceso;
+    private long instruccionesRafaga;
+    
+    // Registros del proceso cuyo contexto está cargado (procesoCargado)
+    private final BancoRegistros registros = new BancoRegistros();
+    private BCP procesoCargado;
+    // Último proceso que corrió en el núcleo: si vuelve sin que otro haya
+    // corrido en medio (ej: tras INT 09H) no hay cambio de contexto que cobrar
+    private BCP ultimoProceso;
+    
+    // Cambio de contexto: ciclos que cuesta y ciclos que le faltan al actual
+    private int costoCambioContexto = 0;
+    private int ciclosCambioPendientes;
+    private long cambiosContexto;
+    private long ciclosEnCambios;
+    // Ticks que le faltan a la instrucción cargada en el IR (0 = ninguna en curso)
+    private int ciclosInstruccionPendientes;
+    // prepararProceso dejó un proceso listo para la fase de ejecución
+    private boolean preparado = false;
+    // Ciclos que el núcleo ejecutó por delante del reloj (ver ejecutarAdelantado)
+    private int adelanto;
     private GestorSistema gestorReferencia;
     
-    public CPU(MemoriaPrincipal memoria, Planificador planificador, 
+    /**
+     * @param id número de núcleo; coincide con el slot del planificador que atiende
+     */
+    public CPU(int id, MemoriaPrincipal memoria, Planificador planificador, 
                UnidadDeAlmacenamiento almacenamiento, GestorSistema gestor) {
+        this(id, memoria, planificador, almacenamiento, gestor, TLB.ENTRADAS_POR_DEFECTO);
+    }
+    
+    /**
+     * @param id número de núcleo; coincide con el slot del planificador que atiende
+     * @param entradasTLB tamaño de la TLB del núcleo
+     */
+    public CPU(int id, MemoriaPrincipal memoria, Planificador planificador, 
+               UnidadDeAlmacenamiento almacenamiento, GestorSistema gestor, int entradasTLB) {
+        this.id = id;
+        this.origen = "CPU" + id;
+        this.tlb = new TLB(entradasTLB);
         this.memoria = memoria;
+        this.ir = new IR(memoria.getPoolOperandos());
         this.planificador = planificador;
         this.almacenamiento = almacenamiento;
         this.gestorReferencia = gestor;
-        this.registrosIR = new IR[MAX_PROCESOS_SIMULTANEOS];
     }
     
     /**
-     * Ejecuta un ciclo de instrucción siguiendo FCFS
-     * Solo ejecuta el primer proceso en la cola de listos
-     * @return true si ejecutó algo, false si no hay procesos
+     * Carga en memoria el proceso asignado a este núcleo si aún está en disco
+     * y, con memoria virtual, la página de su PC. El gestor lo llama antes de
+     * la fase paralela para que las cargas (que reservan memoria) no compitan
+     * entre núcleos.
+     * @return true si el núcleo tiene un proceso listo para ejecutar
      */
-    public boolean ejecutarCiclo() {
-        // Obtener el primer proceso en ejecución (FCFS)
+    public boolean prepararProceso() {
+        preparado = false;
         BCP proceso = obtenerProcesoActual();
         
         if (proceso == null) {
             return false; // No hay proceso para ejecutar
         }
         
-        
         // Si el proceso no está cargado en memoria, cargarlo ahora
         if (proceso.getDireccionBase() == -1) {
-            log("Cargando proceso " + proceso.getPid() + " del disco a memoria...");
+            bitacora.registrar(Nivel.DEPURACION, origen, "Cargando proceso {} del disco a memoria...", proceso.getPid());
             cargarProcesoEnMemoria(proceso);
 
             // Verificar si el proceso fue marcado como finalizado (error de sintaxis)
             if (proceso.getEstado() == Estado.FINALIZADO) {
-                log("Proceso " + proceso.getPid() + " no se pudo cargar, pasando al siguiente");
+                bitacora.registrar(Nivel.AVISO, origen, "Proceso {} no se pudo cargar, pasando al siguiente", proceso.getPid());
                 return false; // No ejecutar este proceso
             }
+            // Sin espacio: el proceso volvió a la cola de listos
+            if (proceso.getDireccionBase() == -1) {
+                if (metricas != null) {
+                    metricas.tickDetenido(id);
+                }
+                return false;
+            }
         }
         
         // Si está esperando entrada, no ejecutar
@@ -81,38 +142,342 @@ public class CPU {
             return false;
         }
         
+        if (proceso != procesoCargado) {
+            cambiarContexto(proceso);
+        }
+        if (pagarCambioContexto()) {
+            return false;
+        }
+        
+        // Fallo de página: se trae la página y el proceso pierde este ciclo
+        // (una instrucción en curso ya está en el IR)
+        if (ciclosInstruccionPendientes == 0 && memoria.isMemoriaVirtual()) {
+            int pagina = registros.getPc() / memoria.getTamanioPagina();
+            if (!memoria.referenciarPagina(proceso, pagina)) {
+                bitacora.registrar(Nivel.DEPURACION, origen, "Fallo de página: proceso {}, página {}", proceso.getPid(), pagina);
+                try {
+                    if (!memoria.cargarPagina(proceso, pagina)) {
+                        bitacora.registrar(Nivel.DEPURACION, origen, "Sin marcos disponibles para el proceso {}, reintenta", proceso.getPid());
+                    }
+                } catch (RuntimeException e) {
+                    bitacora.registrar(Nivel.ERROR, origen, "Error cargando página del proceso {}: {}", proceso.getPid(), e.getMessage());
+                    planificador.finalizarProceso(proceso.getCpuId());
+                }
+                if (metricas != null) {
+                    metricas.tickDetenido(id);
+                }
+                return false;
+            }
+        }
+        
+        preparado = true;
+        return true;
+    }
+    
+    /**
+     * Cobra un ciclo del cambio de contexto pendiente, si queda alguno
+     * @return true si el núcleo pasó este ciclo cambiando de contexto
+     */
+    private boolean pagarCambioContexto() {
+        if (ciclosCambioPendientes == 0) {
+            return false;
+        }
+        ciclosCambioPendientes--;
+        ciclosEnCambios++;
+        if (metricas != null) {
+            metricas.tickCambioContexto(id);
+        }
+        return true;
+    }
+    
+    /**
+     * Ejecuta un ciclo de instrucción del proceso asignado a este núcleo
+     * @return true si ejecutó algo, false si no hay procesos
+     */
+    public boolean ejecutarCiclo() {
+        prepararProceso();
+        return ejecutarPreparado();
+    }
+    
+    /**
+     * Ejecuta la instrucción del proceso que dejó listo prepararProceso (la
+     * fase paralela del ciclo; no reserva memoria)
+     * @return true si ejecutó algo
+     */
+    public boolean ejecutarPreparado() {
+        if (!preparado) {
+            return false;
+        }
+        preparado = false;
+        // prepararProceso dejó cargado el contexto del proceso del slot
+        BCP proceso = procesoCargado;
+        if (proceso == null) {
+            return false;
+        }
+        
         try {
-            // Fetch: obtener instrucción
-            int pc = proceso.getProgramCounter();
-            Instruccion instruccion = memoria.leerInstruccionUsuario(pc);
+            int pc = registros.getPc();
+            if (ciclosInstruccionPendientes == 0) {
+                buscarInstruccion(proceso, pc);
+            }
             
-            // Cargar en IR correspondiente
-            int slot = obtenerSlotProceso(proceso);
-            if (slot >= 0) {
-                registrosIR[slot] = new IR(instruccion);
+            // La instrucción ocupa el núcleo hasta su último tick
+            if (--ciclosInstruccionPendientes > 0) {
+                proceso.setInstruccionEnCurso(true);
+                return true;
             }
+            proceso.setInstruccionEnCurso(false);
             
-            proceso.setInstruccionActual(instruccion.toString());
+            int peso = ir.getOpcode().getPeso();
+            if (metricas != null) {
+                metricas.instruccion(id, metricasProceso, ir.getOpcode(), peso, tickActual());
+                instruccionesRafaga++;
+            }
             
-            // Decode & Execute: ejecutar instrucción
-            ejecutarInstruccion(proceso, instruccion);
+            // Decode & Execute: el IR decodifica la palabra y se ejecuta desde sus campos
+            proceso.registrarEjecucion(peso);
+            boolean salto = ejecutarInstruccion(proceso, ir);
             
-            // Incrementar PC (excepto si fue un salto)
-            if (!esSalto(instruccion.getOpcode())) {
-                proceso.incrementarPC();
+            // Incrementar PC (excepto si se tomó un salto)
+            if (!salto) {
+                registros.setPc(pc + 1);
+            }
+            
+            // Bloqueado esperando entrada: el contexto vuelve al BCP, donde
+            // se va a escribir la entrada
+            if (proceso.isEsperandoEntrada()) {
+                guardarContexto(proceso);
+                proceso.guardarContexto();
             }
             
             return true;
             
         } catch (Exception e) {
             // Error en ejecución
-            log("Error ejecutando proceso " + proceso.getPid() + ": " + e.getMessage());
+            ciclosInstruccionPendientes = 0;
+            proceso.setInstruccionEnCurso(false);
+            bitacora.registrar(Nivel.ERROR, origen, "Error ejecutando proceso {}: {}", proceso.getPid(), e.getMessage());
             planificador.finalizarProceso(proceso.getCpuId());
             return false;
         }
     }
     
     
+    /**
+     * Ciclo de un lote (ver GestorSistema). El primero ejecuta lo que dejó
+     * prepararProceso; en los siguientes el proceso es el mismo, porque el
+     * lote se corta cuando alguno deja su núcleo, así que no se consulta al
+     * planificador ni a la memoria: solo se cobra el cambio de contexto
+     * pendiente o se ejecuta la instrucción.
+     * @param primero si es el primer ciclo del lote
+     * @return false si el proceso dejó el núcleo en este ciclo (terminó,
+     *         pidió entrada o falló) y hay que volver a planificar
+     */
+    public boolean ejecutarCicloDeLote(boolean primero) {
+        BCP proceso = procesoCargado;
+        if (!primero && proceso != null && !pagarCambioContexto()) {
+            preparado = true;
+        }
+        ejecutarPreparado();
+        return procesoCargado == proceso;
+    }
+    
+    /**
+     * Ciclos de un lote en que el núcleo avanza por su cuenta, sin esperar a
+     * los demás (ver GestorSistema). Si no está adelantado al reloj, el
+     * primero es el que dejó prepararProceso y puede hacer cualquier cosa.
+     * Después solo sigue con ciclos que no tocan nada fuera del núcleo ni
+     * leen el reloj: pagar el cambio de contexto o avanzar una instrucción
+     * que solo cambia registros o la pila, sin fallar. Se detiene antes del
+     * primero que no es así, que se ejecuta cuando el reloj lo alcanza.
+     * @param limite ciclo del lote, contado desde el reloj, al que puede llegar
+     * @return ciclo al que llegó (su adelanto sobre el reloj); si el proceso
+     *         dejó el núcleo en el primero, 1
+     */
+    public int ejecutarAdelantado(int limite) {
+        if (adelanto == 0) {
+            BCP proceso = procesoCargado;
+            ejecutarPreparado();
+            adelanto = 1;
+            if (procesoCargado != proceso) {
+                return adelanto;
+            }
+        }
+        while (adelanto < limite && procesoCargado != null && ejecutarCicloLocal()) {
+            adelanto++;
+        }
+        return adelanto;
+    }
+    
+    /**
+     * Ejecuta el siguiente ciclo del proceso cargado si no sale del núcleo
+     * @return false si el ciclo necesita al planificador o al reloj (queda
+     *         sin ejecutar; a lo sumo ya se buscó la instrucción)
+     */
+    private boolean ejecutarCicloLocal() {
+        if (pagarCambioContexto()) {
+            return true;
+        }
+        BCP proceso = procesoCargado;
+        int pc = registros.getPc();
+        if (ciclosInstruccionPendientes == 0) {
+            if (!proceso.direccionValida(pc)) {
+                return false;
+            }
+            // Buscarla de nuevo daría lo mismo: la busca una sola vez
+            buscarInstruccion(proceso, pc);
+        }
+        if (ciclosInstruccionPendientes == 1 && !terminaEnElNucleo(proceso, pc)) {
+            return false;
+        }
+        preparado = true;
+        ejecutarPreparado();
+        return true;
+    }
+    
+    /**
+     * Indica si la instrucción del IR, al terminar, solo cambia registros,
+     * banderas o la pila y no puede fallar
+     */
+    private boolean terminaEnElNucleo(BCP proceso, int pc) {
+        switch (ir.getOpcode()) {
+            case LOAD:
+            case STORE:
+            case MOV:
+            case ADD:
+            case SUB:
+            case INC:
+            case DEC:
+            case SWAP:
+            case CMP:
+                return true;
+            case JMP:
+                return proceso.direccionValida(pc + ir.getValor());
+            case JE:
+                return !registros.isFlagIgualdad() || proceso.direccionValida(pc + ir.getValor());
+            case JNE:
+                return registros.isFlagIgualdad() || proceso.direccionValida(pc + ir.getValor());
+            case PUSH:
+                return registros.getTamanioPila() < registros.getProfundidadPila();
+            case PARAM:
+                return registros.getTamanioPila() + ir.getValor() <= registros.getProfundidadPila();
+            case POP:
+                return registros.getTamanioPila() > 0;
+            default:
+                // INT y las instrucciones que fallan
+                return false;
+        }
+    }
+    
+    /** Ciclos que el núcleo ejecutó por delante del reloj */
+    public int getAdelanto() {
+        return adelanto;
+    }
+    
+    /** El reloj avanzó: el núcleo queda esos ciclos menos adelantado */
+    public void descontarAdelanto(int ciclos) {
+        adelanto = Math.max(0, adelanto - ciclos);
+    }
+    
+    /**
+     * Indica si el núcleo tiene cargado el contexto de un proceso (listo
+     * para ejecutar o pagando el cambio de contexto)
+     */
+    public boolean tieneProcesoCargado() {
+        return procesoCargado != null;
+    }
+    
+    /**
+     * Guarda el contexto del proceso cargado (si lo hay) y restaura el del
+     * proceso nuevo. Si el que vuelve es el último que corrió en el núcleo
+     * solo se releen sus registros (la entrada pudo cambiar DX): no cuenta
+     * como cambio ni cuesta ciclos.
+     */
+    private void cambiarContexto(BCP proceso) {
+        if (procesoCargado != null) {
+            guardarContexto(procesoCargado);
+        }
+        registros.restaurar(proceso);
+        procesoCargado = proceso;
+        if (metricas != null) {
+            metricasProceso = metricas.getProceso(proceso.getPid());
+            instruccionesRafaga = 0;
+        }
+        if (proceso == ultimoProceso) {
+            return;
+        }
+        cambiosContexto++;
+        ciclosCambioPendientes = costoCambioContexto;
+        if (metricas != null) {
+            metricas.cambioContexto(id, metricasProceso);
+        }
+    }
+    
+    /**
+     * Guarda los registros en el BCP si su contexto es el que está cargado.
+     * El planificador lo llama cuando el proceso sale del núcleo.
+     */
+    public void guardarContexto(BCP proceso) {
+        if (proceso != procesoCargado) {
+            return;
+        }
+        registros.guardar(proceso);
+        procesoCargado = null;
+        // Los ciclos de cambio pendientes quedan: si vuelve este mismo
+        // proceso los termina de pagar, si entra otro se reemplazan
+        ultimoProceso = proceso;
+        // Una instrucción interrumpida se vuelve a buscar (el PC no avanzó)
+        if (ciclosInstruccionPendientes > 0) {
+            if (metricas != null) {
+                for (int i = ir.getOpcode().getPeso() - ciclosInstruccionPendientes; i > 0; i--) {
+                    metricas.tickDetenido(id);
+                }
+            }
+            ciclosInstruccionPendientes = 0;
+            proceso.setInstruccionEnCurso(false);
+        }
+        if (metricas != null && instruccionesRafaga > 0) {
+            metricas.rafaga(instruccionesRafaga);
+        }
+        metricasProceso = null;
+        instruccionesRafaga = 0;
+    }
+    
+    /**
+     * Fetch: traduce el PC lógico y carga en el IR la palabra de la instrucción
+     */
+    private void buscarInstruccion(BCP proceso, int pc) {
+        int palabra = memoria.leerPalabraUsuario(traducir(proceso, pc));
+        ir.cargar(palabra);
+        proceso.setInstruccionActual(palabra);
+        ciclosInstruccionPendientes = ir.getOpcode().getPeso();
+    }
+    
+    /**
+     * Traduce una dirección lógica del proceso a una dirección física:
+     * base + desplazamiento, o con paginación página -> marco pasando por la TLB
+     */
+    private int traducir(BCP proceso, int direccionLogica) {
+        if (!proceso.direccionValida(direccionLogica)) {
+            throw new RuntimeException("Dirección fuera del programa: " + direccionLogica);
+        }
+        TablaPaginas tabla = proceso.getTablaPaginas();
+        if (tabla == null) {
+            return proceso.getDireccionBase() + direccionLogica;
+        }
+        int tamanioPagina = memoria.getTamanioPagina();
+        int pagina = direccionLogica / tamanioPagina;
+        int marco = tlb.buscar(proceso.getPid(), pagina);
+        if (marco < 0) {
+            marco = tabla.getMarco(pagina);
+            if (marco == TablaPaginas.SIN_MARCO) {
+                throw new RuntimeException("Página sin marco: " + pagina);
+            }
+            tlb.insertar(proceso.getPid(), pagina, marco);
+        }
+        return memoria.direccionMarco(marco) + direccionLogica % tamanioPagina;
+    }
+    
     /**
     * Carga un proceso del disco a la memoria principal
     */
@@ -127,186 +492,167 @@ public class CPU {
             // VALIDAR sintaxis ANTES de cargar
             List<Instruccion> instrucciones;
             try {
-                instrucciones = InstructionParser.parseAll(codigoASM);
+                instrucciones = InstructionParser.parseAllCacheado(codigoASM);
             } catch (Exception e) {
                 // Error de sintaxis - reportar y NO cargar
-                log("ERROR: Proceso " + proceso.getPid() + " (" + proceso.getNombreArchivo() + 
-                    ") tiene error de sintaxis: " + e.getMessage());
+                bitacora.registrar(Nivel.ERROR, origen, "ERROR: Proceso {} ({}) tiene error de sintaxis: {}",
+                    proceso.getPid(), proceso.getNombreArchivo(), e.getMessage());
                 imprimirPantalla("✗ ERROR: Proceso " + proceso.getPid() + " (" + 
                                proceso.getNombreArchivo() + ") no se puede ejecutar.\n" +
                                "  Motivo: " + e.getMessage() + "\n");
 
                 // Marcar proceso como finalizado con error
-                proceso.cambiarEstado(Estado.FINALIZADO);
+                proceso.cambiarEstado(Estado.FINALIZADO, tickActual() + 1);
                 planificador.finalizarProceso(proceso.getCpuId());
                 return;
             }
 
-            // Si pasa la validación, cargar en memoria
-            int direccionBase = memoria.cargarProgramaUsuario(instrucciones);
-
-            // Actualizar BCP con dirección base y PC
-            proceso.setDireccionBase(direccionBase);
-            proceso.setProgramCounter(direccionBase);
+            // Un programa más grande que toda la memoria de usuario nunca va a caber
+            if (instrucciones.size() > memoria.getCapacidadUsuario()) {
+                imprimirPantalla("✗ ERROR: Proceso " + proceso.getPid() + " (" +
+                               proceso.getNombreArchivo() + ") no cabe en memoria.\n");
+                proceso.cambiarEstado(Estado.FINALIZADO, tickActual() + 1);
+                planificador.finalizarProceso(proceso.getCpuId());
+                return;
+            }
 
-            // Cargar BCP en memoria SO
-            int direccionBCP = memoria.cargarBCP(proceso);
+            // Si pasa la validación, cargar en memoria
+            int direccionBase;
+            int direccionBCP;
+            try {
+                direccionBase = memoria.cargarProgramaProceso(proceso, instrucciones);
+                try {
+                    // Cargar BCP en memoria SO (guarda la dirección base y el PC reales)
+                    proceso.setDireccionBase(direccionBase);
+                    proceso.setProgramCounter(0);
+                    direccionBCP = memoria.cargarBCP(proceso);
+                } catch (RuntimeException e) {
+                    memoria.liberarPrograma(proceso);
+                    proceso.setDireccionBase(-1);
+                    throw e;
+                }
+            } catch (RuntimeException e) {
+                // Memoria llena: el proceso espera en la cola a que otro termine
+                bitacora.registrar(Nivel.AVISO, origen, "Proceso {} no se pudo cargar ({}), vuelve a la cola de listos",
+                    proceso.getPid(), e.getMessage());
+                planificador.devolverAListos(id);
+                return;
+            }
+            proceso.setCostoEstimado(InstructionParser.costoTotal(instrucciones));
 
             // Configurar el BCP para que actualice memoria automáticamente
             proceso.setDireccionBCPEnMemoria(direccionBCP);
             proceso.setMemoriaReferencia(memoria);
-            log("Proceso " + proceso.getPid() + " cargado en memoria: Base=" + direccionBase + ", BCP@" + direccionBCP);
+            bitacora.registrar(Nivel.DEPURACION, origen, "Proceso {} cargado en memoria: Base={}, BCP@{}",
+                proceso.getPid(), direccionBase, direccionBCP);
+            if (proceso.getTablaPaginas() != null && bitacora.estaHabilitado(Nivel.DEPURACION)) {
+                // la tabla cambia: se registra como texto
+                bitacora.registrar(Nivel.DEPURACION, origen, "Proceso {}: páginas={}",
+                    proceso.getPid(), proceso.getTablaPaginas().toString());
+            }
 
         } catch (Exception e) {
-            log("ERROR al cargar proceso en memoria: " + e.getMessage());
-            e.printStackTrace();
+            bitacora.registrar(Nivel.ERROR, origen, "ERROR al cargar proceso en memoria: {}", e.getMessage());
             throw new RuntimeException("Error cargando proceso en memoria", e);
         }
     }
     
     
     /**
-     * Obtiene el proceso actual en ejecución (primer proceso de los 5 slots)
+     * Obtiene el proceso asignado a este núcleo, si está en ejecución
      */
     private BCP obtenerProcesoActual() {
-        BCP[] procesos = planificador.getProcesosEnEjecucion();
-        for (BCP proceso : procesos) {
-            if (proceso != null && proceso.getEstado() == Estado.EJECUCION) {
-                return proceso;
-            }
+        BCP proceso = planificador.getProcesoCPU(id);
+        if (proceso != null && proceso.getEstado() == Estado.EJECUCION) {
+            return proceso;
         }
         return null;
     }
     
     /**
-     * Obtiene el slot (0-4) donde está cargado un proceso
-     */
-    private int obtenerSlotProceso(BCP proceso) {
-        BCP[] procesos = planificador.getProcesosEnEjecucion();
-        for (int i = 0; i < procesos.length; i++) {
-            if (procesos[i] != null && procesos[i].getPid() == proceso.getPid()) {
-                return i;
-            }
-        }
-        return -1;
-    }
-    
-    /**
-     * Ejecuta una instrucción específica
+     * Ejecuta la instrucción cargada en el IR (sin trabajo con Strings ni
+     * objetos por ciclo)
+     * @return true si la instrucción tomó un salto (el PC ya quedó actualizado)
      */
-    private void ejecutarInstruccion(BCP bcp, Instruccion instr) {
-        Opcode op = instr.getOpcode();
-        List<String> operandos = instr.getOperandos();
-        
-        switch (op) {
+    private boolean ejecutarInstruccion(BCP bcp, IR ir) {
+        int regA = ir.getRegistroA();
+        switch (ir.getOpcode()) {
             case LOAD:
-                ejecutarLOAD(bcp, operandos.get(0));
+                registros.set(AC, registros.get(regA));
                 break;
             case STORE:
-                ejecutarSTORE(bcp, operandos.get(0));
+                registros.set(regA, registros.get(AC));
                 break;
             case MOV:
-                ejecutarMOV(bcp, operandos.get(0), operandos.get(1));
+                registros.set(regA, ir.isInmediato() ? ir.getValor() : registros.get(ir.getRegistroB()));
                 break;
             case ADD:
-                ejecutarADD(bcp, operandos.get(0));
+                registros.set(AC, registros.get(AC) + registros.get(regA));
                 break;
             case SUB:
-                ejecutarSUB(bcp, operandos.get(0));
+                registros.set(AC, registros.get(AC) - registros.get(regA));
                 break;
             case INC:
-                ejecutarINC(bcp, operandos.isEmpty() ? "AC" : operandos.get(0));
+                registros.set(regA, registros.get(regA) + 1);
                 break;
             case DEC:
-                ejecutarDEC(bcp, operandos.isEmpty() ? "AC" : operandos.get(0));
+                registros.set(regA, registros.get(regA) - 1);
                 break;
             case SWAP:
-                ejecutarSWAP(bcp, operandos.get(0), operandos.get(1));
+                ejecutarSWAP(regA, ir.getRegistroB());
                 break;
             case INT:
-                ejecutarINT(bcp, operandos.get(0));
+                ejecutarINT(bcp, ir.getValor());
                 break;
             case JMP:
-                ejecutarJMP(bcp, operandos.get(0));
-                break;
+                ejecutarJMP(bcp, ir.getValor());
+                return true;
             case CMP:
-                ejecutarCMP(bcp, operandos.get(0), operandos.get(1));
+                registros.setFlagIgualdad(registros.get(regA) == registros.get(ir.getRegistroB()));
                 break;
             case JE:
-                ejecutarJE(bcp, operandos.get(0));
+                if (registros.isFlagIgualdad()) {
+                    ejecutarJMP(bcp, ir.getValor());
+                    return true;
+                }
                 break;
             case JNE:
-                ejecutarJNE(bcp, operandos.get(0));
+                if (!registros.isFlagIgualdad()) {
+                    ejecutarJMP(bcp, ir.getValor());
+                    return true;
+                }
                 break;
             case PARAM:
-                ejecutarPARAM(bcp, operandos);
+                ejecutarPARAM(ir);
                 break;
             case PUSH:
-                ejecutarPUSH(bcp, operandos.get(0));
+                registros.push(registros.get(regA));
                 break;
             case POP:
-                ejecutarPOP(bcp, operandos.get(0));
+                registros.set(regA, registros.pop());
                 break;
             default:
-                throw new RuntimeException("Instrucción no implementada: " + op);
+                throw new RuntimeException("Instrucción no implementada: " + ir.getOpcode());
         }
+        return false;
     }
     
     // ========== IMPLEMENTACIÓN DE INSTRUCCIONES ==========
     
-    private void ejecutarLOAD(BCP bcp, String reg) {
-        int valor = leerRegistro(bcp, reg);
-        bcp.setAc(valor);
-    }
-    
-    private void ejecutarSTORE(BCP bcp, String reg) {
-        escribirRegistro(bcp, reg, bcp.getAc());
-    }
-    
-    private void ejecutarMOV(BCP bcp, String destino, String origen) {
-        int valor;
-        if (esNumero(origen)) {
-            valor = Integer.parseInt(origen);
-        } else {
-            valor = leerRegistro(bcp, origen);
-        }
-        escribirRegistro(bcp, destino, valor);
-    }
-    
-    private void ejecutarADD(BCP bcp, String reg) {
-        int valor = leerRegistro(bcp, reg);
-        bcp.setAc(bcp.getAc() + valor);
-    }
-    
-    private void ejecutarSUB(BCP bcp, String reg) {
-        int valor = leerRegistro(bcp, reg);
-        bcp.setAc(bcp.getAc() - valor);
-    }
-    
-    private void ejecutarINC(BCP bcp, String reg) {
-        int valor = leerRegistro(bcp, reg);
-        escribirRegistro(bcp, reg, valor + 1);
-    }
-    
-    private void ejecutarDEC(BCP bcp, String reg) {
-        int valor = leerRegistro(bcp, reg);
-        escribirRegistro(bcp, reg, valor - 1);
+    private void ejecutarSWAP(int reg1, int reg2) {
+        int valor1 = registros.get(reg1);
+        int valor2 = registros.get(reg2);
+        registros.set(reg1, valor2);
+        registros.set(reg2, valor1);
     }
     
-    private void ejecutarSWAP(BCP bcp, String reg1, String reg2) {
-        int valor1 = leerRegistro(bcp, reg1);
-        int valor2 = leerRegistro(bcp, reg2);
-        escribirRegistro(bcp, reg1, valor2);
-        escribirRegistro(bcp, reg2, valor1);
-    }
-    
-    private void ejecutarINT(BCP bcp, String codigo) {
-        switch (codigo.toUpperCase()) {
-            case "20H":
-                // Finalizar programa
-                bcp.cambiarEstado(Estado.FINALIZADO);
+    private void ejecutarINT(BCP bcp, int codigo) {
+        switch (codigo) {
+            case 0x20:
+                // Finalizar programa (al terminar el tick actual)
+                bcp.cambiarEstado(Estado.FINALIZADO, tickActual() + 1);
                 planificador.finalizarProceso(bcp.getCpuId());
-                log("Proceso " + bcp.getPid() + " finalizado");
+                bitacora.registrar(Nivel.INFO, origen, "Proceso {} finalizado", bcp.getPid());
 
                 // Registrar estadística
                 if (gestorReferencia != null) {
@@ -314,122 +660,57 @@ public class CPU {
                 }
                 break;
                 
-            case "10H":
+            case 0x10:
                 // Imprimir en pantalla el valor de DX
-                int valorDX = bcp.getDx();
+                int valorDX = registros.get(DX);
                 imprimirPantalla(String.valueOf(valorDX));
                 break;
                 
-            case "09H":
+            case 0x09:
                 // Entrada de teclado (guardar en DX)
                 bcp.setEsperandoEntrada(true);
                 planificador.agregarProcesoEspera(bcp);
+                if (metricas != null) {
+                    metricas.esperaEntrada(bcp.getPid());
+                }
 //                planificador.liberarCPU(bcp.getCpuId());
-                log("Proceso " + bcp.getPid() + " esperando entrada de teclado");
+                bitacora.registrar(Nivel.INFO, origen, "Proceso {} esperando entrada de teclado", bcp.getPid());
                 break;
                 
-            case "21H":
+            case 0x21:
                 // Manejo de archivos (OPCIONAL)
                 ejecutarManejoArchivos(bcp);
                 break;
                 
             default:
-                throw new RuntimeException("Código de interrupción no reconocido: " + codigo);
+                throw new RuntimeException("Código de interrupción no reconocido: " + Integer.toHexString(codigo) + "H");
         }
     }
     
-    private void ejecutarJMP(BCP bcp, String desplazamiento) {
-        int desp = Integer.parseInt(desplazamiento);
-        int nuevoPC = bcp.getProgramCounter() + desp;
+    private void ejecutarJMP(BCP bcp, int desplazamiento) {
+        int nuevoPC = registros.getPc() + desplazamiento;
         
         if (!bcp.direccionValida(nuevoPC)) {
             throw new RuntimeException("Salto fuera de rango: " + nuevoPC);
         }
         
-        bcp.setProgramCounter(nuevoPC);
-    }
-    
-    private void ejecutarCMP(BCP bcp, String reg1, String reg2) {
-        int valor1 = leerRegistro(bcp, reg1);
-        int valor2 = leerRegistro(bcp, reg2);
-        flagIgualdad = (valor1 == valor2);
-    }
-    
-    private void ejecutarJE(BCP bcp, String desplazamiento) {
-        if (flagIgualdad) {
-            ejecutarJMP(bcp, desplazamiento);
-        }
-    }
-    
-    private void ejecutarJNE(BCP bcp, String desplazamiento) {
-        if (!flagIgualdad) {
-            ejecutarJMP(bcp, desplazamiento);
-        }
+        registros.setPc(nuevoPC);
     }
     
-    private void ejecutarPARAM(BCP bcp, List<String> valores) {
-        for (int i = valores.size() - 1; i >= 0; i--) {
-            int valor = Integer.parseInt(valores.get(i));
-            bcp.pushPila(valor);
+    private void ejecutarPARAM(IR ir) {
+        for (int i = ir.getValor() - 1; i >= 0; i--) {
+            registros.push(ir.getValorParam(i));
         }
     }
     
-    private void ejecutarPUSH(BCP bcp, String reg) {
-        int valor = leerRegistro(bcp, reg);
-        bcp.pushPila(valor);
-    }
-    
-    private void ejecutarPOP(BCP bcp, String reg) {
-        int valor = bcp.popPila();
-        escribirRegistro(bcp, reg, valor);
-    }
-    
     private void ejecutarManejoArchivos(BCP bcp) {
-        log("Manejo de archivos no implementado (INT 21H)");
+        bitacora.registrar(Nivel.AVISO, origen, "Manejo de archivos no implementado (INT 21H)");
     }
     
     // ========== UTILIDADES ==========
     
-    private int leerRegistro(BCP bcp, String reg) {
-        switch (reg.toUpperCase()) {
-            case "AC": return bcp.getAc();
-            case "AX": return bcp.getAx();
-            case "BX": return bcp.getBx();
-            case "CX": return bcp.getCx();
-            case "DX": return bcp.getDx();
-            default: throw new RuntimeException("Registro inválido: " + reg);
-        }
-    }
-    
-    private void escribirRegistro(BCP bcp, String reg, int valor) {
-        switch (reg.toUpperCase()) {
-            case "AC": bcp.setAc(valor); break;
-            case "AX": bcp.setAx(valor); break;
-            case "BX": bcp.setBx(valor); break;
-            case "CX": bcp.setCx(valor); break;
-            case "DX": bcp.setDx(valor); break;
-            default: throw new RuntimeException("Registro inválido: " + reg);
-        }
-    }
-    
-    private boolean esNumero(String str) {
-        try {
-            Integer.parseInt(str);
-            return true;
-        } catch (NumberFormatException e) {
-            return false;
-        }
-    }
-    
-    private boolean esSalto(Opcode op) {
-        return op == Opcode.JMP || op == Opcode.JE || op == Opcode.JNE;
-    }
-    
-    private void log(String mensaje) {
-        if (consolaCallback != null) {
-            consolaCallback.accept("[CPU] " + mensaje);
-        }
-        System.out.println("[CPU] " + mensaje);
+    private long tickActual() {
+        return planificador.getReloj().getTicks() + adelanto;
     }
     
     private void imprimirPantalla(String texto) {
@@ -439,16 +720,16 @@ public class CPU {
     }
     
     /**
-     * Procesa la entrada del teclado para el proceso en espera
+     * Procesa la entrada del teclado para el proceso de este núcleo en espera
      */
-    public void procesarEntradaTeclado(int cpuSlot, int valor) {
+    public void procesarEntradaTeclado(int valor) {
         // Buscar primero en el slot
-        BCP proceso = planificador.getProcesoCPU(cpuSlot);
+        BCP proceso = planificador.getProcesoCPU(id);
 
         // Si no está en el slot, buscar en cola de espera
         if (proceso == null) {
             for (BCP p : planificador.getColaEspera()) {
-                if (p != null && p.isEsperandoEntrada() && p.getCpuId() == cpuSlot) {
+                if (p != null && p.isEsperandoEntrada() && p.getCpuId() == id) {
                     proceso = p;
                     break;
                 }
@@ -458,31 +739,69 @@ public class CPU {
         if (proceso != null && proceso.isEsperandoEntrada()) {
             proceso.setDx(valor);
             proceso.setEsperandoEntrada(false);
-            proceso.cambiarEstado(Estado.EJECUCION);
+            proceso.cambiarEstado(Estado.EJECUCION, tickActual());
 //            planificador.moverEsperaAListos(proceso);
-            log("Proceso " + proceso.getPid() + " recibió entrada: " + valor);
+            bitacora.registrar(Nivel.INFO, origen, "Proceso {} recibió entrada: {}", proceso.getPid(), valor);
         } else {
-            log("ERROR: No se encontró proceso esperando entrada en slot " + cpuSlot);
+            bitacora.registrar(Nivel.ERROR, origen, "ERROR: No se encontró proceso esperando entrada en CPU {}", id);
         }
     }
     
+    public TLB getTLB() {
+        return tlb;
+    }
+    
+    /**
+     * Obtiene el IR de este núcleo
+     */
+    public IR getIR() {
+        return ir;
+    }
+    
+    public int getId() {
+        return id;
+    }
+    
     /**
-     * Obtiene el IR de un slot específico
+     * Copia de los registros del proceso en ejecución, o null si ningún
+     * contexto está cargado
      */
-    public IR getIR(int slot) {
-        if (slot >= 0 && slot < MAX_PROCESOS_SIMULTANEOS) {
-            return registrosIR[slot];
+    public BancoRegistros getRegistros() {
+        return procesoCargado != null ? registros.copia() : null;
+    }
+    
+    public int getCostoCambioContexto() {
+        return costoCambioContexto;
+    }
+    
+    /**
+     * Ciclos que el núcleo pasa sin ejecutar al cambiar de proceso
+     */
+    public void setCostoCambioContexto(int ciclos) {
+        if (ciclos < 0) {
+            throw new IllegalArgumentException("El costo del cambio de contexto no puede ser negativo");
         }
-        return null;
+        this.costoCambioContexto = ciclos;
     }
     
-    // ========== SETTERS PARA CALLBACKS ==========
+    /** Contextos restaurados en este núcleo */
+    public long getCambiosContexto() {
+        return cambiosContexto;
+    }
     
-    public void setConsolaCallback(Consumer<String> callback) {
-        this.consolaCallback = callback;
+    /** Ciclos perdidos en cambios de contexto */
+    public long getCiclosEnCambios() {
+        return ciclosEnCambios;
     }
     
+    // ========== SETTERS PARA CALLBACKS ==========
+    
     public void setPantallaCallback(Consumer<String> callback) {
         this.pantallaCallback = callback;
     }
+    
+    /** Registro donde el núcleo cuenta instrucciones, cambios y ciclos perdidos */
+    public void setMetricas(RegistroMetricas metricas) {
+        this.metricas = metricas;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,150 @@
+package cpu;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Buffer de traducción (TLB) de un núcleo: guarda las últimas traducciones
+ * página -> marco. Cada entrada lleva el PID del proceso, así que no hace
+ * falta vaciarlo en cada cambio de contexto. Es totalmente asociativo y
+ * reemplaza la entrada usada hace más tiempo (LRU).
+ *
+ * Solo el hilo del núcleo dueño toca las entradas. Las invalidaciones que
+ * llegan de otros hilos (un proceso que termina en otro núcleo, una página
+ * desalojada o un proceso suspendido) se encolan y el dueño las aplica
+ * antes de su siguiente búsqueda o inserción.
+ *
+ * @author dylan
+ */
+public class TLB {
+
+    public static final int ENTRADAS_POR_DEFECTO = 8;
+
+    private final int[] pids;
+    private final int[] paginas;
+    private final int[] marcos;
+    private final long[] ultimoUso;
+    private long usos;
+
+    // Invalidaciones pendientes: (pid << 32) | página, con TODAS para el proceso entero
+    private static final int TODAS = -1;
+    private final Queue<Long> pendientes = new ConcurrentLinkedQueue<>();
+    private volatile boolean hayPendientes;
+
+    private long aciertos;
+    private long fallos;
+
+    public TLB(int entradas) {
+        if (entradas <= 0) {
+            throw new IllegalArgumentException("La TLB debe tener al menos una entrada");
+        }
+        this.pids = new int[entradas];
+        this.paginas = new int[entradas];
+        this.marcos = new int[entradas];
+        this.ultimoUso = new long[entradas];
+        invalidarTodo();
+    }
+
+    /**
+     * Busca la traducción de una página
+     *
+     * @return el marco, o -1 si no está (fallo de TLB)
+     */
+    public int buscar(int pid, int pagina) {
+        if (hayPendientes) {
+            aplicarPendientes();
+        }
+        for (int i = 0; i < pids.length; i++) {
+            if (pids[i] == pid && paginas[i] == pagina) {
+                ultimoUso[i] = ++usos;
+                aciertos++;
+                return marcos[i];
+            }
+        }
+        fallos++;
+        return -1;
+    }
+
+    /** Guarda una traducción, reemplazando la entrada menos usada */
+    public void insertar(int pid, int pagina, int marco) {
+        if (hayPendientes) {
+            aplicarPendientes();
+        }
+        int victima = 0;
+        for (int i = 0; i < pids.length; i++) {
+            if (pids[i] == -1) {
+                victima = i;
+                break;
+            }
+            if (ultimoUso[i] < ultimoUso[victima]) {
+                victima = i;
+            }
+        }
+        pids[victima] = pid;
+        paginas[victima] = pagina;
+        marcos[victima] = marco;
+        ultimoUso[victima] = ++usos;
+    }
+
+    /**
+     * Descarta las entradas de un proceso. Puede llamarse desde cualquier
+     * hilo: solo se encola, y el núcleo dueño la aplica antes de volver a
+     * usar la TLB.
+     */
+    public void invalidar(int pid) {
+        encolar(pid, TODAS);
+    }
+
+    private void encolar(int pid, int pagina) {
+        pendientes.add(((long) pid << 32) | (pagina & 0xFFFFFFFFL));
+        hayPendientes = true;
+    }
+
+    /** Aplica las invalidaciones encoladas (hilo del núcleo dueño) */
+    private void aplicarPendientes() {
+        hayPendientes = false;
+        Long pendiente;
+        while ((pendiente = pendientes.poll()) != null) {
+            int pid = (int) (pendiente >> 32);
+            int pagina = (int) (long) pendiente;
+            for (int i = 0; i < pids.length; i++) {
+                if (pids[i] == pid && (pagina == TODAS || paginas[i] == pagina)) {
+                    pids[i] = -1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Descarta la traducción de una página (al desalojarla de memoria); se
+     * encola igual que invalidar(pid)
+     */
+    public void invalidar(int pid, int pagina) {
+        encolar(pid, pagina);
+    }
+
+    public final void invalidarTodo() {
+        for (int i = 0; i < pids.length; i++) {
+            pids[i] = -1;
+            ultimoUso[i] = 0;
+        }
+    }
+
+    public int getEntradas() {
+        return pids.length;
+    }
+
+    public long getAciertos() {
+        return aciertos;
+    }
+
+    public long getFallos() {
+        return fallos;
+    }
+
+    /** Aciertos / búsquedas (0 si no hubo búsquedas) */
+    public double getTasaAciertos() {
+        long total = aciertos + fallos;
+        return total == 0 ? 0 : (double) aciertos / total;
+    }
+}
@@ -0,0 +1,152 @@
+package instrucciones;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caché LRU acotada de programas ya parseados y validados.
+ * La clave es un hash de 64 bits del contenido (FNV-1a sobre las líneas);
+ * en un acierto se comparan las líneas para descartar colisiones. También
+ * se guardan los programas con error, así un programa inválido no se vuelve
+ * a tokenizar para reportar el mismo error.
+ *
+ * @author dylan y gadyr
+ */
+public class CacheProgramas {
+
+    private static final long FNV_BASE = 0xcbf29ce484222325L;
+    private static final long FNV_PRIMO = 0x100000001b3L;
+
+    private final int capacidad;
+    private final LinkedHashMap<Long, Entrada> entradas;
+
+    private long aciertos;
+    private long fallos;
+    private long desalojos;
+
+    /**
+     * @param capacidad cantidad máxima de programas guardados
+     */
+    public CacheProgramas(int capacidad) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad de la caché debe ser positiva");
+        }
+        this.capacidad = capacidad;
+        // accessOrder = true: el primero es el menos usado recientemente
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entrada> mayor) {
+                if (size() > CacheProgramas.this.capacidad) {
+                    desalojos++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Devuelve las instrucciones del programa, parseándolo solo si no está en
+     * la caché. La lista devuelta es compartida y no se puede modificar.
+     *
+     * @param lineas líneas ASM del programa
+     * @return instrucciones validadas
+     * @throws IllegalArgumentException si el programa tiene errores
+     */
+    public synchronized List<Instruccion> obtener(List<String> lineas) {
+        long clave = hash(lineas);
+        Entrada entrada = entradas.get(clave);
+        if (entrada != null && entrada.lineas.equals(lineas)) {
+            aciertos++;
+        } else {
+            fallos++;
+            entrada = parsear(lineas);
+            entradas.put(clave, entrada);
+        }
+        if (entrada.error != null) {
+            throw new IllegalArgumentException(entrada.error);
+        }
+        return entrada.instrucciones;
+    }
+
+    /**
+     * Guarda un programa que ya se parseó y validó en otro lado (por ejemplo
+     * la carga en paralelo), para que el siguiente obtener sea un acierto.
+     */
+    public synchronized void guardar(List<String> lineas, List<Instruccion> instrucciones) {
+        entradas.put(hash(lineas), new Entrada(new ArrayList<>(lineas),
+                Collections.unmodifiableList(new ArrayList<>(instrucciones)), null));
+    }
+
+    private static Entrada parsear(List<String> lineas) {
+        List<String> copia = new ArrayList<>(lineas);
+        try {
+            return new Entrada(copia, Collections.unmodifiableList(InstructionParser.parseAll(copia)), null);
+        } catch (IllegalArgumentException e) {
+            return new Entrada(copia, null, e.getMessage());
+        }
+    }
+
+    /**
+     * Hash FNV-1a de 64 bits de las líneas, con un separador entre líneas
+     */
+    static long hash(List<String> lineas) {
+        long h = FNV_BASE;
+        for (String linea : lineas) {
+            for (int i = 0; i < linea.length(); i++) {
+                h = (h ^ linea.charAt(i)) * FNV_PRIMO;
+            }
+            h = (h ^ '\n') * FNV_PRIMO;
+        }
+        return h;
+    }
+
+    /** Vacía la caché y reinicia los contadores */
+    public synchronized void limpiar() {
+        entradas.clear();
+        aciertos = 0;
+        fallos = 0;
+        desalojos = 0;
+    }
+
+    public synchronized int getTamanio() {
+        return entradas.size();
+    }
+
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    public synchronized long getFallos() {
+        return fallos;
+    }
+
+    public synchronized long getDesalojos() {
+        return desalojos;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Caché de programas: " + entradas.size() + "/" + capacidad
+                + " (aciertos: " + aciertos + ", fallos: " + fallos + ", desalojos: " + desalojos + ")";
+    }
+
+    private static final class Entrada {
+        final List<String> lineas;
+        final List<Instruccion> instrucciones;
+        final String error;
+
+        Entrada(List<String> lineas, List<Instruccion> instrucciones, String error) {
+            this.lineas = lineas;
+            this.instrucciones = instrucciones;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package instrucciones;
+
+/**
+ * Codificación de instrucciones en palabras de 32 bits.
+ *
+ * Formato (bit 31 a la izquierda):
+ * <pre>
+ *  31..27  opcode (ordinal + 1; la palabra 0 significa celda vacía)
+ *  Registros (LOAD, STORE, ADD, SUB, INC, DEC, PUSH, POP, SWAP, CMP, MOV):
+ *    26..24  registro A
+ *    23      1 = operando B inmediato (solo MOV)
+ *    22..20  registro B            (si bit 23 = 0)
+ *    22..0   constante con signo   (si bit 23 = 1, 23 bits)
+ *  Saltos (JMP, JE, JNE):
+ *    26..0   desplazamiento con signo (27 bits)
+ *  INT:
+ *    7..0    código de interrupción (ej: 0x20)
+ *  PARAM:
+ *    26..25  cantidad de valores (1..3)
+ *    1 valor:  24..0 (25 bits con signo)
+ *    2 valores: 23..12 y 11..0 (12 bits con signo c/u)
+ *    3 valores: 23..16, 15..8 y 7..0 (8 bits con signo c/u)
+ * </pre>
+ *
+ * Si una constante de MOV, un desplazamiento o un valor de PARAM no cabe en
+ * su campo, el valor va al PoolOperandos de la memoria donde se carga y el
+ * opcode se guarda con CON_POOL sumado (los códigos 17..31 no se usan de
+ * otra forma); el campo del valor (22..0, 26..0 o 24..0) guarda el índice
+ * en el pool. Así las constantes siguen siendo de 32 bits y cada
+ * instrucción ocupa una palabra; esas palabras se leen con el mismo pool.
+ *
+ * Los métodos de lectura de campos son estáticos y no reservan memoria, para
+ * que el CPU decodifique la palabra directamente en cada ciclo.
+ *
+ * @author dylan y gadyr
+ */
+public final class CodificadorInstruccion {
+
+    private static final Opcode[] OPCODES = Opcode.values();
+
+    private static final int BITS_INMEDIATO = 23;
+    private static final int BITS_DESPLAZAMIENTO = 27;
+    private static final int BITS_PARAM_UNO = 25;
+
+    /** Se suma al código de opcode cuando el valor está en el pool */
+    private static final int CON_POOL = 16;
+
+    private CodificadorInstruccion() {
+    }
+
+    // ========== CODIFICACIÓN ==========
+
+    /**
+     * Codifica una instrucción decodificada en una palabra; los valores que
+     * no caben en su campo se guardan en el pool.
+     *
+     * @param pool tabla de constantes anchas (puede ser null si
+     *             necesitaPool es false)
+     * @throws IllegalArgumentException si el pool de operandos está lleno
+     */
+    public static int codificar(InstruccionDecodificada instr, PoolOperandos pool) {
+        Opcode op = instr.getOpcode();
+        int palabra = (op.ordinal() + 1) << 27;
+        int conPool = palabra + (CON_POOL << 27);
+        switch (op) {
+            case JMP:
+            case JE:
+            case JNE:
+                if (!cabe(instr.getA(), BITS_DESPLAZAMIENTO)) {
+                    return conPool | registrarEnPool(pool, op, instr.getA());
+                }
+                return palabra | campo(instr.getA(), BITS_DESPLAZAMIENTO, "Desplazamiento");
+            case INT:
+                return palabra | (instr.getA() & 0xFF);
+            case PARAM:
+                if (!paramCabe(instr)) {
+                    int[] valores = new int[instr.getNumOperandos()];
+                    for (int i = 0; i < valores.length; i++) {
+                        valores[i] = instr.getValor(i);
+                    }
+                    return conPool | (valores.length << 25) | registrarEnPool(pool, op, valores);
+                }
+                return palabra | codificarParam(instr);
+            case MOV:
+                if (instr.isInmediato()) {
+                    if (!cabe(instr.getB(), BITS_INMEDIATO)) {
+                        return conPool | (instr.getA() << 24) | (1 << 23) | registrarEnPool(pool, op, instr.getB());
+                    }
+                    return palabra | (instr.getA() << 24) | (1 << 23)
+                            | campo(instr.getB(), BITS_INMEDIATO, "Constante");
+                }
+                return palabra | (instr.getA() << 24) | (instr.getB() << 20);
+            case SWAP:
+            case CMP:
+                return palabra | (instr.getA() << 24) | (instr.getB() << 20);
+            default:
+                return palabra | (instr.getA() << 24);
+        }
+    }
+
+    /** Indica si algún valor de la instrucción no cabe en su campo */
+    public static boolean necesitaPool(InstruccionDecodificada instr) {
+        switch (instr.getOpcode()) {
+            case JMP:
+            case JE:
+            case JNE:
+                return !cabe(instr.getA(), BITS_DESPLAZAMIENTO);
+            case PARAM:
+                return !paramCabe(instr);
+            case MOV:
+                return instr.isInmediato() && !cabe(instr.getB(), BITS_INMEDIATO);
+            default:
+                return false;
+        }
+    }
+
+    private static int registrarEnPool(PoolOperandos pool, Opcode op, int... valores) {
+        int indice = pool.registrar(valores);
+        if (indice >= 1 << bitsIndicePool(op)) {
+            throw new IllegalArgumentException("No caben más constantes en el pool de operandos");
+        }
+        return indice;
+    }
+
+    /** Bits del campo que guarda el índice en el pool */
+    private static int bitsIndicePool(Opcode op) {
+        switch (op) {
+            case MOV: return BITS_INMEDIATO;
+            case PARAM: return BITS_PARAM_UNO;
+            default: return BITS_DESPLAZAMIENTO;
+        }
+    }
+
+    private static boolean paramCabe(InstruccionDecodificada instr) {
+        int n = instr.getNumOperandos();
+        int bits = n == 1 ? BITS_PARAM_UNO : n == 2 ? 12 : 8;
+        for (int i = 0; i < n; i++) {
+            if (!cabe(instr.getValor(i), bits)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean cabe(int valor, int bits) {
+        return valor >= -(1 << (bits - 1)) && valor <= (1 << (bits - 1)) - 1;
+    }
+
+    private static int codificarParam(InstruccionDecodificada instr) {
+        int n = instr.getNumOperandos();
+        int campos = n << 25;
+        switch (n) {
+            case 1:
+                return campos | campo(instr.getValor(0), BITS_PARAM_UNO, "Valor de PARAM");
+            case 2:
+                return campos | (campo(instr.getValor(0), 12, "Valor de PARAM") << 12)
+                        | campo(instr.getValor(1), 12, "Valor de PARAM");
+            default:
+                return campos | (campo(instr.getValor(0), 8, "Valor de PARAM") << 16)
+                        | (campo(instr.getValor(1), 8, "Valor de PARAM") << 8)
+                        | campo(instr.getValor(2), 8, "Valor de PARAM");
+        }
+    }
+
+    /**
+     * Valida que el valor quepa con signo en la cantidad de bits y lo recorta
+     */
+    private static int campo(int valor, int bits, String nombre) {
+        int min = -(1 << (bits - 1));
+        int max = (1 << (bits - 1)) - 1;
+        if (valor < min || valor > max) {
+            throw new IllegalArgumentException(nombre + " fuera de rango (" + min + ".." + max + "): " + valor);
+        }
+        return valor & ((1 << bits) - 1);
+    }
+
+    // ========== LECTURA DE CAMPOS ==========
+
+    /** Indica si la palabra contiene una instrucción (0 = celda vacía) */
+    public static boolean esInstruccion(int palabra) {
+        int codigo = palabra >>> 27;
+        if (codigo > CON_POOL) {
+            Opcode op = OPCODES[codigo - CON_POOL - 1];
+            return op == Opcode.MOV ? esInmediato(palabra) : admitePool(op);
+        }
+        return codigo > 0;
+    }
+
+    private static boolean admitePool(Opcode op) {
+        return op == Opcode.JMP || op == Opcode.JE || op == Opcode.JNE || op == Opcode.PARAM;
+    }
+
+    public static Opcode opcode(int palabra) {
+        return OPCODES[((palabra >>> 27) - 1) & (CON_POOL - 1)];
+    }
+
+    /** Indica si el valor de la instrucción está en el pool */
+    public static boolean usaPool(int palabra) {
+        return (palabra >>> 27) > CON_POOL;
+    }
+
+    /** Índice del primer valor en el pool (solo si usaPool) */
+    public static int indicePool(int palabra) {
+        return palabra & ((1 << bitsIndicePool(opcode(palabra))) - 1);
+    }
+
+    /** Cuántos valores seguidos del pool usa la palabra */
+    public static int cantidadValoresPool(int palabra) {
+        if (!usaPool(palabra)) {
+            return 0;
+        }
+        return opcode(palabra) == Opcode.PARAM ? cantidadParam(palabra) : 1;
+    }
+
+    public static int registroA(int palabra) {
+        return (palabra >>> 24) & 0x7;
+    }
+
+    public static boolean esInmediato(int palabra) {
+        return ((palabra >>> 23) & 1) != 0;
+    }
+
+    public static int registroB(int palabra) {
+        return (palabra >>> 20) & 0x7;
+    }
+
+    /** Constante con signo de MOV inmediato */
+    public static int inmediato(int palabra, PoolOperandos pool) {
+        if (usaPool(palabra)) {
+            return pool.valor(indicePool(palabra));
+        }
+        return (palabra << (32 - BITS_INMEDIATO)) >> (32 - BITS_INMEDIATO);
+    }
+
+    /** Desplazamiento con signo de JMP/JE/JNE */
+    public static int desplazamiento(int palabra, PoolOperandos pool) {
+        if (usaPool(palabra)) {
+            return pool.valor(indicePool(palabra));
+        }
+        return (palabra << (32 - BITS_DESPLAZAMIENTO)) >> (32 - BITS_DESPLAZAMIENTO);
+    }
+
+    public static int codigoInterrupcion(int palabra) {
+        return palabra & 0xFF;
+    }
+
+    public static int cantidadParam(int palabra) {
+        return (palabra >>> 25) & 0x3;
+    }
+
+    /** i-ésimo valor (0..2) de un PARAM, con signo */
+    public static int valorParam(int palabra, int i, PoolOperandos pool) {
+        if (usaPool(palabra)) {
+            return pool.valor(indicePool(palabra) + i);
+        }
+        switch (cantidadParam(palabra)) {
+            case 1:
+                return (palabra << 7) >> 7;
+            case 2:
+                return i == 0 ? (palabra << 8) >> 20 : (palabra << 20) >> 20;
+            default:
+                int desplazamiento = 8 + 8 * i;
+                return (palabra << desplazamiento) >> 24;
+        }
+    }
+
+    // ========== DECODIFICACIÓN COMPLETA ==========
+
+    /**
+     * Reconstruye la instrucción de una palabra. Reserva memoria: está
+     * pensado para mostrar o guardar, no para el ciclo del CPU.
+     *
+     * @param pool tabla con la que se codificó la palabra
+     * @throws IllegalArgumentException si la palabra no es una instrucción
+     */
+    public static Instruccion decodificar(int palabra, PoolOperandos pool) {
+        if (!esInstruccion(palabra)) {
+            throw new IllegalArgumentException("Palabra sin instrucción: " + Integer.toHexString(palabra));
+        }
+        Opcode op = opcode(palabra);
+        InstruccionDecodificada instr;
+        switch (op) {
+            case JMP:
+            case JE:
+            case JNE:
+                instr = InstruccionDecodificada.crear(op, 1, desplazamiento(palabra, pool), 0, 0, false);
+                break;
+            case INT:
+                instr = InstruccionDecodificada.crear(op, 1, codigoInterrupcion(palabra), 0, 0, false);
+                break;
+            case PARAM: {
+                int n = cantidadParam(palabra);
+                int[] valores = new int[3];
+                for (int i = 0; i < n; i++) {
+                    valores[i] = valorParam(palabra, i, pool);
+                }
+                instr = InstruccionDecodificada.crear(op, n, valores[0], valores[1], valores[2], true);
+                break;
+            }
+            case MOV:
+                instr = InstruccionDecodificada.crear(op, 2, registroA(palabra),
+                        esInmediato(palabra) ? inmediato(palabra, pool) : registroB(palabra), 0, esInmediato(palabra));
+                break;
+            case SWAP:
+            case CMP:
+                instr = InstruccionDecodificada.crear(op, 2, registroA(palabra), registroB(palabra), 0, false);
+                break;
+            default:
+                // INC/DEC sin operando equivale a AC; se reconstruye explícito
+                instr = InstruccionDecodificada.crear(op, 1, registroA(palabra), 0, 0, false);
+                break;
+        }
+        return new Instruccion(instr);
+    }
+}
@@ -1,29 +1,129 @@
 package instrucciones;
 
 /**
+ * Registro de instrucción. Guarda la palabra de 32 bits traída de memoria y
+ * la decodifica una vez al cargarla (etapa de decode); el CPU ejecuta leyendo
+ * estos campos. Las constantes anchas se leen del pool de la memoria.
  *
  * @author dylan y Gadyr
  * 
  */
 public class IR {
-    private final Instruccion instruccion;
+    private final PoolOperandos pool;
 
-    public IR(Instruccion instruccion) {
-        this.instruccion = instruccion;
+    // Palabra codificada de la instrucción cargada (ver CodificadorInstruccion)
+    private int palabra;
+
+    // Campos decodificados
+    private Opcode opcode;
+    private int registroA;
+    private int registroB;
+    private boolean inmediato;
+    private int valor; // constante de MOV, desplazamiento de salto o código de INT
+
+    public IR(Instruccion instruccion, PoolOperandos pool) {
+        this.pool = pool;
+        cargar(instruccion.codificar(pool));
+    }
+
+    /**
+     * @param pool pool de constantes de la memoria de la que se leen las palabras
+     */
+    public IR(PoolOperandos pool) {
+        this.pool = pool;
+        this.palabra = 0;
+    }
+
+    /**
+     * Carga una palabra en el registro y decodifica sus campos
+     *
+     * @throws IllegalArgumentException si la palabra no es una instrucción
+     */
+    public void cargar(int palabra) {
+        if (!CodificadorInstruccion.esInstruccion(palabra)) {
+            throw new IllegalArgumentException("Palabra sin instrucción: " + Integer.toHexString(palabra));
+        }
+        this.palabra = palabra;
+        this.opcode = CodificadorInstruccion.opcode(palabra);
+        this.registroA = CodificadorInstruccion.registroA(palabra);
+        this.registroB = CodificadorInstruccion.registroB(palabra);
+        this.inmediato = false;
+        this.valor = 0;
+        switch (opcode) {
+            case MOV:
+                this.inmediato = CodificadorInstruccion.esInmediato(palabra);
+                if (inmediato) {
+                    this.valor = CodificadorInstruccion.inmediato(palabra, pool);
+                }
+                break;
+            case JMP:
+            case JE:
+            case JNE:
+                this.valor = CodificadorInstruccion.desplazamiento(palabra, pool);
+                break;
+            case INT:
+                this.valor = CodificadorInstruccion.codigoInterrupcion(palabra);
+                break;
+            case PARAM:
+                this.valor = CodificadorInstruccion.cantidadParam(palabra);
+                break;
+            default:
+                break;
+        }
+    }
+
+    public int getPalabra() {
+        return palabra;
+    }
+
+    public Opcode getOpcode() {
+        return opcode;
+    }
+
+    public int getRegistroA() {
+        return registroA;
+    }
+
+    public int getRegistroB() {
+        return registroB;
+    }
+
+    /** true si el segundo operando de MOV es una constante */
+    public boolean isInmediato() {
+        return inmediato;
+    }
+
+    /**
+     * Constante de MOV, desplazamiento de JMP/JE/JNE, código de INT o
+     * cantidad de valores de PARAM, según el opcode
+     */
+    public int getValor() {
+        return valor;
+    }
+
+    /** i-ésimo valor de un PARAM */
+    public int getValorParam(int i) {
+        return CodificadorInstruccion.valorParam(palabra, i, pool);
+    }
+
+    /**
+     * Instrucción cargada, decodificada a texto (reserva memoria; para mostrar)
+     */
+    public Instruccion getInstruccion() {
+        return CodificadorInstruccion.esInstruccion(palabra)
+                ? CodificadorInstruccion.decodificar(palabra, pool) : null;
     }
 
+    /**
+     * Los 32 bits de la palabra, separados en opcode y operandos
+     */
     public String getBinario() {
-        // Representación simple: 5 bits para opcode, 11 para operandos hash
-        String opBits = String.format("%5s", Integer.toBinaryString(instruccion.getOpcode().ordinal()))
-                            .replace(' ', '0');
-        int hashOps = instruccion.getOperandos().toString().hashCode() & 0x7FF;
-        String opsBits = String.format("%11s", Integer.toBinaryString(hashOps))
-                             .replace(' ', '0');
-        return opBits + opsBits;
+        String bits = String.format("%32s", Integer.toBinaryString(palabra)).replace(' ', '0');
+        return bits.substring(0, 5) + " " + bits.substring(5);
     }
 
     @Override
     public String toString() {
-        return "[IR] " + instruccion.toString() + " -> " + getBinario();
+        return "[IR] " + getInstruccion() + " -> " + getBinario();
     }
 }
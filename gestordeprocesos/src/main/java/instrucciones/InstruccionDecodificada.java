@@ -0,0 +1,121 @@
+package instrucciones;
+
+/**
+ * Forma compacta de una instrucción, calculada una sola vez al cargarla.
+ * Los registros quedan como índices (ver {@link Registro}) y las constantes,
+ * desplazamientos y códigos de interrupción ya convertidos a int, de modo que
+ * el CPU no hace trabajo con Strings en cada ciclo.
+ *
+ * Significado de los campos según el opcode:
+ * - LOAD, STORE, ADD, SUB, INC, DEC, PUSH, POP: a = registro
+ * - MOV: a = registro destino, b = registro origen o constante (ver inmediato)
+ * - SWAP, CMP: a = registro 1, b = registro 2
+ * - JMP, JE, JNE: a = desplazamiento
+ * - INT: a = código de interrupción (ej: 0x20 para 20H)
+ * - PARAM: a, b, c = valores (numOperandos indica cuántos son válidos)
+ *
+ * @author dylan y gadyr
+ */
+public final class InstruccionDecodificada {
+
+    private static final int REGISTROS = Registro.values().length;
+
+    private final Opcode opcode;
+    private final int numOperandos;
+    private final int a;
+    private final int b;
+    private final int c;
+    private final boolean inmediato;
+
+    private InstruccionDecodificada(Opcode opcode, int numOperandos, int a, int b, int c, boolean inmediato) {
+        this.opcode = opcode;
+        this.numOperandos = numOperandos;
+        this.a = a;
+        this.b = b;
+        this.c = c;
+        this.inmediato = inmediato;
+    }
+
+    /**
+     * Arma la forma decodificada a partir de operandos ya convertidos a int
+     * (por el parser o al leer una palabra de memoria) y valida la cantidad,
+     * los registros y el código de interrupción.
+     *
+     * @param opcode código de operación
+     * @param numOperandos cantidad de operandos escritos
+     * @param a primer operando (ver la tabla de la clase)
+     * @param b segundo operando
+     * @param c tercer operando (solo PARAM)
+     * @param inmediato si b es una constante (solo MOV)
+     * @return forma decodificada
+     * @throws IllegalArgumentException si la instrucción no es válida
+     */
+    public static InstruccionDecodificada crear(Opcode opcode, int numOperandos, int a, int b, int c, boolean inmediato) {
+        validarCantidad(opcode, numOperandos);
+        switch (opcode) {
+            case INC:
+            case DEC:
+                // Sin operando se aplica sobre AC
+                return new InstruccionDecodificada(opcode, numOperandos,
+                        numOperandos == 0 ? Registro.AC.ordinal() : registro(a), 0, 0, false);
+            case MOV:
+                return new InstruccionDecodificada(opcode, numOperandos,
+                        registro(a), inmediato ? b : registro(b), 0, inmediato);
+            case SWAP:
+            case CMP:
+                return new InstruccionDecodificada(opcode, numOperandos, registro(a), registro(b), 0, false);
+            case JMP:
+            case JE:
+            case JNE:
+                return new InstruccionDecodificada(opcode, numOperandos, a, 0, 0, false);
+            case INT:
+                if (!(a == 0x20 || a == 0x10 || a == 0x09 || a == 0x21)) {
+                    throw new IllegalArgumentException(String.format("Interrupción inválida: %02XH", a));
+                }
+                return new InstruccionDecodificada(opcode, numOperandos, a, 0, 0, false);
+            case PARAM:
+                return new InstruccionDecodificada(opcode, numOperandos, a, b, c, true);
+            default:
+                return new InstruccionDecodificada(opcode, numOperandos, registro(a), 0, 0, false);
+        }
+    }
+
+    private static void validarCantidad(Opcode opcode, int n) {
+        int esperado = opcode.getNumOperandos();
+        if (esperado >= 0 && n != esperado) {
+            throw new IllegalArgumentException(opcode.name() + " espera " + esperado + " operandos, recibió " + n);
+        }
+        if (opcode == Opcode.PARAM && (n < 1 || n > 3)) {
+            throw new IllegalArgumentException("PARAM espera entre 1 y 3 operandos, recibió " + n);
+        }
+        if ((opcode == Opcode.INC || opcode == Opcode.DEC) && n > 1) {
+            throw new IllegalArgumentException(opcode.name() + " espera 0 o 1 operando");
+        }
+    }
+
+    private static int registro(int indice) {
+        if (indice < 0 || indice >= REGISTROS) {
+            throw new IllegalArgumentException("Registro inválido: " + indice);
+        }
+        return indice;
+    }
+
+    /**
+     * Devuelve el i-ésimo valor (0..2) de una instrucción PARAM.
+     */
+    public int getValor(int i) {
+        switch (i) {
+            case 0: return a;
+            case 1: return b;
+            case 2: return c;
+            default: throw new IndexOutOfBoundsException("PARAM tiene a lo sumo 3 valores");
+        }
+    }
+
+    public Opcode getOpcode() { return opcode; }
+    public int getNumOperandos() { return numOperandos; }
+    public int getA() { return a; }
+    public int getB() { return b; }
+    public int getC() { return c; }
+    public boolean isInmediato() { return inmediato; }
+}
@@ -1,7 +1,6 @@
 package instrucciones;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -10,45 +9,146 @@ import java.util.List;
  */
 public class InstructionParser {
 
+    // Programas ya parseados, compartidos por todos los CPUs
+    private static final CacheProgramas CACHE = new CacheProgramas(64);
+
     /**
      * Parsea una línea ASM y devuelve la Instruccion correspondiente.
+     * Un solo recorrido de izquierda a derecha: cada operando se clasifica al
+     * leerlo (registro, entero o código de interrupción) y pasa como int a la
+     * forma decodificada, sin Strings intermedios. En una línea válida solo
+     * se reserva la Instruccion; el texto se copia únicamente para el mensaje
+     * de error.
      *
      * @param linea Línea de código (ej: "MOV AX, 5")
      * @return Instruccion validada
      * @throws IllegalArgumentException si la línea es inválida
      */
-    public static Instruccion parse(String linea) {
-        if (linea == null || linea.trim().isEmpty()) {
+    public static Instruccion parse(CharSequence linea) {
+        if (linea == null) {
             throw new IllegalArgumentException("Línea vacía");
         }
-
-        // Elimina comentarios ";"
-        String sinComentario = linea.split(";", 2)[0].trim();
-        if (sinComentario.isEmpty()) {
-            throw new IllegalArgumentException("Línea vacía tras comentario");
+        int n = linea.length();
+        int i = LexerASM.saltarEspacios(linea, 0, n);
+        if (i == n || linea.charAt(i) == ';') {
+            throw new IllegalArgumentException(i == n ? "Línea vacía" : "Línea vacía tras comentario");
         }
 
-        // Tokenizar
-        String[] partes = sinComentario.split("\\s+", 2);
-        String opStr = partes[0].toUpperCase();
-
-        Opcode opcode;
-        try {
-            opcode = Opcode.valueOf(opStr);
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Instrucción desconocida: " + opStr);
+        // Opcode: hasta el primer espacio o comentario
+        int finOp = i;
+        while (finOp < n && !LexerASM.esEspacio(linea.charAt(finOp)) && linea.charAt(finOp) != ';') {
+            finOp++;
         }
+        Opcode opcode = LexerASM.buscarOpcode(linea, i, finOp);
+        if (opcode == null) {
+            throw new IllegalArgumentException(
+                    LexerASM.mensaje("Instrucción desconocida: ", linea, i, finOp, true));
+        }
+        // Los operandos de más solo se cuentan; la cantidad se valida al final
+        int maximo = opcode == Opcode.PARAM ? 3 : Math.max(opcode.getNumOperandos(), 1);
 
-        List<String> operandos = new ArrayList<>();
-        if (partes.length > 1) {
-            String resto = partes[1].trim();
-            // Separar por comas
-            operandos = new ArrayList<>(
-                Arrays.asList(resto.split("\\s*,\\s*"))
-            );
+        // Operandos separados por comas hasta el ";" o el fin de la línea
+        int cantidad = 0;
+        int vacios = 0;
+        int a = 0;
+        int b = 0;
+        int c = 0;
+        boolean inmediato = false;
+        i = finOp;
+        while (i < n && linea.charAt(i) != ';') {
+            int ini = LexerASM.saltarEspacios(linea, i + (linea.charAt(i) == ',' ? 1 : 0), n);
+            int fin = ini;
+            i = ini;
+            while (i < n && linea.charAt(i) != ',' && linea.charAt(i) != ';') {
+                if (!LexerASM.esEspacio(linea.charAt(i))) {
+                    fin = i + 1;
+                }
+                i++;
+            }
+            if (ini == fin) {
+                // Igual que String.split: las comas finales no agregan operandos
+                vacios += i < n && linea.charAt(i) == ',' ? 1 : 0;
+                continue;
+            }
+            // Un operando vacío antes de otro no es válido
+            if (vacios > 0) {
+                throw new IllegalArgumentException("Operando vacío en la posición " + (cantidad + 1));
+            }
+            if (cantidad < maximo) {
+                int valor;
+                if (opcode == Opcode.MOV && cantidad == 1) {
+                    // MOV puede ser reg, reg  o  reg, valor
+                    valor = Registro.indice(linea, ini, fin);
+                    inmediato = valor < 0;
+                    if (inmediato) {
+                        long constante = LexerASM.entero(linea, ini, fin);
+                        if (constante == LexerASM.NO_ENTERO) {
+                            throw new IllegalArgumentException(
+                                    LexerASM.mensaje("MOV espera registro o constante, recibió ", linea, ini, fin));
+                        }
+                        valor = (int) constante;
+                    }
+                } else {
+                    valor = operando(opcode, cantidad, linea, ini, fin);
+                }
+                if (cantidad == 0) {
+                    a = valor;
+                } else if (cantidad == 1) {
+                    b = valor;
+                } else {
+                    c = valor;
+                }
+            }
+            cantidad++;
         }
 
-        return new Instruccion(opcode, operandos);
+        return new Instruccion(InstruccionDecodificada.crear(opcode, cantidad, a, b, c, inmediato));
+    }
+
+    /**
+     * Clasifica el operando s[ini, fin) según lo que espera el opcode en esa
+     * posición (salvo la constante de MOV)
+     *
+     * @return índice de registro, desplazamiento, código de interrupción o valor
+     * @throws IllegalArgumentException si el token no es de ese tipo
+     */
+    private static int operando(Opcode opcode, int posicion, CharSequence s, int ini, int fin) {
+        switch (opcode) {
+            case INT: {
+                int codigo = LexerASM.codigoInterrupcion(s, ini, fin);
+                if (codigo < 0) {
+                    throw new IllegalArgumentException(LexerASM.mensaje("Interrupción inválida: ", s, ini, fin));
+                }
+                return codigo;
+            }
+            case JMP:
+            case JE:
+            case JNE: {
+                if (ini == fin || (s.charAt(ini) != '+' && s.charAt(ini) != '-')) {
+                    throw new IllegalArgumentException(
+                            LexerASM.mensaje("Desplazamiento inválido: ", s, ini, fin) + " (usar +n o -n)");
+                }
+                long desplazamiento = LexerASM.entero(s, ini, fin);
+                if (desplazamiento == LexerASM.NO_ENTERO) {
+                    throw new IllegalArgumentException(LexerASM.mensaje("Desplazamiento no numérico: ", s, ini, fin));
+                }
+                return (int) desplazamiento;
+            }
+            case PARAM: {
+                long valor = LexerASM.entero(s, ini, fin);
+                if (valor == LexerASM.NO_ENTERO) {
+                    throw new IllegalArgumentException(LexerASM.mensaje("Valor numérico inválido: ", s, ini, fin));
+                }
+                return (int) valor;
+            }
+            default: {
+                int registro = Registro.indice(s, ini, fin);
+                if (registro < 0) {
+                    throw new IllegalArgumentException(LexerASM.mensaje("Registro inválido: ", s, ini, fin));
+                }
+                return registro;
+            }
+        }
     }
 
     /**
@@ -70,4 +170,34 @@ public class InstructionParser {
         }
         return instrucciones;
     }
-}
\ No newline at end of file
+
+    /**
+     * Igual que parseAll, pero reutiliza el resultado si el mismo contenido
+     * ya se parseó antes. La lista devuelta no se puede modificar.
+     *
+     * @param lineas Lista de líneas de un archivo ASM
+     * @return Lista de Instrucciones validadas
+     * @throws IllegalArgumentException si el programa tiene errores
+     */
+    public static List<Instruccion> parseAllCacheado(List<String> lineas) {
+        return CACHE.obtener(lineas);
+    }
+
+    public static CacheProgramas getCache() {
+        return CACHE;
+    }
+
+    /**
+     * Suma los pesos de una lista de instrucciones (costo estimado del programa).
+     *
+     * @param instrucciones instrucciones parseadas
+     * @return suma de Opcode.getPeso() de cada instrucción
+     */
+    public static long costoTotal(List<Instruccion> instrucciones) {
+        long costo = 0;
+        for (Instruccion instr : instrucciones) {
+            costo += instr.getOpcode().getPeso();
+        }
+        return costo;
+    }
+}
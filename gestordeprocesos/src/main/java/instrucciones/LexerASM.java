@@ -0,0 +1,122 @@
+package instrucciones;
+
+/**
+ * Análisis léxico de una línea ASM a nivel de caracteres, sobre un
+ * CharSequence y sin expresiones regulares. Los tokens se leen como rangos
+ * [ini, fin) de la línea, sin copiarlos a Strings, y las funciones de
+ * consulta devuelven null, -1 o NO_ENTERO en lugar de lanzar excepciones,
+ * para que el camino normal del parser no reserve memoria.
+ *
+ * @author dylan y gadyr
+ */
+final class LexerASM {
+
+    /** Resultado de entero cuando el token no es un entero válido */
+    static final long NO_ENTERO = Long.MIN_VALUE;
+
+    private static final Opcode[] OPCODES = Opcode.values();
+
+    private LexerASM() {
+    }
+
+    static boolean esEspacio(char c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\n' || c == '\f' || c == 0x0B;
+    }
+
+    static int saltarEspacios(CharSequence s, int i, int fin) {
+        while (i < fin && esEspacio(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Busca el opcode cuyo nombre coincide con s[ini, fin) sin importar
+     * mayúsculas.
+     *
+     * @return el opcode, o null si no existe
+     */
+    static Opcode buscarOpcode(CharSequence s, int ini, int fin) {
+        int largo = fin - ini;
+        for (Opcode op : OPCODES) {
+            String nombre = op.name();
+            if (nombre.length() == largo && igualSinMayusculas(nombre, s, ini)) {
+                return op;
+            }
+        }
+        return null;
+    }
+
+    private static boolean igualSinMayusculas(String nombre, CharSequence s, int ini) {
+        for (int i = 0; i < nombre.length(); i++) {
+            if (nombre.charAt(i) != Character.toUpperCase(s.charAt(ini + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Entero decimal con signo opcional en s[ini, fin) que cabe en un int
+     * (mismo criterio que Integer.parseInt)
+     *
+     * @return el valor, o NO_ENTERO si el token no es un entero
+     */
+    static long entero(CharSequence s, int ini, int fin) {
+        int i = ini;
+        boolean negativo = false;
+        if (i < fin && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+            negativo = s.charAt(i) == '-';
+            i++;
+        }
+        if (i == fin) {
+            return NO_ENTERO;
+        }
+        long limite = negativo ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long valor = 0;
+        for (; i < fin; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return NO_ENTERO;
+            }
+            valor = valor * 10 + (c - '0');
+            if (valor > limite) {
+                return NO_ENTERO;
+            }
+        }
+        return negativo ? -valor : valor;
+    }
+
+    /**
+     * Código de una interrupción en formato "XXH" (hexadecimal) en s[ini, fin)
+     *
+     * @return el código (0..255), o -1 si el token no tiene ese formato
+     */
+    static int codigoInterrupcion(CharSequence s, int ini, int fin) {
+        if (fin - ini != 3 || Character.toUpperCase(s.charAt(fin - 1)) != 'H') {
+            return -1;
+        }
+        int valor = 0;
+        for (int i = ini; i < fin - 1; i++) {
+            int digito = Character.digit(s.charAt(i), 16);
+            if (digito < 0) {
+                return -1;
+            }
+            valor = valor * 16 + digito;
+        }
+        return valor;
+    }
+
+    /** Mensaje de error con el token s[ini, fin); solo para el camino de error */
+    static String mensaje(String prefijo, CharSequence s, int ini, int fin) {
+        return mensaje(prefijo, s, ini, fin, false);
+    }
+
+    static String mensaje(String prefijo, CharSequence s, int ini, int fin, boolean mayusculas) {
+        StringBuilder sb = new StringBuilder(prefijo.length() + fin - ini).append(prefijo);
+        for (int i = ini; i < fin; i++) {
+            sb.append(mayusculas ? Character.toUpperCase(s.charAt(i)) : s.charAt(i));
+        }
+        return sb.toString();
+    }
+}
@@ -22,7 +22,7 @@ public enum Opcode {
     PUSH(1, 1),    // 1 operando: reg
     POP(1, 1);     // 1 operando: reg
     
-    private final int peso;             // tiempo en sengundos
+    private final int peso;             // ticks del reloj simulado que ocupa el núcleo
     private final int numOperandos;     // -1 = variable
     
     Opcode(int peso, int numOperandos) {
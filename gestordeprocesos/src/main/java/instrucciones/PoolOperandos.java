@@ -0,0 +1,66 @@
+package instrucciones;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tabla de constantes que no caben en su campo de la palabra de 32 bits
+ * (ver CodificadorInstruccion). La palabra guarda el índice del primer valor;
+ * los valores de un mismo PARAM quedan seguidos. Cada memoria principal tiene
+ * la suya (las palabras solo valen junto con su tabla) y se descarta con
+ * ella al reiniciar el sistema; cada grupo de valores se guarda una vez, así
+ * que solo crece con las constantes distintas de los programas cargados.
+ *
+ * Los núcleos leen sin locks: los valores nuevos se escriben después del
+ * último y el arreglo se vuelve a publicar (escritura volatile, uno nuevo si
+ * no había lugar) antes de devolver el índice; una palabra se escribe en
+ * memoria después de que su índice existe.
+ *
+ * @author dylan
+ */
+public final class PoolOperandos {
+
+    private final Map<List<Integer>, Integer> indices = new HashMap<>();
+    private volatile int[] valores = new int[0];
+    private int cantidad;
+
+    /**
+     * Guarda los valores seguidos (o reutiliza los que ya estaban)
+     *
+     * @return índice del primero
+     */
+    public synchronized int registrar(int... nuevos) {
+        List<Integer> clave = Arrays.stream(nuevos).boxed().toList();
+        Integer indice = indices.get(clave);
+        if (indice != null) {
+            return indice;
+        }
+        int[] actual = valores;
+        if (cantidad + nuevos.length > actual.length) {
+            actual = Arrays.copyOf(actual, Math.max(16, 2 * (cantidad + nuevos.length)));
+        }
+        System.arraycopy(nuevos, 0, actual, cantidad, nuevos.length);
+        indice = cantidad;
+        cantidad += nuevos.length;
+        valores = actual;
+        indices.put(clave, indice);
+        return indice;
+    }
+
+    /** Valor guardado en el índice */
+    public int valor(int indice) {
+        return valores[indice];
+    }
+
+    /** Cantidad de valores guardados */
+    public synchronized int getCantidad() {
+        return cantidad;
+    }
+
+    /** Copia de los valores guardados, en orden de índice */
+    public synchronized int[] getValores() {
+        return Arrays.copyOf(valores, cantidad);
+    }
+}
@@ -0,0 +1,145 @@
+package instrucciones;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Programas guardados como binario compacto: una palabra de 32 bits por
+ * instrucción (ver CodificadorInstruccion), precedidas por un encabezado.
+ * Las palabras con constantes anchas apuntan a la tabla de valores del
+ * propio archivo (su PoolOperandos); al cargarlas en memoria se vuelven a
+ * codificar con el pool de esa memoria.
+ *
+ * Formato (big endian):
+ * <pre>
+ *  "SOPB"      firma (4 bytes)
+ *  versión     1 byte
+ *  cantidad    int
+ *  palabras    cantidad * int
+ *  valores     int (cantidad) + valores * int   (desde la versión 2)
+ * </pre>
+ *
+ * @author dylan y gadyr
+ */
+public final class ProgramaBinario {
+
+    public static final String EXTENSION = ".bin";
+
+    private static final int FIRMA = 0x534F5042; // "SOPB"
+    private static final int VERSION = 2;
+
+    private ProgramaBinario() {
+    }
+
+    /**
+     * Guarda las instrucciones codificadas en un archivo binario
+     */
+    public static void guardar(File archivo, List<Instruccion> instrucciones) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(archivo)))) {
+            out.writeInt(FIRMA);
+            out.writeByte(VERSION);
+            out.writeInt(instrucciones.size());
+            PoolOperandos propio = new PoolOperandos();
+            for (Instruccion instr : instrucciones) {
+                out.writeInt(instr.codificar(propio));
+            }
+            int[] valores = propio.getValores();
+            out.writeInt(valores.length);
+            for (int valor : valores) {
+                out.writeInt(valor);
+            }
+        }
+    }
+
+    /**
+     * Lee las palabras de un archivo binario; su tabla de valores queda en
+     * el pool (vacío), con los mismos índices
+     *
+     * @throws IOException si el archivo no tiene el formato esperado o alguna
+     * palabra no es una instrucción
+     */
+    private static int[] cargarPalabras(File archivo, PoolOperandos pool) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(archivo)))) {
+            if (in.readInt() != FIRMA) {
+                throw new IOException("No es un programa binario: " + archivo.getName());
+            }
+            int version = in.readUnsignedByte();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Versión de binario no soportada: " + version);
+            }
+            int cantidad = in.readInt();
+            if (cantidad < 0) {
+                throw new IOException("Cantidad de instrucciones inválida: " + cantidad);
+            }
+            int[] palabras = new int[cantidad];
+            for (int i = 0; i < cantidad; i++) {
+                palabras[i] = in.readInt();
+                if (!CodificadorInstruccion.esInstruccion(palabras[i])
+                        || version == 1 && CodificadorInstruccion.usaPool(palabras[i])) {
+                    throw new IOException("Palabra inválida en la posición " + i + ": "
+                            + Integer.toHexString(palabras[i]));
+                }
+            }
+            if (version >= 2) {
+                leerValores(in, palabras, pool);
+            }
+            return palabras;
+        }
+    }
+
+    /**
+     * Lee la tabla de valores del archivo al pool y revisa que las palabras
+     * que la usan no se salgan de ella
+     */
+    private static void leerValores(DataInputStream in, int[] palabras, PoolOperandos pool) throws IOException {
+        int cantidad = in.readInt();
+        if (cantidad < 0) {
+            throw new IOException("Cantidad de valores inválida: " + cantidad);
+        }
+        int[] valores = new int[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            valores[i] = in.readInt();
+        }
+        for (int i = 0; i < palabras.length; i++) {
+            if (!CodificadorInstruccion.usaPool(palabras[i])) {
+                continue;
+            }
+            int hasta = CodificadorInstruccion.indicePool(palabras[i])
+                    + CodificadorInstruccion.cantidadValoresPool(palabras[i]);
+            if (hasta > cantidad) {
+                throw new IOException("Valor fuera de la tabla en la posición " + i);
+            }
+        }
+        if (cantidad > 0) {
+            pool.registrar(valores); // pool vacío: el primer índice es 0
+        }
+    }
+
+    /**
+     * Lee un archivo binario y reconstruye sus instrucciones
+     */
+    public static List<Instruccion> cargar(File archivo) throws IOException {
+        PoolOperandos pool = new PoolOperandos();
+        int[] palabras = cargarPalabras(archivo, pool);
+        List<Instruccion> instrucciones = new ArrayList<>(palabras.length);
+        for (int palabra : palabras) {
+            instrucciones.add(CodificadorInstruccion.decodificar(palabra, pool));
+        }
+        return instrucciones;
+    }
+
+    /** Indica si el archivo tiene la extensión de programa binario */
+    public static boolean esBinario(File archivo) {
+        return archivo.getName().toLowerCase().endsWith(EXTENSION);
+    }
+}
@@ -0,0 +1,38 @@
+package instrucciones;
+
+/**
+ * Registros de propósito general del CPU simulado.
+ * El ordinal de cada registro es el índice que usa la forma decodificada.
+ *
+ * @author dylan y gadyr
+ */
+public enum Registro {
+    AC,
+    AX,
+    BX,
+    CX,
+    DX;
+
+    /**
+     * Busca el índice de un registro por nombre (sin importar mayúsculas).
+     *
+     * @param s línea que contiene el nombre (ej: "ax") en s[ini, fin)
+     * @return índice del registro, o -1 si no es un registro válido
+     */
+    public static int indice(CharSequence s, int ini, int fin) {
+        if (fin - ini != 2) {
+            return -1;
+        }
+        char c0 = Character.toUpperCase(s.charAt(ini));
+        char c1 = Character.toUpperCase(s.charAt(ini + 1));
+        if (c0 == 'A' && c1 == 'C') return AC.ordinal();
+        if (c1 != 'X') return -1;
+        switch (c0) {
+            case 'A': return AX.ordinal();
+            case 'B': return BX.ordinal();
+            case 'C': return CX.ordinal();
+            case 'D': return DX.ordinal();
+            default: return -1;
+        }
+    }
+}
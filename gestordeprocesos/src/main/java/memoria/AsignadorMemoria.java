@@ -0,0 +1,230 @@
+package memoria;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Asignador de bloques contiguos dentro de una región [inicio, fin) de la
+ * memoria. Mantiene la lista de huecos libres ordenada por dirección, une
+ * huecos vecinos al liberar y puede compactar los bloques ocupados hacia el
+ * inicio de la región.
+ *
+ * Solo lleva la cuenta de direcciones: mover los datos al compactar le
+ * corresponde a quien usa el asignador (ver MemoriaPrincipal).
+ *
+ * @author dylan
+ */
+public class AsignadorMemoria {
+
+    private final int inicio;
+    private final int fin;
+    private EstrategiaAsignacion estrategia;
+
+    // inicio -> tamaño, ordenados por dirección
+    private final TreeMap<Integer, Integer> libres = new TreeMap<>();
+    private final TreeMap<Integer, Integer> ocupados = new TreeMap<>();
+
+    // Para siguiente ajuste: dirección donde terminó la última reserva
+    private int cursor;
+
+    public AsignadorMemoria(int inicio, int fin, EstrategiaAsignacion estrategia) {
+        if (inicio < 0 || fin <= inicio) {
+            throw new IllegalArgumentException("Región inválida: [" + inicio + ", " + fin + ")");
+        }
+        this.inicio = inicio;
+        this.fin = fin;
+        this.estrategia = estrategia;
+        reiniciar();
+    }
+
+    /** Libera toda la región */
+    public void reiniciar() {
+        libres.clear();
+        ocupados.clear();
+        libres.put(inicio, fin - inicio);
+        cursor = inicio;
+    }
+
+    /**
+     * Reserva un bloque contiguo
+     *
+     * @param tamanio cantidad de celdas
+     * @return dirección inicial, o -1 si ningún hueco alcanza
+     */
+    public int reservar(int tamanio) {
+        if (tamanio <= 0) {
+            throw new IllegalArgumentException("Tamaño de bloque inválido: " + tamanio);
+        }
+        Map.Entry<Integer, Integer> hueco = buscarHueco(tamanio);
+        if (hueco == null) {
+            return -1;
+        }
+        int direccion = hueco.getKey();
+        int tamanioHueco = hueco.getValue();
+        libres.remove(direccion);
+        if (tamanioHueco > tamanio) {
+            libres.put(direccion + tamanio, tamanioHueco - tamanio);
+        }
+        ocupados.put(direccion, tamanio);
+        cursor = direccion + tamanio;
+        return direccion;
+    }
+
+    private Map.Entry<Integer, Integer> buscarHueco(int tamanio) {
+        switch (estrategia) {
+            case MEJOR_AJUSTE: {
+                Map.Entry<Integer, Integer> mejor = null;
+                for (Map.Entry<Integer, Integer> hueco : libres.entrySet()) {
+                    if (hueco.getValue() >= tamanio
+                            && (mejor == null || hueco.getValue() < mejor.getValue())) {
+                        mejor = hueco;
+                        if (hueco.getValue() == tamanio) {
+                            break;
+                        }
+                    }
+                }
+                return mejor;
+            }
+            case SIGUIENTE_AJUSTE: {
+                // Desde el hueco que contiene o sigue al cursor, dando la vuelta
+                Map.Entry<Integer, Integer> desdeCursor = libres.floorEntry(cursor);
+                int desde = desdeCursor != null && desdeCursor.getKey() + desdeCursor.getValue() > cursor
+                        ? desdeCursor.getKey() : cursor;
+                Map.Entry<Integer, Integer> hueco = primeroQueAlcance(libres.tailMap(desde, true), tamanio);
+                return hueco != null ? hueco : primeroQueAlcance(libres.headMap(desde, false), tamanio);
+            }
+            default:
+                return primeroQueAlcance(libres, tamanio);
+        }
+    }
+
+    private static Map.Entry<Integer, Integer> primeroQueAlcance(Map<Integer, Integer> huecos, int tamanio) {
+        for (Map.Entry<Integer, Integer> hueco : huecos.entrySet()) {
+            if (hueco.getValue() >= tamanio) {
+                return hueco;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Libera un bloque reservado y lo une con los huecos vecinos
+     *
+     * @param direccion dirección inicial devuelta por reservar
+     * @return tamaño del bloque liberado
+     * @throws IllegalStateException si la dirección no es un bloque reservado
+     */
+    public int liberar(int direccion) {
+        Integer tamanio = ocupados.remove(direccion);
+        if (tamanio == null) {
+            throw new IllegalStateException("No hay un bloque reservado en " + direccion);
+        }
+        int nuevoInicio = direccion;
+        int nuevoTamanio = tamanio;
+
+        Map.Entry<Integer, Integer> anterior = libres.floorEntry(direccion);
+        if (anterior != null && anterior.getKey() + anterior.getValue() == direccion) {
+            libres.remove(anterior.getKey());
+            nuevoInicio = anterior.getKey();
+            nuevoTamanio += anterior.getValue();
+        }
+        Integer siguiente = libres.remove(direccion + tamanio);
+        if (siguiente != null) {
+            nuevoTamanio += siguiente;
+        }
+        libres.put(nuevoInicio, nuevoTamanio);
+        return tamanio;
+    }
+
+    /**
+     * Mueve todos los bloques ocupados al inicio de la región, en orden, y
+     * deja un único hueco al final.
+     *
+     * @return dirección anterior -> dirección nueva de cada bloque que se
+     * movió, en orden ascendente (copiar en ese orden no pisa datos)
+     */
+    public Map<Integer, Integer> compactar() {
+        Map<Integer, Integer> reubicaciones = new LinkedHashMap<>();
+        TreeMap<Integer, Integer> compactados = new TreeMap<>();
+        int siguiente = inicio;
+        for (Map.Entry<Integer, Integer> bloque : ocupados.entrySet()) {
+            if (bloque.getKey() != siguiente) {
+                reubicaciones.put(bloque.getKey(), siguiente);
+            }
+            compactados.put(siguiente, bloque.getValue());
+            siguiente += bloque.getValue();
+        }
+        ocupados.clear();
+        ocupados.putAll(compactados);
+        libres.clear();
+        if (siguiente < fin) {
+            libres.put(siguiente, fin - siguiente);
+        }
+        cursor = siguiente;
+        return reubicaciones;
+    }
+
+    /** Indica si la dirección cae dentro de un bloque reservado */
+    public boolean estaOcupada(int direccion) {
+        Map.Entry<Integer, Integer> bloque = ocupados.floorEntry(direccion);
+        return bloque != null && direccion < bloque.getKey() + bloque.getValue();
+    }
+
+    /** Tamaño del bloque reservado que empieza en la dirección (0 si no hay) */
+    public int getTamanioBloque(int direccion) {
+        Integer tamanio = ocupados.get(direccion);
+        return tamanio != null ? tamanio : 0;
+    }
+
+    public int getLibre() {
+        int total = 0;
+        for (int tamanio : libres.values()) {
+            total += tamanio;
+        }
+        return total;
+    }
+
+    public int getMayorHueco() {
+        int mayor = 0;
+        for (int tamanio : libres.values()) {
+            mayor = Math.max(mayor, tamanio);
+        }
+        return mayor;
+    }
+
+    public int getCantidadHuecos() {
+        return libres.size();
+    }
+
+    public int getCantidadBloques() {
+        return ocupados.size();
+    }
+
+    /** Huecos libres como pares {inicio, tamaño}, ordenados por dirección */
+    public List<int[]> getHuecos() {
+        List<int[]> huecos = new ArrayList<>(libres.size());
+        for (Map.Entry<Integer, Integer> hueco : libres.entrySet()) {
+            huecos.add(new int[]{hueco.getKey(), hueco.getValue()});
+        }
+        return huecos;
+    }
+
+    public EstrategiaAsignacion getEstrategia() {
+        return estrategia;
+    }
+
+    public void setEstrategia(EstrategiaAsignacion estrategia) {
+        this.estrategia = estrategia;
+    }
+
+    public int getInicio() {
+        return inicio;
+    }
+
+    public int getFin() {
+        return fin;
+    }
+}
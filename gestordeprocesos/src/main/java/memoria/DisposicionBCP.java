@@ -0,0 +1,102 @@
+package memoria;
+
+/**
+ * Disposición de un BCP en la sección SO: cada constante es un campo, en el
+ * orden en que se guarda, con la cantidad de celdas que ocupa.
+ * La primera celda guarda la VERSION de la disposición, para reconocer un BCP
+ * escrito con otra. Los tiempos son long y ocupan dos celdas (parte alta y
+ * parte baja). La pila va al final: una celda con la cantidad de elementos
+ * y luego una celda por elemento según la profundidad de la pila del
+ * proceso, así que el tamaño del BCP depende de esa profundidad.
+ * Cada campo tiene un bit para la máscara de campos modificados del BCP:
+ * los cambios se escriben en memoria al sacar el proceso del CPU, no en cada
+ * instrucción.
+ *
+ * @author dylan
+ */
+public enum DisposicionBCP {
+    VERSION_DISPOSICION(1),
+    ESTADO(1),
+    PC(1),
+    AC(1),
+    AX(1),
+    BX(1),
+    CX(1),
+    DX(1),
+    CPU(1),
+    TIEMPO_INICIO(2),
+    TIEMPO_EMPLEADO(2),
+    TIEMPO_FINALIZACION(2),
+    BANDERAS(1),
+    SIGUIENTE(1),
+    DIRECCION_BASE(1),
+    TAMANIO(1),
+    PRIORIDAD(1),
+    PID(1),
+    PILA(1); // cantidad; los elementos siguen a continuación
+
+    /** Cambia cada vez que se agrega, quita o reordena un campo */
+    public static final int VERSION = 4;
+
+    /** Bits de la celda BANDERAS */
+    public static final int BANDERA_ESPERANDO_ENTRADA = 1;
+    public static final int BANDERA_IGUALDAD = 1 << 1;
+
+    /** Celdas que ocupa un BCP sin contar los elementos de la pila */
+    public static final int CELDAS_FIJAS;
+
+    /** Máscara con todos los campos */
+    public static final int TODOS;
+
+    private static final DisposicionBCP[] CAMPOS = values();
+
+    static {
+        int desplazamiento = 0;
+        for (DisposicionBCP campo : CAMPOS) {
+            campo.desplazamiento = desplazamiento;
+            desplazamiento += campo.celdas;
+        }
+        CELDAS_FIJAS = desplazamiento;
+        TODOS = (1 << CAMPOS.length) - 1;
+    }
+
+    private final int celdas;
+    private int desplazamiento;
+
+    DisposicionBCP(int celdas) {
+        this.celdas = celdas;
+    }
+
+    /** Celdas que ocupa un BCP con una pila de esa profundidad */
+    public static int celdas(int profundidadPila) {
+        return CELDAS_FIJAS + profundidadPila;
+    }
+
+    /** Posición del campo desde el inicio del BCP */
+    public int getDesplazamiento() {
+        return desplazamiento;
+    }
+
+    public int getCeldas() {
+        return celdas;
+    }
+
+    /** Bit del campo en la máscara de modificados */
+    public int getBit() {
+        return 1 << ordinal();
+    }
+
+    /** Campo al que corresponde un bit de la máscara */
+    static DisposicionBCP deBit(int indice) {
+        return CAMPOS[indice];
+    }
+
+    static void escribirLargo(int[] celdas, int direccion, long valor) {
+        celdas[direccion] = (int) (valor >>> 32);
+        celdas[direccion + 1] = (int) valor;
+    }
+
+    static long leerLargo(int[] celdas, int direccion) {
+        return ((long) celdas[direccion] << 32) | (celdas[direccion + 1] & 0xFFFFFFFFL);
+    }
+}
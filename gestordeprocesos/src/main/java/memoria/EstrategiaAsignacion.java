@@ -0,0 +1,12 @@
+package memoria;
+
+/**
+ * Estrategias para elegir el hueco libre donde se reserva un bloque.
+ *
+ * @author dylan
+ */
+public enum EstrategiaAsignacion {
+    PRIMER_AJUSTE,    // el primer hueco que alcance
+    MEJOR_AJUSTE,     // el hueco más chico que alcance
+    SIGUIENTE_AJUSTE  // el primero que alcance a partir de la última reserva
+}
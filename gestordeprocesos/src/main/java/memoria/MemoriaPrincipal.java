@@ -1,137 +1,704 @@
 package memoria;
 
+import almacenamiento.UnidadDeAlmacenamiento;
+import instrucciones.CodificadorInstruccion;
 import instrucciones.Instruccion;
+import instrucciones.InstructionParser;
+import instrucciones.PoolOperandos;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
 import procesos.BCP;
 
 /**
+ * Memoria principal respaldada por un arreglo de enteros.
+ * La sección SO guarda los atributos de los BCP como enteros y la sección de
+ * usuario guarda cada instrucción como una palabra codificada (ver
+ * CodificadorInstruccion), sin objetos por celda.
+ * Cada sección tiene su propio asignador de bloques: el espacio de un proceso
+ * se libera cuando llega a FINALIZADO y, si la memoria de usuario queda
+ * fragmentada, se compacta moviendo los programas y su direccionBase.
+ *
+ * Con un tamaño de página mayor que cero la sección de usuario se divide en
+ * marcos y cada programa se carga página a página en marcos cualesquiera
+ * (no contiguos); el proceso guarda su tabla de páginas y el CPU traduce las
+ * direcciones lógicas.
+ *
+ * Con memoria virtual activa (paginación bajo demanda) ninguna página se
+ * carga al iniciar el proceso: cada una se lee del programa en disco la
+ * primera vez que se ejecuta. Si no hay marcos libres se desaloja una página
+ * según la PoliticaReemplazo; su copia se guarda en la zona de memoria
+ * virtual del disco para no tener que volver a parsearla.
  *
  * @author dylan
  */
 public class MemoriaPrincipal {
 
-    private final Object[] memoria;
+    /** Página que recibe la invalidación de TLB cuando se van todas las del proceso */
+    public static final int TODAS_LAS_PAGINAS = -1;
+
+    private final int[] memoria;
     private final int tamanioTotal;
     private final int tamanioSO;
     private final int tamanioUsuario;
 
-    private final int maxProcesoUsuario = 5;
 
-    private int siguienteLibreUsuario;
-    
-    private int siguienteLibreSO = 0;
+    private final AsignadorMemoria asignadorSO;
+    private final AsignadorMemoria asignadorUsuario;
+    private boolean compactacionAutomatica = true;
+    private int compactaciones = 0;
+
+    // Paginación (tamanioPagina = 0: programas contiguos)
+    private final int tamanioPagina;
+    private final int cantidadMarcos;
+    private final BitSet marcosOcupados;
+    private int celdasTablas;          // entradas de tablas de páginas de los procesos cargados
+    private int maxCeldasTablas;
+    private int fragmentacionInterna;  // celdas sin usar en las últimas páginas
+
+    // Memoria virtual (null: todas las páginas se cargan al iniciar el proceso)
+    private UnidadDeAlmacenamiento memoriaVirtual;
+    private ReemplazoPaginas reemplazo;
+    private BCP[] duenioMarco;       // proceso y página de cada marco ocupado
+    private int[] paginaMarco;
+    private final BitSet marcosFijados = new BitSet(); // páginas que se ejecutan en este ciclo
+    private BiConsumer<Integer, Integer> invalidacionTLB; // (pid, página) que dejó su marco
+    private long fallosPagina;
+    private long desalojos;
+    private long escriturasVirtual;  // páginas escritas a disco
+    private long lecturasVirtual;    // páginas leídas de la memoria virtual
+    private long lecturasPrograma;   // páginas leídas (y parseadas) del programa en disco
+
+    // BCPs cargados, por dirección en la sección SO
+    private final Map<Integer, BCP> procesosCargados = new HashMap<>();
+
+    // Vista de solo lectura para la GUI y depuración
+    private final List<Object> vista = new VistaMemoria();
+    // Celdas escritas o liberadas desde la última vez que la GUI las pidió
+    private final BitSet celdasModificadas = new BitSet();
+    // Constantes que no caben en su palabra (las palabras de esta memoria apuntan aquí)
+    private final PoolOperandos poolOperandos = new PoolOperandos();
 
     public MemoriaPrincipal(int tamanioTotal, int tamanioSO) {
+        this(tamanioTotal, tamanioSO, 0);
+    }
+
+    /**
+     * @param tamanioPagina celdas por página (0 = sin paginación)
+     */
+    public MemoriaPrincipal(int tamanioTotal, int tamanioSO, int tamanioPagina) {
         if (tamanioSO >= tamanioTotal) {
             throw new IllegalArgumentException("La sección SO supera el tamaño total de memoria");
         }
+        if (tamanioPagina < 0 || tamanioPagina > tamanioTotal - tamanioSO) {
+            throw new IllegalArgumentException("Tamaño de página inválido: " + tamanioPagina);
+        }
 
         this.tamanioTotal = tamanioTotal;
         this.tamanioSO = tamanioSO;
         this.tamanioUsuario = tamanioTotal - tamanioSO;
-        this.memoria = new Object[tamanioTotal];
-        this.siguienteLibreUsuario = tamanioSO;
+        this.memoria = new int[tamanioTotal];
+        this.asignadorSO = new AsignadorMemoria(0, tamanioSO, EstrategiaAsignacion.PRIMER_AJUSTE);
+        this.asignadorUsuario = new AsignadorMemoria(tamanioSO, tamanioTotal, EstrategiaAsignacion.PRIMER_AJUSTE);
+        this.tamanioPagina = tamanioPagina;
+        this.cantidadMarcos = tamanioPagina > 0 ? tamanioUsuario / tamanioPagina : 0;
+        this.marcosOcupados = new BitSet(cantidadMarcos);
     }
 
     /**
-     * Carga un BCP en la sección SO. Cada BCP ocupa 22 celdas (aproximadamente,
-     * según atributos guardados).
+     * Carga un BCP en la sección SO, con todos sus campos (ver DisposicionBCP).
      *
      * @param bcp BCP a guardar
-     * @param direccionInicio índice en memoria donde iniciar almacenamiento
+     * @return índice en memoria donde quedó el BCP
      */
-    public int cargarBCP(BCP bcp) {
-        final int CELDAS_POR_BCP = 22; // celdas que ocupa un BCP
-        if (siguienteLibreSO + CELDAS_POR_BCP > tamanioSO) {
+    public synchronized int cargarBCP(BCP bcp) {
+        int direccionBase = asignadorSO.reservar(DisposicionBCP.celdas(bcp.getProfundidadPila()));
+        if (direccionBase < 0) {
             throw new RuntimeException("No hay espacio en la sección SO para guardar el BCP");
         }
 
-        int direccionBase = siguienteLibreSO;
-        int idx = direccionBase;
-
-        memoria[idx++] = bcp.getEstado().ordinal();
-        memoria[idx++] = bcp.getProgramCounter();
-        memoria[idx++] = bcp.getAc();
-        memoria[idx++] = bcp.getAx();
-        memoria[idx++] = bcp.getBx();
-        memoria[idx++] = bcp.getCx();
-        memoria[idx++] = bcp.getDx();
-
-        List<Integer> pila = new ArrayList<>(bcp.getPila());
-        for (int i = 0; i < 5; i++) {
-            memoria[idx++] = i < pila.size() ? pila.get(i) : 0;
-        }
-
-        memoria[idx++] = bcp.getCpuId();
-        memoria[idx++] = (int) bcp.getTiempoInicio();
-        memoria[idx++] = (int) bcp.getTiempoEmpleado();
-        memoria[idx++] = (int) bcp.getTiempoFinalizacion();
-        memoria[idx++] = bcp.isEsperandoEntrada() ? 1 : 0;
-        memoria[idx++] = bcp.getSiguiente();
-        memoria[idx++] = bcp.getDireccionBase(); // opcional: actualizar luego con dirección real
-        memoria[idx++] = bcp.getTamanio();
-        memoria[idx++] = bcp.getPrioridad();
-        memoria[idx++] = bcp.getPid();
-
-        siguienteLibreSO += CELDAS_POR_BCP;
+        escribirBCP(direccionBase, bcp);
+        procesosCargados.put(direccionBase, bcp);
         return direccionBase; // devuelve la dirección donde quedó el BCP
     }
 
+    private void escribirBCP(int direccionBase, BCP bcp) {
+        escribirBCP(direccionBase, bcp, DisposicionBCP.TODOS);
+    }
+
+    /**
+     * Escribe en las celdas del BCP los campos de la máscara y los marca como
+     * guardados
+     */
+    private void escribirBCP(int direccionBase, BCP bcp, int mascara) {
+        for (int bits = mascara; bits != 0; bits &= bits - 1) {
+            DisposicionBCP campo = DisposicionBCP.deBit(Integer.numberOfTrailingZeros(bits));
+            int idx = direccionBase + campo.getDesplazamiento();
+            switch (campo) {
+                case VERSION_DISPOSICION: memoria[idx] = DisposicionBCP.VERSION; break;
+                case ESTADO: memoria[idx] = bcp.getEstado().ordinal(); break;
+                case PC: memoria[idx] = bcp.getProgramCounter(); break;
+                case AC: memoria[idx] = bcp.getAc(); break;
+                case AX: memoria[idx] = bcp.getAx(); break;
+                case BX: memoria[idx] = bcp.getBx(); break;
+                case CX: memoria[idx] = bcp.getCx(); break;
+                case DX: memoria[idx] = bcp.getDx(); break;
+                case PILA: {
+                    int elementos = bcp.copiarPila(memoria, idx + 1);
+                    memoria[idx] = elementos;
+                    Arrays.fill(memoria, idx + 1 + elementos, idx + 1 + bcp.getProfundidadPila(), 0);
+                    break;
+                }
+                case CPU: memoria[idx] = bcp.getCpuId(); break;
+                case TIEMPO_INICIO: DisposicionBCP.escribirLargo(memoria, idx, bcp.getTiempoInicio()); break;
+                case TIEMPO_EMPLEADO: DisposicionBCP.escribirLargo(memoria, idx, bcp.getTiempoEmpleado()); break;
+                case TIEMPO_FINALIZACION: DisposicionBCP.escribirLargo(memoria, idx, bcp.getTiempoFinalizacion()); break;
+                case BANDERAS:
+                    memoria[idx] = (bcp.isEsperandoEntrada() ? DisposicionBCP.BANDERA_ESPERANDO_ENTRADA : 0)
+                            | (bcp.isFlagIgualdad() ? DisposicionBCP.BANDERA_IGUALDAD : 0);
+                    break;
+                case SIGUIENTE: memoria[idx] = bcp.getSiguiente(); break;
+                case DIRECCION_BASE: memoria[idx] = bcp.getDireccionBase(); break;
+                case TAMANIO: memoria[idx] = bcp.getTamanio(); break;
+                case PRIORIDAD: memoria[idx] = bcp.getPrioridad(); break;
+                case PID: memoria[idx] = bcp.getPid(); break;
+                default: throw new IllegalStateException("Campo sin escribir: " + campo);
+            }
+            celdasModificadas.set(idx, idx + (campo == DisposicionBCP.PILA
+                    ? 1 + bcp.getProfundidadPila() : campo.getCeldas()));
+        }
+        bcp.limpiarCamposModificados(mascara);
+    }
+
     /**
      * Carga un programa en la sección Usuario.
      *
      * @param instrucciones lista de instrucciones parseadas
      * @return dirección base en memoria donde se cargó
      */
-    public int cargarProgramaUsuario(List<Instruccion> instrucciones) {
-        if (instrucciones.size() + siguienteLibreUsuario > tamanioTotal) {
-            throw new RuntimeException("No hay espacio en memoria para cargar el programa");
+    public synchronized int cargarProgramaUsuario(List<Instruccion> instrucciones) {
+        if (instrucciones.isEmpty()) {
+            throw new RuntimeException("El programa no tiene instrucciones");
         }
-
-        int direccionBase = siguienteLibreUsuario;
+        int direccionBase = reservarUsuario(instrucciones.size());
+        int idx = direccionBase;
         for (Instruccion instr : instrucciones) {
-            memoria[siguienteLibreUsuario++] = instr;
+            memoria[idx++] = instr.codificar(poolOperandos);
         }
+        celdasModificadas.set(direccionBase, idx);
         return direccionBase;
     }
 
     /**
-     * Obtiene la instrucción de usuario en una dirección específica
+     * Reserva un bloque contiguo de usuario, compactando si hace falta
+     */
+    private int reservarUsuario(int tamanio) {
+        int direccionBase = asignadorUsuario.reservar(tamanio);
+        if (direccionBase < 0 && compactacionAutomatica && asignadorUsuario.getLibre() >= tamanio) {
+            // Hay espacio suficiente pero fragmentado
+            compactar();
+            direccionBase = asignadorUsuario.reservar(tamanio);
+        }
+        if (direccionBase < 0) {
+            throw new RuntimeException("No hay espacio en memoria para cargar el programa");
+        }
+        return direccionBase;
+    }
+
+    /**
+     * Carga el programa de un proceso según el modo de la memoria: contiguo,
+     * o página a página si hay paginación (y deja la tabla en el BCP). Con
+     * memoria virtual solo se crea la tabla, sin páginas presentes.
+     *
+     * @return dirección base (con paginación, la del marco de la página 0;
+     *         con memoria virtual, el inicio de la sección de usuario)
+     */
+    public synchronized int cargarProgramaProceso(BCP bcp, List<Instruccion> instrucciones) {
+        if (tamanioPagina == 0) {
+            return cargarProgramaUsuario(instrucciones);
+        }
+        if (instrucciones.isEmpty()) {
+            throw new RuntimeException("El programa no tiene instrucciones");
+        }
+        int paginas = (instrucciones.size() + tamanioPagina - 1) / tamanioPagina;
+        TablaPaginas tabla = new TablaPaginas(paginas);
+        if (memoriaVirtual != null) {
+            bcp.setTablaPaginas(tabla);
+            registrarTabla(paginas);
+            return tamanioSO;
+        }
+        if (cantidadMarcos - marcosOcupados.cardinality() < paginas) {
+            throw new RuntimeException("No hay marcos libres para cargar el programa");
+        }
+
+        bcp.setTablaPaginas(tabla);
+        for (int pagina = 0; pagina < paginas; pagina++) {
+            int marco = marcosOcupados.nextClearBit(0);
+            int desde = pagina * tamanioPagina;
+            int hasta = Math.min(desde + tamanioPagina, instrucciones.size());
+            int idx = direccionMarco(marco);
+            for (int i = desde; i < hasta; i++) {
+                memoria[idx++] = instrucciones.get(i).codificar(poolOperandos);
+            }
+            celdasModificadas.set(direccionMarco(marco), idx);
+            ocuparMarco(marco, bcp, pagina, hasta - desde);
+        }
+        registrarTabla(paginas);
+        return direccionMarco(tabla.getMarco(0));
+    }
+
+    private void registrarTabla(int paginas) {
+        celdasTablas += paginas;
+        maxCeldasTablas = Math.max(maxCeldasTablas, celdasTablas);
+    }
+
+    /** Palabras de una página del programa (la última puede quedar incompleta) */
+    private int palabrasPagina(BCP bcp, int pagina) {
+        return Math.min(tamanioPagina, bcp.getTamanio() - pagina * tamanioPagina);
+    }
+
+    private void ocuparMarco(int marco, BCP bcp, int pagina, int palabras) {
+        marcosOcupados.set(marco);
+        bcp.getTablaPaginas().setMarco(pagina, marco);
+        fragmentacionInterna += tamanioPagina - palabras;
+        if (reemplazo != null) {
+            duenioMarco[marco] = bcp;
+            paginaMarco[marco] = pagina;
+            reemplazo.cargado(marco);
+        }
+    }
+
+    /** Dirección física de la primera celda de un marco */
+    public int direccionMarco(int marco) {
+        return tamanioSO + marco * tamanioPagina;
+    }
+
+    /**
+     * Libera el BCP y el programa de un proceso (se llama al finalizar).
+     * Las celdas liberadas quedan en cero.
+     */
+    public synchronized void liberarProceso(BCP bcp) {
+        int direccionBCP = bcp.getDireccionBCPEnMemoria();
+        if (direccionBCP == -1 || procesosCargados.get(direccionBCP) != bcp) {
+            return; // no está cargado (o ya se liberó)
+        }
+        procesosCargados.remove(direccionBCP);
+        liberarBloque(asignadorSO, direccionBCP);
+        bcp.setDireccionBCPEnMemoria(-1);
+        liberarPrograma(bcp);
+    }
+
+    /**
+     * Libera el programa de un proceso (bloque contiguo o marcos), por
+     * ejemplo si el BCP no se pudo cargar después del programa
+     */
+    public synchronized void liberarPrograma(BCP bcp) {
+        TablaPaginas tabla = bcp.getTablaPaginas();
+        if (tabla == null) {
+            liberarPrograma(bcp.getDireccionBase());
+            return;
+        }
+        for (int pagina = 0; pagina < tabla.getCantidadPaginas(); pagina++) {
+            if (tabla.estaPresente(pagina)) {
+                liberarMarco(tabla.getMarco(pagina), palabrasPagina(bcp, pagina));
+            }
+            if (tabla.getCopia(pagina) != TablaPaginas.SIN_COPIA) {
+                memoriaVirtual.liberarPalabras(tabla.getCopia(pagina), palabrasPagina(bcp, pagina));
+            }
+        }
+        celdasTablas -= tabla.getCantidadPaginas();
+        bcp.setTablaPaginas(null);
+        invalidarTLB(bcp.getPid(), TODAS_LAS_PAGINAS);
+    }
+
+    private void invalidarTLB(int pid, int pagina) {
+        if (invalidacionTLB != null) {
+            invalidacionTLB.accept(pid, pagina);
+        }
+    }
+
+    private void liberarMarco(int marco, int palabras) {
+        marcosOcupados.clear(marco);
+        Arrays.fill(memoria, direccionMarco(marco), direccionMarco(marco) + tamanioPagina, 0);
+        celdasModificadas.set(direccionMarco(marco), direccionMarco(marco) + tamanioPagina);
+        fragmentacionInterna -= tamanioPagina - palabras;
+        if (reemplazo != null) {
+            duenioMarco[marco] = null;
+            reemplazo.liberado(marco);
+        }
+    }
+
+    // ========== INTERCAMBIO DE PROCESOS ==========
+
+    /**
+     * Indica si hay lugar ahora para el BCP y el programa del proceso (sin
+     * contar lo que liberaría una compactación que no está activa)
+     */
+    public synchronized boolean cabeProceso(BCP bcp) {
+        if (asignadorSO.getMayorHueco() < DisposicionBCP.celdas(bcp.getProfundidadPila())) {
+            return false;
+        }
+        if (memoriaVirtual != null) {
+            return true; // las páginas se cargan al usarse
+        }
+        if (tamanioPagina > 0) {
+            return getMarcosLibres() >= (bcp.getTamanio() + tamanioPagina - 1) / tamanioPagina;
+        }
+        return compactacionAutomatica ? asignadorUsuario.getLibre() >= bcp.getTamanio()
+                : asignadorUsuario.getMayorHueco() >= bcp.getTamanio();
+    }
+
+    /**
+     * Saca de memoria un proceso que no está ejecutando (para suspenderlo) y
+     * devuelve su imagen: las celdas del BCP seguidas de las palabras del
+     * programa en orden lógico. Con memoria virtual las páginas presentes se
+     * desalojan a la memoria virtual como en un fallo y la imagen es solo el
+     * BCP (la tabla de páginas queda en el proceso).
+     *
+     * @return la imagen, o null si el proceso no está cargado
+     */
+    public synchronized int[] sacarProceso(BCP bcp) {
+        int direccionBCP = bcp.getDireccionBCPEnMemoria();
+        if (direccionBCP == -1 || procesosCargados.get(direccionBCP) != bcp) {
+            return null;
+        }
+        TablaPaginas tabla = bcp.getTablaPaginas();
+        boolean conPrograma = memoriaVirtual == null;
+        int celdasBCP = DisposicionBCP.celdas(bcp.getProfundidadPila());
+        int[] imagen = new int[celdasBCP + (conPrograma ? bcp.getTamanio() : 0)];
+
+        escribirBCP(direccionBCP, bcp, bcp.getCamposModificados());
+        System.arraycopy(memoria, direccionBCP, imagen, 0, celdasBCP);
+        if (!conPrograma) {
+            for (int pagina = 0; pagina < tabla.getCantidadPaginas(); pagina++) {
+                if (tabla.estaPresente(pagina)) {
+                    desalojar(tabla.getMarco(pagina));
+                }
+            }
+        } else if (tabla != null) {
+            for (int pagina = 0; pagina < tabla.getCantidadPaginas(); pagina++) {
+                System.arraycopy(memoria, direccionMarco(tabla.getMarco(pagina)), imagen,
+                        celdasBCP + pagina * tamanioPagina, palabrasPagina(bcp, pagina));
+            }
+            liberarPrograma(bcp);
+        } else {
+            System.arraycopy(memoria, bcp.getDireccionBase(), imagen, celdasBCP, bcp.getTamanio());
+            liberarPrograma(bcp.getDireccionBase());
+        }
+
+        procesosCargados.remove(direccionBCP);
+        liberarBloque(asignadorSO, direccionBCP);
+        bcp.setDireccionBCPEnMemoria(-1);
+        bcp.setDireccionBase(-1);
+        // al volver puede quedar en otros marcos
+        invalidarTLB(bcp.getPid(), TODAS_LAS_PAGINAS);
+        return imagen;
+    }
+
+    /**
+     * Vuelve a cargar un proceso desde la imagen de sacarProceso, en las
+     * direcciones que haya libres. Las celdas del BCP se reescriben desde el
+     * proceso, que pudo cambiar mientras estaba suspendido (ej: recibir una
+     * entrada).
+     *
+     * @throws RuntimeException si no hay espacio (la memoria no cambia)
+     */
+    public synchronized void restaurarProceso(BCP bcp, int[] imagen) {
+        int celdasBCP = DisposicionBCP.celdas(bcp.getProfundidadPila());
+        int direccionBCP = asignadorSO.reservar(celdasBCP);
+        if (direccionBCP < 0) {
+            throw new RuntimeException("No hay espacio en la sección SO para guardar el BCP");
+        }
+        int direccionBase;
+        try {
+            direccionBase = restaurarPrograma(bcp, imagen);
+        } catch (RuntimeException e) {
+            asignadorSO.liberar(direccionBCP);
+            throw e;
+        }
+        bcp.setDireccionBase(direccionBase);
+        bcp.setDireccionBCPEnMemoria(direccionBCP);
+        escribirBCP(direccionBCP, bcp);
+        procesosCargados.put(direccionBCP, bcp);
+    }
+
+    private int restaurarPrograma(BCP bcp, int[] imagen) {
+        if (memoriaVirtual != null) {
+            return tamanioSO; // la tabla de páginas se conservó
+        }
+        int tamanio = bcp.getTamanio();
+        int celdasBCP = DisposicionBCP.celdas(bcp.getProfundidadPila());
+        if (tamanioPagina == 0) {
+            int direccionBase = reservarUsuario(tamanio);
+            System.arraycopy(imagen, celdasBCP, memoria, direccionBase, tamanio);
+            celdasModificadas.set(direccionBase, direccionBase + tamanio);
+            return direccionBase;
+        }
+        int paginas = (tamanio + tamanioPagina - 1) / tamanioPagina;
+        if (getMarcosLibres() < paginas) {
+            throw new RuntimeException("No hay marcos libres para cargar el programa");
+        }
+        bcp.setTablaPaginas(new TablaPaginas(paginas));
+        for (int pagina = 0; pagina < paginas; pagina++) {
+            int marco = marcosOcupados.nextClearBit(0);
+            int palabras = palabrasPagina(bcp, pagina);
+            System.arraycopy(imagen, celdasBCP + pagina * tamanioPagina, memoria, direccionMarco(marco), palabras);
+            celdasModificadas.set(direccionMarco(marco), direccionMarco(marco) + palabras);
+            ocuparMarco(marco, bcp, pagina, palabras);
+        }
+        registrarTabla(paginas);
+        return direccionMarco(bcp.getTablaPaginas().getMarco(0));
+    }
+
+    // ========== PAGINACIÓN BAJO DEMANDA ==========
+
+    /**
+     * Activa la paginación bajo demanda: las páginas se leen del programa en
+     * disco al primer uso y las desalojadas se guardan en la zona de memoria
+     * virtual del disco. Debe llamarse antes de cargar procesos.
+     *
+     * @throws IllegalStateException si la memoria no es paginada
+     */
+    public synchronized void activarMemoriaVirtual(UnidadDeAlmacenamiento disco, PoliticaReemplazo politica) {
+        if (tamanioPagina == 0) {
+            throw new IllegalStateException("La memoria virtual necesita paginación");
+        }
+        this.memoriaVirtual = disco;
+        this.reemplazo = new ReemplazoPaginas(cantidadMarcos, politica);
+        this.duenioMarco = new BCP[cantidadMarcos];
+        this.paginaMarco = new int[cantidadMarcos];
+    }
+
+    /**
+     * Inicio de un ciclo: ninguna página queda fijada. Se llama en la fase
+     * secuencial, antes de preparar los procesos de los núcleos.
+     */
+    public synchronized void iniciarCiclo() {
+        marcosFijados.clear();
+    }
+
+    /**
+     * Registra que el proceso va a ejecutar una instrucción de la página:
+     * marca la referencia (y el último uso) y fija el marco hasta el próximo
+     * ciclo, para que ningún otro fallo lo desaloje antes de la fase paralela.
+     *
+     * @return false si la página no está presente (fallo de página)
+     */
+    public synchronized boolean referenciarPagina(BCP bcp, int pagina) {
+        TablaPaginas tabla = bcp.getTablaPaginas();
+        if (tabla == null || reemplazo == null) {
+            return true;
+        }
+        if (!tabla.estaPresente(pagina)) {
+            return false;
+        }
+        int marco = tabla.getMarco(pagina);
+        reemplazo.referenciado(marco);
+        marcosFijados.set(marco);
+        return true;
+    }
+
+    /**
+     * Atiende un fallo de página: toma un marco libre (o desaloja una
+     * víctima) y lee la página de la memoria virtual si tiene copia, o del
+     * programa en disco si es su primer uso. La página queda fijada.
+     *
+     * @return false si todos los marcos están fijados en este ciclo
+     */
+    public synchronized boolean cargarPagina(BCP bcp, int pagina) {
+        TablaPaginas tabla = bcp.getTablaPaginas();
+        if (tabla.estaPresente(pagina)) {
+            return true;
+        }
+        int marco = marcosOcupados.nextClearBit(0);
+        if (marco >= cantidadMarcos) {
+            marco = reemplazo.elegirVictima(marcosOcupados, marcosFijados);
+            if (marco < 0) {
+                return false;
+            }
+            desalojar(marco);
+        }
+        fallosPagina++;
+
+        int palabras = palabrasPagina(bcp, pagina);
+        int direccion = direccionMarco(marco);
+        if (tabla.getCopia(pagina) != TablaPaginas.SIN_COPIA) {
+            memoriaVirtual.leerPalabras(tabla.getCopia(pagina), memoria, direccion, palabras);
+            lecturasVirtual++;
+        } else {
+            List<String> lineas = memoriaVirtual.leerLineas(bcp.getNombreArchivo(), pagina * tamanioPagina, palabras);
+            if (lineas == null) {
+                throw new RuntimeException("Programa no encontrado en disco: " + bcp.getNombreArchivo());
+            }
+            for (int i = 0; i < palabras; i++) {
+                memoria[direccion + i] = InstructionParser.parse(lineas.get(i)).codificar(poolOperandos);
+            }
+            lecturasPrograma++;
+        }
+        celdasModificadas.set(direccion, direccion + palabras);
+        ocuparMarco(marco, bcp, pagina, palabras);
+        marcosFijados.set(marco);
+        return true;
+    }
+
+    /**
+     * Saca la página de un marco: si no tiene copia en memoria virtual la
+     * escribe (si no hay espacio se descarta; se volverá a leer del programa)
+     * y avisa para invalidar su traducción en las TLB
+     */
+    private void desalojar(int marco) {
+        BCP bcp = duenioMarco[marco];
+        int pagina = paginaMarco[marco];
+        TablaPaginas tabla = bcp.getTablaPaginas();
+        int palabras = palabrasPagina(bcp, pagina);
+        if (tabla.getCopia(pagina) == TablaPaginas.SIN_COPIA) {
+            int celda = memoriaVirtual.escribirPalabras(memoria, direccionMarco(marco), palabras);
+            if (celda >= 0) {
+                tabla.setCopia(pagina, celda);
+                escriturasVirtual++;
+            }
+        }
+        tabla.setMarco(pagina, TablaPaginas.SIN_MARCO);
+        liberarMarco(marco, palabras);
+        desalojos++;
+        invalidarTLB(bcp.getPid(), pagina);
+    }
+
+    /**
+     * Libera el bloque de usuario que empieza en la dirección (por ejemplo si
+     * el BCP no se pudo cargar después del programa)
+     */
+    public synchronized void liberarPrograma(int direccionBase) {
+        if (asignadorUsuario.getTamanioBloque(direccionBase) > 0) {
+            liberarBloque(asignadorUsuario, direccionBase);
+        }
+    }
+
+    private void liberarBloque(AsignadorMemoria asignador, int direccion) {
+        int tamanio = asignador.liberar(direccion);
+        Arrays.fill(memoria, direccion, direccion + tamanio, 0);
+        celdasModificadas.set(direccion, direccion + tamanio);
+    }
+
+    /**
+     * Mueve los programas cargados al inicio de la sección de usuario y
+     * actualiza la direccionBase y el PC de sus procesos. Los BCP no se mueven:
+     * todos ocupan lo mismo, así que la sección SO no se fragmenta.
+     * Debe llamarse cuando ningún CPU está ejecutando (fase secuencial del ciclo).
+     * Con paginación no hace nada: no hay fragmentación externa.
+     */
+    public synchronized void compactar() {
+        if (tamanioPagina > 0) {
+            return;
+        }
+        Map<Integer, Integer> reubicaciones = asignadorUsuario.compactar();
+        if (reubicaciones.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<Integer, Integer> r : reubicaciones.entrySet()) {
+            int tamanio = asignadorUsuario.getTamanioBloque(r.getValue());
+            System.arraycopy(memoria, r.getKey(), memoria, r.getValue(), tamanio);
+        }
+        int finOcupado = tamanioTotal - asignadorUsuario.getLibre();
+        Arrays.fill(memoria, finOcupado, tamanioTotal, 0);
+        celdasModificadas.set(tamanioSO, tamanioTotal);
+
+        for (BCP bcp : procesosCargados.values()) {
+            Integer nuevaBase = reubicaciones.get(bcp.getDireccionBase());
+            if (nuevaBase != null) {
+                bcp.reubicar(nuevaBase);
+                escribirBCP(bcp.getDireccionBCPEnMemoria(), bcp, DisposicionBCP.DIRECCION_BASE.getBit());
+            }
+        }
+        compactaciones++;
+    }
+
+    /**
+     * Obtiene la palabra de instrucción en una dirección de usuario. Es la
+     * lectura que usa el CPU en cada ciclo: no reserva memoria.
      *
      * @param direccion índice en memoria
-     * @return instrucción
+     * @return palabra codificada
      */
-    public Instruccion leerInstruccionUsuario(int direccion) {
+    public int leerPalabraUsuario(int direccion) {
         if (direccion < tamanioSO || direccion >= tamanioTotal) {
             throw new RuntimeException("Dirección fuera de la sección de usuario");
         }
-        Object obj = memoria[direccion];
-        if (!(obj instanceof Instruccion)) {
+        int palabra = memoria[direccion];
+        if (!CodificadorInstruccion.esInstruccion(palabra)) {
             throw new RuntimeException("No hay instrucción en la dirección solicitada");
         }
-        return (Instruccion) obj;
+        return palabra;
+    }
+
+    /**
+     * Obtiene la instrucción de usuario en una dirección específica
+     * (decodificada; para mostrar o depurar)
+     *
+     * @param direccion índice en memoria
+     * @return instrucción
+     */
+    public Instruccion leerInstruccionUsuario(int direccion) {
+        return CodificadorInstruccion.decodificar(leerPalabraUsuario(direccion), poolOperandos);
+    }
+
+    /**
+     * Escribe en memoria los campos que el proceso cambió desde la última
+     * vez (cambio de contexto). No hace nada si el BCP no está cargado.
+     */
+    public synchronized void guardarBCP(BCP bcp) {
+        int direccionBCP = bcp.getDireccionBCPEnMemoria();
+        if (direccionBCP == -1 || procesosCargados.get(direccionBCP) != bcp) {
+            return;
+        }
+        escribirBCP(direccionBCP, bcp, bcp.getCamposModificados());
     }
 
     /**
-     * Actualiza un atributo de un BCP en memoria
+     * Lee un campo de un BCP cargado (los tiempos se leen completos)
      *
-     * @param direccionInicio índice del BCP
-     * @param offset desplazamiento del atributo dentro del BCP
-     * @param valor nuevo valor
+     * @param direccionBCP dirección del BCP en la sección SO
+     * @throws IllegalStateException si las celdas no tienen un BCP de esta versión
      */
-    public void actualizarAtributoBCP(int direccionInicio, int offset, int valor) {
-        if (direccionInicio + offset >= tamanioSO) {
-            throw new RuntimeException("Fuera de la sección SO");
+    public synchronized long leerCampoBCP(int direccionBCP, DisposicionBCP campo) {
+        if (memoria[direccionBCP] != DisposicionBCP.VERSION) {
+            throw new IllegalStateException("BCP con otra disposición en " + direccionBCP
+                    + " (versión " + memoria[direccionBCP] + ")");
         }
-        memoria[direccionInicio + offset] = valor;
+        int idx = direccionBCP + campo.getDesplazamiento();
+        return campo.getCeldas() == 2 ? DisposicionBCP.leerLargo(memoria, idx) : memoria[idx];
+    }
+
+    /**
+     * Lee una celda como entero crudo
+     */
+    public int leerCelda(int direccion) {
+        return memoria[direccion];
     }
 
     /**
-     * Devuelve una copia de la memoria (debug)
+     * Vista de solo lectura de la memoria (debug). No copia el arreglo: cada
+     * celda se convierte al leerla. Las celdas SO son Integer, las de usuario
+     * son la Instruccion decodificada, y las celdas sin usar son null.
      */
-    public Object[] getMemoria() {
-        return memoria.clone();
+    public List<Object> getMemoria() {
+        return vista;
+    }
+
+    /**
+     * Devuelve las celdas que cambiaron desde la llamada anterior (escritas,
+     * liberadas o movidas por una compactación) y empieza a contar de nuevo.
+     * La primera llamada devuelve solo lo escrito hasta entonces.
+     */
+    public synchronized BitSet tomarCeldasModificadas() {
+        BitSet modificadas = (BitSet) celdasModificadas.clone();
+        celdasModificadas.clear();
+        return modificadas;
     }
 
     public int getTamanioTotal() {
@@ -145,4 +712,178 @@ public class MemoriaPrincipal {
     public int getTamanioUsuario() {
         return tamanioUsuario;
     }
+
+    public synchronized EstrategiaAsignacion getEstrategia() {
+        return asignadorUsuario.getEstrategia();
+    }
+
+    /** Estrategia de asignación de ambas secciones */
+    public synchronized void setEstrategia(EstrategiaAsignacion estrategia) {
+        asignadorSO.setEstrategia(estrategia);
+        asignadorUsuario.setEstrategia(estrategia);
+    }
+
+    public synchronized boolean isCompactacionAutomatica() {
+        return compactacionAutomatica;
+    }
+
+    /** Si está activa, una reserva que falla por fragmentación compacta y reintenta */
+    public synchronized void setCompactacionAutomatica(boolean compactacionAutomatica) {
+        this.compactacionAutomatica = compactacionAutomatica;
+    }
+
+    public synchronized int getCompactaciones() {
+        return compactaciones;
+    }
+
+    public synchronized int getLibreUsuario() {
+        if (tamanioPagina > 0) {
+            return (cantidadMarcos - marcosOcupados.cardinality()) * tamanioPagina;
+        }
+        return asignadorUsuario.getLibre();
+    }
+
+    public synchronized int getMayorHuecoUsuario() {
+        return asignadorUsuario.getMayorHueco();
+    }
+
+    /** Huecos libres de la sección de usuario como pares {inicio, tamaño} */
+    public synchronized List<int[]> getHuecosUsuario() {
+        return asignadorUsuario.getHuecos();
+    }
+
+    public synchronized int getProcesosCargados() {
+        return procesosCargados.size();
+    }
+
+    // ========== PAGINACIÓN ==========
+
+    /** Celdas por página (0 = sin paginación) */
+    public int getTamanioPagina() {
+        return tamanioPagina;
+    }
+
+    public boolean isPaginada() {
+        return tamanioPagina > 0;
+    }
+
+    /**
+     * Programa más grande que se puede cargar (celdas de usuario utilizables;
+     * sin límite con memoria virtual)
+     */
+    public synchronized int getCapacidadUsuario() {
+        if (memoriaVirtual != null) {
+            return Integer.MAX_VALUE;
+        }
+        return tamanioPagina > 0 ? cantidadMarcos * tamanioPagina : tamanioUsuario;
+    }
+
+    public int getCantidadMarcos() {
+        return cantidadMarcos;
+    }
+
+    public synchronized int getMarcosLibres() {
+        return cantidadMarcos - marcosOcupados.cardinality();
+    }
+
+    /**
+     * Costo de las tablas de páginas de los procesos cargados: una celda por
+     * entrada
+     */
+    public synchronized int getCeldasTablasPaginas() {
+        return celdasTablas;
+    }
+
+    /** Mayor costo de tablas de páginas que hubo a la vez */
+    public synchronized int getMaxCeldasTablasPaginas() {
+        return maxCeldasTablas;
+    }
+
+    /**
+     * Celdas reservadas y sin usar en la última página de cada proceso
+     * cargado
+     */
+    public synchronized int getFragmentacionInterna() {
+        return fragmentacionInterna;
+    }
+
+    // ========== MEMORIA VIRTUAL ==========
+
+    public synchronized boolean isMemoriaVirtual() {
+        return memoriaVirtual != null;
+    }
+
+    /** Política de reemplazo (null sin memoria virtual) */
+    public synchronized PoliticaReemplazo getPoliticaReemplazo() {
+        return reemplazo != null ? reemplazo.getPolitica() : null;
+    }
+
+    public synchronized void setPoliticaReemplazo(PoliticaReemplazo politica) {
+        if (reemplazo != null) {
+            reemplazo.setPolitica(politica);
+        }
+    }
+
+    /**
+     * Recibe (pid, página) cada vez que una página deja su marco (desalojo,
+     * suspensión o fin del proceso), para quitar esa traducción de las TLB
+     * de todos los núcleos. La página es TODAS_LAS_PAGINAS cuando se van
+     * todas las del proceso. Se llama desde el hilo que liberó el marco, que
+     * puede ser el de otro núcleo: el receptor no debe tocar las TLB
+     * directamente (TLB.invalidar solo encola).
+     */
+    public synchronized void setInvalidacionTLB(BiConsumer<Integer, Integer> invalidacionTLB) {
+        this.invalidacionTLB = invalidacionTLB;
+    }
+
+    /** Pool de las constantes anchas de las palabras de esta memoria */
+    public PoolOperandos getPoolOperandos() {
+        return poolOperandos;
+    }
+
+    public synchronized long getFallosPagina() {
+        return fallosPagina;
+    }
+
+    public synchronized long getDesalojos() {
+        return desalojos;
+    }
+
+    /** Páginas escritas a la memoria virtual del disco */
+    public synchronized long getEscriturasVirtual() {
+        return escriturasVirtual;
+    }
+
+    /** Páginas leídas de la memoria virtual del disco */
+    public synchronized long getLecturasVirtual() {
+        return lecturasVirtual;
+    }
+
+    /** Páginas leídas del programa en disco (primer uso o sin copia) */
+    public synchronized long getLecturasPrograma() {
+        return lecturasPrograma;
+    }
+
+    private class VistaMemoria extends AbstractList<Object> {
+
+        @Override
+        public Object get(int direccion) {
+            if (direccion < 0 || direccion >= tamanioTotal) {
+                throw new IndexOutOfBoundsException("Dirección fuera de memoria: " + direccion);
+            }
+            if (direccion < tamanioSO) {
+                synchronized (MemoriaPrincipal.this) {
+                    return asignadorSO.estaOcupada(direccion) ? Integer.valueOf(memoria[direccion]) : null;
+                }
+            }
+            int palabra = memoria[direccion];
+            return CodificadorInstruccion.esInstruccion(palabra)
+                    ? CodificadorInstruccion.decodificar(palabra, poolOperandos) : null;
+        }
+
+        @Override
+        public int size() {
+            return tamanioTotal;
+        }
+    }
 }
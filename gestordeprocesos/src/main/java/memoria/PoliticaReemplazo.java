@@ -0,0 +1,13 @@
+package memoria;
+
+/**
+ * Políticas para elegir qué página desalojar cuando no quedan marcos libres
+ * (paginación bajo demanda)
+ * @author dylan
+ */
+public enum PoliticaReemplazo {
+    FIFO,               // la página cargada hace más tiempo
+    LRU,                // la página usada hace más tiempo
+    RELOJ,              // manecilla circular sobre los marcos; salta las referenciadas
+    SEGUNDA_OPORTUNIDAD // FIFO, pero una página referenciada vuelve al final de la cola
+}
@@ -0,0 +1,119 @@
+package memoria;
+
+import java.util.BitSet;
+
+/**
+ * Estado de reemplazo de los marcos de usuario: orden de carga, último uso
+ * y bit de referencia de cada marco. Elige la víctima según la política.
+ * No es thread-safe: MemoriaPrincipal lo usa con su propio candado.
+ *
+ * @author dylan
+ */
+class ReemplazoPaginas {
+
+    private PoliticaReemplazo politica;
+
+    private final long[] ordenCarga; // FIFO y segunda oportunidad
+    private final long[] ultimoUso;  // LRU
+    private final BitSet referenciados;
+    private long contador;
+    private int manecilla;           // reloj
+
+    ReemplazoPaginas(int cantidadMarcos, PoliticaReemplazo politica) {
+        this.politica = politica;
+        this.ordenCarga = new long[cantidadMarcos];
+        this.ultimoUso = new long[cantidadMarcos];
+        this.referenciados = new BitSet(cantidadMarcos);
+    }
+
+    /** Una página acaba de entrar al marco */
+    void cargado(int marco) {
+        ordenCarga[marco] = ++contador;
+        ultimoUso[marco] = contador;
+        referenciados.set(marco);
+    }
+
+    /** Se leyó una instrucción de la página del marco */
+    void referenciado(int marco) {
+        ultimoUso[marco] = ++contador;
+        referenciados.set(marco);
+    }
+
+    void liberado(int marco) {
+        referenciados.clear(marco);
+    }
+
+    /**
+     * Elige el marco a desalojar entre los ocupados que no están fijados
+     *
+     * @return el marco, o -1 si todos están fijados
+     */
+    int elegirVictima(BitSet ocupados, BitSet fijados) {
+        switch (politica) {
+            case LRU:
+                return menor(ultimoUso, ocupados, fijados);
+            case RELOJ:
+                return reloj(ocupados, fijados);
+            case SEGUNDA_OPORTUNIDAD:
+                return segundaOportunidad(ocupados, fijados);
+            default:
+                return menor(ordenCarga, ocupados, fijados);
+        }
+    }
+
+    private int menor(long[] valores, BitSet ocupados, BitSet fijados) {
+        int victima = -1;
+        for (int m = ocupados.nextSetBit(0); m >= 0; m = ocupados.nextSetBit(m + 1)) {
+            if (!fijados.get(m) && (victima < 0 || valores[m] < valores[victima])) {
+                victima = m;
+            }
+        }
+        return victima;
+    }
+
+    /**
+     * La manecilla recorre los marcos en orden circular: un marco referenciado
+     * pierde la referencia y se salta; el primero sin referencia es la víctima
+     */
+    private int reloj(BitSet ocupados, BitSet fijados) {
+        int marcos = ordenCarga.length;
+        // Dos vueltas alcanzan: en la primera se borran todas las referencias
+        for (int paso = 0; paso < 2 * marcos; paso++) {
+            int m = manecilla;
+            manecilla = (manecilla + 1) % marcos;
+            if (!ocupados.get(m) || fijados.get(m)) {
+                continue;
+            }
+            if (referenciados.get(m)) {
+                referenciados.clear(m);
+            } else {
+                return m;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Toma la página más antigua de la cola FIFO; si está referenciada le
+     * borra la referencia y la pasa al final de la cola
+     */
+    private int segundaOportunidad(BitSet ocupados, BitSet fijados) {
+        for (int intento = 0; intento <= ocupados.cardinality(); intento++) {
+            int m = menor(ordenCarga, ocupados, fijados);
+            if (m < 0 || !referenciados.get(m)) {
+                return m;
+            }
+            referenciados.clear(m);
+            ordenCarga[m] = ++contador;
+        }
+        return menor(ordenCarga, ocupados, fijados);
+    }
+
+    PoliticaReemplazo getPolitica() {
+        return politica;
+    }
+
+    void setPolitica(PoliticaReemplazo politica) {
+        this.politica = politica;
+    }
+}
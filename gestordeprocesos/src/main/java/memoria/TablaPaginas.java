@@ -0,0 +1,58 @@
+package memoria;
+
+import java.util.Arrays;
+
+/**
+ * Tabla de páginas de un proceso: para cada página lógica del programa, el
+ * marco de la memoria de usuario donde está (-1 = no presente) y, con
+ * memoria virtual, la celda del disco donde quedó su copia al desalojarla
+ * (-1 = sin copia: se vuelve a leer del programa en disco).
+ *
+ * @author dylan
+ */
+public class TablaPaginas {
+
+    public static final int SIN_MARCO = -1;
+    public static final int SIN_COPIA = -1;
+
+    private final int[] marcos;
+    private final int[] copias;
+
+    public TablaPaginas(int cantidadPaginas) {
+        this.marcos = new int[cantidadPaginas];
+        this.copias = new int[cantidadPaginas];
+        Arrays.fill(marcos, SIN_MARCO);
+        Arrays.fill(copias, SIN_COPIA);
+    }
+
+    public int getMarco(int pagina) {
+        return marcos[pagina];
+    }
+
+    public void setMarco(int pagina, int marco) {
+        marcos[pagina] = marco;
+    }
+
+    /** Bit de presencia: la página está en un marco */
+    public boolean estaPresente(int pagina) {
+        return marcos[pagina] != SIN_MARCO;
+    }
+
+    /** Celda de memoria virtual con la copia de la página (-1 = sin copia) */
+    public int getCopia(int pagina) {
+        return copias[pagina];
+    }
+
+    public void setCopia(int pagina, int celda) {
+        copias[pagina] = celda;
+    }
+
+    public int getCantidadPaginas() {
+        return marcos.length;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(marcos);
+    }
+}
@@ -0,0 +1,133 @@
+package metricas;
+
+import java.util.Arrays;
+
+/**
+ * Histograma de valores enteros no negativos (ticks, instrucciones) con
+ * cubetas log-lineales, como un HDR histogram: los valores menores que 16 se
+ * cuentan exactos y de ahí en adelante cada potencia de 2 se divide en 8
+ * cubetas, así que un percentil se aleja a lo sumo un 12.5% del valor real.
+ * Ocupa lo mismo sin importar cuántos valores se registren.
+ *
+ * @author dylan
+ */
+public class Histograma {
+
+    private static final int BITS_SUBCUBETA = 3;
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+    private static final int EXACTOS = 2 * SUBCUBETAS;
+    private static final int CUBETAS = EXACTOS + (63 - BITS_SUBCUBETA - 1) * SUBCUBETAS;
+
+    /** Límites "le" de la exportación Prometheus: 0, 1, 3, 7, ..., 2^24 - 1 */
+    static final int OCTAVAS_EXPORTADAS = 25;
+
+    private final long[] cuentas = new long[CUBETAS];
+    private long cantidad;
+    private long suma;
+    private long minimo = Long.MAX_VALUE;
+    private long maximo;
+
+    public synchronized void registrar(long valor) {
+        if (valor < 0) {
+            throw new IllegalArgumentException("Valor negativo: " + valor);
+        }
+        cuentas[indice(valor)]++;
+        cantidad++;
+        suma += valor;
+        minimo = Math.min(minimo, valor);
+        maximo = Math.max(maximo, valor);
+    }
+
+    static int indice(long valor) {
+        if (valor < EXACTOS) {
+            return (int) valor;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(valor);
+        int mantisa = (int) (valor >>> (exponente - BITS_SUBCUBETA)) & (SUBCUBETAS - 1);
+        return EXACTOS + (exponente - BITS_SUBCUBETA - 1) * SUBCUBETAS + mantisa;
+    }
+
+    /** Mayor valor que cae en la cubeta */
+    static long limiteSuperior(int indice) {
+        if (indice < EXACTOS) {
+            return indice;
+        }
+        int exponente = (indice - EXACTOS) / SUBCUBETAS + BITS_SUBCUBETA + 1;
+        int mantisa = (indice - EXACTOS) % SUBCUBETAS;
+        long ancho = 1L << (exponente - BITS_SUBCUBETA);
+        return ((long) (SUBCUBETAS + mantisa) << (exponente - BITS_SUBCUBETA)) + ancho - 1;
+    }
+
+    /**
+     * Valor bajo el cual queda el porcentaje indicado de las muestras
+     * (límite superior de su cubeta, sin pasar del máximo)
+     *
+     * @param percentil entre 0 y 100
+     */
+    public synchronized long getPercentil(double percentil) {
+        if (cantidad == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(percentil / 100.0 * cantidad));
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += cuentas[i];
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), maximo);
+            }
+        }
+        return maximo;
+    }
+
+    public synchronized long getCantidad() {
+        return cantidad;
+    }
+
+    public synchronized long getSuma() {
+        return suma;
+    }
+
+    public synchronized long getMinimo() {
+        return cantidad == 0 ? 0 : minimo;
+    }
+
+    public synchronized long getMaximo() {
+        return maximo;
+    }
+
+    public synchronized double getPromedio() {
+        return cantidad == 0 ? 0 : (double) suma / cantidad;
+    }
+
+    /**
+     * Cantidad acumulada de valores menores o iguales que 2^k - 1, para
+     * k = 0 .. OCTAVAS_EXPORTADAS - 1 (son límites exactos de cubetas)
+     */
+    synchronized long[] acumuladosPorOctava() {
+        long[] acumulados = new long[OCTAVAS_EXPORTADAS];
+        long acumulado = 0;
+        int cubeta = 0;
+        for (int k = 0; k < OCTAVAS_EXPORTADAS; k++) {
+            long limite = (1L << k) - 1;
+            while (cubeta < CUBETAS && limiteSuperior(cubeta) <= limite) {
+                acumulado += cuentas[cubeta++];
+            }
+            acumulados[k] = acumulado;
+        }
+        return acumulados;
+    }
+
+    public synchronized void reiniciar() {
+        Arrays.fill(cuentas, 0);
+        cantidad = 0;
+        suma = 0;
+        minimo = Long.MAX_VALUE;
+        maximo = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("n=%d prom=%.1f p50=%d p90=%d p99=%d max=%d",
+                cantidad, getPromedio(), getPercentil(50), getPercentil(90), getPercentil(99), maximo);
+    }
+}
@@ -0,0 +1,56 @@
+package metricas;
+
+import instrucciones.Opcode;
+
+/**
+ * Contadores de un núcleo. Solo los modifica el hilo que ejecuta ese núcleo
+ * (o la fase secuencial del ciclo); se leen entre ciclos.
+ *
+ * @author dylan
+ */
+public class MetricasNucleo {
+
+    private final int id;
+    private final long[] mezclaOpcodes = new long[Opcode.values().length];
+    private long instrucciones;
+    private long ticksEjecucion;
+    private long ticksCambioContexto;
+    private long ticksDetenido;
+    private long cambiosContexto;
+
+    MetricasNucleo(int id) {
+        this.id = id;
+    }
+
+    void instruccion(Opcode opcode, int ticks) {
+        mezclaOpcodes[opcode.ordinal()]++;
+        instrucciones++;
+        ticksEjecucion += ticks;
+    }
+
+    void cambioContexto() {
+        cambiosContexto++;
+    }
+
+    void tickCambioContexto() {
+        ticksCambioContexto++;
+    }
+
+    void tickDetenido() {
+        ticksDetenido++;
+    }
+
+    public int getId() { return id; }
+    public long getInstrucciones() { return instrucciones; }
+    /** Ticks ejecutando instrucciones */
+    public long getTicksEjecucion() { return ticksEjecucion; }
+    /** Ticks pagando el costo de cambios de contexto */
+    public long getTicksCambioContexto() { return ticksCambioContexto; }
+    /** Ticks con un proceso asignado que no pudo ejecutar (carga o fallo de página) */
+    public long getTicksDetenido() { return ticksDetenido; }
+    public long getCambiosContexto() { return cambiosContexto; }
+
+    public long getOpcode(Opcode opcode) {
+        return mezclaOpcodes[opcode.ordinal()];
+    }
+}
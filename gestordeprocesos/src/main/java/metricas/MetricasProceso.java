@@ -0,0 +1,95 @@
+package metricas;
+
+/**
+ * Contadores de un proceso, en ticks del reloj simulado. Solo los modifica
+ * el núcleo que ejecuta el proceso o la fase secuencial del ciclo.
+ *
+ * @author dylan
+ */
+public class MetricasProceso {
+
+    private final int pid;
+    private final String nombre;
+    private final long llegada;
+    private long primeraEjecucion = -1;
+    private long fin = -1;
+    private int cpu = -1;
+
+    private long instrucciones;
+    private long ticksCPU;
+    private long cambiosContexto;
+    private long esperasES;
+    private long ticksES;
+    private long inicioEsperaES = -1;
+
+    MetricasProceso(int pid, String nombre, long llegada) {
+        this.pid = pid;
+        this.nombre = nombre;
+        this.llegada = llegada;
+    }
+
+    /** @param tick tick en que empezó la instrucción */
+    void instruccion(int cpu, long tick, int ticks) {
+        if (primeraEjecucion < 0) {
+            primeraEjecucion = tick;
+        }
+        this.cpu = cpu;
+        instrucciones++;
+        ticksCPU += ticks;
+    }
+
+    void cambioContexto() {
+        cambiosContexto++;
+    }
+
+    void inicioEsperaES(long tick) {
+        esperasES++;
+        inicioEsperaES = tick;
+    }
+
+    /** @return ticks que esperó, o -1 si no estaba esperando */
+    long finEsperaES(long tick) {
+        if (inicioEsperaES < 0) {
+            return -1;
+        }
+        long espera = tick - inicioEsperaES;
+        ticksES += espera;
+        inicioEsperaES = -1;
+        return espera;
+    }
+
+    void finalizar(long tick) {
+        fin = tick;
+    }
+
+    public int getPid() { return pid; }
+    public String getNombre() { return nombre; }
+    public int getCpu() { return cpu; }
+    public long getLlegada() { return llegada; }
+    public long getPrimeraEjecucion() { return primeraEjecucion; }
+    public long getFin() { return fin; }
+    public boolean isFinalizado() { return fin >= 0; }
+    public long getInstrucciones() { return instrucciones; }
+    public long getTicksCPU() { return ticksCPU; }
+    public long getCambiosContexto() { return cambiosContexto; }
+    public long getEsperasES() { return esperasES; }
+    public long getTicksES() { return ticksES; }
+
+    /** Tiempo de respuesta: de la llegada a la primera instrucción (-1 si no empezó) */
+    public long getRespuesta() {
+        return primeraEjecucion < 0 ? -1 : primeraEjecucion - llegada;
+    }
+
+    /** Tiempo de retorno: de la llegada al fin (-1 si no terminó) */
+    public long getRetorno() {
+        return fin < 0 ? -1 : fin - llegada;
+    }
+
+    /**
+     * Tiempo de espera: el retorno menos lo que estuvo en CPU y esperando
+     * E/S (cola de listos, carga, suspensión y cambios de contexto)
+     */
+    public long getEspera() {
+        return fin < 0 ? -1 : Math.max(0, getRetorno() - ticksCPU - ticksES);
+    }
+}
@@ -0,0 +1,307 @@
+package metricas;
+
+import instrucciones.Opcode;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import sistema.RelojVirtual;
+
+/**
+ * Métricas de una corrida por proceso y por núcleo, en ticks del reloj
+ * simulado: instrucciones, tiempo en CPU, respuesta, retorno, espera,
+ * cambios de contexto, esperas de E/S y mezcla de opcodes, más histogramas
+ * de los tiempos de los procesos terminados. Se consultan con los getters o
+ * se exportan en el formato de texto de Prometheus para comparar políticas.
+ *
+ * Los núcleos registran sus eventos sin locks (cada uno en sus contadores);
+ * los totales se leen entre ciclos.
+ *
+ * @author dylan
+ */
+public class RegistroMetricas {
+
+    private static final String PREFIJO = "simulador_";
+
+    private final RelojVirtual reloj;
+    private final MetricasNucleo[] nucleos;
+    private final Map<Integer, MetricasProceso> procesos = new ConcurrentHashMap<>();
+    private final Map<String, String> etiquetas = new LinkedHashMap<>();
+
+    private final Histograma respuesta = new Histograma();
+    private final Histograma retorno = new Histograma();
+    private final Histograma espera = new Histograma();
+    private final Histograma esperaES = new Histograma();
+    private final Histograma rafagas = new Histograma();
+
+    public RegistroMetricas(RelojVirtual reloj, int numNucleos) {
+        this.reloj = reloj;
+        this.nucleos = new MetricasNucleo[numNucleos];
+        for (int i = 0; i < numNucleos; i++) {
+            nucleos[i] = new MetricasNucleo(i);
+        }
+    }
+
+    // ========== EVENTOS ==========
+
+    /** Un proceso llegó al sistema (se creó su BCP) */
+    public MetricasProceso procesoCreado(int pid, String nombre) {
+        MetricasProceso metricas = new MetricasProceso(pid, nombre, reloj.getTicks());
+        procesos.put(pid, metricas);
+        return metricas;
+    }
+
+    /**
+     * El núcleo terminó una instrucción del proceso
+     * @param proceso métricas del proceso (de getProceso), o null si no se registró
+     * @param ticks ticks que ocupó la instrucción (su peso)
+     * @param tick tick en que terminó (el núcleo puede ir adelantado al reloj)
+     */
+    public void instruccion(int nucleo, MetricasProceso proceso, Opcode opcode, int ticks, long tick) {
+        nucleos[nucleo].instruccion(opcode, ticks);
+        if (proceso != null) {
+            proceso.instruccion(nucleo, tick - ticks + 1, ticks);
+        }
+    }
+
+    /** El núcleo cargó el contexto de otro proceso */
+    public void cambioContexto(int nucleo, MetricasProceso proceso) {
+        nucleos[nucleo].cambioContexto();
+        if (proceso != null) {
+            proceso.cambioContexto();
+        }
+    }
+
+    /** Ciclo que el núcleo pasó guardando y cargando registros */
+    public void tickCambioContexto(int nucleo) {
+        nucleos[nucleo].tickCambioContexto();
+    }
+
+    /** Ciclo en que el proceso asignado no pudo ejecutar (carga, fallo de página) */
+    public void tickDetenido(int nucleo) {
+        nucleos[nucleo].tickDetenido();
+    }
+
+    /** Instrucciones que ejecutó un proceso desde que entró al núcleo hasta que salió */
+    public void rafaga(long instrucciones) {
+        rafagas.registrar(instrucciones);
+    }
+
+    /** El proceso pidió entrada de teclado (INT 09H) */
+    public void esperaEntrada(int pid) {
+        MetricasProceso proceso = procesos.get(pid);
+        if (proceso != null) {
+            proceso.inicioEsperaES(reloj.getTicks());
+        }
+    }
+
+    /** El proceso recibió la entrada que esperaba */
+    public void entradaRecibida(int pid) {
+        MetricasProceso proceso = procesos.get(pid);
+        if (proceso != null) {
+            long ticks = proceso.finEsperaES(reloj.getTicks());
+            if (ticks >= 0) {
+                esperaES.registrar(ticks);
+            }
+        }
+    }
+
+    /** El proceso terminó: sus tiempos entran en los histogramas */
+    public void procesoFinalizado(int pid) {
+        MetricasProceso proceso = procesos.get(pid);
+        if (proceso == null || proceso.isFinalizado()) {
+            return;
+        }
+        // el fin cuenta el ciclo de la última instrucción
+        proceso.finalizar(reloj.getTicks() + 1);
+        retorno.registrar(proceso.getRetorno());
+        espera.registrar(proceso.getEspera());
+        if (proceso.getRespuesta() >= 0) {
+            respuesta.registrar(proceso.getRespuesta());
+        }
+    }
+
+    // ========== CONSULTAS ==========
+
+    public MetricasProceso getProceso(int pid) {
+        return procesos.get(pid);
+    }
+
+    /** Procesos registrados, por PID */
+    public List<MetricasProceso> getProcesos() {
+        List<MetricasProceso> lista = new ArrayList<>(procesos.values());
+        lista.sort(Comparator.comparingInt(MetricasProceso::getPid));
+        return lista;
+    }
+
+    public MetricasNucleo getNucleo(int id) {
+        return nucleos[id];
+    }
+
+    public int getNumNucleos() {
+        return nucleos.length;
+    }
+
+    public long getTicks() {
+        return reloj.getTicks();
+    }
+
+    /** Instrucciones ejecutadas de un opcode, sumando todos los núcleos */
+    public long getOpcode(Opcode opcode) {
+        long total = 0;
+        for (MetricasNucleo nucleo : nucleos) {
+            total += nucleo.getOpcode(opcode);
+        }
+        return total;
+    }
+
+    public Histograma getRespuesta() { return respuesta; }
+    public Histograma getRetorno() { return retorno; }
+    public Histograma getEspera() { return espera; }
+    public Histograma getEsperaES() { return esperaES; }
+    public Histograma getRafagas() { return rafagas; }
+
+    /**
+     * Etiqueta que se agrega a todas las series exportadas (ej: politica),
+     * para juntar corridas distintas en un mismo Prometheus
+     */
+    public synchronized void setEtiqueta(String nombre, String valor) {
+        etiquetas.put(nombre, valor);
+    }
+
+    // ========== EXPORTACIÓN ==========
+
+    /** Escribe las métricas en un archivo con el formato de texto de Prometheus */
+    public void guardarPrometheus(File archivo) throws IOException {
+        try (Writer escritor = Files.newBufferedWriter(archivo.toPath(), StandardCharsets.UTF_8)) {
+            escritor.write(aPrometheus());
+        }
+    }
+
+    /** Métricas en el formato de texto de Prometheus (versión 0.0.4) */
+    public synchronized String aPrometheus() {
+        StringBuilder sb = new StringBuilder(4096);
+        String comunes = etiquetasComunes();
+
+        encabezado(sb, "ticks_total", "counter", "Ticks del reloj simulado");
+        serie(sb, "ticks_total", comunes, "", reloj.getTicks());
+
+        encabezado(sb, "nucleo_instrucciones_total", "counter", "Instrucciones ejecutadas por núcleo");
+        for (MetricasNucleo n : nucleos) {
+            serie(sb, "nucleo_instrucciones_total", comunes, "nucleo=\"" + n.getId() + "\"", n.getInstrucciones());
+        }
+        encabezado(sb, "nucleo_ticks_total", "counter", "Ticks de cada núcleo según lo que hizo");
+        for (MetricasNucleo n : nucleos) {
+            String nucleo = "nucleo=\"" + n.getId() + "\",estado=";
+            long inactivo = reloj.getTicks() - n.getTicksEjecucion() - n.getTicksCambioContexto() - n.getTicksDetenido();
+            serie(sb, "nucleo_ticks_total", comunes, nucleo + "\"ejecucion\"", n.getTicksEjecucion());
+            serie(sb, "nucleo_ticks_total", comunes, nucleo + "\"cambio_contexto\"", n.getTicksCambioContexto());
+            serie(sb, "nucleo_ticks_total", comunes, nucleo + "\"detenido\"", n.getTicksDetenido());
+            serie(sb, "nucleo_ticks_total", comunes, nucleo + "\"inactivo\"", Math.max(0, inactivo));
+        }
+        encabezado(sb, "nucleo_cambios_contexto_total", "counter", "Cambios de contexto por núcleo");
+        for (MetricasNucleo n : nucleos) {
+            serie(sb, "nucleo_cambios_contexto_total", comunes, "nucleo=\"" + n.getId() + "\"", n.getCambiosContexto());
+        }
+        encabezado(sb, "opcode_total", "counter", "Instrucciones ejecutadas por opcode y núcleo");
+        for (MetricasNucleo n : nucleos) {
+            for (Opcode opcode : Opcode.values()) {
+                if (n.getOpcode(opcode) > 0) {
+                    serie(sb, "opcode_total", comunes,
+                            "nucleo=\"" + n.getId() + "\",opcode=\"" + opcode + "\"", n.getOpcode(opcode));
+                }
+            }
+        }
+
+        List<MetricasProceso> lista = getProcesos();
+        procesos(sb, comunes, lista, "proceso_instrucciones_total", "counter",
+                "Instrucciones ejecutadas por proceso", MetricasProceso::getInstrucciones);
+        procesos(sb, comunes, lista, "proceso_ticks_cpu_total", "counter",
+                "Ticks en CPU por proceso", MetricasProceso::getTicksCPU);
+        procesos(sb, comunes, lista, "proceso_cambios_contexto_total", "counter",
+                "Veces que el proceso entró a un núcleo", MetricasProceso::getCambiosContexto);
+        procesos(sb, comunes, lista, "proceso_esperas_es_total", "counter",
+                "Esperas de entrada (INT 09H) por proceso", MetricasProceso::getEsperasES);
+        procesos(sb, comunes, lista, "proceso_ticks_es_total", "counter",
+                "Ticks esperando entrada por proceso", MetricasProceso::getTicksES);
+        procesos(sb, comunes, lista, "proceso_respuesta_ticks", "gauge",
+                "De la llegada a la primera instrucción", MetricasProceso::getRespuesta);
+        procesos(sb, comunes, lista, "proceso_retorno_ticks", "gauge",
+                "De la llegada al fin", MetricasProceso::getRetorno);
+        procesos(sb, comunes, lista, "proceso_espera_ticks", "gauge",
+                "Retorno menos CPU y E/S", MetricasProceso::getEspera);
+
+        histograma(sb, comunes, "respuesta_ticks", "Tiempo de respuesta de los procesos terminados", respuesta);
+        histograma(sb, comunes, "retorno_ticks", "Tiempo de retorno de los procesos terminados", retorno);
+        histograma(sb, comunes, "espera_ticks", "Tiempo de espera de los procesos terminados", espera);
+        histograma(sb, comunes, "espera_es_ticks", "Duración de cada espera de entrada", esperaES);
+        histograma(sb, comunes, "rafaga_instrucciones", "Instrucciones por estadía en un núcleo", rafagas);
+        return sb.toString();
+    }
+
+    private interface Valor {
+        long de(MetricasProceso proceso);
+    }
+
+    private static void procesos(StringBuilder sb, String comunes, List<MetricasProceso> lista,
+                                 String nombre, String tipo, String ayuda, Valor valor) {
+        encabezado(sb, nombre, tipo, ayuda);
+        for (MetricasProceso p : lista) {
+            long v = valor.de(p);
+            if (v >= 0) {
+                serie(sb, nombre, comunes, "pid=\"" + p.getPid() + "\",programa=\"" + escapar(p.getNombre()) + "\"", v);
+            }
+        }
+    }
+
+    private static void histograma(StringBuilder sb, String comunes, String nombre, String ayuda, Histograma h) {
+        encabezado(sb, nombre, "histogram", ayuda);
+        long[] acumulados = h.acumuladosPorOctava();
+        for (int k = 0; k < acumulados.length; k++) {
+            serie(sb, nombre + "_bucket", comunes, "le=\"" + ((1L << k) - 1) + "\"", acumulados[k]);
+        }
+        serie(sb, nombre + "_bucket", comunes, "le=\"+Inf\"", h.getCantidad());
+        serie(sb, nombre + "_sum", comunes, "", h.getSuma());
+        serie(sb, nombre + "_count", comunes, "", h.getCantidad());
+    }
+
+    private static void encabezado(StringBuilder sb, String nombre, String tipo, String ayuda) {
+        sb.append("# HELP ").append(PREFIJO).append(nombre).append(' ').append(ayuda).append('\n');
+        sb.append("# TYPE ").append(PREFIJO).append(nombre).append(' ').append(tipo).append('\n');
+    }
+
+    private static void serie(StringBuilder sb, String nombre, String comunes, String propias, long valor) {
+        sb.append(PREFIJO).append(nombre);
+        if (!comunes.isEmpty() || !propias.isEmpty()) {
+            sb.append('{').append(comunes);
+            if (!comunes.isEmpty() && !propias.isEmpty()) {
+                sb.append(',');
+            }
+            sb.append(propias).append('}');
+        }
+        sb.append(' ').append(valor).append('\n');
+    }
+
+    private String etiquetasComunes() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> e : etiquetas.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(e.getKey().toLowerCase(Locale.ROOT)).append("=\"").append(escapar(e.getValue())).append('"');
+        }
+        return sb.toString();
+    }
+
+    private static String escapar(String valor) {
+        return valor.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -1,9 +1,11 @@
 package procesos;
 
+import instrucciones.CodificadorInstruccion;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Stack;
+import memoria.DisposicionBCP;
 import memoria.MemoriaPrincipal;
+import memoria.TablaPaginas;
 
 /**
  * 
@@ -11,7 +13,7 @@ import memoria.MemoriaPrincipal;
  */
 public class BCP {
 
-    // Estado y PC
+    // Estado y PC (dirección lógica: desplazamiento dentro del programa)
     private Estado estado;
     private int programCounter;
 
@@ -19,14 +21,16 @@ public class BCP {
     private int ac, ax, bx, cx, dx;
 
     // Pila (estado)
-    private Stack<Integer> pila;
-    private static final int TAMANIO_MAXIMO_PILA = 5;
+    private final PilaEnteros pila;
 
-    // Contables
+    // Bandera de comparación (CMP la escribe, JE/JNE la leen)
+    private boolean flagIgualdad;
+
+    // Contables, en ticks del reloj simulado
     private int cpuID;
-    private long tiempoInicio;
-    private long tiempoEmpleado;
-    private long tiempoFinalizacion;
+    private long tiempoInicio;        // tick del primer despacho (-1 = no empezó)
+    private long tiempoEmpleado;      // ticks ejecutando instrucciones
+    private long tiempoFinalizacion;  // tick en que terminó (-1 = no terminó)
 
     // Información de E/S
     private List<String> archivosAbiertos;
@@ -40,29 +44,49 @@ public class BCP {
     private int tamanio;
     // Dirección donde está guardado este BCP en memoria SO
     private int direccionBCPEnMemoria = -1;
+    // Tabla de páginas (null si la memoria no usa paginación)
+    private TablaPaginas tablaPaginas;
 
     // Referencia a la memoria principal (para poder actualizarla)
     private MemoriaPrincipal memoriaReferencia = null;
+    // Campos cambiados desde la última escritura en memoria (bits de DisposicionBCP)
+    private int camposModificados;
 
-    // Prioridad
+    // Prioridad (menor valor = más prioritario)
+    public static final int PRIORIDAD_POR_DEFECTO = 1;
     private int prioridad;
 
+    // Planificación
+    private long costoEstimado;       // suma de pesos de las instrucciones
+    private long costoConsumido;      // pesos de las instrucciones ya ejecutadas
+    private int ciclosEnCPU;          // ticks ejecutados desde el último despacho (quantum)
+    private long tiempoLlegadaListos; // tick en que entró a la cola de listos
+    private boolean instruccionEnCurso; // a mitad de una instrucción de varios ticks
+
     // Info adicional
     private String nombreArchivo;
     private int pid;
-    private String instruccionActual;
+    private int instruccionActual; // palabra codificada (0 = ninguna)
 
     private static int siguientePID = 1;
 
     public BCP(String nombreArchivo, int direccionBase, int tamaño, int prioridad) {
+        this(nombreArchivo, direccionBase, tamaño, prioridad, PilaEnteros.PROFUNDIDAD_POR_DEFECTO);
+    }
+
+    /**
+     * @param profundidadPila elementos que caben en la pila del proceso
+     */
+    public BCP(String nombreArchivo, int direccionBase, int tamaño, int prioridad, int profundidadPila) {
         this.nombreArchivo = nombreArchivo;
         this.pid = siguientePID++;
         this.direccionBase = direccionBase;
         this.tamanio = tamaño;
         this.prioridad = prioridad;
+        this.costoEstimado = tamaño;
 
         this.estado = Estado.NUEVO;
-        this.programCounter = direccionBase;
+        this.programCounter = 0;
 
         // Inicializar registros
         this.ac = 0;
@@ -72,13 +96,13 @@ public class BCP {
         this.dx = 0;
 
         // Pila inicial vacía
-        this.pila = new Stack<>();
+        this.pila = new PilaEnteros(profundidadPila);
 
         // Contables
         this.cpuID = -1; // no asignado
-        this.tiempoInicio = 0;
+        this.tiempoInicio = -1;
         this.tiempoEmpleado = 0;
-        this.tiempoFinalizacion = 0;
+        this.tiempoFinalizacion = -1;
 
         // E/S
         this.archivosAbiertos = new ArrayList<>();
@@ -86,29 +110,92 @@ public class BCP {
 
         // Enlace
         this.dirSiguienteBCP = -1;
-        this.instruccionActual = "";
+        this.instruccionActual = 0;
     }
 
     // Estados
-    public void cambiarEstado(Estado nuevoEstado) {
-        long tiempoActual = System.currentTimeMillis();
-
-        if (this.estado == Estado.EJECUCION && nuevoEstado != Estado.EJECUCION) {
-            tiempoEmpleado += tiempoActual - tiempoInicio;
-        }
-        if (nuevoEstado == Estado.EJECUCION) {
-            tiempoInicio = tiempoActual;
+    /**
+     * Cambia el estado y anota el tick del primer despacho o del fin
+     *
+     * @param tick tick del reloj simulado en que ocurre el cambio
+     */
+    public void cambiarEstado(Estado nuevoEstado, long tick) {
+        if (nuevoEstado == Estado.EJECUCION && tiempoInicio < 0) {
+            tiempoInicio = tick;
+            marcar(DisposicionBCP.TIEMPO_INICIO);
         }
         if (nuevoEstado == Estado.FINALIZADO) {
-            tiempoFinalizacion = tiempoActual;
+            tiempoFinalizacion = tick;
+            marcar(DisposicionBCP.TIEMPO_FINALIZACION);
+        }
+        setEstado(nuevoEstado);
+    }
+
+    /**
+     * Devuelve a la memoria el espacio del proceso (BCP y programa)
+     */
+    private void liberarMemoria() {
+        if (memoriaReferencia != null) {
+            memoriaReferencia.liberarProceso(this);
+        }
+    }
+
+    /**
+     * Mueve el proceso a otra dirección base (compactación). El PC es lógico,
+     * así que no cambia.
+     */
+    public void reubicar(int nuevaBase) {
+        direccionBase = nuevaBase;
+        marcar(DisposicionBCP.DIRECCION_BASE);
+    }
+
+    /**
+     * Escribe en la memoria los campos modificados desde la última vez. Se
+     * llama al sacar el proceso del CPU; mientras ejecuta, los cambios solo
+     * quedan en el objeto.
+     */
+    public void guardarContexto() {
+        if (memoriaReferencia != null && camposModificados != 0) {
+            memoriaReferencia.guardarBCP(this);
         }
+    }
+
+    private void marcar(DisposicionBCP campo) {
+        camposModificados |= campo.getBit();
+    }
+
+    /** Máscara de campos modificados (bits de DisposicionBCP) */
+    public int getCamposModificados() {
+        return camposModificados;
+    }
+
+    /** Marca como guardados los campos de la máscara */
+    public void limpiarCamposModificados(int mascara) {
+        camposModificados &= ~mascara;
+    }
+
+    /**
+     * Registra que se ejecutó una instrucción con el peso indicado (los
+     * ticks que ocupó el núcleo)
+     */
+    public void registrarEjecucion(int peso) {
+        costoConsumido += peso;
+        ciclosEnCPU += peso;
+        tiempoEmpleado += peso;
+        marcar(DisposicionBCP.TIEMPO_EMPLEADO);
+    }
 
-        this.estado = nuevoEstado;
+    /**
+     * Costo estimado que le falta al proceso (nunca negativo)
+     */
+    public long getCostoRestante() {
+        return Math.max(0, costoEstimado - costoConsumido);
     }
 
     // Validaciones memoria/PC
     public void incrementarPC() {
         programCounter++;
+        marcar(DisposicionBCP.PC);
     }
 
     public void setProgramCounter(int nuevaDireccion) {
@@ -116,35 +203,53 @@ public class BCP {
             throw new RuntimeException("Dirección inválida");
         }
         this.programCounter = nuevaDireccion;
+        marcar(DisposicionBCP.PC);
     }
 
+    /**
+     * Indica si una dirección lógica cae dentro del programa
+     */
     public boolean direccionValida(int direccion) {
-        return direccion >= direccionBase && direccion < direccionBase + tamanio;
+        return direccion >= 0 && direccion < tamanio;
     }
     
     /**
     * Métodos para manipular la pila directamente
     */
    public void pushPila(int valor) {
-       if (pila.size() >= TAMANIO_MAXIMO_PILA) {
-           throw new RuntimeException("Desbordamiento de pila");
-       }
        pila.push(valor);
+       marcar(DisposicionBCP.PILA);
    }
 
    public int popPila() {
-       if (pila.isEmpty()) {
-           throw new RuntimeException("Pila vacía");
-       }
-       return pila.pop();
+       int valor = pila.pop();
+       marcar(DisposicionBCP.PILA);
+       return valor;
+   }
+
+   /**
+    * Copia la pila al arreglo a partir de destino[desde], desde el fondo
+    * @return cantidad de elementos
+    */
+   public int copiarPila(int[] destino, int desde) {
+       return pila.copiarA(destino, desde);
+   }
+
+   /** Copia la pila a otra (ej: la del banco de registros de un núcleo) */
+   public void copiarPila(PilaEnteros destino) {
+       destino.copiarDe(pila);
    }
 
    public boolean pilaVacia() {
-       return pila.isEmpty();
+       return pila.estaVacia();
    }
 
    public int tamanioPila() {
-       return pila.size();
+       return pila.tamanio();
+   }
+
+   public int getProfundidadPila() {
+       return pila.getProfundidad();
    }
     
 
@@ -155,7 +260,7 @@ public class BCP {
                 "BCP[%s] %s | PID:%d | PC:%d | AC:%d | AX:%d | BX:%d | CX:%d | DX:%d | Pila:%d/%d",
                 nombreArchivo, estado, pid, programCounter,
                 ac, ax, bx, cx, dx,
-                pila.size(), TAMANIO_MAXIMO_PILA);
+                pila.tamanio(), pila.getProfundidad());
     }
 
     public String toStringCompleto() {
@@ -164,7 +269,7 @@ public class BCP {
                 + "Pila:%s Tamaño:%d/%d Mem:@%d Pri:%d Archivos:%s EsperaE/S:%b",
                 nombreArchivo, pid, estado, programCounter,
                 ac, ax, bx, cx, dx,
-                pila, pila.size(), TAMANIO_MAXIMO_PILA,
+                pila, pila.tamanio(), pila.getProfundidad(),
                 direccionBase, prioridad,
                 archivosAbiertos, esperandoEntrada);
     }
@@ -175,6 +280,7 @@ public class BCP {
     public Estado getEstado() { return estado; }
     public void setDireccionBase(int direccionBase) {
         this.direccionBase = direccionBase;
+        marcar(DisposicionBCP.DIRECCION_BASE);
     }
     public int getDireccionBCPEnMemoria() {
         return direccionBCPEnMemoria;
@@ -187,6 +293,13 @@ public class BCP {
     public void setMemoriaReferencia(MemoriaPrincipal memoria) {
         this.memoriaReferencia = memoria;
     }
+    public TablaPaginas getTablaPaginas() {
+        return tablaPaginas;
+    }
+
+    public void setTablaPaginas(TablaPaginas tablaPaginas) {
+        this.tablaPaginas = tablaPaginas;
+    }
     public int getProgramCounter() { return programCounter; }
     public int getAc() { return ac; }
     public int getAx() { return ax; }
@@ -199,59 +312,130 @@ public class BCP {
     public long getTiempoFinalizacion() { return tiempoFinalizacion; }
     public List<String> getArchivosAbiertos() { return new ArrayList<>(archivosAbiertos); }
     public boolean isEsperandoEntrada() { return esperandoEntrada; }
+    public boolean isFlagIgualdad() { return flagIgualdad; }
     public int getSiguiente() { return dirSiguienteBCP; }
     public int getDireccionBase() { return direccionBase; }
     public int getTamanio() { return tamanio; }
     public int getPrioridad() { return prioridad; }
+    public long getCostoEstimado() { return costoEstimado; }
+    public long getCostoConsumido() { return costoConsumido; }
+    public int getCiclosEnCPU() { return ciclosEnCPU; }
+    public long getTiempoLlegadaListos() { return tiempoLlegadaListos; }
+    /** El núcleo está a mitad de una instrucción: no se expropia hasta que termine */
+    public boolean isInstruccionEnCurso() { return instruccionEnCurso; }
     public String getNombreArchivo() { return nombreArchivo; }
     public int getPid() { return pid; }
-    public String getInstruccionActual() { return instruccionActual; }
-    public Stack<Integer> getPila() { return (Stack<Integer>) pila.clone(); }
+    public String getInstruccionActual() {
+        // Se decodifica solo cuando alguien la quiere mostrar, con el pool
+        // de la memoria de la que se leyó
+        return CodificadorInstruccion.esInstruccion(instruccionActual) && memoriaReferencia != null
+                ? CodificadorInstruccion.decodificar(instruccionActual, memoriaReferencia.getPoolOperandos()).toString() : "";
+    }
+    public String getPilaComoTexto() { return pila.toString(); }
 
-    public void setEstado(Estado estado) { this.estado = estado; }
+    public void setEstado(Estado estado) {
+        this.estado = estado;
+        marcar(DisposicionBCP.ESTADO);
+        if (estado == Estado.FINALIZADO) {
+            liberarMemoria();
+        }
+    }
     public void setAc(int ac) {
         this.ac = ac;
-        actualizarEnMemoria(2, ac); // Offset 2 = AC
+        marcar(DisposicionBCP.AC);
     }
 
     public void setAx(int ax) {
         this.ax = ax;
-        actualizarEnMemoria(3, ax); // Offset 3 = AX
+        marcar(DisposicionBCP.AX);
     }
 
     public void setBx(int bx) {
         this.bx = bx;
-        actualizarEnMemoria(4, bx); // Offset 4 = BX
+        marcar(DisposicionBCP.BX);
     }
 
     public void setCx(int cx) {
         this.cx = cx;
-        actualizarEnMemoria(5, cx); // Offset 5 = CX
+        marcar(DisposicionBCP.CX);
     }
 
     public void setDx(int dx) {
         this.dx = dx;
-        actualizarEnMemoria(6, dx); // Offset 6 = DX
+        marcar(DisposicionBCP.DX);
     }
 
     /**
-     * Actualiza un valor del BCP en la memoria principal
+     * Guarda en el BCP el contexto de un núcleo (cambio de contexto). Solo
+     * se marcan como modificados los campos que cambiaron.
+     *
+     * @param registros AC, AX, BX, CX, DX (índices de instrucciones.Registro)
      */
-    private void actualizarEnMemoria(int offset, int valor) {
-        if (memoriaReferencia != null && direccionBCPEnMemoria != -1) {
-            try {
-                memoriaReferencia.actualizarAtributoBCP(direccionBCPEnMemoria, offset, valor);
-            } catch (Exception e) {
-                // Ignorar si falla (por ejemplo, si aún no está cargado)
+    public void actualizarContexto(int[] registros, int pc, boolean flagIgualdad, PilaEnteros pila) {
+        for (int i = 0; i < registros.length; i++) {
+            if (getRegistro(i) != registros[i]) {
+                setRegistro(i, registros[i]);
             }
         }
+        if (programCounter != pc) {
+            programCounter = pc;
+            marcar(DisposicionBCP.PC);
+        }
+        if (this.flagIgualdad != flagIgualdad) {
+            setFlagIgualdad(flagIgualdad);
+        }
+        if (!this.pila.mismoContenido(pila)) {
+            this.pila.copiarDe(pila);
+            marcar(DisposicionBCP.PILA);
+        }
+    }
+
+    /**
+     * Lee un registro por índice (ver instrucciones.Registro: AC, AX, BX, CX, DX)
+     */
+    public int getRegistro(int indice) {
+        switch (indice) {
+            case 0: return ac;
+            case 1: return ax;
+            case 2: return bx;
+            case 3: return cx;
+            case 4: return dx;
+            default: throw new RuntimeException("Registro inválido: " + indice);
+        }
+    }
+
+    /**
+     * Escribe un registro por índice (ver instrucciones.Registro: AC, AX, BX, CX, DX)
+     */
+    public void setRegistro(int indice, int valor) {
+        switch (indice) {
+            case 0: setAc(valor); break;
+            case 1: setAx(valor); break;
+            case 2: setBx(valor); break;
+            case 3: setCx(valor); break;
+            case 4: setDx(valor); break;
+            default: throw new RuntimeException("Registro inválido: " + indice);
+        }
+    }
+
+    public void setCpuID(int cpuID) { this.cpuID = cpuID; marcar(DisposicionBCP.CPU); }
+    public void setSiguiente(int dirSiguienteBCP) { this.dirSiguienteBCP = dirSiguienteBCP; marcar(DisposicionBCP.SIGUIENTE); }
+    public void setInstruccionActual(int palabra) { this.instruccionActual = palabra; }
+    public void setEsperandoEntrada(boolean esperandoEntrada) {
+        this.esperandoEntrada = esperandoEntrada;
+        marcar(DisposicionBCP.BANDERAS);
+    }
+    public void setFlagIgualdad(boolean flagIgualdad) {
+        this.flagIgualdad = flagIgualdad;
+        marcar(DisposicionBCP.BANDERAS);
     }
-    public void setCpuID(int cpuID) { this.cpuID = cpuID; }
-    public void setSiguiente(int dirSiguienteBCP) { this.dirSiguienteBCP = dirSiguienteBCP; }
-    public void setInstruccionActual(String instruccionActual) { this.instruccionActual = instruccionActual; }
-    public void setEsperandoEntrada(boolean esperandoEntrada) { this.esperandoEntrada = esperandoEntrada; }
     public void setArchivosAbiertos(List<String> archivos) { this.archivosAbiertos = archivos; }
-    public void setTiempoEmpleado(long tiempoEmpleado) { this.tiempoEmpleado = tiempoEmpleado; }
+    public void setTiempoEmpleado(long tiempoEmpleado) { this.tiempoEmpleado = tiempoEmpleado; marcar(DisposicionBCP.TIEMPO_EMPLEADO); }
+    public void setPrioridad(int prioridad) { this.prioridad = prioridad; marcar(DisposicionBCP.PRIORIDAD); }
+    public void setCostoEstimado(long costoEstimado) { this.costoEstimado = costoEstimado; }
+    public void setCiclosEnCPU(int ciclosEnCPU) { this.ciclosEnCPU = ciclosEnCPU; }
+    public void setTiempoLlegadaListos(long tiempo) { this.tiempoLlegadaListos = tiempo; }
+    public void setInstruccionEnCurso(boolean enCurso) { this.instruccionEnCurso = enCurso; }
 
     public static void reiniciarContadorPID() { siguientePID = 1; }
 }
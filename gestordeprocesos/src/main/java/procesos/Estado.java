@@ -9,5 +9,7 @@ public enum Estado {
     PREPARADO,
     EJECUCION,
     ESPERA,
+    SUSPENDIDO_LISTO,  // fuera de memoria (en el disco), listo para volver
+    SUSPENDIDO_ESPERA, // fuera de memoria y esperando entrada
     FINALIZADO
 }
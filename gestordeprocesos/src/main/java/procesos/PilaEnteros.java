@@ -0,0 +1,103 @@
+package procesos;
+
+/**
+ * Pila de enteros de profundidad fija, sobre un arreglo y un índice de tope.
+ * PUSH, POP y PARAM no crean objetos. No es thread-safe: cada pila la usa un
+ * solo núcleo a la vez.
+ *
+ * @author dylan
+ */
+public class PilaEnteros {
+
+    public static final int PROFUNDIDAD_POR_DEFECTO = 5;
+
+    private final int[] elementos;
+    private int tope; // cantidad de elementos
+
+    public PilaEnteros(int profundidad) {
+        if (profundidad <= 0) {
+            throw new IllegalArgumentException("La profundidad de la pila debe ser al menos 1");
+        }
+        this.elementos = new int[profundidad];
+    }
+
+    public void push(int valor) {
+        if (tope == elementos.length) {
+            throw new RuntimeException("Desbordamiento de pila");
+        }
+        elementos[tope++] = valor;
+    }
+
+    public int pop() {
+        if (tope == 0) {
+            throw new RuntimeException("Pila vacía");
+        }
+        return elementos[--tope];
+    }
+
+    /** Elemento contando desde el fondo */
+    public int get(int indice) {
+        if (indice < 0 || indice >= tope) {
+            throw new IndexOutOfBoundsException("Índice de pila inválido: " + indice);
+        }
+        return elementos[indice];
+    }
+
+    public int tamanio() {
+        return tope;
+    }
+
+    public int getProfundidad() {
+        return elementos.length;
+    }
+
+    public boolean estaVacia() {
+        return tope == 0;
+    }
+
+    public void vaciar() {
+        tope = 0;
+    }
+
+    /**
+     * Copia los elementos, desde el fondo, a partir de destino[desde]
+     * @return cantidad de elementos copiados
+     */
+    public int copiarA(int[] destino, int desde) {
+        System.arraycopy(elementos, 0, destino, desde, tope);
+        return tope;
+    }
+
+    /**
+     * Reemplaza el contenido por el de otra pila (de profundidad no mayor)
+     */
+    public void copiarDe(PilaEnteros otra) {
+        if (otra.tope > elementos.length) {
+            throw new RuntimeException("Desbordamiento de pila");
+        }
+        System.arraycopy(otra.elementos, 0, elementos, 0, otra.tope);
+        tope = otra.tope;
+    }
+
+    /** Indica si las dos pilas tienen los mismos elementos */
+    public boolean mismoContenido(PilaEnteros otra) {
+        if (otra.tope != tope) {
+            return false;
+        }
+        for (int i = 0; i < tope; i++) {
+            if (elementos[i] != otra.elementos[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < tope; i++) {
+            sb.append(i > 0 ? ", " : "").append(elementos[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -1,118 +1,320 @@
 package procesos;
 
+import bitacora.Bitacora;
+import bitacora.Nivel;
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
+import java.util.function.BiConsumer;
+import sistema.RelojVirtual;
 
 /**
- * Planificador para 5 CPUs simultáneas (FIFO)
+ * Planificador para varias CPUs simultáneas.
+ * El orden de la cola de listos y la expropiación los decide la política
+ * de planificación (FIFO por defecto).
+ * Los métodos son sincronizados porque cada CPU corre en su propio hilo y
+ * puede finalizar procesos o mandarlos a espera mientras las otras ejecutan.
  * @author dylan
  */
 public class Planificador {
 
-    private static final int NUM_CPUS = 5;
+    private final int numCPUs;
+    private final RelojVirtual reloj;
 
-    private Queue<BCP> colaListos;
-    private Queue<BCP> colaEspera;
-    private BCP[] procesosEnEjecucion; // procesos ejecutándose en cada CPU
+    private PoliticaPlanificacion colaListos;
+    private final Queue<BCP> colaEspera;
+    private final BCP[] procesosEnEjecucion; // procesos ejecutándose en cada CPU
+    // Guarda los registros del núcleo en el BCP cuando el proceso sale (cpu, proceso)
+    private BiConsumer<Integer, BCP> guardadoContexto;
+    private final Bitacora bitacora = Bitacora.global();
 
-    public Planificador() {
-        this.colaListos = new LinkedList<>();
+    /**
+     * Planificador FIFO con reloj propio
+     *
+     * @param numCPUs cantidad de núcleos que atiende el planificador
+     */
+    public Planificador(int numCPUs) {
+        this(numCPUs, new PoliticaFIFO(), new RelojVirtual());
+    }
+
+    /**
+     * @param numCPUs cantidad de núcleos que atiende el planificador
+     * @param politica política de planificación de la cola de listos
+     * @param reloj reloj del sistema (para tiempos de espera)
+     */
+    public Planificador(int numCPUs, PoliticaPlanificacion politica, RelojVirtual reloj) {
+        if (numCPUs <= 0) {
+            throw new IllegalArgumentException("Debe haber al menos un CPU");
+        }
+        this.numCPUs = numCPUs;
+        this.reloj = reloj;
+        this.colaListos = politica;
         this.colaEspera = new LinkedList<>();
-        this.procesosEnEjecucion = new BCP[NUM_CPUS];
+        this.procesosEnEjecucion = new BCP[numCPUs];
+    }
+
+    /**
+     * Acción para guardar el contexto de un núcleo en el BCP del proceso que
+     * sale de él (expropiación, espera, fin o suspensión)
+     */
+    public synchronized void setGuardadoContexto(BiConsumer<Integer, BCP> guardadoContexto) {
+        this.guardadoContexto = guardadoContexto;
+    }
+
+    /** Saca el proceso del slot y guarda el contexto del núcleo en su BCP */
+    private void desalojar(int cpu, BCP proceso) {
+        procesosEnEjecucion[cpu] = null;
+        if (guardadoContexto != null) {
+            guardadoContexto.accept(cpu, proceso);
+        }
+    }
+
+    /**
+     * Cambia la política; los procesos ya encolados pasan a la nueva cola
+     */
+    public synchronized void setPolitica(PoliticaPlanificacion politica) {
+        long ahora = reloj.getTicks();
+        for (BCP proceso : colaListos.listar(ahora)) {
+            politica.agregar(proceso, proceso.getTiempoLlegadaListos());
+        }
+        this.colaListos = politica;
+    }
+
+    public synchronized PoliticaPlanificacion getPolitica() {
+        return colaListos;
+    }
+
+    /** Reloj con el que se anotan los tiempos de los procesos */
+    public RelojVirtual getReloj() {
+        return reloj;
     }
 
     /** Agrega un proceso a la cola de listos */
-    public void agregarProcesoListo(BCP proceso) {
+    public synchronized void agregarProcesoListo(BCP proceso) {
+        long ahora = reloj.getTicks();
         proceso.setEstado(Estado.PREPARADO);
-        colaListos.add(proceso);
+        proceso.setTiempoLlegadaListos(ahora);
+        colaListos.agregar(proceso, ahora);
     }
 
     /** Agrega un proceso a la cola de espera (ej: por E/S) */
-    public void agregarProcesoEspera(BCP proceso) {
+    public synchronized void agregarProcesoEspera(BCP proceso) {
         proceso.setEstado(Estado.ESPERA);
         colaEspera.add(proceso);
     }
 
     /** Mueve un proceso de espera a la cola de listos */
-    public void moverEsperaAListos(BCP proceso) {
+    public synchronized void moverEsperaAListos(BCP proceso) {
         if (colaEspera.remove(proceso)) {
             agregarProcesoListo(proceso);
         }
     }
 
-    /** Asigna procesos listos a CPUs libres */
-    public void despacharProcesos() {
-        // FCFS: Solo un proceso a la vez en ejecución
-        if (procesosEnEjecucion[0] == null && !colaListos.isEmpty()) {
-            BCP proceso = colaListos.poll();
+    /**
+     * Expropia los procesos que la política indique y asigna procesos listos
+     * a todas las CPUs libres
+     */
+    public synchronized void despacharProcesos() {
+        long ahora = reloj.getTicks();
+
+        // Expropiación: el proceso vuelve a la cola de listos
+        for (int cpu = 0; cpu < numCPUs && !colaListos.estaVacia(); cpu++) {
+            BCP proceso = procesosEnEjecucion[cpu];
+            if (proceso != null && proceso.getEstado() == Estado.EJECUCION
+                    && !proceso.isEsperandoEntrada()
+                    && !proceso.isInstruccionEnCurso()
+                    && colaListos.debeExpropiar(proceso, ahora)) {
+                desalojar(cpu, proceso);
+                agregarProcesoListo(proceso);
+                proceso.guardarContexto();
+            }
+        }
+
+        for (int cpu = 0; cpu < numCPUs && !colaListos.estaVacia(); cpu++) {
+            if (procesosEnEjecucion[cpu] != null) {
+                continue;
+            }
+            BCP proceso = colaListos.extraer(ahora);
 
             // Verificar si el proceso ya está cargado en memoria
             if (proceso.getDireccionBase() == -1) {
-                // Proceso no está en memoria, necesita cargarse
-                System.out.println("Proceso " + proceso.getPid() + " necesita cargarse a memoria");
-                // Aquí se cargará en el siguiente paso
+                // Proceso no está en memoria, la CPU lo carga antes de ejecutarlo
+                bitacora.registrar(Nivel.DEPURACION, "Planificador", "Proceso {} necesita cargarse a memoria", proceso.getPid());
+            }
+
+            procesosEnEjecucion[cpu] = proceso;
+            proceso.cambiarEstado(Estado.EJECUCION, ahora);
+            proceso.setCpuID(cpu);
+            proceso.setCiclosEnCPU(0);
+        }
+    }
+
+    /**
+     * Indica si despacharProcesos cambiaría algo ahora: hay procesos listos y
+     * una CPU libre o una expropiación que espera el fin de una instrucción
+     */
+    public synchronized boolean hayDespachoPendiente() {
+        if (colaListos.estaVacia()) {
+            return false;
+        }
+        long ahora = reloj.getTicks();
+        for (BCP proceso : procesosEnEjecucion) {
+            if (proceso == null) {
+                return true;
+            }
+            if (enCPU(proceso) && colaListos.debeExpropiar(proceso, ahora)) {
+                return true;
             }
+        }
+        return false;
+    }
+
+    /**
+     * Ciclos durante los cuales despacharProcesos no expropiaría a nadie si
+     * la cola no cambia (al menos 1; sin límite si no hay procesos listos)
+     */
+    public synchronized int ciclosSinExpropiar() {
+        if (colaListos.estaVacia()) {
+            return Integer.MAX_VALUE;
+        }
+        int ciclos = Integer.MAX_VALUE;
+        for (int cpu = 0; cpu < numCPUs; cpu++) {
+            ciclos = Math.min(ciclos, Math.max(1, ciclosSinExpropiar(cpu)));
+        }
+        return ciclos;
+    }
 
-            procesosEnEjecucion[0] = proceso;
-            proceso.setEstado(Estado.EJECUCION);
-            proceso.setCpuID(0);
+    /**
+     * Ciclos que el proceso del CPU puede avanzar sin que la política lo
+     * expropie por lo que avanza (ver PoliticaPlanificacion), aunque la cola
+     * cambie; sin límite si el CPU no ejecuta nada
+     */
+    public synchronized int ciclosSinExpropiar(int cpuID) {
+        BCP proceso = procesosEnEjecucion[cpuID];
+        if (proceso == null || !enCPU(proceso)) {
+            return Integer.MAX_VALUE;
         }
+        return colaListos.ciclosSinExpropiar(proceso, reloj.getTicks());
+    }
+
+    private static boolean enCPU(BCP proceso) {
+        return proceso.getEstado() == Estado.EJECUCION && !proceso.isEsperandoEntrada();
     }
 
     /** Finaliza el proceso que está corriendo en un CPU específico */
-    public void finalizarProceso(int cpuID) {
-        if (cpuID < 0 || cpuID >= NUM_CPUS) return;
+    public synchronized void finalizarProceso(int cpuID) {
+        if (cpuID < 0 || cpuID >= numCPUs) return;
         BCP proceso = procesosEnEjecucion[cpuID];
         if (proceso != null) {
             proceso.setEstado(Estado.FINALIZADO);
-            procesosEnEjecucion[cpuID] = null;
+            desalojar(cpuID, proceso);
 
-            colaListos.remove(proceso);
+            colaListos.remover(proceso);
             colaEspera.remove(proceso);
         }
     }
 
+    /**
+     * Saca el proceso del CPU y lo devuelve a la cola de listos (por ejemplo,
+     * si no hay memoria para cargarlo todavía)
+     */
+    public synchronized void devolverAListos(int cpuID) {
+        if (cpuID < 0 || cpuID >= numCPUs) return;
+        BCP proceso = procesosEnEjecucion[cpuID];
+        if (proceso != null) {
+            desalojar(cpuID, proceso);
+            agregarProcesoListo(proceso);
+            proceso.guardarContexto();
+        }
+    }
+
     /** Libera un CPU sin finalizar el proceso (por ejemplo, espera de E/S) */
-    public void liberarCPU(int cpuID) {
-        if (cpuID < 0 || cpuID >= NUM_CPUS) return;
+    public synchronized void liberarCPU(int cpuID) {
+        if (cpuID < 0 || cpuID >= numCPUs) return;
         BCP proceso = procesosEnEjecucion[cpuID];
         if (proceso != null) {
             proceso.setEstado(Estado.ESPERA);
             agregarProcesoEspera(proceso);
-            procesosEnEjecucion[cpuID] = null;
+            desalojar(cpuID, proceso);
+            proceso.guardarContexto();
         }
     }
 
+    /**
+     * Quita un proceso del planificador sin finalizarlo (de su CPU o de
+     * cualquier cola), por ejemplo para suspenderlo
+     *
+     * @return false si el planificador no lo tenía
+     */
+    public synchronized boolean retirarProceso(BCP proceso) {
+        for (int cpu = 0; cpu < numCPUs; cpu++) {
+            if (procesosEnEjecucion[cpu] == proceso) {
+                desalojar(cpu, proceso);
+                colaEspera.remove(proceso);
+                return true;
+            }
+        }
+        return colaListos.remover(proceso) | colaEspera.remove(proceso);
+    }
+
+    /** Procesos que tiene el planificador (en CPUs, listos y en espera) */
+    public synchronized int getCantidadProcesos() {
+        int cantidad = colaListos.tamanio() + colaEspera.size();
+        for (BCP proceso : procesosEnEjecucion) {
+            if (proceso != null && !colaEspera.contains(proceso)) {
+                cantidad++;
+            }
+        }
+        return cantidad;
+    }
+
     /** Devuelve el proceso que está corriendo en un CPU */
-    public BCP getProcesoCPU(int cpuID) {
-        if (cpuID < 0 || cpuID >= NUM_CPUS) return null;
+    public synchronized BCP getProcesoCPU(int cpuID) {
+        if (cpuID < 0 || cpuID >= numCPUs) return null;
         return procesosEnEjecucion[cpuID];
     }
 
     /** Devuelve todos los procesos en ejecución */
-    public BCP[] getProcesosEnEjecucion() {
+    public synchronized BCP[] getProcesosEnEjecucion() {
         return procesosEnEjecucion.clone();
     }
 
-    public Queue<BCP> getColaListos() {
-        return colaListos;
+    public int getNumCPUs() {
+        return numCPUs;
+    }
+
+    /** Copia de la cola de listos, en orden de despacho */
+    public synchronized List<BCP> getColaListos() {
+        return colaListos.listar(reloj.getTicks());
     }
 
-    public Queue<BCP> getColaEspera() {
-        return colaEspera;
+    /** Copia de la cola de espera */
+    public synchronized List<BCP> getColaEspera() {
+        return new ArrayList<>(colaEspera);
+    }
+
+    /** Indica si no queda ningún proceso en CPUs ni en colas */
+    public synchronized boolean estaVacio() {
+        for (BCP proceso : procesosEnEjecucion) {
+            if (proceso != null) {
+                return false;
+            }
+        }
+        return colaListos.estaVacia() && colaEspera.isEmpty();
     }
 
     /** Muestra un resumen del estado de CPUs y colas */
-    public void imprimirEstadoColas() {
+    public synchronized void imprimirEstadoColas() {
         System.out.println("=== Estado del Planificador ===");
 
-        for (int cpu = 0; cpu < NUM_CPUS; cpu++) {
+        for (int cpu = 0; cpu < numCPUs; cpu++) {
             BCP bcp = procesosEnEjecucion[cpu];
             System.out.println("CPU " + cpu + ": " + (bcp != null ? bcp.getPid() : "Libre"));
         }
 
-        System.out.print("Cola de listos: ");
-        for (BCP b : colaListos) {
+        System.out.print("Cola de listos (" + colaListos.getNombre() + "): ");
+        for (BCP b : colaListos.listar(reloj.getTicks())) {
             System.out.print(b.getPid() + " ");
         }
         System.out.println();
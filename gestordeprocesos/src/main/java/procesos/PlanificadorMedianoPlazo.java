@@ -0,0 +1,301 @@
+package procesos;
+
+import almacenamiento.UnidadDeAlmacenamiento;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import memoria.MemoriaPrincipal;
+
+/**
+ * Planificador de mediano plazo: limita cuántos procesos compiten a la vez
+ * en el planificador de corto plazo (grado de multiprogramación) y suspende
+ * procesos guardando su imagen (BCP y programa) en la memoria virtual del
+ * disco, para que otros puedan entrar.
+ * <ul>
+ * <li>Admisión: un proceso nuevo pasa a listos solo si hay lugar; si no,
+ * espera en NUEVO.</li>
+ * <li>Un proceso que espera entrada se suspende (SUSPENDIDO_ESPERA) si hay
+ * otros esperando para entrar; al recibir la entrada pasa a
+ * SUSPENDIDO_LISTO.</li>
+ * <li>Si un proceso listo no cabe en memoria, se suspende
+ * (SUSPENDIDO_LISTO) un proceso cargado que está detrás de él en la cola de
+ * listos.</li>
+ * <li>Los suspendidos listos vuelven, en orden, antes de admitir nuevos y
+ * cuando ningún proceso listo está esperando memoria.</li>
+ * </ul>
+ * Se llama en la fase secuencial del ciclo, antes de despachar.
+ *
+ * @author dylan
+ */
+public class PlanificadorMedianoPlazo {
+
+    public static final int GRADO_POR_DEFECTO = 5;
+
+    private final Planificador planificador;
+    private final MemoriaPrincipal memoria;
+    private final UnidadDeAlmacenamiento disco;
+    private int gradoMultiprogramacion;
+
+    private final Queue<BCP> nuevos = new ArrayDeque<>();
+    private final Queue<BCP> suspendidosListos = new ArrayDeque<>();
+    private final List<BCP> suspendidosEspera = new ArrayList<>();
+    // Ubicación de cada imagen en la memoria virtual: {celda, palabras}
+    private final Map<BCP, int[]> imagenes = new HashMap<>();
+
+    private long suspensiones;
+    private long reanudaciones;
+    private long palabrasEscritas;
+    private long palabrasLeidas;
+
+    public PlanificadorMedianoPlazo(Planificador planificador, MemoriaPrincipal memoria,
+                                    UnidadDeAlmacenamiento disco, int gradoMultiprogramacion) {
+        if (gradoMultiprogramacion <= 0) {
+            throw new IllegalArgumentException("El grado de multiprogramación debe ser al menos 1");
+        }
+        this.planificador = planificador;
+        this.memoria = memoria;
+        this.disco = disco;
+        this.gradoMultiprogramacion = gradoMultiprogramacion;
+    }
+
+    /**
+     * Admite un proceso nuevo: pasa a listos si hay lugar y nadie espera
+     * antes que él; si no, queda en NUEVO
+     */
+    public synchronized void admitir(BCP proceso) {
+        if (nuevos.isEmpty() && suspendidosListos.isEmpty()
+                && planificador.getCantidadProcesos() < gradoMultiprogramacion) {
+            planificador.agregarProcesoListo(proceso);
+        } else {
+            proceso.setEstado(Estado.NUEVO);
+            nuevos.add(proceso);
+        }
+    }
+
+    /**
+     * Una vuelta del planificador: suspende, reanuda y admite procesos
+     */
+    public synchronized void balancear() {
+        if (!nuevos.isEmpty() || !suspendidosListos.isEmpty()) {
+            suspenderBloqueados();
+        }
+        aliviarMemoria();
+
+        while (planificador.getCantidadProcesos() < gradoMultiprogramacion) {
+            BCP suspendido = suspendidosListos.peek();
+            if (suspendido != null) {
+                if (hayCargaPendiente() || !reanudar(suspendido)) {
+                    break;
+                }
+                suspendidosListos.poll();
+                continue;
+            }
+            BCP nuevo = nuevos.poll();
+            if (nuevo == null) {
+                break;
+            }
+            planificador.agregarProcesoListo(nuevo);
+        }
+    }
+
+    /** Los procesos que esperan entrada ceden su lugar */
+    private void suspenderBloqueados() {
+        List<BCP> bloqueados = new ArrayList<>(planificador.getColaEspera());
+        for (BCP proceso : planificador.getProcesosEnEjecucion()) {
+            if (proceso != null && !bloqueados.contains(proceso)) {
+                bloqueados.add(proceso);
+            }
+        }
+        for (BCP proceso : bloqueados) {
+            if (proceso.isEsperandoEntrada() && suspender(proceso, Estado.SUSPENDIDO_ESPERA)) {
+                suspendidosEspera.add(proceso);
+            }
+        }
+    }
+
+    /**
+     * Si el primer proceso listo sin cargar no cabe en memoria, suspende los
+     * procesos cargados que están detrás de él en la cola (empezando por el
+     * último) hasta que quepa
+     */
+    private void aliviarMemoria() {
+        List<BCP> listos = planificador.getColaListos();
+        int pendiente = primeroSinCargar(listos);
+        if (pendiente < 0) {
+            return;
+        }
+        BCP esperando = listos.get(pendiente);
+        for (int i = listos.size() - 1; i > pendiente && !memoria.cabeProceso(esperando); i--) {
+            BCP victima = listos.get(i);
+            if (victima.getDireccionBase() != -1 && suspender(victima, Estado.SUSPENDIDO_LISTO)) {
+                suspendidosListos.add(victima);
+            }
+        }
+    }
+
+    /** Posición del primer proceso listo sin cargar que cabe en memoria, o -1 */
+    private int primeroSinCargar(List<BCP> listos) {
+        for (int i = 0; i < listos.size(); i++) {
+            BCP proceso = listos.get(i);
+            if (proceso.getDireccionBase() == -1 && proceso.getTamanio() <= memoria.getCapacidadUsuario()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Indica si balancear puede decidir distinto en el próximo ciclo aunque
+     * ningún proceso deje su CPU: el primer proceso listo sin cargar no cabe
+     * y las víctimas dependen del orden de la cola, que puede cambiar con
+     * el tiempo
+     */
+    public synchronized boolean esperaMemoria() {
+        List<BCP> listos = planificador.getColaListos();
+        int pendiente = primeroSinCargar(listos);
+        return pendiente >= 0 && !memoria.cabeProceso(listos.get(pendiente));
+    }
+
+    /**
+     * Indica si balancear reanudaría ahora al primer suspendido: pasa cuando
+     * se termina de cargar el proceso listo que lo hacía esperar
+     */
+    public synchronized boolean puedeReanudar() {
+        BCP suspendido = suspendidosListos.peek();
+        return suspendido != null && planificador.getCantidadProcesos() < gradoMultiprogramacion
+                && !hayCargaPendiente() && memoria.cabeProceso(suspendido);
+    }
+
+    /** Indica si algún proceso listo todavía no se cargó en memoria */
+    private boolean hayCargaPendiente() {
+        for (BCP proceso : planificador.getColaListos()) {
+            if (proceso.getDireccionBase() == -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Saca el proceso de memoria, guarda su imagen en el disco y lo quita del
+     * planificador de corto plazo
+     *
+     * @return false si no estaba cargado o no hay lugar en la memoria virtual
+     */
+    private boolean suspender(BCP proceso, Estado estado) {
+        int[] imagen = memoria.sacarProceso(proceso);
+        if (imagen == null) {
+            return false;
+        }
+        int celda = disco.escribirPalabras(imagen, 0, imagen.length);
+        if (celda < 0) {
+            memoria.restaurarProceso(proceso, imagen); // el espacio se acaba de liberar
+            return false;
+        }
+        imagenes.put(proceso, new int[]{celda, imagen.length});
+        planificador.retirarProceso(proceso);
+        proceso.setEstado(estado);
+        suspensiones++;
+        palabrasEscritas += imagen.length;
+        return true;
+    }
+
+    /**
+     * Lee la imagen del disco, vuelve a cargar el proceso y lo pasa a listos
+     *
+     * @return false si todavía no cabe en memoria
+     */
+    private boolean reanudar(BCP proceso) {
+        if (!memoria.cabeProceso(proceso)) {
+            return false;
+        }
+        int[] ubicacion = imagenes.get(proceso);
+        int[] imagen = new int[ubicacion[1]];
+        disco.leerPalabras(ubicacion[0], imagen, 0, imagen.length);
+        try {
+            memoria.restaurarProceso(proceso, imagen);
+        } catch (RuntimeException e) {
+            return false;
+        }
+        disco.liberarPalabras(ubicacion[0], ubicacion[1]);
+        imagenes.remove(proceso);
+        planificador.agregarProcesoListo(proceso);
+        reanudaciones++;
+        palabrasLeidas += imagen.length;
+        return true;
+    }
+
+    /**
+     * Entrega una entrada de teclado a un proceso suspendido que la esperaba
+     * en el CPU indicado; pasa a SUSPENDIDO_LISTO
+     *
+     * @return false si ningún proceso suspendido la esperaba
+     */
+    public synchronized boolean entregarEntrada(int cpuID, int valor) {
+        for (BCP proceso : suspendidosEspera) {
+            if (proceso.isEsperandoEntrada() && proceso.getCpuId() == cpuID) {
+                proceso.setDx(valor);
+                proceso.setEsperandoEntrada(false);
+                proceso.setEstado(Estado.SUSPENDIDO_LISTO);
+                suspendidosEspera.remove(proceso);
+                suspendidosListos.add(proceso);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Indica si no quedan procesos nuevos ni suspendidos */
+    public synchronized boolean estaVacio() {
+        return nuevos.isEmpty() && suspendidosListos.isEmpty() && suspendidosEspera.isEmpty();
+    }
+
+    /** Procesos esperando admisión, en orden */
+    public synchronized List<BCP> getNuevos() {
+        return new ArrayList<>(nuevos);
+    }
+
+    /** Procesos suspendidos: primero los listos (en orden) y luego los que esperan entrada */
+    public synchronized List<BCP> getSuspendidos() {
+        List<BCP> suspendidos = new ArrayList<>(suspendidosListos);
+        suspendidos.addAll(suspendidosEspera);
+        return suspendidos;
+    }
+
+    public synchronized List<BCP> getSuspendidosEspera() {
+        return new ArrayList<>(suspendidosEspera);
+    }
+
+    public synchronized int getGradoMultiprogramacion() {
+        return gradoMultiprogramacion;
+    }
+
+    /** Cambia el límite; si baja, los procesos de más salen al terminar o suspenderse */
+    public synchronized void setGradoMultiprogramacion(int gradoMultiprogramacion) {
+        if (gradoMultiprogramacion <= 0) {
+            throw new IllegalArgumentException("El grado de multiprogramación debe ser al menos 1");
+        }
+        this.gradoMultiprogramacion = gradoMultiprogramacion;
+    }
+
+    public synchronized long getSuspensiones() {
+        return suspensiones;
+    }
+
+    public synchronized long getReanudaciones() {
+        return reanudaciones;
+    }
+
+    /** Palabras de imágenes escritas a la memoria virtual */
+    public synchronized long getPalabrasEscritas() {
+        return palabrasEscritas;
+    }
+
+    /** Palabras de imágenes leídas de la memoria virtual */
+    public synchronized long getPalabrasLeidas() {
+        return palabrasLeidas;
+    }
+}
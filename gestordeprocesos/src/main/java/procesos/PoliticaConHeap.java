@@ -0,0 +1,65 @@
+package procesos;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Base para las políticas cuyo orden no cambia mientras el proceso espera:
+ * la cola de listos es un heap, así que despachar cuesta O(log n).
+ * @author dylan
+ */
+public abstract class PoliticaConHeap implements PoliticaPlanificacion {
+
+    protected final PriorityQueue<BCP> cola;
+    private final Comparator<BCP> orden;
+
+    /**
+     * @param orden criterio de la política; los empates se rompen por orden
+     *              de llegada a la cola y luego por PID
+     */
+    protected PoliticaConHeap(Comparator<BCP> orden) {
+        this.orden = orden
+                .thenComparingLong(BCP::getTiempoLlegadaListos)
+                .thenComparingInt(BCP::getPid);
+        this.cola = new PriorityQueue<>(this.orden);
+    }
+
+    @Override
+    public void agregar(BCP proceso, long tiempoActual) {
+        cola.add(proceso);
+    }
+
+    @Override
+    public BCP extraer(long tiempoActual) {
+        return cola.poll();
+    }
+
+    @Override
+    public boolean remover(BCP proceso) {
+        return cola.remove(proceso);
+    }
+
+    @Override
+    public boolean estaVacia() {
+        return cola.isEmpty();
+    }
+
+    @Override
+    public int tamanio() {
+        return cola.size();
+    }
+
+    @Override
+    public List<BCP> listar(long tiempoActual) {
+        List<BCP> copia = new ArrayList<>(cola);
+        copia.sort(orden);
+        return copia;
+    }
+
+    @Override
+    public boolean debeExpropiar(BCP enEjecucion, long tiempoActual) {
+        return false;
+    }
+}
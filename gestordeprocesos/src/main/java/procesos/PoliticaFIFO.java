@@ -0,0 +1,54 @@
+package procesos;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FCFS: se despacha en orden de llegada y nunca se expropia.
+ * @author dylan
+ */
+public class PoliticaFIFO implements PoliticaPlanificacion {
+
+    protected final ArrayDeque<BCP> cola = new ArrayDeque<>();
+
+    @Override
+    public void agregar(BCP proceso, long tiempoActual) {
+        cola.addLast(proceso);
+    }
+
+    @Override
+    public BCP extraer(long tiempoActual) {
+        return cola.pollFirst();
+    }
+
+    @Override
+    public boolean remover(BCP proceso) {
+        return cola.remove(proceso);
+    }
+
+    @Override
+    public boolean estaVacia() {
+        return cola.isEmpty();
+    }
+
+    @Override
+    public int tamanio() {
+        return cola.size();
+    }
+
+    @Override
+    public List<BCP> listar(long tiempoActual) {
+        return new ArrayList<>(cola);
+    }
+
+    @Override
+    public boolean debeExpropiar(BCP enEjecucion, long tiempoActual) {
+        return false;
+    }
+
+    @Override
+    public String getNombre() {
+        return "FCFS";
+    }
+}
@@ -0,0 +1,75 @@
+package procesos;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Highest Response Ratio Next (no expropiativo).
+ * La razón (espera + servicio) / servicio crece con el tiempo a ritmos
+ * distintos para cada proceso, así que un heap no mantiene el orden: se usa
+ * una lista y se busca el máximo al despachar, O(n) sobre la cola.
+ * @author dylan
+ */
+public class PoliticaHRRN implements PoliticaPlanificacion {
+
+    private final List<BCP> cola = new ArrayList<>();
+
+    @Override
+    public void agregar(BCP proceso, long tiempoActual) {
+        cola.add(proceso);
+    }
+
+    @Override
+    public BCP extraer(long tiempoActual) {
+        int mejor = -1;
+        double mejorRazon = -1;
+        for (int i = 0; i < cola.size(); i++) {
+            double razon = razonRespuesta(cola.get(i), tiempoActual);
+            // Con razones iguales gana el que llegó antes (está antes en la lista)
+            if (razon > mejorRazon) {
+                mejorRazon = razon;
+                mejor = i;
+            }
+        }
+        return mejor >= 0 ? cola.remove(mejor) : null;
+    }
+
+    private static double razonRespuesta(BCP proceso, long tiempoActual) {
+        long servicio = Math.max(1, proceso.getCostoEstimado());
+        long espera = Math.max(0, tiempoActual - proceso.getTiempoLlegadaListos());
+        return (double) (espera + servicio) / servicio;
+    }
+
+    @Override
+    public boolean remover(BCP proceso) {
+        return cola.remove(proceso);
+    }
+
+    @Override
+    public boolean estaVacia() {
+        return cola.isEmpty();
+    }
+
+    @Override
+    public int tamanio() {
+        return cola.size();
+    }
+
+    @Override
+    public List<BCP> listar(long tiempoActual) {
+        List<BCP> copia = new ArrayList<>(cola);
+        copia.sort(Comparator.comparingDouble((BCP p) -> razonRespuesta(p, tiempoActual)).reversed());
+        return copia;
+    }
+
+    @Override
+    public boolean debeExpropiar(BCP enEjecucion, long tiempoActual) {
+        return false;
+    }
+
+    @Override
+    public String getNombre() {
+        return "HRRN";
+    }
+}
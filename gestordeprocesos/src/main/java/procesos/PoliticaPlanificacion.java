@@ -0,0 +1,53 @@
+package procesos;
+
+import java.util.List;
+
+/**
+ * Política de planificación de corto plazo: decide el orden de la cola de
+ * listos y cuándo se expropia un proceso en ejecución.
+ * Cada implementación usa la estructura de datos que mejor le sirve.
+ * @author dylan
+ */
+public interface PoliticaPlanificacion {
+
+    /** Agrega un proceso a la cola de listos */
+    void agregar(BCP proceso, long tiempoActual);
+
+    /** Saca el siguiente proceso a despachar, o null si no hay */
+    BCP extraer(long tiempoActual);
+
+    /** Quita un proceso de la cola (ej: al finalizar) */
+    boolean remover(BCP proceso);
+
+    boolean estaVacia();
+
+    int tamanio();
+
+    /** Copia de la cola, en el orden en que se despacharía */
+    List<BCP> listar(long tiempoActual);
+
+    /**
+     * Indica si el proceso en ejecución debe devolverse a la cola para dar
+     * paso a otro. Las políticas no expropiativas devuelven siempre false.
+     */
+    boolean debeExpropiar(BCP enEjecucion, long tiempoActual);
+
+    /**
+     * Ciclos que el proceso puede seguir ejecutando sin que debeExpropiar
+     * pase a true por lo que avanza (0 o menos si ya puede pasar). Por
+     * defecto la decisión no depende de lo que avance el proceso.
+     */
+    default int ciclosSinExpropiar(BCP enEjecucion, long tiempoActual) {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Indica si un proceso que llega a la cola puede hacer que debeExpropiar
+     * pase a true antes de esos ciclos
+     */
+    default boolean expropiaPorLlegada() {
+        return false;
+    }
+
+    String getNombre();
+}
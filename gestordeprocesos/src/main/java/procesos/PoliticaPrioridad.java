@@ -0,0 +1,31 @@
+package procesos;
+
+import java.util.Comparator;
+
+/**
+ * Prioridad expropiativa: menor valor de prioridad = más prioritario.
+ * Un proceso que llega con mejor prioridad desplaza al que está en ejecución.
+ * @author dylan
+ */
+public class PoliticaPrioridad extends PoliticaConHeap {
+
+    public PoliticaPrioridad() {
+        super(Comparator.comparingInt(BCP::getPrioridad));
+    }
+
+    @Override
+    public boolean debeExpropiar(BCP enEjecucion, long tiempoActual) {
+        BCP primero = cola.peek();
+        return primero != null && primero.getPrioridad() < enEjecucion.getPrioridad();
+    }
+
+    @Override
+    public boolean expropiaPorLlegada() {
+        return true;
+    }
+
+    @Override
+    public String getNombre() {
+        return "Prioridad";
+    }
+}
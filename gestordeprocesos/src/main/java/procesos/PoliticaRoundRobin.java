@@ -0,0 +1,50 @@
+package procesos;
+
+import instrucciones.Opcode;
+import java.util.Arrays;
+
+/**
+ * Round Robin: cola FIFO circular; el proceso en ejecución se devuelve al
+ * final de la cola cuando agota su quantum y hay otro esperando.
+ * @author dylan
+ */
+public class PoliticaRoundRobin extends PoliticaFIFO {
+
+    private static final int PESO_MAXIMO = Arrays.stream(Opcode.values()).mapToInt(Opcode::getPeso).max().getAsInt();
+
+    private final int quantum;
+
+    /**
+     * @param quantum ticks de CPU por turno (se expropia al terminar la
+     *                instrucción que lo agota)
+     */
+    public PoliticaRoundRobin(int quantum) {
+        if (quantum <= 0) {
+            throw new IllegalArgumentException("El quantum debe ser positivo");
+        }
+        this.quantum = quantum;
+    }
+
+    @Override
+    public boolean debeExpropiar(BCP enEjecucion, long tiempoActual) {
+        return enEjecucion.getCiclosEnCPU() >= quantum && !cola.isEmpty();
+    }
+
+    /**
+     * Cada ciclo suma a lo sumo uno a los ciclos en CPU, salvo la instrucción
+     * que ya estaba en curso, que al terminar suma también los que llevaba
+     */
+    @Override
+    public int ciclosSinExpropiar(BCP enEjecucion, long tiempoActual) {
+        return quantum - enEjecucion.getCiclosEnCPU() - (PESO_MAXIMO - 1);
+    }
+
+    public int getQuantum() {
+        return quantum;
+    }
+
+    @Override
+    public String getNombre() {
+        return "RR(q=" + quantum + ")";
+    }
+}
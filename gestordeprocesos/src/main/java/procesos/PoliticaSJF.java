@@ -0,0 +1,20 @@
+package procesos;
+
+import java.util.Comparator;
+
+/**
+ * Shortest Job First (no expropiativo): despacha el proceso con menor costo
+ * estimado, según la suma de pesos de sus instrucciones.
+ * @author dylan
+ */
+public class PoliticaSJF extends PoliticaConHeap {
+
+    public PoliticaSJF() {
+        super(Comparator.comparingLong(BCP::getCostoEstimado));
+    }
+
+    @Override
+    public String getNombre() {
+        return "SJF";
+    }
+}
@@ -0,0 +1,32 @@
+package procesos;
+
+import java.util.Comparator;
+
+/**
+ * Shortest Remaining Time: versión expropiativa de SJF. El costo restante de
+ * un proceso en la cola no cambia mientras espera, así que el heap sigue
+ * siendo válido; solo el proceso en ejecución lo va reduciendo.
+ * @author dylan
+ */
+public class PoliticaSRT extends PoliticaConHeap {
+
+    public PoliticaSRT() {
+        super(Comparator.comparingLong(BCP::getCostoRestante));
+    }
+
+    @Override
+    public boolean debeExpropiar(BCP enEjecucion, long tiempoActual) {
+        BCP primero = cola.peek();
+        return primero != null && primero.getCostoRestante() < enEjecucion.getCostoRestante();
+    }
+
+    @Override
+    public boolean expropiaPorLlegada() {
+        return true;
+    }
+
+    @Override
+    public String getNombre() {
+        return "SRT";
+    }
+}
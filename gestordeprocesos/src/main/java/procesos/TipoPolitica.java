@@ -0,0 +1,30 @@
+package procesos;
+
+/**
+ * Políticas de planificación disponibles
+ * @author dylan
+ */
+public enum TipoPolitica {
+    FIFO,
+    ROUND_ROBIN,
+    SJF,
+    SRT,
+    HRRN,
+    PRIORIDAD;
+
+    /**
+     * Crea una instancia nueva (con la cola vacía) de la política
+     *
+     * @param quantum ciclos por turno; solo lo usa ROUND_ROBIN
+     */
+    public PoliticaPlanificacion crear(int quantum) {
+        switch (this) {
+            case ROUND_ROBIN: return new PoliticaRoundRobin(quantum);
+            case SJF: return new PoliticaSJF();
+            case SRT: return new PoliticaSRT();
+            case HRRN: return new PoliticaHRRN();
+            case PRIORIDAD: return new PoliticaPrioridad();
+            default: return new PoliticaFIFO();
+        }
+    }
+}
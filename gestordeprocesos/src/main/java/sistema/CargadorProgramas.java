@@ -0,0 +1,173 @@
+package sistema;
+
+import instrucciones.Instruccion;
+import instrucciones.InstructionParser;
+import instrucciones.ProgramaBinario;
+import procesos.BCP;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Lee y valida un lote de programas en paralelo (fork-join, un archivo por
+ * tarea). Cada programa vuelve con sus líneas, sus instrucciones ya parseadas
+ * y todos sus errores de sintaxis con el número de línea del archivo.
+ * Los programas válidos quedan en la caché del parser, así el CPU no los
+ * vuelve a tokenizar al cargarlos en memoria.
+ *
+ * Un programa .asm puede indicar su prioridad con un comentario
+ * "; PRIORIDAD n" (menor valor = más prioritario); sin él queda la
+ * prioridad por defecto del BCP.
+ *
+ * @author dylan y gadyr
+ */
+public class CargadorProgramas {
+
+    private static final Pattern DIRECTIVA_PRIORIDAD =
+            Pattern.compile("^;\\s*PRIORIDAD\\b\\s*(.*)$", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Lee y parsea los archivos; el resultado respeta el orden de entrada
+     */
+    public List<Programa> cargar(File[] archivos) {
+        return Arrays.stream(archivos)
+                .parallel()
+                .map(CargadorProgramas::cargar)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Lee y parsea un archivo (.asm o .bin)
+     */
+    public static Programa cargar(File archivo) {
+        // Nombre en disco: el del archivo sin su última extensión (.asm o .bin)
+        String nombre = archivo.getName();
+        int punto = nombre.lastIndexOf('.');
+        if (punto > 0) {
+            nombre = nombre.substring(0, punto);
+        }
+        List<String> lineas = new ArrayList<>();
+        List<Instruccion> instrucciones = new ArrayList<>();
+        List<String> errores = new ArrayList<>();
+        int prioridad = BCP.PRIORIDAD_POR_DEFECTO;
+
+        try {
+            if (ProgramaBinario.esBinario(archivo)) {
+                // El disco guarda texto: el binario se reconstruye a instrucciones
+                for (Instruccion instr : ProgramaBinario.cargar(archivo)) {
+                    lineas.add(instr.toString());
+                    instrucciones.add(instr);
+                }
+            } else {
+                prioridad = parsearTexto(archivo, lineas, instrucciones, errores);
+            }
+        } catch (IOException e) {
+            errores.add("no se pudo leer: " + e.getMessage());
+        }
+        if (errores.isEmpty() && instrucciones.isEmpty()) {
+            errores.add("el programa no tiene instrucciones");
+        }
+
+        if (errores.isEmpty()) {
+            InstructionParser.getCache().guardar(lineas, instrucciones);
+        }
+        return new Programa(archivo.getName(), nombre, lineas, instrucciones, errores, prioridad);
+    }
+
+    /**
+     * Quita líneas vacías y comentarios, y parsea cada línea guardando todos
+     * los errores (no solo el primero)
+     *
+     * @return prioridad de la directiva "; PRIORIDAD n", o la por defecto
+     */
+    private static int parsearTexto(File archivo, List<String> lineas,
+            List<Instruccion> instrucciones, List<String> errores) throws IOException {
+        int prioridad = BCP.PRIORIDAD_POR_DEFECTO;
+        try (BufferedReader br = new BufferedReader(new FileReader(archivo))) {
+            String linea;
+            int numero = 0;
+            while ((linea = br.readLine()) != null) {
+                numero++;
+                linea = linea.trim();
+                if (linea.isEmpty()) {
+                    continue;
+                }
+                if (linea.startsWith(";")) {
+                    Matcher directiva = DIRECTIVA_PRIORIDAD.matcher(linea);
+                    if (directiva.matches()) {
+                        String valor = directiva.group(1).trim();
+                        try {
+                            prioridad = Integer.parseInt(valor);
+                            if (prioridad < 0) {
+                                throw new NumberFormatException();
+                            }
+                        } catch (NumberFormatException e) {
+                            errores.add("línea " + numero + ": prioridad inválida \"" + valor + "\" (debe ser un entero >= 0)");
+                        }
+                    }
+                    continue;
+                }
+                try {
+                    Instruccion instr = InstructionParser.parse(linea);
+                    instrucciones.add(instr);
+                    // Al disco va el texto normalizado (sin comentarios al final)
+                    lineas.add(instr.toString());
+                } catch (IllegalArgumentException e) {
+                    lineas.add(linea);
+                    errores.add("línea " + numero + ": \"" + linea + "\" -> " + e.getMessage());
+                }
+            }
+        }
+        return prioridad;
+    }
+
+    /**
+     * Resultado de leer un archivo
+     */
+    public static final class Programa {
+        private final String archivo;
+        private final String nombre;
+        private final List<String> lineas;
+        private final List<Instruccion> instrucciones;
+        private final List<String> errores;
+        private final int prioridad;
+
+        Programa(String archivo, String nombre, List<String> lineas,
+                List<Instruccion> instrucciones, List<String> errores, int prioridad) {
+            this.archivo = archivo;
+            this.nombre = nombre;
+            this.lineas = Collections.unmodifiableList(lineas);
+            this.instrucciones = Collections.unmodifiableList(instrucciones);
+            this.errores = Collections.unmodifiableList(errores);
+            this.prioridad = prioridad;
+        }
+
+        /** Nombre del archivo (con extensión) */
+        public String getArchivo() { return archivo; }
+
+        /** Nombre del programa en disco */
+        public String getNombre() { return nombre; }
+
+        /** Líneas ASM normalizadas, sin comentarios ni líneas vacías */
+        public List<String> getLineas() { return lineas; }
+
+        /** Instrucciones parseadas (incompleta si hay errores) */
+        public List<Instruccion> getInstrucciones() { return instrucciones; }
+
+        /** Errores con el número de línea del archivo */
+        public List<String> getErrores() { return errores; }
+
+        /** Prioridad de la directiva "; PRIORIDAD n" (o la por defecto) */
+        public int getPrioridad() { return prioridad; }
+
+        public boolean esValido() { return errores.isEmpty(); }
+    }
+}
@@ -0,0 +1,81 @@
+package sistema;
+
+import cpu.CPU;
+import java.util.concurrent.Phaser;
+
+/**
+ * Ejecuta los núcleos en paralelo, un lote por vez, con un hilo fijo por
+ * núcleo (el núcleo 0 corre en el hilo del gestor). En el lote cada núcleo
+ * avanza por su cuenta hasta su límite o hasta el primer ciclo que necesita
+ * al planificador o al reloj (ver CPU.ejecutarAdelantado), así que los
+ * hilos solo se esperan al empezar y al terminar el lote.
+ *
+ * @author dylan
+ */
+final class EjecutorNucleos {
+
+    private final CPU[] cpus;
+    private final Phaser fases;
+
+    // El gestor escribe los límites antes del lote y cada hilo su alcance;
+    // las barreras del Phaser los publican
+    private final int[] limites;
+    private final int[] alcanzados;
+    private volatile Throwable error;
+
+    EjecutorNucleos(CPU[] cpus) {
+        this.cpus = cpus;
+        this.limites = new int[cpus.length];
+        this.alcanzados = new int[cpus.length];
+        this.fases = new Phaser(cpus.length);
+        for (int i = 1; i < cpus.length; i++) {
+            int nucleo = i;
+            Thread hilo = new Thread(() -> trabajar(nucleo), "nucleo-cpu-" + i);
+            hilo.setDaemon(true);
+            hilo.start();
+        }
+    }
+
+    /**
+     * Ejecuta un lote en todos los núcleos y espera a que termine
+     *
+     * @param limites ciclo del lote al que puede llegar cada núcleo (0 = no
+     *        ejecuta)
+     * @return ciclo al que llegó cada núcleo (0 los que no ejecutaron); el
+     *         arreglo se reutiliza en el lote siguiente
+     */
+    int[] ejecutar(int[] limites) {
+        System.arraycopy(limites, 0, this.limites, 0, limites.length);
+        error = null;
+        if (fases.arriveAndAwaitAdvance() >= 0) {
+            ejecutarNucleo(0);
+            fases.arriveAndAwaitAdvance();
+        }
+        if (error != null) {
+            throw new RuntimeException("Error en un núcleo de CPU", error);
+        }
+        return alcanzados;
+    }
+
+    private void trabajar(int nucleo) {
+        while (fases.arriveAndAwaitAdvance() >= 0) {
+            ejecutarNucleo(nucleo);
+            fases.arriveAndAwaitAdvance();
+        }
+    }
+
+    private void ejecutarNucleo(int nucleo) {
+        try {
+            int limite = limites[nucleo];
+            alcanzados[nucleo] = limite > 0 ? cpus[nucleo].ejecutarAdelantado(limite) : 0;
+        } catch (Throwable e) {
+            // El hilo llega igual a la barrera para no trabar a los demás
+            error = e;
+        }
+    }
+
+    /** Termina los hilos (al reiniciar el sistema) */
+    void detener() {
+        fases.forceTermination();
+    }
+}
@@ -4,20 +4,19 @@
  */
 package sistema;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
-
 /**
- * Clase para almacenar estadísticas de ejecución de un proceso
+ * Clase para almacenar estadísticas de ejecución de un proceso. Los tiempos
+ * están en ticks del reloj simulado, así que una corrida se puede repetir
+ * con los mismos resultados.
  * @author gadyr
  */
 public class EstadisticaProceso {
     
     private String nombreProceso;
     private int pid;
-    private long tiempoInicio;      
-    private long tiempoFin;         
-    private long duracionMs;        
+    private long tiempoInicio;      // tick del primer despacho
+    private long tiempoFin;         // tick en que terminó
+    private long duracion;          // ticks ejecutando instrucciones
     private int cpuAsignado;
     
     /**
@@ -28,7 +27,7 @@ public class EstadisticaProceso {
         this.pid = pid;
         this.tiempoInicio = inicio;
         this.tiempoFin = fin;
-        this.duracionMs = duracion;
+        this.duracion = duracion;
         this.cpuAsignado = -1;
     }
     
@@ -41,36 +40,31 @@ public class EstadisticaProceso {
     }
     
     /**
-     * Obtiene la hora de inicio formateada
+     * Obtiene el tick de inicio formateado ("-" si nunca se despachó)
      */
-    public String getHoraInicioFormateada() {
-        SimpleDateFormat sdf = new SimpleDateFormat("HH:mm:ss");
-        return sdf.format(new Date(tiempoInicio));
+    public String getInicioFormateado() {
+        return tiempoInicio < 0 ? "-" : String.valueOf(tiempoInicio);
     }
     
     /**
-     * Obtiene la hora de fin formateada
+     * Obtiene el tick de fin formateado
      */
-    public String getHoraFinFormateada() {
-        SimpleDateFormat sdf = new SimpleDateFormat("HH:mm:ss");
-        return sdf.format(new Date(tiempoFin));
+    public String getFinFormateado() {
+        return tiempoFin < 0 ? "-" : String.valueOf(tiempoFin);
     }
     
     /**
-     * Obtiene la duracion en segundos
+     * Obtiene la duracion (ticks en CPU)
      */
-    public double getDuracionSegundos() {
-        return duracionMs / 1000.0;
+    public String getDuracionFormateada() {
+        return duracion + " ticks";
     }
     
     /**
-     * Obtiene la duracion 
+     * Ticks desde el primer despacho hasta el fin (-1 si falta alguno)
      */
-    public String getDuracionFormateada() {
-        long minutos = duracionMs / 60000;
-        long segundos = (duracionMs % 60000) / 1000;
-        long milisegundos = duracionMs % 1000;
-        return String.format("%02d:%02d.%03d", minutos, segundos, milisegundos);
+    public long getTiempoRetorno() {
+        return tiempoInicio < 0 || tiempoFin < 0 ? -1 : tiempoFin - tiempoInicio;
     }
     
     /**
@@ -80,8 +74,8 @@ public class EstadisticaProceso {
         return String.format("%-20s | %4d | %10s | %10s | %12s | CPU%d",
             nombreProceso,
             pid,
-            getHoraInicioFormateada(),
-            getHoraFinFormateada(),
+            getInicioFormateado(),
+            getFinFormateado(),
             getDuracionFormateada(),
             cpuAsignado >= 0 ? cpuAsignado : -1
         );
@@ -94,9 +88,9 @@ public class EstadisticaProceso {
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("Proceso: ").append(nombreProceso).append(" (PID: ").append(pid).append(")\n");
-        sb.append("  Hora inicio: ").append(getHoraInicioFormateada()).append("\n");
-        sb.append("  Hora fin: ").append(getHoraFinFormateada()).append("\n");
-        sb.append("  Duración: ").append(getDuracionFormateada()).append(" (").append(getDuracionSegundos()).append(" segundos)\n");
+        sb.append("  Inicio: tick ").append(getInicioFormateado()).append("\n");
+        sb.append("  Fin: tick ").append(getFinFormateado()).append("\n");
+        sb.append("  Duración: ").append(getDuracionFormateada()).append("\n");
         if (cpuAsignado >= 0) {
             sb.append("  CPU asignado: ").append(cpuAsignado).append("\n");
         }
@@ -153,12 +147,12 @@ public class EstadisticaProceso {
         this.tiempoFin = tiempoFin;
     }
     
-    public long getDuracionMs() {
-        return duracionMs;
+    public long getDuracion() {
+        return duracion;
     }
     
-    public void setDuracionMs(long duracionMs) {
-        this.duracionMs = duracionMs;
+    public void setDuracion(long duracion) {
+        this.duracion = duracion;
     }
     
     public int getCpuAsignado() {
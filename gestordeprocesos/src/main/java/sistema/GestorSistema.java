@@ -1,19 +1,32 @@
 package sistema;
 
 import almacenamiento.UnidadDeAlmacenamiento;
+import bitacora.Bitacora;
+import bitacora.Destino;
+import bitacora.Nivel;
 import cpu.CPU;
+import cpu.TLB;
 import instrucciones.Instruccion;
 import instrucciones.InstructionParser;
+import instrucciones.ProgramaBinario;
+import memoria.EstrategiaAsignacion;
 import memoria.MemoriaPrincipal;
+import memoria.PoliticaReemplazo;
+import metricas.RegistroMetricas;
 import procesos.BCP;
 import procesos.Estado;
+import procesos.PilaEnteros;
 import procesos.Planificador;
-import java.io.BufferedReader;
+import procesos.PlanificadorMedianoPlazo;
+import procesos.TipoPolitica;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 /**
@@ -23,36 +36,68 @@ import java.util.function.Consumer;
  */
 public class GestorSistema {
     
-    private static final int MAX_PROCESOS_CARGADOS = 5;
+    public static final int NUM_CPUS_POR_DEFECTO = 5;
+    public static final int QUANTUM_POR_DEFECTO = 3;
+    public static final int MEMORIA_POR_DEFECTO = 512;
+    public static final int SO_POR_DEFECTO = 150;
+    public static final int ALMACENAMIENTO_POR_DEFECTO = 512;
+    public static final int MEMORIA_VIRTUAL_POR_DEFECTO = 45;
+    
+    // Refrescos de GUI por segundo durante la ejecución automática
+    public static final int FPS_GUI = 30;
+    private static final long NANOS_POR_FRAME = 1_000_000_000L / FPS_GUI;
+    private static final long NANOS_POR_TICK = 1_000_000_000L; // 1 segundo por ciclo en tiempo real
+    // Ciclos por lote sin pausas (acota la demora de la GUI y de detener)
+    private static final int LOTE_MAXIMO = 256;
     
     // Componentes del sistema
     private UnidadDeAlmacenamiento almacenamiento;
     private MemoriaPrincipal memoria;
     private Planificador planificador;
-    private CPU cpu; // CPU único que maneja hasta 5 procesos (FCFS)
+    private PlanificadorMedianoPlazo planificadorMedianoPlazo;
+    private int gradoMultiprogramacion = PlanificadorMedianoPlazo.GRADO_POR_DEFECTO;
+    private CPU[] cpus; // un núcleo por slot del planificador
+    private int numCPUs;
+    private TipoPolitica tipoPolitica = TipoPolitica.FIFO;
+    private EstrategiaAsignacion estrategiaMemoria = EstrategiaAsignacion.PRIMER_AJUSTE;
+    private int tamanioPagina = 0; // 0 = programas contiguos
+    private int entradasTLB = TLB.ENTRADAS_POR_DEFECTO;
+    private boolean paginacionBajoDemanda = false;
+    private PoliticaReemplazo politicaReemplazo = PoliticaReemplazo.FIFO;
+    private int quantum = QUANTUM_POR_DEFECTO;
+    private int costoCambioContexto = 0; // ciclos por cambio de contexto
+    private int profundidadPila = PilaEnteros.PROFUNDIDAD_POR_DEFECTO;
+    private final Map<String, Integer> prioridades = new HashMap<>(); // por nombre de programa
+    private final CargadorProgramas cargador = new CargadorProgramas();
+    private File imagenDisco; // null = disco en memoria (no persiste)
+    
+    // Hilos de trabajo: los núcleos que se adelantan al reloj corren en paralelo
+    private EjecutorNucleos ejecutorNucleos;
     
     // Callbacks para actualizar GUI
-    private Consumer<String> consolaCallback;
+    private Destino destinoConsola; // callback de consola como destino de la bitácora
+    private final Bitacora bitacora = Bitacora.global();
     private Consumer<String> pantallaCallback;
     private Runnable actualizarGUICallback;
     
     // Control de ejecución
-    private boolean ejecutando = false;
+    private volatile boolean ejecutando = false;
     private Thread hiloEjecucion;
+    private ModoEjecucion modoEjecucion = ModoEjecucion.TIEMPO_REAL;
+    private double factorEscala = 1.0;
+    private RelojVirtual reloj;
+    private long ultimoRefrescoGUI = 0;
     
     // Estadísticas
     private List<EstadisticaProceso> estadisticas;
+    private RegistroMetricas metricas;
     
     /**
      * Constructor con configuración por defecto
      */
     public GestorSistema() {
-        int tamanioMemoria = 512;
-        int tamanioSO = 150;
-        int tamanioAlmacenamiento = 512;
-        int memoriaVirtual = 45;
-
-        inicializarSistema(tamanioMemoria, tamanioSO, tamanioAlmacenamiento, memoriaVirtual);
+        this.numCPUs = NUM_CPUS_POR_DEFECTO;
+        inicializarSistema(MEMORIA_POR_DEFECTO, SO_POR_DEFECTO, ALMACENAMIENTO_POR_DEFECTO, MEMORIA_VIRTUAL_POR_DEFECTO);
     }
     
     /**
@@ -60,21 +105,169 @@ public class GestorSistema {
      */
     public GestorSistema(int tamanioMemoria, int tamanioSO, 
                          int tamanioAlmacenamiento, int memoriaVirtual) {
+        this(tamanioMemoria, tamanioSO, tamanioAlmacenamiento, memoriaVirtual, NUM_CPUS_POR_DEFECTO);
+    }
+    
+    /**
+     * Constructor con configuración personalizada y cantidad de núcleos
+     */
+    public GestorSistema(int tamanioMemoria, int tamanioSO, 
+                         int tamanioAlmacenamiento, int memoriaVirtual, int numCPUs) {
+        if (numCPUs <= 0) {
+            throw new IllegalArgumentException("Debe haber al menos un CPU");
+        }
+        this.numCPUs = numCPUs;
         inicializarSistema(tamanioMemoria, tamanioSO, tamanioAlmacenamiento, memoriaVirtual);
     }
     
     private void inicializarSistema(int tamanioMemoria, int tamanioSO,
                                     int tamanioAlmacenamiento, int memoriaVirtual) {
         // Crear componentes
-        this.almacenamiento = new UnidadDeAlmacenamiento(tamanioAlmacenamiento, memoriaVirtual);
-        this.memoria = new MemoriaPrincipal(tamanioMemoria, tamanioSO);
-        this.planificador = new Planificador();
-        this.estadisticas = new ArrayList<>();
+        this.almacenamiento = crearAlmacenamiento(tamanioAlmacenamiento, memoriaVirtual);
+        this.memoria = new MemoriaPrincipal(tamanioMemoria, tamanioSO, tamanioPagina);
+        this.memoria.setEstrategia(estrategiaMemoria);
+        this.reloj = new RelojVirtual();
+        this.planificador = new Planificador(numCPUs, tipoPolitica.crear(quantum), reloj);
+        this.planificadorMedianoPlazo = new PlanificadorMedianoPlazo(planificador, memoria,
+                almacenamiento, gradoMultiprogramacion);
+        this.estadisticas = Collections.synchronizedList(new ArrayList<>());
+        this.metricas = new RegistroMetricas(reloj, numCPUs);
+        
+        // Crear un núcleo por slot
+        this.cpus = new CPU[numCPUs];
+        for (int i = 0; i < numCPUs; i++) {
+            CPU nucleo = new CPU(i, memoria, planificador, almacenamiento, this, entradasTLB);
+            nucleo.setCostoCambioContexto(costoCambioContexto);
+            nucleo.setMetricas(metricas);
+            cpus[i] = nucleo;
+        }
+        
+        // Al salir un proceso de su slot, el núcleo guarda los registros en el BCP
+        planificador.setGuardadoContexto((cpu, proceso) -> cpus[cpu].guardarContexto(proceso));
+        
+        if (paginacionBajoDemanda) {
+            memoria.activarMemoriaVirtual(almacenamiento, politicaReemplazo);
+        }
+        // Cuando una página deja su marco (desalojo, suspensión o fin) se
+        // invalida su traducción en todos los núcleos; cada TLB la aplica
+        // en el hilo de su núcleo
+        memoria.setInvalidacionTLB((pid, pagina) -> {
+            for (CPU nucleo : cpus) {
+                if (pagina == MemoriaPrincipal.TODAS_LAS_PAGINAS) {
+                    nucleo.getTLB().invalidar(pid);
+                } else {
+                    nucleo.getTLB().invalidar(pid, pagina);
+                }
+            }
+        });
         
-        // Crear CPU único
-        this.cpu = new CPU(memoria, planificador, almacenamiento, this);
+        if (ejecutorNucleos != null) {
+            ejecutorNucleos.detener();
+        }
+        this.ejecutorNucleos = new EjecutorNucleos(cpus);
+        
+        // Reaplicar callbacks a los núcleos nuevos
+        for (CPU nucleo : cpus) {
+            nucleo.setPantallaCallback(pantallaCallback);
+        }
         
-        log("Sistema inicializado: 1 CPU con capacidad para " + MAX_PROCESOS_CARGADOS + " procesos (FCFS)");
+        log("Sistema inicializado: " + numCPUs + " CPUs en paralelo ("
+            + planificador.getPolitica().getNombre() + ")");
+    }
+    
+    private UnidadDeAlmacenamiento crearAlmacenamiento(int tamanioAlmacenamiento, int memoriaVirtual) {
+        if (imagenDisco != null) {
+            try {
+                UnidadDeAlmacenamiento disco = UnidadDeAlmacenamiento.abrir(imagenDisco, tamanioAlmacenamiento, memoriaVirtual);
+                log("Disco: " + imagenDisco.getName() + " (" + disco.getProgramas().size() + " programas)");
+                return disco;
+            } catch (IOException e) {
+                log(Nivel.AVISO, "No se pudo abrir la imagen de disco " + imagenDisco.getName() + ": " + e.getMessage());
+                imagenDisco = null;
+            }
+        }
+        return new UnidadDeAlmacenamiento(tamanioAlmacenamiento, memoriaVirtual);
+    }
+    
+    /**
+     * Usa una imagen de disco persistente (archivo mapeado en memoria).
+     * Reinicia el sistema; los programas guardados en la imagen quedan
+     * disponibles (ver crearProcesosDesdeDisco).
+     *
+     * @param imagen archivo de la imagen, o null para volver al disco en memoria
+     */
+    public void usarImagenDisco(File imagen) {
+        if (ejecutando) {
+            log(Nivel.AVISO, "No se puede cambiar el disco mientras se ejecuta");
+            return;
+        }
+        almacenamiento.sincronizar();
+        this.imagenDisco = imagen;
+        inicializarSistema(memoria.getTamanioTotal(), memoria.getTamanioSO(),
+                almacenamiento.getTamañoTotal(), almacenamiento.getMemoriaVirtual());
+    }
+    
+    /**
+     * Crea un proceso por cada programa válido que ya está en el disco
+     * (por ejemplo, al abrir una imagen guardada)
+     */
+    public void crearProcesosDesdeDisco() {
+        for (String nombre : almacenamiento.getProgramas()) {
+            try {
+                List<Instruccion> instrucciones = InstructionParser.parseAllCacheado(almacenamiento.leerPrograma(nombre));
+                crearBCPSinCargarMemoria(nombre, instrucciones, BCP.PRIORIDAD_POR_DEFECTO);
+            } catch (IllegalArgumentException e) {
+                log(Nivel.ERROR, "✗ " + nombre + " en disco tiene errores: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Activa la paginación de la memoria de usuario (reinicia el sistema)
+     *
+     * @param tamanioPagina celdas por página (0 = programas contiguos)
+     * @param entradasTLB entradas de la TLB de cada núcleo
+     */
+    public void configurarPaginacion(int tamanioPagina, int entradasTLB) {
+        if (ejecutando) {
+            log(Nivel.AVISO, "No se puede reconfigurar memoria mientras se ejecuta");
+            return;
+        }
+        this.tamanioPagina = tamanioPagina;
+        this.entradasTLB = entradasTLB;
+        this.paginacionBajoDemanda = false;
+        inicializarSistema(memoria.getTamanioTotal(), memoria.getTamanioSO(),
+                almacenamiento.getTamañoTotal(), almacenamiento.getMemoriaVirtual());
+        log(tamanioPagina > 0
+            ? "Paginación: páginas de " + tamanioPagina + " celdas, TLB de " + entradasTLB + " entradas"
+            : "Paginación desactivada");
+    }
+    
+    /**
+     * Activa la paginación bajo demanda con la memoria virtual del disco
+     * (reinicia el sistema). Las páginas se cargan al ejecutarse por primera
+     * vez, así que los programas pueden sumar más que la memoria de usuario.
+     *
+     * @param tamanioPagina celdas por página (mayor que 0)
+     * @param entradasTLB entradas de la TLB de cada núcleo
+     * @param politica política de reemplazo de páginas
+     */
+    public void configurarPaginacionBajoDemanda(int tamanioPagina, int entradasTLB, PoliticaReemplazo politica) {
+        if (ejecutando) {
+            log(Nivel.AVISO, "No se puede reconfigurar memoria mientras se ejecuta");
+            return;
+        }
+        if (tamanioPagina <= 0) {
+            throw new IllegalArgumentException("La paginación bajo demanda necesita páginas de al menos una celda");
+        }
+        this.tamanioPagina = tamanioPagina;
+        this.entradasTLB = entradasTLB;
+        this.paginacionBajoDemanda = true;
+        this.politicaReemplazo = politica;
+        inicializarSistema(memoria.getTamanioTotal(), memoria.getTamanioSO(),
+                almacenamiento.getTamañoTotal(), almacenamiento.getMemoriaVirtual());
+        log("Paginación bajo demanda: páginas de " + tamanioPagina + " celdas, reemplazo " + politica
+            + ", memoria virtual de " + almacenamiento.getMemoriaVirtual() + " celdas");
     }
     
     /**
@@ -82,7 +275,7 @@ public class GestorSistema {
      */
     public void reconfigurarMemoria(int tamanioTotal, int tamanioSO) {
         if (ejecutando) {
-            log("No se puede reconfigurar memoria mientras se ejecuta");
+            log(Nivel.AVISO, "No se puede reconfigurar memoria mientras se ejecuta");
             return;
         }
         
@@ -95,148 +288,335 @@ public class GestorSistema {
     }
     
     /**
-     * Carga programas desde archivos .asm
+     * Carga programas desde archivos .asm o .bin.
+     * Los archivos se leen y validan en paralelo; los que tienen errores de
+     * sintaxis se reportan completos (archivo y línea) y no se cargan.
      */
     public void cargarProgramas(File[] archivos) {
         if (archivos == null || archivos.length == 0) {
-            log("No se seleccionaron archivos");
+            log(Nivel.AVISO, "No se seleccionaron archivos");
             return;
         }
         
         try {
-            // Leer archivos
-            String[] nombres = new String[archivos.length];
-            List<String>[] programas = new List[archivos.length];
+            // Leer y parsear todos los archivos en paralelo
+            List<CargadorProgramas.Programa> leidos = cargador.cargar(archivos);
             
-            for (int i = 0; i < archivos.length; i++) {
-                nombres[i] = archivos[i].getName().replace(".asm", "");
-                programas[i] = leerArchivo(archivos[i]);
-                
-                // Validar sintaxis
-//                try {
-//                    InstructionParser.parseAll(programas[i]);
-//                    log("✓ Archivo validado: " + nombres[i]);
-//                } catch (Exception e) {
-//                    log("✗ Error de sintaxis en " + nombres[i] + ": " + e.getMessage());
-//                    return;
-//                }
+            List<CargadorProgramas.Programa> validos = new ArrayList<>();
+            for (CargadorProgramas.Programa programa : leidos) {
+                if (programa.esValido()) {
+                    validos.add(programa);
+                    log("✓ Archivo validado: " + programa.getArchivo());
+                } else {
+                    reportarErrores(programa);
+                }
             }
             
-            // Cargar en almacenamiento
-            almacenamiento.cargarProgramas(nombres, programas);
-            log("Programas cargados en disco");
-            
-            // Solo crear BCPs, NO cargar en memoria todavía
-            for (String nombre : nombres) {
-                crearBCPSinCargarMemoria(nombre);
+            // Agregar al disco (los programas ya guardados se conservan) y
+            // solo crear BCPs, NO cargar en memoria todavía
+            for (CargadorProgramas.Programa programa : validos) {
+                try {
+                    if (!almacenamiento.agregarPrograma(programa.getNombre(), programa.getLineas())) {
+                        log(Nivel.AVISO, "✗ No hay espacio en disco para " + programa.getArchivo());
+                        continue;
+                    }
+                } catch (IllegalArgumentException e) {
+                    log(Nivel.ERROR, "✗ " + programa.getArchivo() + ": " + e.getMessage());
+                    continue;
+                }
+                crearBCPSinCargarMemoria(programa.getNombre(), programa.getInstrucciones(),
+                        programa.getPrioridad());
             }
-            
-            // Despachar procesos
-//            planificador.despacharProcesos();
+            almacenamiento.sincronizar();
+            log("Programas cargados en disco (libre: " + almacenamiento.getEspacioLibre() + " celdas)");
             
             log("Todos los procesos listos para ejecutar");
+            log(InstructionParser.getCache().toString());
             
         } catch (Exception e) {
-            log("Error cargando programas: " + e.getMessage());
+            log(Nivel.ERROR, "Error cargando programas: " + e.getMessage());
             e.printStackTrace();
         }
     }
     
-    /**
-     * Carga un proceso individual en memoria
-     */
-    private void cargarProcesoEnMemoria(String nombrePrograma) {
-        // Leer programa del disco
-        List<String> codigoASM = almacenamiento.leerPrograma(nombrePrograma);
-        if (codigoASM == null) {
-            throw new RuntimeException("Programa no encontrado: " + nombrePrograma);
+    private void reportarErrores(CargadorProgramas.Programa programa) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("✗ ERROR: ").append(programa.getArchivo()).append(" no se puede cargar (")
+          .append(programa.getErrores().size()).append(" error(es)):\n");
+        for (String error : programa.getErrores()) {
+            sb.append("  ").append(error).append("\n");
+        }
+        log(Nivel.ERROR, sb.toString().trim());
+        if (pantallaCallback != null) {
+            pantallaCallback.accept(sb.toString());
         }
-        
-        // Parsear instrucciones
-        List<Instruccion> instrucciones = InstructionParser.parseAll(codigoASM);
-        
-        // Cargar instrucciones en memoria usuario
-        int direccionBase = memoria.cargarProgramaUsuario(instrucciones);
-        
-        // Crear BCP
-        BCP bcp = new BCP(nombrePrograma, direccionBase, instrucciones.size(), 1);
-        
-        // Cargar BCP en memoria SO
-        int direccionBCP = memoria.cargarBCP(bcp);
-        
-        // Agregar a cola de listos
-        planificador.agregarProcesoListo(bcp);
-        
-        log("Proceso cargado: " + nombrePrograma + " (PID:" + bcp.getPid() + 
-            ") Base:" + direccionBase + " Tamaño:" + instrucciones.size());
     }
     
     /**
      * Crea un BCP sin cargar el programa en memoria principal
      * El programa permanece en disco hasta que se ejecute
+     *
+     * @param instrucciones instrucciones ya parseadas por el cargador
+     * @param prioridad prioridad del archivo; setPrioridadPrograma la reemplaza
      */
-    private void crearBCPSinCargarMemoria(String nombrePrograma) {
-        // Leer programa del disco solo para obtener el tamaño
-        List<String> codigoASM = almacenamiento.leerPrograma(nombrePrograma);
-        if (codigoASM == null) {
+    private void crearBCPSinCargarMemoria(String nombrePrograma, List<Instruccion> instrucciones,
+                                          int prioridad) {
+        if (!almacenamiento.existePrograma(nombrePrograma)) {
             throw new RuntimeException("Programa no encontrado: " + nombrePrograma);
         }
 
-        // NO parsear aquí - solo contar líneas
-        int tamanio = codigoASM.size();
-
         // Crear BCP sin dirección base todavía (se asignará al cargar en memoria)
-        BCP bcp = new BCP(nombrePrograma, -1, tamanio, 1);
+        BCP bcp = new BCP(nombrePrograma, -1, instrucciones.size(),
+                prioridadDe(nombrePrograma, prioridad), profundidadPila);
+        metricas.procesoCreado(bcp.getPid(), nombrePrograma);
+        bcp.setCostoEstimado(InstructionParser.costoTotal(instrucciones));
 
-        // Agregar a cola de listos
-        planificador.agregarProcesoListo(bcp);
+        // Agregar a cola de listos si el grado de multiprogramación lo permite
+        planificadorMedianoPlazo.admitir(bcp);
 
         log("Proceso creado: " + nombrePrograma + " (PID:" + bcp.getPid() + 
-            ") - En disco, no cargado en memoria");
+            ") Prioridad:" + bcp.getPrioridad() + " - En disco, no cargado en memoria");
+    }
+
+    private int prioridadDe(String nombrePrograma, int prioridadArchivo) {
+        return prioridades.getOrDefault(nombrePrograma, prioridadArchivo);
     }
     
+    /**
+     * Guarda un programa del disco como binario compacto (.bin)
+     *
+     * @throws IllegalArgumentException si el programa no existe o tiene errores
+     */
+    public void exportarProgramaBinario(String nombrePrograma, File destino) throws IOException {
+        List<String> codigoASM = almacenamiento.leerPrograma(nombrePrograma);
+        if (codigoASM == null) {
+            throw new IllegalArgumentException("Programa no encontrado en disco: " + nombrePrograma);
+        }
+        ProgramaBinario.guardar(destino, InstructionParser.parseAllCacheado(codigoASM));
+        log("Programa " + nombrePrograma + " guardado en " + destino.getName());
+    }
     
     /**
      * Ejecuta UN ciclo de reloj (1 segundo simulado)
      * El CPU ejecuta el primer proceso (FCFS)
      */
     public void ejecutarPasoAPaso() {
+        if (ejecutarLote(1) > 0) {
+            notificarGUI();
+        }
+    }
+    
+    /**
+     * Ejecuta un lote de ciclos sin refrescar la GUI y avanza el reloj
+     * virtual. Los planificadores y las cargas corren una vez, en secuencia,
+     * al empezar el lote, y el lote termina en el ciclo en que algún proceso
+     * deja su CPU; es de un solo ciclo cuando los planificadores podrían
+     * decidir algo distinto en el siguiente. Así el resultado es el mismo que
+     * ciclo a ciclo.
+     * Con varios núcleos ocupados, si lo que deciden los planificadores no
+     * depende de cuánto avanzó cada uno (ver puedenAdelantarse), cada núcleo
+     * corre el lote en su hilo sin esperar a los demás y se adelanta al reloj
+     * (ver CPU.ejecutarAdelantado); el reloj avanza hasta el primero que se
+     * detuvo. Si no, avanzan juntos, ciclo a ciclo, en este hilo.
+     * @param maximo máximo de ciclos del lote
+     * @return ciclos que avanzó el reloj, 0 si ya no quedan procesos por ejecutar
+     */
+    private int ejecutarLote(int maximo) {
         if (todosProcesosFinalizado()) {
             log("Todos los procesos han finalizado");
             mostrarEstadisticas();
-            return;
+            return 0;
         }
         
-        log("=== Ciclo de ejecución (FCFS) ===");
+        bitacora.registrar(Nivel.DEPURACION, null, "=== Ciclo de ejecución ({}) ===", planificador.getPolitica().getNombre());
         
-        // Intentar despachar procesos a slots libres
+        // Suspender, reanudar y admitir procesos; luego despachar a slots libres
+        planificadorMedianoPlazo.balancear();
         planificador.despacharProcesos();
+        BCP[] despachados = planificador.getProcesosEnEjecucion();
         
-        // El CPU ejecuta SOLO el primer proceso (FCFS)
-        cpu.ejecutarCiclo();
+        // Cargas desde disco y fallos de página en secuencia, en los núcleos
+        // al paso del reloj (los adelantados ya ejecutaron este ciclo);
+        // cuenta cuántos núcleos tienen un proceso
+        memoria.iniciarCiclo();
+        int activos = 0;
+        for (CPU nucleo : cpus) {
+            if (nucleo.getAdelanto() == 0) {
+                nucleo.prepararProceso();
+            }
+            if (nucleo.tieneProcesoCargado()) {
+                activos++;
+            }
+        }
+        if (activos == 0) {
+            reloj.avanzar(1);
+            return 1;
+        }
+        int ciclos = Math.min(maximo, ciclosSinPlanificar(despachados));
         
-        // Actualizar GUI si hay callback
-        if (actualizarGUICallback != null) {
-            actualizarGUICallback.run();
+        if (activos > 1 && ciclos > 1 && puedenAdelantarse()) {
+            // Si alguno no pasaría del primer ciclo, conviene ir juntos
+            int[] limites = new int[cpus.length];
+            boolean conviene = true;
+            for (int i = 0; i < cpus.length && conviene; i++) {
+                limites[i] = limiteAdelanto(i, ciclos);
+                conviene = limites[i] != 1;
+            }
+            if (conviene) {
+                return ejecutarAdelantados(limites, ciclos);
+            }
+        }
+        return ejecutarJuntos(ciclos);
+    }
+    
+    /**
+     * Ciclos que se pueden ejecutar sin volver a pasar por los planificadores
+     * (1 o sin límite), si ningún proceso deja su CPU. Los de cada proceso
+     * antes de que la política lo pueda expropiar se cuentan aparte.
+     * @param despachados procesos en los slots antes de las cargas
+     */
+    private int ciclosSinPlanificar(BCP[] despachados) {
+        // Con memoria virtual cada ciclo referencia páginas en orden de núcleo
+        if (memoria.isMemoriaVirtual()) {
+            return 1;
+        }
+        // Una carga que falló liberó un slot
+        BCP[] actuales = planificador.getProcesosEnEjecucion();
+        for (int i = 0; i < actuales.length; i++) {
+            if (actuales[i] != despachados[i]) {
+                return 1;
+            }
+        }
+        // El mediano plazo busca lugar para un proceso que no cabe o reanuda
+        // uno al terminar una carga
+        if (planificadorMedianoPlazo.esperaMemoria() || planificadorMedianoPlazo.puedeReanudar()) {
+            return 1;
+        }
+        return planificador.hayDespachoPendiente() ? 1 : Integer.MAX_VALUE;
+    }
+    
+    /**
+     * Los núcleos se pueden adelantar al reloj si lo que deciden los
+     * planificadores mientras tanto no depende de cuánto avanzaron: la
+     * política no expropia al llegar un proceso (lo compararía con el estado
+     * adelantado) y no hay TLB (las invalidaciones de otros núcleos llegarían
+     * tarde y cambiarían los aciertos)
+     */
+    private boolean puedenAdelantarse() {
+        return memoria.getTamanioPagina() == 0 && !planificador.getPolitica().expropiaPorLlegada();
+    }
+    
+    /**
+     * Ciclo del lote al que puede llegar un núcleo adelantándose (0 si no
+     * tiene proceso): no pasa los ciclos en que la política podría expropiar
+     * a su proceso, así en cada ciclo en que el reloj lo encuentra
+     * adelantado el planificador decide lo mismo que ciclo a ciclo. El
+     * primer ciclo de un núcleo al paso del reloj se ejecuta siempre.
+     */
+    private int limiteAdelanto(int cpu, int ciclos) {
+        CPU nucleo = cpus[cpu];
+        if (!nucleo.tieneProcesoCargado()) {
+            return 0;
+        }
+        long sinExpropiar = planificador.ciclosSinExpropiar(cpu);
+        int adelanto = nucleo.getAdelanto();
+        long limite = adelanto == 0 ? Math.max(1, sinExpropiar) : adelanto + Math.max(0, sinExpropiar);
+        return (int) Math.min(ciclos, limite);
+    }
+    
+    /**
+     * Cada núcleo con proceso avanza en su hilo hasta su límite o hasta que
+     * se detiene; el reloj avanza hasta el que llegó menos lejos
+     */
+    private int ejecutarAdelantados(int[] limites, int ciclos) {
+        int[] alcanzados = ejecutorNucleos.ejecutar(limites);
+        int avance = ciclos;
+        for (int i = 0; i < cpus.length; i++) {
+            if (limites[i] > 0) {
+                avance = Math.min(avance, alcanzados[i]);
+            }
+        }
+        reloj.avanzar(avance);
+        for (CPU nucleo : cpus) {
+            nucleo.descontarAdelanto(avance);
+        }
+        return avance;
+    }
+    
+    /**
+     * Los núcleos al paso del reloj avanzan juntos, ciclo a ciclo, hasta el
+     * ciclo en que un proceso deja su CPU, en que la política podría
+     * expropiar o en que el reloj alcanza a un núcleo adelantado
+     */
+    private int ejecutarJuntos(int ciclos) {
+        ciclos = Math.min(ciclos, planificador.ciclosSinExpropiar());
+        for (CPU nucleo : cpus) {
+            if (nucleo.getAdelanto() > 0) {
+                ciclos = Math.min(ciclos, nucleo.getAdelanto());
+            }
         }
+        int hechos = 0;
+        boolean sigue = true;
+        while (sigue && hechos < ciclos) {
+            for (CPU nucleo : cpus) {
+                if (nucleo.getAdelanto() == 0 && !nucleo.ejecutarCicloDeLote(hechos == 0)) {
+                    sigue = false;
+                }
+            }
+            reloj.avanzar(1);
+            hechos++;
+        }
+        for (CPU nucleo : cpus) {
+            nucleo.descontarAdelanto(hechos);
+        }
+        return hechos;
+    }
+    
+    /**
+     * Ejecuta ciclos en el hilo que llama, sin pausas ni refrescos de GUI,
+     * hasta que todos los procesos terminen, alguno espere entrada o se
+     * llegue al límite (ejecución por lotes)
+     * @return ciclos ejecutados
+     */
+    public long ejecutarSinInterfaz(long maxCiclos) {
+        long ciclos = 0;
+        while (ciclos < maxCiclos && !todosProcesosFinalizado() && !hayProcesoEsperandoEntrada()) {
+            ciclos += ejecutarLote((int) Math.min(LOTE_MAXIMO, maxCiclos - ciclos));
+        }
+        return ciclos;
     }
     
     /**
-     * Ejecuta automáticamente hasta que todos los procesos terminen
+     * Indica si ya no quedan procesos por ejecutar
+     */
+    public boolean isTerminado() {
+        return todosProcesosFinalizado();
+    }
+    
+    /**
+     * Ejecuta automáticamente hasta que todos los procesos terminen.
+     * El ritmo depende del modo de ejecución; en todos los modos la GUI se
+     * refresca a lo sumo FPS_GUI veces por segundo.
      */
     public void ejecutarAutomatico() {
         if (ejecutando) {
-            log("Ya se está ejecutando");
+            log(Nivel.AVISO, "Ya se está ejecutando");
             return;
         }
 
         ejecutando = true;
 
         hiloEjecucion = new Thread(() -> {
-            log("Iniciando/Reanudando ejecución automática...");
+            log("Iniciando/Reanudando ejecución automática (" + modoEjecucion + ")...");
+
+            long nanosPorTick = nanosPorTick();
+            long inicioNanos = System.nanoTime();
+            long inicioTicks = reloj.getTicks();
 
             while (ejecutando && !todosProcesosFinalizado()) {
-                ejecutarPasoAPaso();
+                // Con pausas se duerme entre ciclos; sin pausas, por lotes
+                ejecutarLote(nanosPorTick > 0 ? 1 : LOTE_MAXIMO);
+                refrescarGUISiCorresponde();
 
                 // Verificar si hay procesos esperando entrada
                 if (hayProcesoEsperandoEntrada()) {
@@ -244,20 +624,28 @@ public class GestorSistema {
                     ejecutando = false;
 
                     // Notificar a la GUI para que verifique entrada pendiente
-                    if (actualizarGUICallback != null) {
-                        actualizarGUICallback.run();
-                    }
+                    notificarGUI();
                     break;
                 }
 
-                try {
-                    Thread.sleep(1000); // 1 segundo por ciclo
-                } catch (InterruptedException e) {
+                if (nanosPorTick > 0) {
+                    // Dormir hasta el instante en que debe empezar el siguiente tick
+                    long objetivo = inicioNanos + (reloj.getTicks() - inicioTicks) * nanosPorTick;
+                    long espera = objetivo - System.nanoTime();
+                    if (espera > 0) {
+                        try {
+                            Thread.sleep(espera / 1_000_000L, (int) (espera % 1_000_000L));
+                        } catch (InterruptedException e) {
+                            break;
+                        }
+                    }
+                } else if (Thread.currentThread().isInterrupted()) {
                     break;
                 }
             }
 
             ejecutando = false;
+            notificarGUI();
             if (todosProcesosFinalizado()) {
                 log("Ejecución automática finalizada - todos los procesos terminaron");
                 mostrarEstadisticas();
@@ -267,6 +655,36 @@ public class GestorSistema {
         hiloEjecucion.start();
     }
     
+    /**
+     * Duración real de un tick según el modo (0 = sin pausas)
+     */
+    private long nanosPorTick() {
+        switch (modoEjecucion) {
+            case TIEMPO_REAL:
+                return NANOS_POR_TICK;
+            case ESCALADO:
+                return (long) (NANOS_POR_TICK / factorEscala);
+            default:
+                return 0;
+        }
+    }
+    
+    /**
+     * Refresca la GUI solo si ya pasó un frame desde el último refresco
+     */
+    private void refrescarGUISiCorresponde() {
+        if (System.nanoTime() - ultimoRefrescoGUI >= NANOS_POR_FRAME) {
+            notificarGUI();
+        }
+    }
+    
+    private void notificarGUI() {
+        ultimoRefrescoGUI = System.nanoTime();
+        if (actualizarGUICallback != null) {
+            actualizarGUICallback.run();
+        }
+    }
+    
     
     /**
     * Verifica si hay algún proceso esperando entrada de teclado
@@ -278,7 +696,7 @@ public class GestorSistema {
                 return true;
             }
         }
-        return false;
+        return !planificadorMedianoPlazo.getSuspendidosEspera().isEmpty();
     }
     
     /**
@@ -298,7 +716,21 @@ public class GestorSistema {
      * Procesa entrada de teclado para un proceso en espera
      */
     public void procesarEntradaTeclado(int cpuSlot, int valor) {
-        cpu.procesarEntradaTeclado(cpuSlot, valor);
+        if (cpuSlot < 0 || cpuSlot >= cpus.length) {
+            log(Nivel.ERROR, "ERROR: CPU inválido para entrada de teclado: " + cpuSlot);
+            return;
+        }
+        for (BCP proceso : getColaEspera()) {
+            if (proceso.isEsperandoEntrada() && proceso.getCpuId() == cpuSlot) {
+                metricas.entradaRecibida(proceso.getPid());
+                break;
+            }
+        }
+        if (planificadorMedianoPlazo.entregarEntrada(cpuSlot, valor)) {
+            log("Proceso suspendido del CPU " + cpuSlot + " recibió entrada: " + valor);
+            return;
+        }
+        cpus[cpuSlot].procesarEntradaTeclado(valor);
     }
     
     /**
@@ -323,17 +755,8 @@ public class GestorSistema {
      * Verifica si todos los procesos han finalizado
      */
     private boolean todosProcesosFinalizado() {
-        // Verificar slots del CPU
-        BCP[] procesosEnEjecucion = planificador.getProcesosEnEjecucion();
-        for (BCP proceso : procesosEnEjecucion) {
-            if (proceso != null) {
-                return false;
-            }
-        }
-        
-        // Verificar colas
-        return planificador.getColaListos().isEmpty() && 
-               planificador.getColaEspera().isEmpty();
+        // Verificar slots de las CPUs, colas, nuevos y suspendidos
+        return planificador.estaVacio() && planificadorMedianoPlazo.estaVacio();
     }
     
     /**
@@ -363,13 +786,46 @@ public class GestorSistema {
             log("No hay procesos finalizados para mostrar estadísticas");
         }
 
+        if (memoria.isPaginada()) {
+            long aciertos = 0;
+            long fallos = 0;
+            for (CPU nucleo : cpus) {
+                aciertos += nucleo.getTLB().getAciertos();
+                fallos += nucleo.getTLB().getFallos();
+            }
+            log(String.format("TLB: %d aciertos, %d fallos (%.1f%% de aciertos)",
+                aciertos, fallos, aciertos + fallos == 0 ? 0.0 : 100.0 * aciertos / (aciertos + fallos)));
+            log("Tablas de páginas: máximo " + memoria.getMaxCeldasTablasPaginas()
+                + " celdas a la vez (páginas de " + memoria.getTamanioPagina() + " celdas)");
+        }
+        log("Cambios de contexto: " + getCambiosContexto() + " (" + getCiclosEnCambiosContexto()
+            + " ciclos de núcleo, " + costoCambioContexto + " por cambio)");
+        if (metricas.getRetorno().getCantidad() > 0) {
+            log("Retorno (ticks): " + metricas.getRetorno());
+            log("Espera (ticks): " + metricas.getEspera());
+            log("Respuesta (ticks): " + metricas.getRespuesta());
+        }
+        if (planificadorMedianoPlazo.getSuspensiones() > 0) {
+            log("Intercambio: " + planificadorMedianoPlazo.getSuspensiones() + " suspensiones, "
+                + planificadorMedianoPlazo.getReanudaciones() + " reanudaciones ("
+                + planificadorMedianoPlazo.getPalabrasEscritas() + " palabras escritas, "
+                + planificadorMedianoPlazo.getPalabrasLeidas() + " leídas)");
+        }
+        if (memoria.isMemoriaVirtual()) {
+            log("Memoria virtual (" + memoria.getPoliticaReemplazo() + "): " + memoria.getFallosPagina()
+                + " fallos de página, " + memoria.getDesalojos() + " desalojos");
+            log("E/S de páginas: " + memoria.getEscriturasVirtual() + " escritas y "
+                + memoria.getLecturasVirtual() + " leídas de memoria virtual, "
+                + memoria.getLecturasPrograma() + " leídas del programa");
+        }
+
         log("==========================================\n");
     }
     
     /**
     * Registra estadística de un proceso finalizado
     */
-    public void registrarEstadisticaProceso(BCP proceso) {
+    public synchronized void registrarEstadisticaProceso(BCP proceso) {
         if (proceso.getEstado() == Estado.FINALIZADO) {
             EstadisticaProceso est = new EstadisticaProceso(
                 proceso.getNombreArchivo(),
@@ -380,7 +836,9 @@ public class GestorSistema {
                 proceso.getCpuId()
             );
             estadisticas.add(est);
-            log("Estadística registrada: " + proceso.getNombreArchivo() + " (PID:" + proceso.getPid() + ")");
+            metricas.procesoFinalizado(proceso.getPid());
+            bitacora.registrar(Nivel.DEPURACION, null, "Estadística registrada: {} (PID:{})",
+                proceso.getNombreArchivo(), proceso.getPid());
         }
     }
     
@@ -391,33 +849,17 @@ public class GestorSistema {
         return new ArrayList<>(estadisticas);
     }
     
-    /**
-     * Lee un archivo y devuelve sus líneas
-     */
-    private List<String> leerArchivo(File archivo) throws IOException {
-        List<String> lineas = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(archivo))) {
-            String linea;
-            while ((linea = br.readLine()) != null) {
-                linea = linea.trim();
-                if (!linea.isEmpty() && !linea.startsWith(";")) {
-                    lineas.add(linea);
-                }
-            }
-        }
-        return lineas;
+    private void log(String mensaje) {
+        bitacora.registrar(Nivel.INFO, null, mensaje);
     }
     
-    private void log(String mensaje) {
-        if (consolaCallback != null) {
-            consolaCallback.accept(mensaje + "\n");
-        }
-        System.out.println(mensaje);
+    private void log(Nivel nivel, String mensaje) {
+        bitacora.registrar(nivel, null, mensaje);
     }
     
     // ========== GETTERS PARA LA GUI ==========
     
-    public Object[] getContenidoMemoria() {
+    public List<Object> getContenidoMemoria() {
         return memoria.getMemoria();
     }
     
@@ -425,22 +867,62 @@ public class GestorSistema {
         return almacenamiento.getAlmacenamiento();
     }
     
+    /** Celdas de memoria que cambiaron desde la llamada anterior */
+    public BitSet tomarCeldasModificadasMemoria() {
+        return memoria.tomarCeldasModificadas();
+    }
+    
+    /** Celdas del disco que cambiaron desde la llamada anterior */
+    public BitSet tomarCeldasModificadasAlmacenamiento() {
+        return almacenamiento.tomarCeldasModificadas();
+    }
+    
     public BCP[] getProcesosEnEjecucion() {
         return planificador.getProcesosEnEjecucion();
     }
     
     public List<BCP> getColaListos() {
-        return new ArrayList<>(planificador.getColaListos());
+        return planificador.getColaListos();
     }
     
+    /** Procesos que esperan E/S, incluidos los suspendidos que esperan entrada */
     public List<BCP> getColaEspera() {
-        return new ArrayList<>(planificador.getColaEspera());
+        List<BCP> espera = planificador.getColaEspera();
+        espera.addAll(planificadorMedianoPlazo.getSuspendidosEspera());
+        return espera;
+    }
+    
+    /** Procesos que esperan ser admitidos (grado de multiprogramación completo) */
+    public List<BCP> getProcesosNuevos() {
+        return planificadorMedianoPlazo.getNuevos();
+    }
+    
+    /** Procesos suspendidos (imagen en la memoria virtual del disco) */
+    public List<BCP> getProcesosSuspendidos() {
+        return planificadorMedianoPlazo.getSuspendidos();
     }
     
     public BCP getProcesoCPU(int slot) {
         return planificador.getProcesoCPU(slot);
     }
     
+    /** Métricas por proceso y por núcleo de la corrida actual */
+    public RegistroMetricas getMetricas() {
+        return metricas;
+    }
+    
+    /**
+     * Guarda las métricas en formato de texto de Prometheus, con la política,
+     * el quantum y la cantidad de núcleos como etiquetas
+     */
+    public void exportarMetricas(File destino) throws IOException {
+        metricas.setEtiqueta("politica", tipoPolitica.toString());
+        metricas.setEtiqueta("quantum", String.valueOf(quantum));
+        metricas.setEtiqueta("cpus", String.valueOf(numCPUs));
+        metricas.guardarPrometheus(destino);
+        log("Métricas guardadas en " + destino.getName());
+    }
+    
     public List<EstadisticaProceso> getEstadisticas() {
         return new ArrayList<>(estadisticas);
     }
@@ -457,28 +939,233 @@ public class GestorSistema {
         return planificador;
     }
     
+    public PlanificadorMedianoPlazo getPlanificadorMedianoPlazo() {
+        return planificadorMedianoPlazo;
+    }
+    
+    public int getGradoMultiprogramacion() {
+        return gradoMultiprogramacion;
+    }
+    
+    public int getProfundidadPila() {
+        return profundidadPila;
+    }
+    
+    /**
+     * Elementos que caben en la pila de cada proceso nuevo (el BCP ocupa una
+     * celda más por elemento); se conserva al limpiar el sistema
+     */
+    public void setProfundidadPila(int profundidad) {
+        if (profundidad <= 0) {
+            throw new IllegalArgumentException("La profundidad de la pila debe ser al menos 1");
+        }
+        this.profundidadPila = profundidad;
+    }
+    
+    /**
+     * Prioridad de los procesos que se creen del programa (menor valor = más
+     * prioritario); reemplaza la directiva "; PRIORIDAD n" del archivo y se
+     * conserva al limpiar el sistema. Solo la usa la política PRIORIDAD.
+     */
+    public void setPrioridadPrograma(String nombrePrograma, int prioridad) {
+        if (prioridad < 0) {
+            throw new IllegalArgumentException("La prioridad no puede ser negativa");
+        }
+        prioridades.put(nombrePrograma, prioridad);
+    }
+
+    /**
+     * Cantidad máxima de procesos en el planificador de corto plazo (listos,
+     * en ejecución y en espera); los demás esperan admisión o suspendidos.
+     * Se aplica sin reiniciar.
+     */
+    public void setGradoMultiprogramacion(int grado) {
+        planificadorMedianoPlazo.setGradoMultiprogramacion(grado);
+        this.gradoMultiprogramacion = grado;
+    }
+    
     public boolean isEjecutando() {
         return ejecutando;
     }
     
-    public CPU getCPU() {
-        return cpu;
+    public TipoPolitica getTipoPolitica() {
+        return tipoPolitica;
+    }
+    
+    public int getQuantum() {
+        return quantum;
+    }
+    
+    /**
+     * Cambia la política de planificación. Los procesos en la cola de listos
+     * pasan a la nueva política; la elección se conserva al limpiar el sistema.
+     *
+     * @param tipo política a usar
+     * @param quantum ciclos por turno (solo Round Robin)
+     */
+    public void setPoliticaPlanificacion(TipoPolitica tipo, int quantum) {
+        if (ejecutando) {
+            log(Nivel.AVISO, "No se puede cambiar la política mientras se ejecuta");
+            return;
+        }
+        this.tipoPolitica = tipo;
+        this.quantum = quantum;
+        planificador.setPolitica(tipo.crear(quantum));
+        log("Política de planificación: " + planificador.getPolitica().getNombre());
+    }
+    
+    public int getCostoCambioContexto() {
+        return costoCambioContexto;
+    }
+    
+    /**
+     * Ciclos que un núcleo pasa sin ejecutar al cambiar de proceso (0 = el
+     * cambio es gratis); se conserva al limpiar el sistema
+     */
+    public void setCostoCambioContexto(int ciclos) {
+        if (ciclos < 0) {
+            throw new IllegalArgumentException("El costo del cambio de contexto no puede ser negativo");
+        }
+        this.costoCambioContexto = ciclos;
+        for (CPU nucleo : cpus) {
+            nucleo.setCostoCambioContexto(ciclos);
+        }
+    }
+    
+    /** Contextos restaurados sumando todos los núcleos */
+    public long getCambiosContexto() {
+        long cambios = 0;
+        for (CPU nucleo : cpus) {
+            cambios += nucleo.getCambiosContexto();
+        }
+        return cambios;
+    }
+    
+    /** Ciclos de núcleo perdidos en cambios de contexto, sumando todos los núcleos */
+    public long getCiclosEnCambiosContexto() {
+        long ciclos = 0;
+        for (CPU nucleo : cpus) {
+            ciclos += nucleo.getCiclosEnCambios();
+        }
+        return ciclos;
+    }
+    
+    public EstrategiaAsignacion getEstrategiaMemoria() {
+        return estrategiaMemoria;
+    }
+    
+    /**
+     * Cambia la estrategia de asignación de memoria; se conserva al limpiar
+     * el sistema
+     */
+    public void setEstrategiaMemoria(EstrategiaAsignacion estrategia) {
+        this.estrategiaMemoria = estrategia;
+        memoria.setEstrategia(estrategia);
+        log("Asignación de memoria: " + estrategia);
+    }
+    
+    public int getTamanioPagina() {
+        return tamanioPagina;
+    }
+    
+    public boolean isPaginacionBajoDemanda() {
+        return paginacionBajoDemanda;
+    }
+    
+    public PoliticaReemplazo getPoliticaReemplazo() {
+        return politicaReemplazo;
+    }
+    
+    /**
+     * Cambia la política de reemplazo (se aplica al próximo fallo de página,
+     * sin reiniciar)
+     */
+    public void setPoliticaReemplazo(PoliticaReemplazo politica) {
+        this.politicaReemplazo = politica;
+        memoria.setPoliticaReemplazo(politica);
+    }
+    
+    /**
+     * Tasa de aciertos de la TLB sumando todos los núcleos (0 sin paginación)
+     */
+    public double getTasaAciertosTLB() {
+        long aciertos = 0;
+        long total = 0;
+        for (CPU nucleo : cpus) {
+            aciertos += nucleo.getTLB().getAciertos();
+            total += nucleo.getTLB().getAciertos() + nucleo.getTLB().getFallos();
+        }
+        return total == 0 ? 0 : (double) aciertos / total;
+    }
+    
+    public ModoEjecucion getModoEjecucion() {
+        return modoEjecucion;
+    }
+    
+    /**
+     * Cambia el modo de ejecución automática (aplica en la siguiente ejecución)
+     */
+    public void setModoEjecucion(ModoEjecucion modo) {
+        this.modoEjecucion = modo;
+    }
+    
+    public double getFactorEscala() {
+        return factorEscala;
+    }
+    
+    /**
+     * Factor de aceleración del modo ESCALADO (ej: 10 = 10 ciclos por segundo)
+     */
+    public void setFactorEscala(double factor) {
+        if (factor <= 0) {
+            throw new IllegalArgumentException("El factor de escala debe ser positivo");
+        }
+        this.factorEscala = factor;
+    }
+    
+    /**
+     * Tiempo simulado transcurrido, en ticks del reloj virtual
+     */
+    public long getTiempoSimulado() {
+        return reloj.getTicks();
+    }
+    
+    public RelojVirtual getReloj() {
+        return reloj;
+    }
+    
+    public CPU getCPU(int id) {
+        return cpus[id];
+    }
+    
+    public int getNumCPUs() {
+        return numCPUs;
     }
     
 
     
     // ========== SETTERS PARA CALLBACKS ==========
     
+    /**
+     * Recibe los mensajes de la bitácora (del gestor y de los núcleos), uno
+     * por línea, desde el hilo de la bitácora
+     */
     public void setConsolaCallback(Consumer<String> callback) {
-        this.consolaCallback = callback;
-        // Propagar al CPU
-        cpu.setConsolaCallback(callback);
+        if (destinoConsola != null) {
+            bitacora.quitarDestino(destinoConsola);
+        }
+        destinoConsola = callback != null ? linea -> callback.accept(linea + "\n") : null;
+        if (destinoConsola != null) {
+            bitacora.agregarDestino(destinoConsola);
+        }
     }
     
     public void setPantallaCallback(Consumer<String> callback) {
         this.pantallaCallback = callback;
-        // Propagar al CPU
-        cpu.setPantallaCallback(callback);
+        // Propagar a los núcleos
+        for (CPU nucleo : cpus) {
+            nucleo.setPantallaCallback(callback);
+        }
     }
     
     public void setActualizarGUICallback(Runnable callback) {
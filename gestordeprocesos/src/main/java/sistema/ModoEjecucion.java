@@ -0,0 +1,14 @@
+package sistema;
+
+/**
+ * Modos de ejecución automática del sistema
+ * @author gadyr
+ */
+public enum ModoEjecucion {
+    /** Cada ciclo simulado dura 1 segundo real */
+    TIEMPO_REAL,
+    /** Cada ciclo simulado dura 1 segundo dividido entre el factor de escala */
+    ESCALADO,
+    /** Sin pausas: los ciclos se ejecutan tan rápido como sea posible */
+    TURBO
+}
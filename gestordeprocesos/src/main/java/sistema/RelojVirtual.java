@@ -0,0 +1,31 @@
+package sistema;
+
+/**
+ * Reloj del sistema simulado. El tiempo avanza en ticks cuando se ejecuta
+ * un ciclo, sin depender del reloj de pared del host.
+ * @author gadyr
+ */
+public class RelojVirtual {
+
+    // Un solo hilo avanza el reloj; la GUI solo lo lee
+    private volatile long ticks;
+
+    public RelojVirtual() {
+        this.ticks = 0;
+    }
+
+    /**
+     * Avanza el reloj la cantidad de ticks indicada
+     */
+    public void avanzar(long cantidad) {
+        ticks += cantidad;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public void reiniciar() {
+        ticks = 0;
+    }
+}
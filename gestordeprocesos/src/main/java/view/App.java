@@ -1,10 +1,12 @@
 package view;
 
+import instrucciones.ProgramaBinario;
 import java.io.File;
 import java.util.List;
 import procesos.BCP;
 import sistema.EstadisticaProceso;
 import sistema.GestorSistema;
+import sistema.ModoEjecucion;
 
 /**
  *
@@ -16,6 +18,9 @@ public class App extends javax.swing.JFrame {
     
     private GestorSistema gestor;
     private javax.swing.Timer timerActualizacion;
+    private ModeloTablaCeldas modeloMemoria;
+    private ModeloTablaCeldas modeloDisco;
+    private PublicadorGUI publicador;
     private boolean archivosYaCargados = false;
 
     /**
@@ -34,17 +39,31 @@ public class App extends javax.swing.JFrame {
     private void inicializarSistema(){
         
         gestor = new GestorSistema();
-        
-        gestor.setConsolaCallback(mensaje -> {
-            System.out.print(mensaje);
-        });
 
-        gestor.setPantallaCallback(texto -> {
-            pantalla.append(texto);
-            pantalla.setCaretPosition(pantalla.getDocument().getLength());
-        });
-        
+        // Las tablas leen las celdas al pintarlas; no se copian
+        modeloMemoria = new ModeloTablaCeldas("Value in memory", "NULL",
+                gestor::getContenidoMemoria, gestor::tomarCeldasModificadasMemoria);
+        memoryTable1.setModel(modeloMemoria);
+        modeloDisco = new ModeloTablaCeldas("Value in Disc", "0",
+                gestor::getContenidoAlmacenamiento, gestor::tomarCeldasModificadasAlmacenamiento);
+        discTable.setModel(modeloDisco);
         
+        // El simulador corre en su propio hilo; la GUI se actualiza en el EDT,
+        // a lo sumo una vez por frame
+        publicador = new PublicadorGUI(
+            mensaje -> System.out.print(mensaje),
+            texto -> {
+                pantalla.append(texto);
+                pantalla.setCaretPosition(pantalla.getDocument().getLength());
+            },
+            () -> {
+                actualizarTablas();
+                verificarEntradaPendiente(); // Verificar si hay entrada pendiente
+            });
+        gestor.setConsolaCallback(publicador::consola);
+        gestor.setPantallaCallback(publicador::pantalla);
+        gestor.setActualizarGUICallback(publicador::refrescar);
+
         if (inputTeclado != null) {
             inputTeclado.setEnabled(false);
             inputTeclado.addActionListener(evt -> enviarEntrada());
@@ -53,11 +72,9 @@ public class App extends javax.swing.JFrame {
         if (Enviar != null) {
             Enviar.setEnabled(false); // Deshabilitado hasta que se necesite
         }
+
+        modoEjecucion.setSelectedItem(gestor.getModoEjecucion());
     
-        gestor.setActualizarGUICallback(() -> {
-            actualizarTablas();
-            verificarEntradaPendiente(); // Verificar si hay entrada pendiente
-        });
 
 
         
@@ -67,6 +84,15 @@ public class App extends javax.swing.JFrame {
         
     }
     
+    /**
+     * Pasa al gestor el modo y el factor elegidos; se llama antes de cada
+     * ejecución automática
+     */
+    private void aplicarModoEjecucion() {
+        gestor.setModoEjecucion((ModoEjecucion) modoEjecucion.getSelectedItem());
+        gestor.setFactorEscala(((Number) factorEscala.getValue()).doubleValue());
+    }
+    
    /**
     * Actualiza todas las tablas de la GUI con datos del gestor
     */
@@ -78,39 +104,17 @@ public class App extends javax.swing.JFrame {
    }
 
    /**
-    * Actualiza la tabla de memoria principal
+    * Actualiza la tabla de memoria principal (solo las filas que cambiaron)
     */
-   private void actualizarTablaMemoria() { javax.swing.table.DefaultTableModel modelo = (javax.swing.table.DefaultTableModel) memoryTable1.getModel();
-
-       // Limpiar tabla
-       modelo.setRowCount(0);
-
-       // Obtener memoria del gestor
-       Object[] memoria = gestor.getContenidoMemoria();
-
-       for (int i = 0; i < memoria.length; i++) {
-           Object celda = memoria[i];
-           String valor = (celda != null) ? celda.toString() : "NULL";
-           modelo.addRow(new Object[]{i, valor});
-       }
+   private void actualizarTablaMemoria() {
+       modeloMemoria.refrescar();
    }
 
    /**
     * Actualiza la tabla de disco (almacenamiento)
     */
-   private void actualizarTablaDisco() { javax.swing.table.DefaultTableModel modelo = (javax.swing.table.DefaultTableModel) discTable.getModel();
-
-       // Limpiar tabla
-       modelo.setRowCount(0);
-
-       // Obtener almacenamiento
-       List<String> disco = gestor.getContenidoAlmacenamiento();
-
-       for (int i = 0; i < disco.size(); i++) {
-           String celda = disco.get(i);
-           String valor = (celda != null) ? celda : "0";
-           modelo.addRow(new Object[]{i, valor});
-       }
+   private void actualizarTablaDisco() {
+       modeloDisco.refrescar();
    }
 
    /**
@@ -157,6 +161,24 @@ public class App extends javax.swing.JFrame {
             }
         }
 
+        // Suspendidos (en disco) y nuevos sin admitir
+        for (BCP bcp : gestor.getProcesosSuspendidos()) {
+            if (pidsYaMostrados.add(bcp.getPid())) {
+                modelo.addRow(new Object[]{
+                    bcp.getNombreArchivo() + " (PID:" + bcp.getPid() + ")",
+                    bcp.getEstado() + " (disco)"
+                });
+            }
+        }
+        for (BCP bcp : gestor.getProcesosNuevos()) {
+            if (pidsYaMostrados.add(bcp.getPid())) {
+                modelo.addRow(new Object[]{
+                    bcp.getNombreArchivo() + " (PID:" + bcp.getPid() + ")",
+                    "NUEVO"
+                });
+            }
+        }
+
         // Cola de espera
         List<BCP> espera = gestor.getColaEspera();
         for (BCP bcp : espera) {
@@ -175,38 +197,41 @@ public class App extends javax.swing.JFrame {
     */
     private void actualizarBCP() {
         StringBuilder sb = new StringBuilder();
-        sb.append("═══ ESTADO DEL CPU (FCFS) ═══\n\n");
+        sb.append("═══ ESTADO DE LOS CPUs (").append(gestor.getPlanificador().getPolitica().getNombre()).append(") ═══\n\n");
 
         BCP[] slots = gestor.getProcesosEnEjecucion();
         boolean hayProcesos = false;
-        BCP procesoActual = null;
 
-        // Encontrar el proceso en ejecución
+        // Mostrar cada proceso en ejecución (uno por CPU)
         for (int i = 0; i < slots.length; i++) {
             if (slots[i] != null) {
                 hayProcesos = true;
                 BCP bcp = slots[i];
 
                 if (bcp.getEstado() == procesos.Estado.EJECUCION) {
-                    procesoActual = bcp;
+                    // Mientras ejecuta, los registros vivos están en el núcleo
+                    cpu.BancoRegistros registros = gestor.getCPU(i).getRegistros();
                     sb.append(">>> EJECUTANDO AHORA <<<\n");
                     sb.append("─────────────────────────\n");
-                    sb.append("Slot: ").append(i).append("\n");
+                    sb.append("CPU: ").append(i).append("\n");
                     sb.append("Proceso: ").append(bcp.getNombreArchivo()).append("\n");
                     sb.append("PID: ").append(bcp.getPid()).append("\n");
                     sb.append("Estado: ").append(bcp.getEstado()).append("\n");
-                    sb.append("PC: ").append(bcp.getProgramCounter()).append("\n");
+                    sb.append("PC: ").append(registros != null ? registros.getPc() : bcp.getProgramCounter()).append("\n");
                     sb.append("Instrucción: ").append(bcp.getInstruccionActual()).append("\n\n");
 
                     sb.append("REGISTROS:\n");
-                    sb.append("  AC = ").append(bcp.getAc()).append("\n");
-                    sb.append("  AX = ").append(bcp.getAx()).append("\n");
-                    sb.append("  BX = ").append(bcp.getBx()).append("\n");
-                    sb.append("  CX = ").append(bcp.getCx()).append("\n");
-                    sb.append("  DX = ").append(bcp.getDx()).append("\n\n");
-
-                    sb.append("PILA: ").append(bcp.getPila()).append("\n");
-                    sb.append("Tamaño: ").append(bcp.getPila().size()).append("/5\n\n");
+                    String[] nombres = {"AC", "AX", "BX", "CX", "DX"};
+                    for (int r = 0; r < nombres.length; r++) {
+                        sb.append("  ").append(nombres[r]).append(" = ")
+                          .append(registros != null ? registros.get(r) : bcp.getRegistro(r)).append("\n");
+                    }
+                    sb.append("  Igualdad = ").append(registros != null ? registros.isFlagIgualdad() : bcp.isFlagIgualdad())
+                      .append("\n\n");
+
+                    sb.append("PILA: ").append(registros != null ? registros.pilaComoTexto() : bcp.getPilaComoTexto()).append("\n");
+                    sb.append("Tamaño: ").append(registros != null ? registros.getTamanioPila() : bcp.tamanioPila())
+                      .append("/").append(bcp.getProfundidadPila()).append("\n\n");
 
                     sb.append("MEMORIA:\n");
                     sb.append("  Base: ").append(bcp.getDireccionBase()).append("\n");
@@ -220,9 +245,9 @@ public class App extends javax.swing.JFrame {
         if (hayProcesos) {
             sb.append("─── Otros procesos en memoria ───\n");
             for (int i = 0; i < slots.length; i++) {
-                if (slots[i] != null && slots[i] != procesoActual) {
+                if (slots[i] != null && slots[i].getEstado() != procesos.Estado.EJECUCION) {
                     BCP bcp = slots[i];
-                    sb.append("Slot ").append(i).append(": ")
+                    sb.append("CPU ").append(i).append(": ")
                       .append(bcp.getNombreArchivo())
                       .append(" (PID:").append(bcp.getPid()).append(")")
                       .append(" - ").append(bcp.getEstado()).append("\n");
@@ -247,15 +272,15 @@ public class App extends javax.swing.JFrame {
         dialogoEstadisticas.setLocationRelativeTo(this);
 
         // Crear tabla
-        String[] columnas = {"Proceso", "PID", "Hora Inicio", "Hora Fin", "Duración", "CPU"};
+        String[] columnas = {"Proceso", "PID", "Tick Inicio", "Tick Fin", "Duración", "CPU"};
         Object[][] datos = new Object[estadisticas.size()][6];
 
         for (int i = 0; i < estadisticas.size(); i++) {
             EstadisticaProceso est = estadisticas.get(i);
             datos[i][0] = est.getNombreProceso();
             datos[i][1] = est.getPid();
-            datos[i][2] = est.getHoraInicioFormateada();
-            datos[i][3] = est.getHoraFinFormateada();
+            datos[i][2] = est.getInicioFormateado();
+            datos[i][3] = est.getFinFormateado();
             datos[i][4] = est.getDuracionFormateada();
             datos[i][5] = est.getCpuAsignado() >= 0 ? "CPU" + est.getCpuAsignado() : "N/A";
         }
@@ -411,6 +436,7 @@ public class App extends javax.swing.JFrame {
             
             if (gestor.seDetuvoPorEntrada()) {
                 System.out.println("DEBUG: Reanudando ejecución automática");
+                aplicarModoEjecucion();
                 gestor.ejecutarAutomatico();
             }
             
@@ -437,6 +463,8 @@ public class App extends javax.swing.JFrame {
         execute = new javax.swing.JButton();
         nextStep = new javax.swing.JButton();
         stadistics = new javax.swing.JButton();
+        modoEjecucion = new javax.swing.JComboBox<>();
+        factorEscala = new javax.swing.JSpinner();
         loadFile = new javax.swing.JButton();
         jScrollPane4 = new javax.swing.JScrollPane();
         discTable = new javax.swing.JTable();
@@ -484,6 +512,17 @@ public class App extends javax.swing.JFrame {
             }
         });
 
+        modoEjecucion.setModel(new javax.swing.DefaultComboBoxModel<>(sistema.ModoEjecucion.values()));
+        modoEjecucion.setToolTipText("Execution mode");
+        modoEjecucion.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                modoEjecucionActionPerformed(evt);
+            }
+        });
+
+        factorEscala.setModel(new javax.swing.SpinnerNumberModel(10.0d, 0.1d, 1000.0d, 1.0d));
+        factorEscala.setToolTipText("Cycles per second (ESCALADO)");
+
         loadFile.setText("Load file");
         loadFile.addActionListener(new java.awt.event.ActionListener() {
             public void actionPerformed(java.awt.event.ActionEvent evt) {
@@ -952,7 +991,11 @@ public class App extends javax.swing.JFrame {
                 .addComponent(clean, javax.swing.GroupLayout.PREFERRED_SIZE, 64, javax.swing.GroupLayout.PREFERRED_SIZE)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                 .addComponent(stadistics)
-                .addGap(63, 63, 63)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                .addComponent(modoEjecucion, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(factorEscala, javax.swing.GroupLayout.PREFERRED_SIZE, 64, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addGap(18, 18, 18)
                 .addComponent(ocultar, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
                 .addComponent(loadFile, javax.swing.GroupLayout.PREFERRED_SIZE, 83, javax.swing.GroupLayout.PREFERRED_SIZE)
@@ -970,7 +1013,9 @@ public class App extends javax.swing.JFrame {
                                 .addComponent(execute)
                                 .addComponent(nextStep)
                                 .addComponent(stadistics)
-                                .addComponent(clean)))
+                                .addComponent(clean)
+                                .addComponent(modoEjecucion, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                                .addComponent(factorEscala, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)))
                         .addGap(78, 78, 78))
                     .addGroup(javax.swing.GroupLayout.Alignment.TRAILING, layout.createSequentialGroup()
                         .addComponent(ocultar, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
@@ -1009,6 +1054,7 @@ public class App extends javax.swing.JFrame {
             loadFile.setEnabled(true);
         } else {
             // Iniciar ejecución automática
+            aplicarModoEjecucion();
             gestor.ejecutarAutomatico();
             execute.setText("stop");
             nextStep.setEnabled(false);
@@ -1046,6 +1092,11 @@ public class App extends javax.swing.JFrame {
         mostrarVentanaEstadisticas(estadisticas);
     }//GEN-LAST:event_stadisticsActionPerformed
 
+    private void modoEjecucionActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_modoEjecucionActionPerformed
+        // El factor solo cuenta en modo ESCALADO
+        factorEscala.setEnabled(modoEjecucion.getSelectedItem() == ModoEjecucion.ESCALADO);
+    }//GEN-LAST:event_modoEjecucionActionPerformed
+
     private void cleanActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_cleanActionPerformed
         // TODO add your handling code here:
         int respuesta = javax.swing.JOptionPane.showConfirmDialog(this,"¿Está seguro de limpiar todo el sistema?\nSe perderán todos los procesos cargados.","Confirmar limpieza",javax.swing.JOptionPane.YES_NO_OPTION,javax.swing.JOptionPane.QUESTION_MESSAGE);
@@ -1078,12 +1129,13 @@ public class App extends javax.swing.JFrame {
         fileChooser.setFileFilter(new javax.swing.filechooser.FileFilter() {
             @Override
             public boolean accept(File f) {
-                return f.isDirectory() || f.getName().toLowerCase().endsWith(".asm");
+                return f.isDirectory() || f.getName().toLowerCase().endsWith(".asm")
+                        || ProgramaBinario.esBinario(f);
             }
 
             @Override
             public String getDescription() {
-                return "Archivos ASM (*.asm)";
+                return "Archivos ASM (*.asm, *.bin)";
             }
         });
 
@@ -1280,6 +1332,7 @@ public class App extends javax.swing.JFrame {
     public javax.swing.JButton clean;
     public javax.swing.JTable discTable;
     public javax.swing.JButton execute;
+    private javax.swing.JSpinner factorEscala;
     private javax.swing.JTextField inputTeclado;
     private javax.swing.JLabel jLabel1;
     private javax.swing.JLabel jLabel2;
@@ -1293,6 +1346,7 @@ public class App extends javax.swing.JFrame {
     private javax.swing.JScrollPane jScrollPane6;
     public javax.swing.JButton loadFile;
     public javax.swing.JTable memoryTable1;
+    private javax.swing.JComboBox<sistema.ModoEjecucion> modoEjecucion;
     private javax.swing.JTextField newMemorySize;
     public javax.swing.JButton nextStep;
     private javax.swing.JPanel ocultar;
@@ -0,0 +1,91 @@
+package view;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Supplier;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Modelo de tabla (posición, valor) que lee cada celda de la vista de la
+ * memoria o del disco solo cuando la tabla la pinta. En cada refresco avisa
+ * únicamente las filas que cambiaron, agrupadas en rangos contiguos.
+ *
+ * @author gadyr
+ */
+public class ModeloTablaCeldas extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String columnaValor;
+    private final String valorVacio;
+    private final Supplier<List<?>> celdas;
+    private final Supplier<BitSet> modificadas;
+
+    private List<?> vista;
+    private int filas;
+
+    /**
+     * @param celdas vista de solo lectura del respaldo actual (cambia si se
+     *               reconfigura la memoria o el disco)
+     * @param modificadas celdas cambiadas desde la llamada anterior
+     * @param valorVacio texto de las celdas sin usar
+     */
+    public ModeloTablaCeldas(String columnaValor, String valorVacio,
+                             Supplier<List<?>> celdas, Supplier<BitSet> modificadas) {
+        this.columnaValor = columnaValor;
+        this.valorVacio = valorVacio;
+        this.celdas = celdas;
+        this.modificadas = modificadas;
+        refrescar();
+    }
+
+    /**
+     * Avisa a la tabla los rangos de filas modificados; si el respaldo es
+     * otro (o cambió de tamaño) la tabla se recarga completa
+     */
+    public void refrescar() {
+        List<?> actual = celdas.get();
+        BitSet cambios = modificadas.get();
+        if (actual != vista || actual.size() != filas) {
+            vista = actual;
+            filas = actual.size();
+            fireTableDataChanged();
+            return;
+        }
+        for (int desde = cambios.nextSetBit(0); desde >= 0 && desde < filas;
+                desde = cambios.nextSetBit(desde)) {
+            int hasta = Math.min(cambios.nextClearBit(desde), filas);
+            fireTableRowsUpdated(desde, hasta - 1);
+            desde = hasta;
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return filas;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return 2;
+    }
+
+    @Override
+    public String getColumnName(int columna) {
+        return columna == 0 ? "Position" : columnaValor;
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columna) {
+        return columna == 0 ? Integer.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int fila, int columna) {
+        if (columna == 0) {
+            return fila;
+        }
+        Object celda = vista.get(fila);
+        return celda != null ? celda.toString() : valorVacio;
+    }
+}
@@ -0,0 +1,110 @@
+package view;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import sistema.GestorSistema;
+
+/**
+ * Pasa las notificaciones del simulador al hilo de Swing (EDT) sin que el
+ * hilo de simulación espere. Los textos de consola y pantalla se acumulan, y
+ * los pedidos de refresco se juntan: a lo sumo una publicación por frame,
+ * que entrega los textos acumulados y refresca las tablas una vez.
+ *
+ * @author gadyr
+ */
+public class PublicadorGUI {
+
+    private static final int MILIS_POR_FRAME = 1000 / GestorSistema.FPS_GUI;
+
+    private final Consumer<String> consolaDestino;
+    private final Consumer<String> pantallaDestino;
+    private final Runnable refrescoDestino;
+
+    private final StringBuilder consola = new StringBuilder();
+    private final StringBuilder pantalla = new StringBuilder();
+    private volatile boolean refrescoPendiente;
+    private final AtomicBoolean programado = new AtomicBoolean();
+    private volatile long ultimaPublicacion;
+
+    /**
+     * @param consolaDestino recibe el texto de consola acumulado (en el EDT)
+     * @param pantallaDestino recibe el texto de pantalla acumulado (en el EDT)
+     * @param refrescoDestino refresca las tablas leyendo el estado actual (en el EDT)
+     */
+    public PublicadorGUI(Consumer<String> consolaDestino, Consumer<String> pantallaDestino,
+                         Runnable refrescoDestino) {
+        this.consolaDestino = consolaDestino;
+        this.pantallaDestino = pantallaDestino;
+        this.refrescoDestino = refrescoDestino;
+    }
+
+    /** Callback de consola para GestorSistema (cualquier hilo) */
+    public void consola(String texto) {
+        synchronized (consola) {
+            consola.append(texto);
+        }
+        programar();
+    }
+
+    /** Callback de pantalla para GestorSistema (cualquier hilo) */
+    public void pantalla(String texto) {
+        synchronized (pantalla) {
+            pantalla.append(texto);
+        }
+        programar();
+    }
+
+    /** Callback de refresco para GestorSistema (cualquier hilo) */
+    public void refrescar() {
+        refrescoPendiente = true;
+        programar();
+    }
+
+    /**
+     * Deja una sola publicación pendiente; si la anterior fue hace menos de
+     * un frame, la atrasa hasta completarlo
+     */
+    private void programar() {
+        if (!programado.compareAndSet(false, true)) {
+            return;
+        }
+        long espera = ultimaPublicacion + MILIS_POR_FRAME - System.currentTimeMillis();
+        if (espera <= 0) {
+            SwingUtilities.invokeLater(this::publicar);
+        } else {
+            Timer temporizador = new Timer((int) espera, e -> publicar());
+            temporizador.setRepeats(false);
+            temporizador.start();
+        }
+    }
+
+    private void publicar() {
+        ultimaPublicacion = System.currentTimeMillis();
+        // Lo que llegue desde aquí programa la siguiente publicación
+        programado.set(false);
+        String textoConsola = vaciar(consola);
+        String textoPantalla = vaciar(pantalla);
+        boolean refrescar = refrescoPendiente;
+        refrescoPendiente = false;
+
+        if (!textoConsola.isEmpty()) {
+            consolaDestino.accept(textoConsola);
+        }
+        if (!textoPantalla.isEmpty()) {
+            pantallaDestino.accept(textoPantalla);
+        }
+        if (refrescar) {
+            refrescoDestino.run();
+        }
+    }
+
+    private static String vaciar(StringBuilder buffer) {
+        synchronized (buffer) {
+            String texto = buffer.toString();
+            buffer.setLength(0);
+            return texto;
+        }
+    }
+}
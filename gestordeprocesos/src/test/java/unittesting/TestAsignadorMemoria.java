@@ -0,0 +1,49 @@
+package unittesting;
+
+import java.util.Map;
+import memoria.AsignadorMemoria;
+import memoria.EstrategiaAsignacion;
+
+/**
+ *
+ * @author dylan
+ */
+public class TestAsignadorMemoria {
+    public static void main(String[] args) {
+        for (EstrategiaAsignacion estrategia : EstrategiaAsignacion.values()) {
+            AsignadorMemoria asignador = new AsignadorMemoria(100, 200, estrategia);
+
+            // Bloques de 30, 10, 20 y 10; se liberan el de 30 y el de 20
+            int a = asignador.reservar(30);
+            int b = asignador.reservar(10);
+            int c = asignador.reservar(20);
+            int d = asignador.reservar(10);
+            asignador.liberar(a);
+            asignador.liberar(c);
+
+            // Huecos: [100,30] [140,20] [170,30]; la reserva de 15 depende de la estrategia
+            int e = asignador.reservar(15);
+            System.out.println(estrategia + ": reserva de 15 en " + e
+                    + " | libre=" + asignador.getLibre() + " huecos=" + asignador.getCantidadHuecos());
+
+            // Liberar todo de nuevo debe dejar un único hueco (unión de vecinos)
+            asignador.liberar(b);
+            asignador.liberar(d);
+            asignador.liberar(e);
+            System.out.println("  tras liberar: huecos=" + asignador.getCantidadHuecos()
+                    + " mayor=" + asignador.getMayorHueco());
+        }
+
+        // Compactación: los bloques se mueven al inicio en orden
+        AsignadorMemoria asignador = new AsignadorMemoria(0, 50, EstrategiaAsignacion.PRIMER_AJUSTE);
+        int x = asignador.reservar(10);
+        int y = asignador.reservar(10);
+        int z = asignador.reservar(10);
+        asignador.liberar(x);
+        asignador.liberar(z);
+        System.out.println("Reserva de 35 antes de compactar: " + asignador.reservar(35));
+        Map<Integer, Integer> reubicaciones = asignador.compactar();
+        System.out.println("Reubicaciones: " + reubicaciones + " (bloque " + y + ")");
+        System.out.println("Reserva de 35 después de compactar: " + asignador.reservar(35));
+    }
+}
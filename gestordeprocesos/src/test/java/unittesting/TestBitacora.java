@@ -0,0 +1,64 @@
+package unittesting;
+
+import bitacora.Bitacora;
+import bitacora.DestinoMemoria;
+import bitacora.Nivel;
+import java.util.List;
+
+/**
+ *
+ * @author dylan
+ */
+public class TestBitacora {
+    public static void main(String[] args) throws InterruptedException {
+        Bitacora bitacora = new Bitacora(1 << 16);
+        DestinoMemoria destino = new DestinoMemoria();
+        bitacora.agregarDestino(destino);
+
+        // Formato diferido y umbral
+        bitacora.registrar(Nivel.INFO, "CPU0", "Proceso {} recibió entrada: {}", 7, 42);
+        bitacora.registrar(Nivel.DEPURACION, null, "no debe aparecer {}", 1);
+        bitacora.registrar(Nivel.ERROR, null, "sin argumentos {}");
+        bitacora.vaciar();
+        System.out.println(destino.getLineas());
+        if (!destino.getLineas().equals(List.of("[CPU0] Proceso 7 recibió entrada: 42", "sin argumentos {}"))) {
+            throw new AssertionError("Formato o umbral incorrecto");
+        }
+
+        // Varios productores a la vez: no se pierde ni se repite nada
+        destino.limpiar();
+        int hilos = 4;
+        int porHilo = 10000;
+        Thread[] productores = new Thread[hilos];
+        for (int h = 0; h < hilos; h++) {
+            String origen = "CPU" + h;
+            productores[h] = new Thread(() -> {
+                for (int i = 0; i < porHilo; i++) {
+                    bitacora.registrar(Nivel.INFO, origen, "{}", i);
+                }
+            });
+            productores[h].start();
+        }
+        for (Thread productor : productores) {
+            productor.join();
+        }
+        bitacora.vaciar();
+        long escritas = destino.getLineas().size();
+        System.out.println("Escritas: " + escritas + " descartadas: " + bitacora.getDescartados());
+        if (escritas + bitacora.getDescartados() != (long) hilos * porHilo) {
+            throw new AssertionError("Se perdieron mensajes sin contarlos");
+        }
+        if (destino.getLineas().stream().distinct().count() != escritas) {
+            throw new AssertionError("Mensajes repetidos");
+        }
+
+        // Cola chica: lo que no entra se descarta en vez de bloquear
+        Bitacora chica = new Bitacora(4);
+        chica.setNivel(Nivel.DEPURACION);
+        for (int i = 0; i < 1000; i++) {
+            chica.registrar(Nivel.DEPURACION, null, "mensaje {}", i);
+        }
+        chica.vaciar();
+        System.out.println("Cola chica, descartados: " + chica.getDescartados());
+    }
+}
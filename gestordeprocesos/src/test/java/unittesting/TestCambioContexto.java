@@ -0,0 +1,87 @@
+package unittesting;
+
+import almacenamiento.UnidadDeAlmacenamiento;
+import cpu.CPU;
+import java.util.Arrays;
+import memoria.MemoriaPrincipal;
+import procesos.BCP;
+import procesos.Planificador;
+import procesos.TipoPolitica;
+import sistema.RelojVirtual;
+
+/**
+ *
+ * @author gadyr
+ */
+public class TestCambioContexto {
+    public static void main(String[] args) {
+        // Con quantum 1 el CMP de uno y el salto quedan separados por el CMP del otro
+        UnidadDeAlmacenamiento disco = new UnidadDeAlmacenamiento(64, 8);
+        disco.agregarPrograma("Igual", Arrays.asList(
+                "MOV AX, 1", "MOV BX, 1", "CMP AX, BX", "MOV DX, 1", "JE +2", "MOV DX, 0", "INT 10H", "INT 20H"));
+        disco.agregarPrograma("Distinto", Arrays.asList(
+                "MOV AX, 1", "MOV BX, 2", "CMP AX, BX", "MOV DX, 2", "JNE +2", "MOV DX, 0", "INT 10H", "INT 20H"));
+
+        for (int costo = 0; costo <= 2; costo++) {
+            BCP.reiniciarContadorPID();
+            MemoriaPrincipal memoria = new MemoriaPrincipal(100, 60);
+            RelojVirtual reloj = new RelojVirtual();
+            Planificador planificador = new Planificador(1, TipoPolitica.ROUND_ROBIN.crear(1), reloj);
+            CPU cpu = new CPU(0, memoria, planificador, disco, null);
+            cpu.setCostoCambioContexto(costo);
+            planificador.setGuardadoContexto((slot, proceso) -> cpu.guardarContexto(proceso));
+            StringBuilder pantalla = new StringBuilder();
+            cpu.setPantallaCallback(texto -> pantalla.append(texto.trim()).append(' '));
+
+            planificador.agregarProcesoListo(new BCP("Igual", -1, 8, 1));
+            planificador.agregarProcesoListo(new BCP("Distinto", -1, 8, 1));
+            while (!planificador.estaVacio() && reloj.getTicks() < 100) {
+                planificador.despacharProcesos();
+                cpu.ejecutarCiclo();
+                reloj.avanzar(1);
+            }
+            System.out.println("Costo " + costo + ": pantalla=" + pantalla + "ciclos=" + reloj.getTicks()
+                    + " cambios=" + cpu.getCambiosContexto() + " ciclos en cambios=" + cpu.getCiclosEnCambios());
+            if (!pantalla.toString().equals("1 2 ")) {
+                throw new AssertionError("La bandera de igualdad pasó de un proceso a otro");
+            }
+        }
+        mismoProcesoNoPaga(disco);
+    }
+
+    /**
+     * Un proceso que se bloquea en INT 09H y vuelve al mismo núcleo sin que
+     * otro corra en medio paga el cambio una sola vez (al entrar)
+     */
+    private static void mismoProcesoNoPaga(UnidadDeAlmacenamiento disco) {
+        disco.agregarPrograma("Lee", Arrays.asList("MOV DX, 0", "INT 09H", "INC DX", "INT 10H", "INT 20H"));
+        BCP.reiniciarContadorPID();
+        MemoriaPrincipal memoria = new MemoriaPrincipal(100, 60);
+        RelojVirtual reloj = new RelojVirtual();
+        Planificador planificador = new Planificador(1, TipoPolitica.FIFO.crear(1), reloj);
+        CPU cpu = new CPU(0, memoria, planificador, disco, null);
+        cpu.setCostoCambioContexto(2);
+        planificador.setGuardadoContexto((slot, proceso) -> cpu.guardarContexto(proceso));
+        StringBuilder pantalla = new StringBuilder();
+        cpu.setPantallaCallback(texto -> pantalla.append(texto.trim()).append(' '));
+
+        BCP lector = new BCP("Lee", -1, 5, 1);
+        planificador.agregarProcesoListo(lector);
+        while (!planificador.estaVacio() && reloj.getTicks() < 100) {
+            planificador.despacharProcesos();
+            cpu.ejecutarCiclo();
+            reloj.avanzar(1);
+            if (lector.isEsperandoEntrada() && reloj.getTicks() == 10) {
+                cpu.procesarEntradaTeclado(41);
+            }
+        }
+        System.out.println("Entrada: pantalla=" + pantalla + "cambios=" + cpu.getCambiosContexto()
+                + " ciclos en cambios=" + cpu.getCiclosEnCambios());
+        if (!pantalla.toString().equals("42 ")) {
+            throw new AssertionError("El proceso no leyó la entrada: " + pantalla);
+        }
+        if (cpu.getCambiosContexto() != 1 || cpu.getCiclosEnCambios() != 2) {
+            throw new AssertionError("Volver al mismo núcleo se cobró como cambio de contexto");
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package unittesting;
+
+import almacenamiento.UnidadDeAlmacenamiento;
+import cpu.CPU;
+import java.util.Arrays;
+import java.util.List;
+import memoria.MemoriaPrincipal;
+import procesos.BCP;
+import procesos.Planificador;
+import procesos.PlanificadorMedianoPlazo;
+import procesos.PoliticaFIFO;
+import sistema.RelojVirtual;
+
+/**
+ *
+ * @author dylan
+ */
+public class TestMedianoPlazo {
+    public static void main(String[] args) {
+        UnidadDeAlmacenamiento disco = new UnidadDeAlmacenamiento(64, 16);
+        disco.agregarPrograma("Entrada", Arrays.asList("MOV DX, 0", "INT 09H", "INC DX", "INT 10H", "INT 20H"));
+        for (int i = 2; i <= 4; i++) {
+            disco.agregarPrograma("P" + i, Arrays.asList("MOV AX, " + i, "MOV DX, AX", "INT 10H", "INT 20H"));
+        }
+
+        // Sección SO para 2 BCPs y grado de multiprogramación 2
+        MemoriaPrincipal memoria = new MemoriaPrincipal(84, 54);
+        RelojVirtual reloj = new RelojVirtual();
+        Planificador planificador = new Planificador(1, new PoliticaFIFO(), reloj);
+        PlanificadorMedianoPlazo medio = new PlanificadorMedianoPlazo(planificador, memoria, disco, 2);
+        CPU cpu = new CPU(0, memoria, planificador, disco, null);
+        StringBuilder pantalla = new StringBuilder();
+        cpu.setPantallaCallback(texto -> pantalla.append(texto.trim()).append(' '));
+
+        BCP.reiniciarContadorPID();
+        for (String nombre : disco.getProgramas().stream().sorted().toArray(String[]::new)) {
+            medio.admitir(new BCP(nombre, -1, disco.getEntrada(nombre).getLongitud(), 1));
+        }
+        System.out.println("Admitidos: " + nombres(planificador.getColaListos()) + " | nuevos: " + nombres(medio.getNuevos()));
+
+        for (int ciclo = 0; ciclo < 40 && !(planificador.estaVacio() && medio.estaVacio()); ciclo++) {
+            if (ciclo == 12) {
+                System.out.println("  entrada 41 -> " + medio.entregarEntrada(0, 41));
+            }
+            medio.balancear();
+            planificador.despacharProcesos();
+            memoria.iniciarCiclo();
+            cpu.ejecutarCiclo();
+            reloj.avanzar(1);
+
+            BCP actual = planificador.getProcesoCPU(0);
+            System.out.println(String.format("%2d CPU=%-8s suspendidos=%s", ciclo,
+                    actual != null ? actual.getNombreArchivo() : "-", nombres(medio.getSuspendidos())));
+        }
+        System.out.println("Pantalla: " + pantalla);
+        System.out.println("Suspensiones: " + medio.getSuspensiones() + ", reanudaciones: " + medio.getReanudaciones()
+                + ", memoria virtual libre: " + disco.getMemoriaVirtualLibre() + "/" + disco.getMemoriaVirtual()
+                + ", procesos cargados: " + memoria.getProcesosCargados());
+
+        intercambioConPaginacion();
+    }
+
+    /**
+     * Con paginación el proceso reanudado vuelve en otros marcos: su TLB no
+     * puede seguir traduciendo a los marcos viejos
+     */
+    private static void intercambioConPaginacion() {
+        UnidadDeAlmacenamiento disco = new UnidadDeAlmacenamiento(64, 16);
+        // Después de la entrada vuelve a la página 0 en un ciclo
+        disco.agregarPrograma("A", Arrays.asList("INT 09H", "INC AX", "MOV BX, 3", "CMP AX, BX", "JNE -3", "INT 10H", "INT 20H"));
+        disco.agregarPrograma("B", Arrays.asList("MOV DX, 2", "INT 10H", "INT 20H"));
+        disco.agregarPrograma("C", Arrays.asList("MOV CX, 30", "MOV AX, 0", "INC AX", "CMP AX, CX", "JNE -2",
+                "MOV DX, AX", "INT 10H", "INT 20H"));
+        disco.agregarPrograma("D", Arrays.asList("MOV DX, 4", "INT 10H", "INT 20H"));
+
+        // 10 marcos de 2 celdas
+        MemoriaPrincipal memoria = new MemoriaPrincipal(74, 54, 2);
+        RelojVirtual reloj = new RelojVirtual();
+        Planificador planificador = new Planificador(1, new PoliticaFIFO(), reloj);
+        PlanificadorMedianoPlazo medio = new PlanificadorMedianoPlazo(planificador, memoria, disco, 2);
+        CPU cpu = new CPU(0, memoria, planificador, disco, null, 16);
+        planificador.setGuardadoContexto((slot, proceso) -> cpu.guardarContexto(proceso));
+        memoria.setInvalidacionTLB((pid, pagina) -> {
+            if (pagina == MemoriaPrincipal.TODAS_LAS_PAGINAS) {
+                cpu.getTLB().invalidar(pid);
+            } else {
+                cpu.getTLB().invalidar(pid, pagina);
+            }
+        });
+        StringBuilder pantalla = new StringBuilder();
+        cpu.setPantallaCallback(texto -> pantalla.append(texto.trim()).append(' '));
+
+        BCP.reiniciarContadorPID();
+        for (String nombre : new String[] {"A", "B", "C", "D"}) {
+            medio.admitir(new BCP(nombre, -1, disco.getEntrada(nombre).getLongitud(), 1));
+        }
+        int ciclo = 0;
+        for (; ciclo < 400 && !(planificador.estaVacio() && medio.estaVacio()); ciclo++) {
+            if (ciclo == 40) {
+                medio.entregarEntrada(0, 7);
+            }
+            medio.balancear();
+            planificador.despacharProcesos();
+            memoria.iniciarCiclo();
+            cpu.ejecutarCiclo();
+            reloj.avanzar(1);
+        }
+        System.out.println("Con paginación: pantalla=" + pantalla + "ciclos=" + ciclo
+                + " suspensiones=" + medio.getSuspensiones() + " reanudaciones=" + medio.getReanudaciones());
+        if (medio.getReanudaciones() == 0 || !pantalla.toString().equals("2 30 4 7 ")) {
+            throw new AssertionError("El proceso reanudado usó traducciones a sus marcos viejos");
+        }
+    }
+
+    private static String nombres(List<BCP> procesos) {
+        StringBuilder sb = new StringBuilder("[");
+        for (BCP bcp : procesos) {
+            sb.append(sb.length() > 1 ? ", " : "").append(bcp.getNombreArchivo()).append(' ').append(bcp.getEstado());
+        }
+        return sb.append(']').toString();
+    }
+}
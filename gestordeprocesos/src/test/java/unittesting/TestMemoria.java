@@ -4,6 +4,7 @@ package unittesting;
 import almacenamiento.UnidadDeAlmacenamiento;
 import instrucciones.Instruccion;
 import instrucciones.InstructionParser;
+import memoria.DisposicionBCP;
 import memoria.MemoriaPrincipal;
 import procesos.BCP;
 
@@ -51,9 +52,10 @@ public class TestMemoria {
         ua.mostrarAlmacenamiento();
         
         // memoria principal
-        MemoriaPrincipal memoria = new MemoriaPrincipal(100, 70);
+        MemoriaPrincipal memoria = new MemoriaPrincipal(111, 81);
         
         // Instrucciones y  BCP
+        BCP primero = null;
         for (String nombre : nombres) {
             List<String> codigoDisco = ua.leerPrograma(nombre);
             if (codigoDisco == null) continue;
@@ -65,7 +67,11 @@ public class TestMemoria {
             BCP bcp = new BCP(nombre, memoria.getTamanioSO(), instrucciones.size(), 1);
 
             // Cargar BCP en memoria SO
-            memoria.cargarBCP(bcp);
+            bcp.setDireccionBCPEnMemoria(memoria.cargarBCP(bcp));
+            bcp.setMemoriaReferencia(memoria);
+            if (primero == null) {
+                primero = bcp;
+            }
 
             // Cargar instrucciones en memoria usuario
             int dirUsuario = memoria.cargarProgramaUsuario(instrucciones);
@@ -74,14 +80,49 @@ public class TestMemoria {
 
         // Mostrar estado de memoria
         System.out.println("=== Memoria Principal (resumen) ===");
-        Object[] mem = memoria.getMemoria();
-        for (int i = 0; i < mem.length; i++) {
-            Object celda = mem[i];
+        List<Object> mem = memoria.getMemoria();
+        for (int i = 0; i < mem.size(); i++) {
+            Object celda = mem.get(i);
             if (celda != null) {
                 System.out.println("[" + i + "] " + celda);
             } else {
                 System.out.println("[" + i + "] 0");
             }
-        }       
+        }
+
+        // Los cambios del proceso llegan a memoria al guardar el contexto
+        int dir = primero.getDireccionBCPEnMemoria();
+        primero.setAx(7);
+        primero.setTiempoEmpleado(5_000_000_000L);
+        System.out.println("AX antes de guardar: " + memoria.leerCampoBCP(dir, DisposicionBCP.AX));
+        primero.guardarContexto();
+        long ax = memoria.leerCampoBCP(dir, DisposicionBCP.AX);
+        long tiempo = memoria.leerCampoBCP(dir, DisposicionBCP.TIEMPO_EMPLEADO);
+        System.out.println("AX: " + ax + ", tiempo empleado: " + tiempo
+                + ", campos pendientes: " + primero.getCamposModificados());
+        if (ax != 7 || tiempo != 5_000_000_000L || primero.getCamposModificados() != 0) {
+            throw new AssertionError("El BCP no se guardó en memoria");
+        }
+
+        // Pila de profundidad 8: el BCP ocupa 3 celdas más que con la de 5
+        MemoriaPrincipal otra = new MemoriaPrincipal(40, 30);
+        BCP profundo = new BCP("Profundo", -1, 1, 1, 8);
+        int dirProfundo = otra.cargarBCP(profundo);
+        profundo.setDireccionBCPEnMemoria(dirProfundo);
+        profundo.setMemoriaReferencia(otra);
+        for (int i = 1; i <= 8; i++) {
+            profundo.pushPila(i * 10);
+        }
+        profundo.guardarContexto();
+        List<Object> celdas = otra.getMemoria();
+        int inicioPila = dirProfundo + DisposicionBCP.PILA.getDesplazamiento();
+        System.out.println("Pila: " + profundo.getPilaComoTexto() + " -> " + celdas.get(inicioPila)
+                + " elementos, tope en celda " + (inicioPila + 8) + " = " + celdas.get(inicioPila + 8));
+        try {
+            profundo.pushPila(90);
+            throw new AssertionError("La pila aceptó más elementos que su profundidad");
+        } catch (RuntimeException e) {
+            System.out.println("PUSH con la pila llena: " + e.getMessage());
+        }
     }    
 }
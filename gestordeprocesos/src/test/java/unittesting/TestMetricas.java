@@ -0,0 +1,91 @@
+package unittesting;
+
+import almacenamiento.UnidadDeAlmacenamiento;
+import cpu.CPU;
+import instrucciones.Opcode;
+import java.util.Arrays;
+import memoria.MemoriaPrincipal;
+import metricas.Histograma;
+import metricas.MetricasProceso;
+import metricas.RegistroMetricas;
+import procesos.BCP;
+import procesos.Planificador;
+import procesos.TipoPolitica;
+import sistema.RelojVirtual;
+
+/**
+ *
+ * @author dylan
+ */
+public class TestMetricas {
+    public static void main(String[] args) {
+        // Percentiles: exactos bajo 16, con error acotado por encima
+        Histograma histograma = new Histograma();
+        for (int i = 1; i <= 100; i++) {
+            histograma.registrar(i);
+        }
+        System.out.println("Histograma: " + histograma);
+        if (histograma.getPercentil(10) != 10 || histograma.getMaximo() != 100 || histograma.getPercentil(100) != 100) {
+            throw new AssertionError("Percentiles incorrectos");
+        }
+        long p90 = histograma.getPercentil(90);
+        if (p90 < 90 || p90 > 90 * 1.125) {
+            throw new AssertionError("p90 fuera del error de la cubeta: " + p90);
+        }
+
+        // Dos procesos en un núcleo con round robin
+        UnidadDeAlmacenamiento disco = new UnidadDeAlmacenamiento(64, 8);
+        disco.agregarPrograma("A", Arrays.asList("MOV AX, 1", "INC AX", "INC AX", "INT 20H"));
+        disco.agregarPrograma("B", Arrays.asList("MOV BX, 2", "DEC BX", "INT 20H"));
+
+        BCP.reiniciarContadorPID();
+        MemoriaPrincipal memoria = new MemoriaPrincipal(100, 60);
+        RelojVirtual reloj = new RelojVirtual();
+        RegistroMetricas metricas = new RegistroMetricas(reloj, 1);
+        Planificador planificador = new Planificador(1, TipoPolitica.ROUND_ROBIN.crear(2), reloj);
+        CPU cpu = new CPU(0, memoria, planificador, disco, null);
+        cpu.setMetricas(metricas);
+        planificador.setGuardadoContexto((slot, proceso) -> cpu.guardarContexto(proceso));
+
+        BCP a = new BCP("A", -1, 4, 1);
+        BCP b = new BCP("B", -1, 3, 1);
+        metricas.procesoCreado(a.getPid(), "A");
+        metricas.procesoCreado(b.getPid(), "B");
+        planificador.agregarProcesoListo(a);
+        planificador.agregarProcesoListo(b);
+        while (!planificador.estaVacio() && reloj.getTicks() < 100) {
+            planificador.despacharProcesos();
+            cpu.ejecutarCiclo();
+            reloj.avanzar(1);
+        }
+        metricas.procesoFinalizado(a.getPid());
+        metricas.procesoFinalizado(b.getPid());
+
+        MetricasProceso ma = metricas.getProceso(a.getPid());
+        MetricasProceso mb = metricas.getProceso(b.getPid());
+        System.out.println("A: instrucciones=" + ma.getInstrucciones() + " respuesta=" + ma.getRespuesta()
+                + " cambios=" + ma.getCambiosContexto());
+        System.out.println("B: instrucciones=" + mb.getInstrucciones() + " respuesta=" + mb.getRespuesta()
+                + " cambios=" + mb.getCambiosContexto());
+        if (ma.getInstrucciones() != 4 || mb.getInstrucciones() != 3) {
+            throw new AssertionError("Instrucciones por proceso incorrectas");
+        }
+        if (ma.getRespuesta() != 0 || mb.getRespuesta() <= 0) {
+            throw new AssertionError("El segundo proceso debió esperar su primera ráfaga");
+        }
+        if (metricas.getNucleo(0).getInstrucciones() != 7 || metricas.getOpcode(Opcode.INC) != 2) {
+            throw new AssertionError("Contadores del núcleo incorrectos");
+        }
+        if (metricas.getRetorno().getCantidad() != 2) {
+            throw new AssertionError("Faltan procesos en el histograma de retorno");
+        }
+
+        String texto = metricas.aPrometheus();
+        if (!texto.contains("simulador_opcode_total{nucleo=\"0\",opcode=\"INC\"} 2")
+                || !texto.contains("simulador_retorno_ticks_count 2")) {
+            System.out.println(texto);
+            throw new AssertionError("Exportación Prometheus incompleta");
+        }
+        System.out.println("Exportación: " + texto.lines().count() + " líneas");
+    }
+}
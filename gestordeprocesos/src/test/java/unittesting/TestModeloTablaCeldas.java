@@ -0,0 +1,47 @@
+package unittesting;
+
+import instrucciones.InstructionParser;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import memoria.MemoriaPrincipal;
+import javax.swing.event.TableModelEvent;
+import view.ModeloTablaCeldas;
+
+/**
+ *
+ * @author gadyr
+ */
+public class TestModeloTablaCeldas {
+    public static void main(String[] args) {
+        MemoriaPrincipal memoria = new MemoriaPrincipal(100, 40);
+        ModeloTablaCeldas modelo = new ModeloTablaCeldas("Value in memory", "NULL",
+                memoria::getMemoria, memoria::tomarCeldasModificadas);
+        List<String> eventos = new ArrayList<>();
+        modelo.addTableModelListener(e -> eventos.add(
+                e.getFirstRow() == TableModelEvent.HEADER_ROW || e.getLastRow() == Integer.MAX_VALUE
+                        ? "todo" : e.getFirstRow() + "-" + e.getLastRow()));
+
+        int base = memoria.cargarProgramaUsuario(Arrays.asList(
+                InstructionParser.parse("MOV AX, 1"), InstructionParser.parse("INC AX"), InstructionParser.parse("INT 20H")));
+        modelo.refrescar();
+        System.out.println("Filas: " + modelo.getRowCount() + " eventos: " + eventos);
+        System.out.println("Celda " + base + ": " + modelo.getValueAt(base, 1) + ", celda 99: " + modelo.getValueAt(99, 1));
+        if (!eventos.equals(List.of(base + "-" + (base + 2)))) {
+            throw new AssertionError("Se esperaba solo el rango del programa cargado");
+        }
+
+        eventos.clear();
+        modelo.refrescar();
+        if (!eventos.isEmpty()) {
+            throw new AssertionError("Sin cambios no debe avisar filas: " + eventos);
+        }
+
+        memoria.liberarPrograma(base);
+        modelo.refrescar();
+        System.out.println("Después de liberar: " + eventos + " celda " + base + ": " + modelo.getValueAt(base, 1));
+        if (!eventos.equals(List.of(base + "-" + (base + 2))) || !"NULL".equals(modelo.getValueAt(base, 1))) {
+            throw new AssertionError("La liberación no se reflejó en la tabla");
+        }
+    }
+}
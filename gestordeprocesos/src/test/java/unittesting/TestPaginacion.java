@@ -0,0 +1,114 @@
+package unittesting;
+
+import almacenamiento.UnidadDeAlmacenamiento;
+import cpu.TLB;
+import instrucciones.Instruccion;
+import instrucciones.InstructionParser;
+import java.util.Arrays;
+import java.util.List;
+import memoria.MemoriaPrincipal;
+import memoria.PoliticaReemplazo;
+import procesos.BCP;
+
+/**
+ *
+ * @author dylan
+ */
+public class TestPaginacion {
+    public static void main(String[] args) {
+        // 40 celdas de usuario en marcos de 4
+        MemoriaPrincipal memoria = new MemoriaPrincipal(100, 60, 4);
+
+        List<Instruccion> programa = InstructionParser.parseAll(Arrays.asList(
+                "MOV AX, 1", "MOV BX, 2", "ADD BX", "MOV DX, AC",
+                "INT 10H", "INC AX", "INT 20H"));
+
+        BCP a = new BCP("A", -1, programa.size(), 1);
+        BCP b = new BCP("B", -1, programa.size(), 1);
+        memoria.cargarProgramaProceso(a, programa);
+        memoria.cargarProgramaProceso(b, programa);
+        System.out.println("Páginas A: " + a.getTablaPaginas() + "  B: " + b.getTablaPaginas());
+        System.out.println("Marcos libres: " + memoria.getMarcosLibres() + "/" + memoria.getCantidadMarcos()
+                + " | fragmentación interna: " + memoria.getFragmentacionInterna());
+
+        // Traducir todas las direcciones lógicas de B pasando por una TLB de 2 entradas
+        TLB tlb = new TLB(2);
+        for (int vuelta = 0; vuelta < 2; vuelta++) {
+            for (int logica = 0; logica < b.getTamanio(); logica++) {
+                int pagina = logica / memoria.getTamanioPagina();
+                int marco = tlb.buscar(b.getPid(), pagina);
+                if (marco < 0) {
+                    marco = b.getTablaPaginas().getMarco(pagina);
+                    tlb.insertar(b.getPid(), pagina, marco);
+                }
+                int fisica = memoria.direccionMarco(marco) + logica % memoria.getTamanioPagina();
+                if (vuelta == 0) {
+                    System.out.println("  B[" + logica + "] -> " + fisica + ": " + memoria.leerInstruccionUsuario(fisica));
+                }
+            }
+        }
+        System.out.println("TLB: " + tlb.getAciertos() + " aciertos, " + tlb.getFallos() + " fallos");
+
+        // Otro hilo invalida el proceso: la TLB lo aplica en su siguiente uso
+        tlb.insertar(a.getPid(), 0, a.getTablaPaginas().getMarco(0));
+        Thread otroNucleo = new Thread(() -> tlb.invalidar(b.getPid()));
+        otroNucleo.start();
+        try {
+            otroNucleo.join();
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+        if (tlb.buscar(b.getPid(), 0) >= 0 || tlb.buscar(b.getPid(), 1) >= 0
+                || tlb.buscar(a.getPid(), 0) != a.getTablaPaginas().getMarco(0)) {
+            throw new AssertionError("La invalidación de otro hilo no se aplicó solo al proceso");
+        }
+        // Una página desalojada (o un proceso suspendido) desde otro hilo: igual
+        tlb.insertar(b.getPid(), 0, b.getTablaPaginas().getMarco(0));
+        tlb.insertar(b.getPid(), 1, b.getTablaPaginas().getMarco(1));
+        Thread desalojo = new Thread(() -> tlb.invalidar(b.getPid(), 0));
+        desalojo.start();
+        try {
+            desalojo.join();
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+        if (tlb.buscar(b.getPid(), 0) >= 0 || tlb.buscar(b.getPid(), 1) != b.getTablaPaginas().getMarco(1)) {
+            throw new AssertionError("La invalidación de la página desde otro hilo no se aplicó");
+        }
+
+        // Paginación bajo demanda: 3 marcos para un programa de 4 páginas
+        List<String> lineas = Arrays.asList(
+                "MOV AX, 1", "MOV BX, 2", "ADD BX", "MOV DX, AC",
+                "INT 10H", "INC AX", "MOV CX, 3", "DEC CX",
+                "PUSH AX", "POP BX", "MOV DX, BX", "INT 10H",
+                "INT 20H");
+        int[] referencias = {0, 1, 2, 0, 3, 0, 1, 2, 3, 0};
+        for (PoliticaReemplazo politica : PoliticaReemplazo.values()) {
+            UnidadDeAlmacenamiento disco = new UnidadDeAlmacenamiento(64, 8);
+            disco.agregarPrograma("demanda", lineas);
+            MemoriaPrincipal virtual = new MemoriaPrincipal(72, 60, 4);
+            virtual.activarMemoriaVirtual(disco, politica);
+
+            BCP c = new BCP("demanda", -1, lineas.size(), 1);
+            virtual.cargarProgramaProceso(c, InstructionParser.parseAll(lineas));
+            for (int pagina : referencias) {
+                virtual.iniciarCiclo();
+                if (!virtual.referenciarPagina(c, pagina)) {
+                    virtual.cargarPagina(c, pagina);
+                }
+            }
+            System.out.println(politica + ": " + virtual.getFallosPagina() + " fallos, "
+                    + virtual.getDesalojos() + " desalojos, " + virtual.getEscriturasVirtual() + " escritas, "
+                    + virtual.getLecturasVirtual() + " leídas de swap | tabla " + c.getTablaPaginas());
+
+            // La página 3 tiene una sola instrucción
+            int marco = c.getTablaPaginas().getMarco(3);
+            if (marco >= 0) {
+                System.out.println("  página 3 -> " + virtual.leerInstruccionUsuario(virtual.direccionMarco(marco)));
+            }
+            virtual.liberarPrograma(c);
+            System.out.println("  al liberar: marcos libres " + virtual.getMarcosLibres()
+                    + ", memoria virtual libre " + disco.getMemoriaVirtualLibre() + "/" + disco.getMemoriaVirtual());
+        }
+    }
+}
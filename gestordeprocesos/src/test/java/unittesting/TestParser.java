@@ -1,6 +1,12 @@
 package unittesting;
 
 import instrucciones.*;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import sistema.CargadorProgramas;
 
 /**
  *
@@ -24,14 +30,132 @@ public class TestParser {
             "; Esto es un comentario"
         };
 
+        PoolOperandos pool = new PoolOperandos();
+        List<Instruccion> programa = new ArrayList<>();
         for (String linea : ejemplos) {
             try {
                 Instruccion inst = InstructionParser.parse(linea);
-                IR ir = new IR(inst);
+                IR ir = new IR(inst, pool);
                 System.out.println(inst + " -> IR=" + ir.getBinario());
+                programa.add(inst);
             } catch (Exception e) {
                 System.out.println("Error: " + e.getMessage());
             }
         }
+
+        // Los operandos pasan a int al leerlos: el texto queda normalizado
+        Instruccion normal = InstructionParser.parse(new StringBuilder("  mov ax , +5 ; x"));
+        Instruccion salto = InstructionParser.parse("jne -7,");
+        if (!normal.toString().equals("MOV AX, 5") || !salto.toString().equals("JNE -7")
+                || normal.getDecodificada().getB() != 5 || salto.getDecodificada().getA() != -7) {
+            throw new AssertionError("Operandos mal leídos: " + normal + ", " + salto);
+        }
+        try {
+            InstructionParser.parse("MOV AX,,5");
+            throw new AssertionError("Se aceptó un operando vacío");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+
+        // Guardar y volver a leer como binario
+        try {
+            File archivo = File.createTempFile("programa", ProgramaBinario.EXTENSION);
+            archivo.deleteOnExit();
+            ProgramaBinario.guardar(archivo, programa);
+            List<Instruccion> leido = ProgramaBinario.cargar(archivo);
+            boolean iguales = leido.size() == programa.size();
+            for (int i = 0; iguales && i < leido.size(); i++) {
+                iguales = leido.get(i).codificar(pool) == programa.get(i).codificar(pool);
+            }
+            System.out.println("Binario: " + archivo.length() + " bytes, "
+                    + leido.size() + " instrucciones, iguales = " + iguales);
+        } catch (Exception e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+
+        // Constantes de 32 bits: las que no caben en la palabra van al pool
+        String[] anchos = {
+            "MOV AX, 5000000",
+            "MOV BX, -2147483648",
+            "PARAM 200, 1, 2",
+            "PARAM 5000, 7",
+            "PARAM 2147483647",
+            "JMP +100000000"
+        };
+        List<Instruccion> programaAncho = new ArrayList<>();
+        for (String linea : anchos) {
+            Instruccion inst = InstructionParser.parse(linea);
+            IR ir = new IR(inst, pool);
+            String leido = CodificadorInstruccion.decodificar(ir.getPalabra(), pool).toString();
+            System.out.println(inst + " -> " + leido + " (pool: " + CodificadorInstruccion.usaPool(ir.getPalabra()) + ")");
+            if (!leido.equals(linea)) {
+                throw new AssertionError("La constante no se conservó: " + linea + " -> " + leido);
+            }
+            programaAncho.add(inst);
+        }
+        IR mov = new IR(programaAncho.get(0), pool);
+        IR param = new IR(programaAncho.get(2), pool);
+        if (mov.getValor() != 5000000 || param.getValorParam(0) != 200 || param.getValorParam(2) != 2) {
+            throw new AssertionError("El IR no decodifica los valores del pool");
+        }
+        // Cada memoria tiene su pool: otra empieza vacía y no ve estos valores
+        PoolOperandos otro = new PoolOperandos();
+        int palabraOtro = programaAncho.get(0).codificar(otro);
+        if (otro.getCantidad() != 1 || CodificadorInstruccion.indicePool(palabraOtro) != 0
+                || new IR(programaAncho.get(0), otro).getValor() != 5000000) {
+            throw new AssertionError("Los pools de operandos no son independientes");
+        }
+        try {
+            File archivo = File.createTempFile("programa", ProgramaBinario.EXTENSION);
+            archivo.deleteOnExit();
+            ProgramaBinario.guardar(archivo, programaAncho);
+            List<Instruccion> leido = ProgramaBinario.cargar(archivo);
+            for (int i = 0; i < anchos.length; i++) {
+                if (!leido.get(i).toString().equals(anchos[i])) {
+                    throw new AssertionError("El binario no conservó: " + anchos[i]);
+                }
+            }
+            System.out.println("Binario con pool: " + archivo.length() + " bytes");
+        } catch (java.io.IOException e) {
+            throw new AssertionError(e);
+        }
+
+        // El nombre en disco quita solo la última extensión, .asm o .bin
+        try {
+            Path dir = Files.createTempDirectory("nombres");
+            File binario = dir.resolve("suma" + ProgramaBinario.EXTENSION).toFile();
+            File texto = dir.resolve("v1.asm.asm").toFile();
+            ProgramaBinario.guardar(binario, programa);
+            Files.write(texto.toPath(), List.of("MOV AX, 5", "INT 20H"));
+            String deBinario = CargadorProgramas.cargar(binario).getNombre();
+            String deTexto = CargadorProgramas.cargar(texto).getNombre();
+            binario.delete();
+            texto.delete();
+            dir.toFile().delete();
+            System.out.println("Nombres: " + deBinario + ", " + deTexto);
+            if (!deBinario.equals("suma") || !deTexto.equals("v1.asm")) {
+                throw new AssertionError("Nombre mal recortado: " + deBinario + ", " + deTexto);
+            }
+        } catch (java.io.IOException e) {
+            throw new AssertionError(e);
+        }
+
+        // Caché de programas: el segundo parseo del mismo contenido es un acierto
+        CacheProgramas cache = new CacheProgramas(2);
+        List<String> p1 = List.of("MOV AX, 5", "INC AX");
+        List<String> p2 = List.of("MOV BX, 1");
+        List<String> malo = List.of("FOO AX");
+        cache.obtener(p1);
+        cache.obtener(new ArrayList<>(p1));
+        cache.obtener(p2);
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.obtener(malo);
+            } catch (IllegalArgumentException e) {
+                System.out.println("Error en caché: " + e.getMessage());
+            }
+        }
+        cache.obtener(p1);
+        System.out.println(cache);
     }
 }
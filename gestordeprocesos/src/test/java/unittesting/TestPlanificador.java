@@ -0,0 +1,112 @@
+package unittesting;
+
+import almacenamiento.UnidadDeAlmacenamiento;
+import cpu.CPU;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import memoria.MemoriaPrincipal;
+import procesos.BCP;
+import procesos.Planificador;
+import procesos.TipoPolitica;
+import sistema.CargadorProgramas;
+import sistema.RelojVirtual;
+
+/**
+ *
+ * @author dylan
+ */
+public class TestPlanificador {
+    public static void main(String[] args) {
+        for (TipoPolitica tipo : TipoPolitica.values()) {
+            BCP.reiniciarContadorPID();
+            RelojVirtual reloj = new RelojVirtual();
+            Planificador planificador = new Planificador(1, tipo.crear(2), reloj);
+
+            // nombre, costo estimado, prioridad
+            Object[][] procesos = {
+                {"Largo", 9, 3},
+                {"Corto", 2, 2},
+                {"Medio", 5, 1}
+            };
+            for (Object[] datos : procesos) {
+                BCP bcp = new BCP((String) datos[0], 0, 100, (Integer) datos[2]);
+                bcp.setCostoEstimado((Integer) datos[1]);
+                planificador.agregarProcesoListo(bcp);
+            }
+
+            // Simular un CPU: cada ciclo consume 1 de costo del proceso en ejecución
+            StringBuilder traza = new StringBuilder();
+            while (!planificador.estaVacio()) {
+                planificador.despacharProcesos();
+                BCP actual = planificador.getProcesoCPU(0);
+                traza.append(actual.getNombreArchivo().charAt(0));
+                actual.registrarEjecucion(1);
+                if (actual.getCostoRestante() == 0) {
+                    planificador.finalizarProceso(0);
+                }
+                reloj.avanzar(1);
+            }
+            System.out.println(String.format("%-12s %s", planificador.getPolitica().getNombre(), traza));
+        }
+        prioridadDesdeArchivo();
+    }
+
+    /**
+     * La directiva "; PRIORIDAD n" del archivo llega al BCP y cambia el orden
+     * de despacho: con FIFO termina primero el que llegó primero, con
+     * PRIORIDAD el de menor valor
+     */
+    private static void prioridadDesdeArchivo() {
+        try {
+            File lento = File.createTempFile("lento", ".asm");
+            File urgente = File.createTempFile("urgente", ".asm");
+            File malo = File.createTempFile("malo", ".asm");
+            Files.write(lento.toPath(), List.of("MOV DX, 1", "INT 10H", "INT 20H"));
+            Files.write(urgente.toPath(), List.of("; PRIORIDAD 0", "MOV DX, 2", "INT 10H", "INT 20H"));
+            Files.write(malo.toPath(), List.of("; prioridad alta", "INT 20H"));
+            CargadorProgramas.Programa[] programas = {CargadorProgramas.cargar(lento), CargadorProgramas.cargar(urgente)};
+            CargadorProgramas.Programa invalido = CargadorProgramas.cargar(malo);
+            for (File archivo : new File[]{lento, urgente, malo}) {
+                archivo.delete();
+            }
+            if (programas[0].getPrioridad() != BCP.PRIORIDAD_POR_DEFECTO || programas[1].getPrioridad() != 0) {
+                throw new AssertionError("No se leyó la directiva de prioridad");
+            }
+            if (invalido.esValido()) {
+                throw new AssertionError("Se aceptó una prioridad que no es número");
+            }
+
+            for (TipoPolitica tipo : new TipoPolitica[]{TipoPolitica.FIFO, TipoPolitica.PRIORIDAD}) {
+                UnidadDeAlmacenamiento disco = new UnidadDeAlmacenamiento(64, 8);
+                BCP.reiniciarContadorPID();
+                MemoriaPrincipal memoria = new MemoriaPrincipal(100, 60);
+                RelojVirtual reloj = new RelojVirtual();
+                Planificador planificador = new Planificador(1, tipo.crear(2), reloj);
+                CPU cpu = new CPU(0, memoria, planificador, disco, null);
+                planificador.setGuardadoContexto((slot, proceso) -> cpu.guardarContexto(proceso));
+                StringBuilder pantalla = new StringBuilder();
+                cpu.setPantallaCallback(texto -> pantalla.append(texto.trim()).append(' '));
+
+                for (CargadorProgramas.Programa programa : programas) {
+                    disco.agregarPrograma(programa.getNombre(), programa.getLineas());
+                    planificador.agregarProcesoListo(new BCP(programa.getNombre(), -1,
+                            programa.getInstrucciones().size(), programa.getPrioridad()));
+                }
+                while (!planificador.estaVacio() && reloj.getTicks() < 100) {
+                    planificador.despacharProcesos();
+                    cpu.ejecutarCiclo();
+                    reloj.avanzar(1);
+                }
+                System.out.println(String.format("%-12s pantalla=%s", tipo, pantalla));
+                String esperado = tipo == TipoPolitica.FIFO ? "1 2 " : "2 1 ";
+                if (!pantalla.toString().equals(esperado)) {
+                    throw new AssertionError(tipo + " despachó en otro orden: " + pantalla);
+                }
+            }
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
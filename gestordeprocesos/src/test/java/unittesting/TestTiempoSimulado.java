@@ -0,0 +1,55 @@
+package unittesting;
+
+import almacenamiento.UnidadDeAlmacenamiento;
+import cpu.CPU;
+import java.util.Arrays;
+import memoria.MemoriaPrincipal;
+import procesos.BCP;
+import procesos.Planificador;
+import procesos.TipoPolitica;
+import sistema.RelojVirtual;
+
+/**
+ *
+ * @author gadyr
+ */
+public class TestTiempoSimulado {
+    public static void main(String[] args) {
+        // MOV pesa 1, ADD 3 e INT 2: A ocupa 6 ticks y B 3
+        UnidadDeAlmacenamiento disco = new UnidadDeAlmacenamiento(64, 8);
+        disco.agregarPrograma("A", Arrays.asList("MOV AX, 1", "ADD AX", "INT 20H"));
+        disco.agregarPrograma("B", Arrays.asList("MOV BX, 2", "INT 20H"));
+
+        BCP.reiniciarContadorPID();
+        MemoriaPrincipal memoria = new MemoriaPrincipal(100, 60);
+        RelojVirtual reloj = new RelojVirtual();
+        Planificador planificador = new Planificador(1, TipoPolitica.ROUND_ROBIN.crear(2), reloj);
+        CPU cpu = new CPU(0, memoria, planificador, disco, null);
+        planificador.setGuardadoContexto((slot, proceso) -> cpu.guardarContexto(proceso));
+
+        BCP a = new BCP("A", -1, 3, 1);
+        BCP b = new BCP("B", -1, 2, 1);
+        planificador.agregarProcesoListo(a);
+        planificador.agregarProcesoListo(b);
+        while (!planificador.estaVacio() && reloj.getTicks() < 100) {
+            planificador.despacharProcesos();
+            cpu.ejecutarCiclo();
+            reloj.avanzar(1);
+        }
+
+        // El quantum (2) se agota durante el ADD, pero A sigue hasta terminarlo
+        System.out.println("A: inicio=" + a.getTiempoInicio() + " fin=" + a.getTiempoFinalizacion()
+                + " empleado=" + a.getTiempoEmpleado());
+        System.out.println("B: inicio=" + b.getTiempoInicio() + " fin=" + b.getTiempoFinalizacion()
+                + " empleado=" + b.getTiempoEmpleado());
+        if (a.getTiempoEmpleado() != 6 || b.getTiempoEmpleado() != 3) {
+            throw new AssertionError("Los ticks en CPU no suman los pesos");
+        }
+        if (a.getTiempoInicio() != 0 || b.getTiempoInicio() != 4 || b.getTiempoFinalizacion() != 7) {
+            throw new AssertionError("A se expropió a mitad de una instrucción");
+        }
+        if (a.getTiempoFinalizacion() != 9 || reloj.getTicks() != 9) {
+            throw new AssertionError("Tiempo de fin incorrecto");
+        }
+    }
+}
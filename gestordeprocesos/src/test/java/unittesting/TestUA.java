@@ -76,5 +76,13 @@ public class TestUA {
 
         // Mostrar estado del almacenamiento
         ua.mostrarAlmacenamiento();
+
+        // Eliminar un programa y agregar otro en el hueco, sin reescribir el disco
+        ua.eliminarPrograma("Programa1");
+        ua.agregarPrograma("Programa4", Arrays.asList("MOV AX, 1", "INT 20H"));
+        System.out.println("Programa4 -> " + ua.getEntrada("Programa4"));
+        System.out.println("Programa4 -> " + ua.leerPrograma("Programa4"));
+        System.out.println("Programa1 existe: " + ua.existePrograma("Programa1"));
+        System.out.println("Celdas libres: " + ua.getEspacioLibre());
     }
 }